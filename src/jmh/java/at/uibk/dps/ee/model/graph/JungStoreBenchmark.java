@@ -0,0 +1,104 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * Compares enactment graphs which mirror their structure into the JUNG parent
+ * with graphs using the concurrent maps as the only store: the time (and, with
+ * the GC profiler, the memory allocated per operation) to build a chain of
+ * alternating data and function nodes, and the time of the JUNG neighbor
+ * queries which are answered from the concurrent maps.
+ *
+ * @author Fedor Smirnov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JungStoreBenchmark {
+
+  @Param({"false", "true"})
+  public boolean concurrentStoreOnly;
+
+  @Param({"100000"})
+  public int nodeNum;
+
+  protected Task[] nodes;
+  protected Dependency[] edges;
+  protected EnactmentGraph built;
+
+  /**
+   * Creates the nodes and the edges of the chain and a graph for the queries.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    nodes = new Task[nodeNum];
+    for (int idx = 0; idx < nodeNum; idx++) {
+      nodes[idx] = idx % 2 == 0 ? new Communication("data" + idx) : new Task("function" + idx);
+    }
+    edges = new Dependency[nodeNum - 1];
+    for (int idx = 0; idx < nodeNum - 1; idx++) {
+      edges[idx] = new Dependency("edge" + idx);
+    }
+    built = build();
+  }
+
+  /**
+   * Builds the chain graph node by node and edge by edge.
+   *
+   * @return the built graph
+   */
+  @Benchmark
+  public EnactmentGraph buildGraph() {
+    return build();
+  }
+
+  /**
+   * Queries the neighbors of every node of the chain graph.
+   *
+   * @param hole the blackhole consuming the query results
+   */
+  @Benchmark
+  public void queryNeighbors(final Blackhole hole) {
+    for (final Task node : nodes) {
+      hole.consume(built.getSuccessors(node));
+      hole.consume(built.getNeighborCount(node));
+      hole.consume(built.getIncidentEdges(node));
+    }
+  }
+
+  /**
+   * Builds the chain graph.
+   *
+   * @return the chain graph
+   */
+  protected EnactmentGraph build() {
+    final EnactmentGraph result = new EnactmentGraph(concurrentStoreOnly);
+    for (final Task node : nodes) {
+      result.addVertex(node);
+    }
+    for (int idx = 0; idx < edges.length; idx++) {
+      result.addEdge(edges[idx], nodes[idx], nodes[idx + 1], EdgeType.DIRECTED);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,130 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * Compares two ways of finding the executable function nodes of an enactment
+ * graph after the transmission of their inputs: scanning the in edges of every
+ * function for the transmission annotation and querying the
+ * {@link ReadinessTracker} (the pending input counts and the ready queue).
+ * Every second function has all its inputs transmitted, the others have one
+ * pending input.
+ *
+ * @author Fedor Smirnov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadinessBenchmark {
+
+  @Param({"1000"})
+  public int functionNum;
+
+  @Param({"1", "8", "64"})
+  public int inDegree;
+
+  protected EnactmentGraph graph;
+  protected Task[] functions;
+  protected Dependency[] lastInputs;
+  protected ReadinessTracker tracker;
+
+  /**
+   * Creates the graph, with the inputs of every function transmitted apart from
+   * the last input of every second function.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    graph = new EnactmentGraph(true);
+    functions = new Task[functionNum];
+    lastInputs = new Dependency[functionNum];
+    for (int func = 0; func < functionNum; func++) {
+      final Task function = new Task("function" + func);
+      functions[func] = function;
+      for (int input = 0; input < inDegree; input++) {
+        final Task data = new Communication("data" + func + "_" + input);
+        final Dependency edge =
+            PropertyServiceDependency.addDataDependency(data, function, "in" + input, graph);
+        if (input < inDegree - 1 || func % 2 == 0) {
+          PropertyServiceDependency.annotateFinishedTransmission(edge);
+        }
+        lastInputs[func] = edge;
+      }
+    }
+    tracker = graph.getReadinessTracker();
+    // the functions which are ready from the start are not polled again
+    Task polled = tracker.pollReadyTask();
+    while (polled != null) {
+      polled = tracker.pollReadyTask();
+    }
+  }
+
+  /**
+   * Finds the ready functions by scanning the in edges of every function.
+   *
+   * @param hole the blackhole consuming the ready functions
+   */
+  @Benchmark
+  public void scanInEdges(final Blackhole hole) {
+    for (final Task function : functions) {
+      boolean ready = true;
+      for (final Dependency inEdge : graph.getInEdges(function)) {
+        if (!PropertyServiceDependency.isTransmissionDone(inEdge)) {
+          ready = false;
+          break;
+        }
+      }
+      if (ready) {
+        hole.consume(function);
+      }
+    }
+  }
+
+  /**
+   * Finds the ready functions by querying the pending input counts.
+   *
+   * @param hole the blackhole consuming the ready functions
+   */
+  @Benchmark
+  public void queryTracker(final Blackhole hole) {
+    for (final Task function : functions) {
+      if (tracker.isReady(function)) {
+        hole.consume(function);
+      }
+    }
+  }
+
+  /**
+   * Transmits the last input of a pending function, polls it from the ready
+   * queue, and resets the input again (the incremental update of the tracker
+   * on a single transmission).
+   *
+   * @param hole the blackhole consuming the ready function
+   */
+  @Benchmark
+  public void transmitAndPoll(final Blackhole hole) {
+    final Dependency lastInput = lastInputs[1];
+    PropertyServiceDependency.annotateFinishedTransmission(lastInput, graph);
+    hole.consume(tracker.pollReadyTask());
+    PropertyServiceDependency.resetTransmission(lastInput, graph);
+  }
+}
@@ -13,6 +13,7 @@ public final class ConstantsEEModel {
   public static final String KeywordSeparator1 = "--";
   public static final String KeyWordSeparator2 = "__";
   public static final String KeyWordEdgeUniqueness = "'";
+  public static final String KeyWordCompactId = "#";
 
   // Spec constraints
   public static final String SpecIdDefault = "specification";
@@ -1,11 +1,22 @@
 package at.uibk.dps.ee.model.graph;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Optional;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import edu.uci.ics.jung.graph.util.EdgeType;
 import edu.uci.ics.jung.graph.util.Pair;
 import net.sf.opendse.model.Edge;
@@ -17,12 +28,39 @@ import net.sf.opendse.model.Node;
  * concurrent access to graph elements and restricts the interfaces of the JUNG
  * graph to keep the objects manageable.
  * 
+ * By default, the graph structure is additionally mirrored into the maps of the
+ * JUNG parent. Graphs constructed with the concurrentStoreOnly flag use the
+ * concurrent maps as the only store; the inherited JUNG methods are then either
+ * answered from the concurrent maps or rejected. In the mirrored mode, the
+ * writes to the (not thread-safe) JUNG maps are serialized with a single lock,
+ * so that concurrent changes (and {@link #mutate(Consumer)} transactions) are
+ * safe in both modes, but contend on this lock in the mirrored mode. The
+ * inherited JUNG methods which are not overridden read the JUNG maps without
+ * locking and must not be used concurrently to structural changes; graphs
+ * which are changed concurrently are best created with the concurrentStoreOnly
+ * flag.
+ * 
+ * Structural changes can run concurrently and are applied to the individual
+ * maps in separate steps. Each change locks the stripes of the vertices it
+ * touches, so that changes of disjoint parts of the graph do not block each
+ * other, while several changes can be applied atomically with
+ * {@link #mutate(Consumer)}. The element queries (e.g., {@link #getVertices()},
+ * {@link #getInEdges(Node)}, or {@link #containsEdge(String)}) take no locks
+ * and may therefore observe a change (or a transaction) which is only partly
+ * applied, including the intermediate state of a transaction which is later
+ * rolled back. Only {@link #snapshot()} (and the values derived with
+ * {@link #getDerivedValue(Object, Supplier)}) observe the atomic state: they
+ * wait for the changes in progress and never reflect a part of a transaction.
+ * Consumers interested in the changes themselves register a
+ * {@link GraphChangeListener}.
+ * 
  * @author Fedor Smirnov
- *
+ * 
  * @param <V> the type of graph nodes
  * @param <E> the type of graph edges
  */
-public class AbstractConcurrentGraph<V extends Node, E extends Edge> extends Graph<V, E> {
+public class AbstractConcurrentGraph<V extends Node, E extends Edge> extends Graph<V, E>
+    implements ReadableGraph<V, E> {
 
   private static final long serialVersionUID = 1L;
 
@@ -31,21 +69,634 @@ public class AbstractConcurrentGraph<V extends Node, E extends Edge> extends Gra
   protected static final String edgeString = "edge ";
   protected static final String notInGraphString = " is not in the graph";
 
-  protected final ConcurrentHashMap<String, V> verticesConcurrent = new ConcurrentHashMap<>();
-  protected final ConcurrentHashMap<String, E> edgesConcurrent = new ConcurrentHashMap<>();
-  protected final ConcurrentHashMap<String, V> sources = new ConcurrentHashMap<>();
-  protected final ConcurrentHashMap<String, V> dests = new ConcurrentHashMap<>();
-  protected final ConcurrentHashMap<String, ConcurrentHashMap<String, E>> inEdges =
-      new ConcurrentHashMap<>();
-  protected final ConcurrentHashMap<String, ConcurrentHashMap<String, E>> outEdges =
+  protected static final int defaultExpectedCount = 16;
+  // one stripe per bit, so that sets of stripes can be passed around as longs
+  protected static final int stripeCount = Long.SIZE;
+  protected static final long allStripes = -1L;
+  // optimistic reads retried before falling back to the exclusive lock
+  protected static final int optimisticReadAttempts = 3;
+
+  protected final ConcurrentHashMap<String, V> verticesConcurrent;
+  protected final ConcurrentHashMap<String, E> edgesConcurrent;
+  protected final ConcurrentHashMap<String, V> sources;
+  protected final ConcurrentHashMap<String, V> dests;
+  protected final ConcurrentHashMap<String, ConcurrentHashMap<String, E>> inEdges;
+  protected final ConcurrentHashMap<String, ConcurrentHashMap<String, E>> outEdges;
+  protected final ConcurrentHashMap<E, EdgeType> edgeTypes;
+  // vertices without in/out edges, updated together with the adjacency maps
+  protected final ConcurrentHashMap<String, V> sourceVertices;
+  protected final ConcurrentHashMap<String, V> sinkVertices;
+  // source ID -> destination ID -> edges (undirected edges in both directions)
+  protected final ConcurrentHashMap<String, ConcurrentHashMap<String, ConcurrentHashMap<String, E>>> endpointIndex;
+
+  protected final boolean concurrentStoreOnly;
+
+  // shared by the structural changes, exclusive for consistent reads
+  protected final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+  // exclusive for the changes touching vertices with the same stripe
+  protected final ReentrantLock[] vertexStripes = new ReentrantLock[stripeCount];
+  // serializes the writes to the JUNG parent, whose maps are not thread-safe
+  protected final ReentrantLock mirrorLock = new ReentrantLock();
+  protected final AtomicLong version = new AtomicLong();
+  // number of finished changes; equal to the version iff no change is in progress
+  protected final AtomicLong finished = new AtomicLong();
+  protected transient volatile FrozenGraph<V, E> latestSnapshot;
+  protected final transient ConcurrentHashMap<Object, Derivation> derivations =
       new ConcurrentHashMap<>();
-  protected final ConcurrentHashMap<E, EdgeType> edgeTypes = new ConcurrentHashMap<>();
+  protected final transient IdAllocator edgeIds = new IdAllocator(this::containsEdge);
+
+  protected final transient ChangeDispatcher<GraphChange<V, E>, GraphChangeListener<V, E>> changeDispatcher =
+      new ChangeDispatcher<>(GraphChangeListener::graphChanged);
+
+  /**
+   * Default constructor. The graph structure is mirrored into the JUNG parent.
+   */
+  public AbstractConcurrentGraph() {
+    this(false);
+  }
+
+  /**
+   * Constructor offering the possibility to use the concurrent maps as the only
+   * store of the graph structure.
+   * 
+   * @param concurrentStoreOnly true iff the graph structure is to be stored only
+   *        in the concurrent maps (without mirroring it into the JUNG parent)
+   */
+  protected AbstractConcurrentGraph(final boolean concurrentStoreOnly) {
+    this(concurrentStoreOnly, defaultExpectedCount, defaultExpectedCount);
+  }
+
+  /**
+   * Constructor presizing the concurrent maps for the expected numbers of
+   * vertices and edges.
+   * 
+   * @param concurrentStoreOnly true iff the graph structure is to be stored only
+   *        in the concurrent maps (without mirroring it into the JUNG parent)
+   * @param expectedVertexCount the expected number of vertices
+   * @param expectedEdgeCount the expected number of edges
+   */
+  protected AbstractConcurrentGraph(final boolean concurrentStoreOnly,
+      final int expectedVertexCount, final int expectedEdgeCount) {
+    super();
+    this.concurrentStoreOnly = concurrentStoreOnly;
+    this.verticesConcurrent = new ConcurrentHashMap<>(expectedVertexCount);
+    this.inEdges = new ConcurrentHashMap<>(expectedVertexCount);
+    this.outEdges = new ConcurrentHashMap<>(expectedVertexCount);
+    this.sourceVertices = new ConcurrentHashMap<>(expectedVertexCount);
+    this.sinkVertices = new ConcurrentHashMap<>(expectedVertexCount);
+    this.endpointIndex = new ConcurrentHashMap<>(expectedVertexCount);
+    this.edgesConcurrent = new ConcurrentHashMap<>(expectedEdgeCount);
+    this.sources = new ConcurrentHashMap<>(expectedEdgeCount);
+    this.dests = new ConcurrentHashMap<>(expectedEdgeCount);
+    this.edgeTypes = new ConcurrentHashMap<>(expectedEdgeCount);
+    for (int idx = 0; idx < stripeCount; idx++) {
+      vertexStripes[idx] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * Returns true iff the concurrent maps are the only store of the graph
+   * structure.
+   * 
+   * @return true iff the concurrent maps are the only store of the graph
+   *         structure
+   */
+  public boolean isConcurrentStoreOnly() {
+    return concurrentStoreOnly;
+  }
+
+  /**
+   * Creates a read-only, index-based representation of the current state of the
+   * graph. The graph must not be structurally modified while it is frozen.
+   * 
+   * @return the frozen representation of the graph
+   */
+  public FrozenGraph<V, E> freeze() {
+    return new FrozenGraph<>(this);
+  }
+
+  /**
+   * Returns an immutable, consistent view of the current state of the graph.
+   * The view never reflects a part of a structural change: the graph is copied
+   * without blocking the writers (see {@link #readOptimistically(Supplier)})
+   * and only waits for the changes in progress if the copy keeps being
+   * interrupted by concurrent changes. Snapshots of the same graph version are
+   * shared.
+   * 
+   * @return an immutable, consistent view of the current state of the graph
+   */
+  public FrozenGraph<V, E> snapshot() {
+    final FrozenGraph<V, E> latest = latestSnapshot;
+    if (latest != null && latest.getVersion() == version.get()) {
+      return latest;
+    }
+    final FrozenGraph<V, E> result = readOptimistically(this::freeze);
+    final FrozenGraph<V, E> current = latestSnapshot;
+    if (current == null || current.getVersion() < result.getVersion()) {
+      latestSnapshot = result;
+    }
+    return result;
+  }
+
+  /**
+   * A value derived from the graph structure, together with the graph version
+   * it was derived from.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static class Derivation {
+    protected final long version;
+    protected final Object value;
+
+    /**
+     * Default constructor.
+     * 
+     * @param version the graph version the value was derived from
+     * @param value the derived value
+     */
+    protected Derivation(final long version, final Object value) {
+      this.version = version;
+      this.value = value;
+    }
+  }
+
+  /**
+   * Returns the value derived from the graph structure which is cached under the
+   * given key. The value is (re)computed with the given derivation if there is
+   * no cached value or if the graph was changed since the cached value was
+   * computed. The derivation is executed as an optimistic read (see
+   * {@link #readOptimistically(Supplier)}) and may therefore be executed
+   * repeatedly; it must not have side effects on the graph.
+   * 
+   * @param <T> the type of the derived value
+   * @param key the key of the derived value
+   * @param derivation the computation of the derived value
+   * @return the value derived from the current graph structure
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T getDerivedValue(final Object key, final Supplier<T> derivation) {
+    final Derivation cached = derivations.get(key);
+    if (cached != null && cached.version == version.get()) {
+      return (T) cached.value;
+    }
+    final Derivation result =
+        readOptimistically(() -> new Derivation(version.get(), derivation.get()));
+    derivations.merge(key, result,
+        (previous, derived) -> previous.version > derived.version ? previous : derived);
+    return (T) result.value;
+  }
+
+  /**
+   * Drops the value cached under the given key, e.g., when it depends on data
+   * which is not a part of the graph structure.
+   * 
+   * @param key the given key
+   */
+  public void invalidateDerivedValue(final Object key) {
+    derivations.remove(key);
+  }
+
+  /**
+   * Returns the version of the graph structure, which is incremented by each
+   * structural change.
+   * 
+   * @return the version of the graph structure
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
+  /**
+   * Executes the given read operation without blocking the structural changes
+   * and returns its result if no structural change was in progress or started
+   * during the operation. Otherwise (also if the operation failed on the
+   * concurrently changed structure), the operation is retried a few times and
+   * finally executed with {@link #readConsistently(Supplier)}. The operation
+   * must therefore not have side effects.
+   * 
+   * @param <T> the type of the read result
+   * @param readOperation the given read operation
+   * @return the result of the read operation
+   */
+  protected <T> T readOptimistically(final Supplier<T> readOperation) {
+    for (int attempt = 0; attempt < optimisticReadAttempts; attempt++) {
+      final long start = version.get();
+      if (finished.get() != start) {
+        break;
+      }
+      try {
+        final T result = readOperation.get();
+        // the concurrent maps are read with volatile semantics, so that the
+        // reads cannot be reordered behind this check
+        if (version.get() == start) {
+          return result;
+        }
+      } catch (RuntimeException exc) {
+        if (version.get() == start) {
+          throw exc;
+        }
+      }
+    }
+    return readConsistently(readOperation);
+  }
+
+  /**
+   * Executes the given read operation while no structural changes are in
+   * progress. Structural changes are blocked while the operation is executed.
+   * 
+   * @param <T> the type of the read result
+   * @param readOperation the given read operation
+   * @return the result of the read operation
+   */
+  protected <T> T readConsistently(final Supplier<T> readOperation) {
+    structureLock.writeLock().lock();
+    try {
+      return readOperation.get();
+    } finally {
+      structureLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Applies the changes defined by the given transaction atomically: the stripes
+   * of all touched vertices (including the neighbors of the removed vertices)
+   * are locked for the whole transaction, and the changes which were already
+   * applied are reverted if one of the changes fails. Transactions touching
+   * disjoint parts of the graph run concurrently. The changes are reported to
+   * the listeners as one batch.
+   * 
+   * The atomicity holds with respect to other transactions, to
+   * {@link #snapshot()}, and to the listeners. The lock-free element queries
+   * see the changes as they are applied (and reverted) one by one; readers
+   * which must not observe a partly applied transaction query a snapshot.
+   * 
+   * @param transaction the transaction, defining the changes to apply
+   */
+  public void mutate(final Consumer<GraphTransaction<V, E>> transaction) {
+    final GraphTransaction<V, E> changes = new GraphTransaction<>(this);
+    transaction.accept(changes);
+    final long stripes = beginMutation(changes::getStripes);
+    try {
+      changes.apply();
+    } finally {
+      endMutation(stripes);
+    }
+  }
+
+  /**
+   * Marks the begin of a structural change touching the vertices of the given
+   * stripes. Structural changes can run concurrently to each other (unless
+   * touching vertices of the same stripe), but not to consistent reads. Each
+   * call has to be matched by a call of {@link #endMutation(long)}.
+   * 
+   * @param stripes the stripes of the touched vertices
+   */
+  protected void beginMutation(final long stripes) {
+    changeDispatcher.beginBatch();
+    lockStripes(stripes);
+    structureLock.readLock().lock();
+    version.incrementAndGet();
+  }
+
+  /**
+   * Marks the begin of a structural change touching the vertices of the stripes
+   * provided by the given supplier, where the touched vertices may change until
+   * the stripes are locked (e.g., the neighbors of a removed vertex). The
+   * stripes are locked until the required stripes are stable.
+   * 
+   * @param requiredStripes supplier of the stripes of the touched vertices
+   * @return the locked stripes, to pass to {@link #endMutation(long)}
+   */
+  protected long beginMutation(final LongSupplier requiredStripes) {
+    changeDispatcher.beginBatch();
+    long locked = 0L;
+    long required = requiredStripes.getAsLong();
+    while ((required & ~locked) != 0) {
+      unlockStripes(locked);
+      locked |= required;
+      lockStripes(locked);
+      required = requiredStripes.getAsLong();
+    }
+    structureLock.readLock().lock();
+    version.incrementAndGet();
+    return locked;
+  }
+
+  /**
+   * Marks the end of a structural change.
+   * 
+   * @param stripes the stripes locked for the change
+   */
+  protected void endMutation(final long stripes) {
+    finished.incrementAndGet();
+    structureLock.readLock().unlock();
+    unlockStripes(stripes);
+    changeDispatcher.endBatch();
+  }
+
+  /**
+   * Applies the given change to the JUNG parent while holding the lock which
+   * serializes the writes to the JUNG maps. The JUNG parent may call back into
+   * the overridden methods of the graph (e.g., to add the end points of an
+   * edge); this is safe since the stripes of the touched vertices are already
+   * held by the calling thread.
+   * 
+   * @param change the change of the JUNG parent
+   * @return the result of the change
+   */
+  protected boolean mirror(final BooleanSupplier change) {
+    mirrorLock.lock();
+    try {
+      return change.getAsBoolean();
+    } finally {
+      mirrorLock.unlock();
+    }
+  }
+
+  /**
+   * Locks the given stripes, in ascending order.
+   * 
+   * @param stripes the given stripes
+   */
+  protected void lockStripes(final long stripes) {
+    long remaining = stripes;
+    while (remaining != 0) {
+      vertexStripes[Long.numberOfTrailingZeros(remaining)].lock();
+      remaining &= remaining - 1;
+    }
+  }
+
+  /**
+   * Unlocks the given stripes.
+   * 
+   * @param stripes the given stripes
+   */
+  protected void unlockStripes(final long stripes) {
+    long remaining = stripes;
+    while (remaining != 0) {
+      vertexStripes[Long.numberOfTrailingZeros(remaining)].unlock();
+      remaining &= remaining - 1;
+    }
+  }
+
+  /**
+   * Returns the stripe of the vertex with the given ID.
+   * 
+   * @param vertexId the given ID
+   * @return the stripe of the vertex with the given ID
+   */
+  protected static long stripeOf(final String vertexId) {
+    final int hash = vertexId.hashCode();
+    return 1L << ((hash ^ (hash >>> 16)) & (stripeCount - 1));
+  }
+
+  /**
+   * Returns the stripes of the given vertex and of its neighbors.
+   * 
+   * @param vertex the given vertex
+   * @return the stripes of the given vertex and of its neighbors
+   */
+  protected long neighborhoodStripes(final V vertex) {
+    long result = stripeOf(vertex.getId());
+    final ConcurrentHashMap<String, E> inMap = inEdges.get(vertex.getId());
+    if (inMap != null) {
+      for (final E edge : inMap.values()) {
+        result |= edgeStripes(edge);
+      }
+    }
+    final ConcurrentHashMap<String, E> outMap = outEdges.get(vertex.getId());
+    if (outMap != null) {
+      for (final E edge : outMap.values()) {
+        result |= edgeStripes(edge);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the stripes of the end points of the given edge (no stripes if the
+   * edge is not in the graph).
+   * 
+   * @param edge the given edge
+   * @return the stripes of the end points of the given edge
+   */
+  protected long edgeStripes(final E edge) {
+    final V src = sources.get(edge.getId());
+    final V dst = dests.get(edge.getId());
+    return (src == null ? 0L : stripeOf(src.getId())) | (dst == null ? 0L : stripeOf(dst.getId()));
+  }
+
+  /**
+   * Returns the allocator of unique IDs for generated edges.
+   * 
+   * @return the allocator of unique IDs for generated edges
+   */
+  public IdAllocator getEdgeIdAllocator() {
+    return edgeIds;
+  }
+
+  /**
+   * Registers the given listener which is then notified about the structural
+   * changes of the graph.
+   * 
+   * @param listener the given listener
+   */
+  public void addGraphChangeListener(final GraphChangeListener<V, E> listener) {
+    changeDispatcher.addListener(listener);
+  }
+
+  /**
+   * Unregisters the given listener.
+   * 
+   * @param listener the given listener
+   */
+  public void removeGraphChangeListener(final GraphChangeListener<V, E> listener) {
+    changeDispatcher.removeListener(listener);
+  }
+
+  /**
+   * Applies the structural changes made by the given action as one batch, i.e.,
+   * the listeners are notified about all changes together, after the action is
+   * finished.
+   * 
+   * @param action the given action
+   */
+  public void batchChanges(final Runnable action) {
+    changeDispatcher.batch(action);
+  }
+
+  /**
+   * Records the addition/removal of the given vertex (in case that listeners are
+   * registered).
+   * 
+   * @param vertex the given vertex
+   * @param added true for an addition, false for a removal
+   */
+  protected void recordVertexChange(final V vertex, final boolean added) {
+    if (changeDispatcher.hasListeners()) {
+      changeDispatcher.record(GraphChange.vertexChange(vertex, added));
+    }
+  }
+
+  /**
+   * Records the addition/removal of the given edge (in case that listeners are
+   * registered).
+   * 
+   * @param edge the given edge
+   * @param src the source of the given edge
+   * @param dst the destination of the given edge
+   * @param added true for an addition, false for a removal
+   */
+  protected void recordEdgeChange(final E edge, final V src, final V dst, final boolean added) {
+    if (changeDispatcher.hasListeners()) {
+      changeDispatcher.record(GraphChange.edgeChange(edge, src, dst, added));
+    }
+  }
+
+  /**
+   * Hook called (within the mutation) after the given vertex was added to the
+   * graph. Used by subclasses maintaining additional vertex indices.
+   * 
+   * @param vertex the added vertex
+   */
+  protected void onVertexAdded(final V vertex) {
+    // no additional indices by default
+  }
+
+  /**
+   * Hook called (within the mutation) after the given vertex was removed from
+   * the graph. Used by subclasses maintaining additional vertex indices.
+   * 
+   * @param vertex the removed vertex
+   */
+  protected void onVertexRemoved(final V vertex) {
+    // no additional indices by default
+  }
+
+  /**
+   * Hook called (within the mutation) after the given edge was added to the
+   * graph. Used by subclasses maintaining additional edge indices.
+   * 
+   * @param edge the added edge
+   * @param src the source of the added edge
+   * @param dst the destination of the added edge
+   */
+  protected void onEdgeAdded(final E edge, final V src, final V dst) {
+    // no additional indices by default
+  }
+
+  /**
+   * Hook called (within the mutation) after the given edge was removed from the
+   * graph. Used by subclasses maintaining additional edge indices.
+   * 
+   * @param edge the removed edge
+   * @param src the source of the removed edge
+   * @param dst the destination of the removed edge
+   */
+  protected void onEdgeRemoved(final E edge, final V src, final V dst) {
+    // no additional indices by default
+  }
 
   // adding/removing vertices
   @Override
   public boolean addVertex(final V vertex) {
-    verticesConcurrent.put(vertex.getId(), vertex);
-    return super.addVertex(vertex);
+    final long stripes = stripeOf(vertex.getId());
+    beginMutation(stripes);
+    try {
+      final V previous = verticesConcurrent.put(vertex.getId(), vertex);
+      inEdges.computeIfAbsent(vertex.getId(), id -> {
+        sourceVertices.put(id, vertex);
+        return new ConcurrentHashMap<>();
+      });
+      outEdges.computeIfAbsent(vertex.getId(), id -> {
+        sinkVertices.put(id, vertex);
+        return new ConcurrentHashMap<>();
+      });
+      if (previous == null) {
+        onVertexAdded(vertex);
+        recordVertexChange(vertex, true);
+      }
+      return concurrentStoreOnly ? previous == null : mirror(() -> super.addVertex(vertex));
+    } finally {
+      endMutation(stripes);
+    }
+  }
+
+  /**
+   * Loads the given structure into the graph in one pass. The adjacency maps of
+   * the vertices are presized according to their degree. Used by the
+   * {@link GraphBuilder}; the end points of all edges must be contained in the
+   * given vertices.
+   * 
+   * @param vertices the vertices to add
+   * @param edges the edges to add
+   * @param edgeSources the sources of the edges (same order as the edges)
+   * @param edgeDests the destinations of the edges (same order as the edges)
+   * @param types the types of the edges (same order as the edges)
+   */
+  protected void loadStructure(final Collection<V> vertices, final List<E> edges,
+      final List<V> edgeSources, final List<V> edgeDests, final List<EdgeType> types) {
+    beginMutation(allStripes);
+    try {
+      final Map<String, int[]> degrees = new HashMap<>(vertices.size() * 2);
+      for (int idx = 0; idx < edges.size(); idx++) {
+        final boolean undirected = types.get(idx).equals(EdgeType.UNDIRECTED);
+        final int[] srcDegree =
+            degrees.computeIfAbsent(edgeSources.get(idx).getId(), id -> new int[2]);
+        final int[] dstDegree =
+            degrees.computeIfAbsent(edgeDests.get(idx).getId(), id -> new int[2]);
+        srcDegree[1]++;
+        dstDegree[0]++;
+        if (undirected) {
+          srcDegree[0]++;
+          dstDegree[1]++;
+        }
+      }
+      for (final V vertex : vertices) {
+        final int[] degree = degrees.getOrDefault(vertex.getId(), new int[2]);
+        if (verticesConcurrent.put(vertex.getId(), vertex) == null) {
+          onVertexAdded(vertex);
+          recordVertexChange(vertex, true);
+        }
+        inEdges.computeIfAbsent(vertex.getId(), id -> new ConcurrentHashMap<>(degree[0]));
+        outEdges.computeIfAbsent(vertex.getId(), id -> new ConcurrentHashMap<>(degree[1]));
+        if (!concurrentStoreOnly) {
+          mirror(() -> super.addVertex(vertex));
+        }
+      }
+      for (int idx = 0; idx < edges.size(); idx++) {
+        final E edge = edges.get(idx);
+        final V src = edgeSources.get(idx);
+        final V dst = edgeDests.get(idx);
+        final EdgeType type = types.get(idx);
+        if (!concurrentStoreOnly) {
+          mirror(() -> super.addEdge(edge, new Pair<V>(src, dst), type));
+        }
+        edgeTypes.put(edge, type);
+        sources.put(edge.getId(), src);
+        dests.put(edge.getId(), dst);
+        inEdges.get(dst.getId()).put(edge.getId(), edge);
+        outEdges.get(src.getId()).put(edge.getId(), edge);
+        indexEdge(edge, src, dst);
+        if (type.equals(EdgeType.UNDIRECTED)) {
+          inEdges.get(src.getId()).put(edge.getId(), edge);
+          outEdges.get(dst.getId()).put(edge.getId(), edge);
+          indexEdge(edge, dst, src);
+        }
+        final boolean newEdge = edgesConcurrent.put(edge.getId(), edge) == null;
+        edgeIds.confirm(edge.getId());
+        if (newEdge) {
+          onEdgeAdded(edge, src, dst);
+          recordEdgeChange(edge, src, dst, true);
+        }
+      }
+      for (final V vertex : vertices) {
+        updateBoundary(vertex, inEdges, sourceVertices);
+        updateBoundary(vertex, outEdges, sinkVertices);
+      }
+    } finally {
+      endMutation(allStripes);
+    }
   }
 
   @Override
@@ -63,16 +714,24 @@ public class AbstractConcurrentGraph<V extends Node, E extends Edge> extends Gra
 
   @Override
   public boolean removeVertex(final V vertex) {
-    verticesConcurrent.remove(vertex.getId(), vertex);
-    if (!getInEdges(vertex).isEmpty()) {
-      inEdges.get(vertex.getId()).values().forEach(dep -> removeEdge(dep));
-    }
-    if (!getOutEdges(vertex).isEmpty()) {
-      outEdges.get(vertex.getId()).values().forEach(dep -> removeEdge(dep));
+    final long stripes = beginMutation(() -> neighborhoodStripes(vertex));
+    try {
+      // the edges go first, so that no edge is left with a removed end point
+      forEachInEdge(vertex, this::removeEdge);
+      forEachOutEdge(vertex, this::removeEdge);
+      inEdges.remove(vertex.getId());
+      outEdges.remove(vertex.getId());
+      sourceVertices.remove(vertex.getId());
+      sinkVertices.remove(vertex.getId());
+      final boolean removed = verticesConcurrent.remove(vertex.getId(), vertex);
+      if (removed) {
+        onVertexRemoved(vertex);
+        recordVertexChange(vertex, false);
+      }
+      return concurrentStoreOnly ? removed : mirror(() -> super.removeVertex(vertex));
+    } finally {
+      endMutation(stripes);
     }
-    inEdges.remove(vertex.getId());
-    outEdges.remove(vertex.getId());
-    return super.removeVertex(vertex);
   }
 
   /**
@@ -93,41 +752,67 @@ public class AbstractConcurrentGraph<V extends Node, E extends Edge> extends Gra
   // adding/removing edges
   @Override
   public boolean addEdge(final E dependency, final V src, final V dst, final EdgeType edgeType) {
-    final boolean result = super.addEdge(dependency, new Pair<V>(src, dst), edgeType);
-    if (!containsVertex(src.getId())) {
-      addVertex(src);
-    }
-    if (!containsVertex(dst.getId())) {
-      addVertex(dst);
-    }
-    edgesConcurrent.put(dependency.getId(), dependency);
-    edgeTypes.put(dependency, edgeType);
-    sources.put(dependency.getId(), src);
-    dests.put(dependency.getId(), dst);
-    addInEdge(dst, dependency);
-    addOutEdge(src, dependency);
-    if (edgeType.equals(EdgeType.UNDIRECTED)) {
-      addInEdge(src, dependency);
-      addOutEdge(dst, dependency);
+    final long stripes = stripeOf(src.getId()) | stripeOf(dst.getId());
+    beginMutation(stripes);
+    try {
+      final boolean result = concurrentStoreOnly ? !containsEdge(dependency.getId())
+          : mirror(() -> super.addEdge(dependency, new Pair<V>(src, dst), edgeType));
+      if (!containsVertex(src.getId())) {
+        addVertex(src);
+      }
+      if (!containsVertex(dst.getId())) {
+        addVertex(dst);
+      }
+      // the edge is published last, after its end points and adjacency are set
+      edgeTypes.put(dependency, edgeType);
+      sources.put(dependency.getId(), src);
+      dests.put(dependency.getId(), dst);
+      addInEdge(dst, dependency);
+      addOutEdge(src, dependency);
+      indexEdge(dependency, src, dst);
+      if (edgeType.equals(EdgeType.UNDIRECTED)) {
+        addInEdge(src, dependency);
+        addOutEdge(dst, dependency);
+        indexEdge(dependency, dst, src);
+      }
+      final boolean newEdge = edgesConcurrent.put(dependency.getId(), dependency) == null;
+      edgeIds.confirm(dependency.getId());
+      if (newEdge) {
+        onEdgeAdded(dependency, src, dst);
+        recordEdgeChange(dependency, src, dst, true);
+      }
+      return result;
+    } finally {
+      endMutation(stripes);
     }
-    return result;
   }
 
   @Override
   public boolean removeEdge(final E edge) {
-    final V source = getSource(edge);
-    final V dest = getDest(edge);
-    edgesConcurrent.remove(edge.getId());
-    removeInEdge(dest, edge);
-    removeOutEdge(source, edge);
-    if (edgeTypes.get(edge).equals(EdgeType.UNDIRECTED)) {
-      removeInEdge(source, edge);
-      removeOutEdge(dest, edge);
+    final long stripes = edgeStripes(edge);
+    beginMutation(stripes);
+    try {
+      final V source = getSource(edge);
+      final V dest = getDest(edge);
+      // the edge is unpublished first, its end points are removed last
+      edgesConcurrent.remove(edge.getId());
+      removeInEdge(dest, edge);
+      removeOutEdge(source, edge);
+      unindexEdge(edge, source, dest);
+      if (edgeTypes.get(edge).equals(EdgeType.UNDIRECTED)) {
+        removeInEdge(source, edge);
+        removeOutEdge(dest, edge);
+        unindexEdge(edge, dest, source);
+      }
+      edgeTypes.remove(edge);
+      sources.remove(edge.getId());
+      dests.remove(edge.getId());
+      onEdgeRemoved(edge, source, dest);
+      recordEdgeChange(edge, source, dest, false);
+      return concurrentStoreOnly || mirror(() -> super.removeEdge(edge));
+    } finally {
+      endMutation(stripes);
     }
-    edgeTypes.remove(edge);
-    sources.remove(edge.getId());
-    dests.remove(edge.getId());
-    return super.removeEdge(edge);
   }
 
   @Override
@@ -145,6 +830,27 @@ public class AbstractConcurrentGraph<V extends Node, E extends Edge> extends Gra
     return edgeTypes.get(edge);
   }
 
+  @Override
+  public Collection<E> getEdges(final EdgeType edgeType) {
+    final Set<E> result = new HashSet<>();
+    edgeTypes.forEach((edge, type) -> {
+      if (type.equals(edgeType)) {
+        result.add(edge);
+      }
+    });
+    return result;
+  }
+
+  @Override
+  public int getEdgeCount(final EdgeType edgeType) {
+    return getEdges(edgeType).size();
+  }
+
+  @Override
+  public Iterator<V> iterator() {
+    return getVertices().iterator();
+  }
+
   /**
    * Returns true iff the graph contains an edge with the specified ID.
    * 
@@ -174,44 +880,121 @@ public class AbstractConcurrentGraph<V extends Node, E extends Edge> extends Gra
   }
 
   // methods for node-edge relations
+
+  /**
+   * Returns an unmodifiable, live view of the out edges of the given vertex. The
+   * view reflects later changes of the graph and is not copied, so that it can be
+   * queried repeatedly without allocating new collections.
+   * 
+   * @param vertex the given vertex
+   * @return an unmodifiable view of the out edges of the given vertex
+   */
   @Override
   public Collection<E> getOutEdges(final V vertex) {
-    final Set<E> result = new HashSet<>();
-    if (outEdges.containsKey(vertex.getId())) {
-      result.addAll(outEdges.get(vertex.getId()).values());
-    }
-    return result;
+    return adjacencyView(outEdges.get(vertex.getId()));
   }
 
+  /**
+   * Returns an unmodifiable, live view of the in edges of the given vertex. The
+   * view reflects later changes of the graph and is not copied, so that it can be
+   * queried repeatedly without allocating new collections.
+   * 
+   * @param vertex the given vertex
+   * @return an unmodifiable view of the in edges of the given vertex
+   */
   @Override
   public Collection<E> getInEdges(final V vertex) {
-    final Set<E> result = new HashSet<>();
-    if (inEdges.containsKey(vertex.getId())) {
-      result.addAll(inEdges.get(vertex.getId()).values());
+    return adjacencyView(inEdges.get(vertex.getId()));
+  }
+
+  /**
+   * Applies the given action to each in edge of the given vertex, without copying
+   * the adjacency of the vertex.
+   * 
+   * @param vertex the given vertex
+   * @param action the action to apply
+   */
+  public void forEachInEdge(final V vertex, final Consumer<? super E> action) {
+    final ConcurrentHashMap<String, E> edgeMap = inEdges.get(vertex.getId());
+    if (edgeMap != null) {
+      edgeMap.values().forEach(action);
+    }
+  }
+
+  /**
+   * Applies the given action to each out edge of the given vertex, without
+   * copying the adjacency of the vertex.
+   * 
+   * @param vertex the given vertex
+   * @param action the action to apply
+   */
+  public void forEachOutEdge(final V vertex, final Consumer<? super E> action) {
+    final ConcurrentHashMap<String, E> edgeMap = outEdges.get(vertex.getId());
+    if (edgeMap != null) {
+      edgeMap.values().forEach(action);
     }
-    return result;
+  }
+
+  /**
+   * Returns an unmodifiable, live view of the vertices without in edges. The
+   * view is maintained on each structural change, so that the query does not
+   * require iterating the graph.
+   * 
+   * @return an unmodifiable view of the vertices without in edges
+   */
+  public Collection<V> getSourceVertices() {
+    return Collections.unmodifiableCollection(sourceVertices.values());
+  }
+
+  /**
+   * Returns an unmodifiable, live view of the vertices without out edges. The
+   * view is maintained on each structural change, so that the query does not
+   * require iterating the graph.
+   * 
+   * @return an unmodifiable view of the vertices without out edges
+   */
+  public Collection<V> getSinkVertices() {
+    return Collections.unmodifiableCollection(sinkVertices.values());
+  }
+
+  @Override
+  public int inDegree(final V vertex) {
+    final ConcurrentHashMap<String, E> edgeMap = inEdges.get(vertex.getId());
+    return edgeMap == null ? 0 : edgeMap.size();
+  }
+
+  @Override
+  public int outDegree(final V vertex) {
+    final ConcurrentHashMap<String, E> edgeMap = outEdges.get(vertex.getId());
+    return edgeMap == null ? 0 : edgeMap.size();
+  }
+
+  @Override
+  public boolean isSource(final V vertex, final E edge) {
+    return containsEdge(edge.getId()) && vertex.equals(sources.get(edge.getId()));
+  }
+
+  @Override
+  public boolean isDest(final V vertex, final E edge) {
+    return containsEdge(edge.getId()) && vertex.equals(dests.get(edge.getId()));
   }
 
   @Override
   public V getSource(final E edge) {
-    if (!containsEdge(edge.getId())) {
+    final V result = sources.get(edge.getId());
+    if (result == null) {
       throw new IllegalArgumentException(edgeString + edge + notInGraphString);
     }
-    if (!sources.containsKey(edge.getId())) {
-      throw new IllegalStateException("Source of " + edge.getId() + notInGraphString);
-    }
-    return sources.get(edge.getId());
+    return result;
   }
 
   @Override
   public V getDest(final E edge) {
-    if (!containsEdge(edge.getId())) {
+    final V result = dests.get(edge.getId());
+    if (result == null) {
       throw new IllegalArgumentException(edgeString + edge + notInGraphString);
     }
-    if (!containsEdge(edge.getId())) {
-      throw new IllegalStateException("Dest of " + edge.getId() + notInGraphString);
-    }
-    return dests.get(edge.getId());
+    return result;
   }
 
   /**
@@ -225,7 +1008,37 @@ public class AbstractConcurrentGraph<V extends Node, E extends Edge> extends Gra
     if (!containsVertex(first.getId()) || !containsVertex(second.getId())) {
       throw new IllegalArgumentException("One of the requested end points not in the graph");
     }
-    return getPredecessors(first).contains(second) || getPredecessors(second).contains(first);
+    return findIncidentEdge(first, second, true) != null
+        || findIncidentEdge(first, second, false) != null;
+  }
+
+  /**
+   * Returns the edges leading from the given source to the given destination
+   * (including the undirected edges connecting the two). The lookup does not
+   * depend on the degrees of the given vertices.
+   * 
+   * @param src the given source
+   * @param dst the given destination
+   * @return the edges leading from the given source to the given destination
+   */
+  public Collection<E> findEdges(final V src, final V dst) {
+    final ConcurrentHashMap<String, E> edgeMap = edgesBetween(src, dst);
+    return edgeMap == null ? Collections.emptySet() : new ArrayList<>(edgeMap.values());
+  }
+
+  @Override
+  public boolean isPredecessor(final V vertex, final V predecessor) {
+    return findIncidentEdge(vertex, predecessor, true) != null;
+  }
+
+  @Override
+  public boolean isSuccessor(final V vertex, final V successor) {
+    return findIncidentEdge(vertex, successor, false) != null;
+  }
+
+  @Override
+  public Collection<E> findEdgeSet(final V firstNode, final V secondNode) {
+    return new HashSet<>(findEdges(firstNode, secondNode));
   }
 
   @Override
@@ -233,18 +1046,106 @@ public class AbstractConcurrentGraph<V extends Node, E extends Edge> extends Gra
     if (!areNodesConnected(firstNode, secondNode)) {
       throw new IllegalArgumentException("The given end points are not connected");
     }
-    Optional<E> optE = getInEdges(firstNode).stream()
-        .filter(edge -> getSource(edge).equals(secondNode)).findFirst();
-    if (optE.isEmpty()) {
-      optE = getOutEdges(firstNode).stream().filter(edge -> getDest(edge).equals(secondNode))
-          .findFirst();
-    }
-    return optE.get();
+    final E inEdge = findIncidentEdge(firstNode, secondNode, true);
+    return inEdge == null ? findIncidentEdge(firstNode, secondNode, false) : inEdge;
   }
 
 
   // helper methods
 
+  /**
+   * Returns an unmodifiable view of the values of the given adjacency map (an
+   * empty collection if the map is null).
+   * 
+   * @param edgeMap the given adjacency map
+   * @return an unmodifiable view of the values of the given adjacency map
+   */
+  protected Collection<E> adjacencyView(final ConcurrentHashMap<String, E> edgeMap) {
+    return edgeMap == null ? Collections.emptySet()
+        : Collections.unmodifiableCollection(edgeMap.values());
+  }
+
+  /**
+   * Adds the ID of the end point of the given edge which is opposite to the given
+   * vertex to the given set (nothing if the edge was removed concurrently).
+   * 
+   * @param vertex the given vertex
+   * @param edge the given edge
+   * @param ids the set to add the ID to
+   */
+  protected void addOppositeId(final V vertex, final E edge, final Set<String> ids) {
+    final V source = sources.get(edge.getId());
+    final V opposite = vertex.equals(source) ? dests.get(edge.getId()) : source;
+    if (opposite != null) {
+      ids.add(opposite.getId());
+    }
+  }
+
+  /**
+   * Returns an in/out edge of the given vertex which connects it to the given
+   * opposite vertex, or null if there is no such edge.
+   * 
+   * @param vertex the given vertex
+   * @param opposite the opposite vertex
+   * @param inEdge true iff looking at the in edges of the given vertex
+   * @return an edge connecting the two vertices, or null if there is none
+   */
+  protected E findIncidentEdge(final V vertex, final V opposite, final boolean inEdge) {
+    final ConcurrentHashMap<String, E> edgeMap =
+        inEdge ? edgesBetween(opposite, vertex) : edgesBetween(vertex, opposite);
+    if (edgeMap == null) {
+      return null;
+    }
+    final Iterator<E> iterator = edgeMap.values().iterator();
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+
+  /**
+   * Returns the map of the edges leading from the given source to the given
+   * destination (null if there are none).
+   * 
+   * @param src the given source
+   * @param dst the given destination
+   * @return the map of the edges leading from the source to the destination
+   */
+  protected ConcurrentHashMap<String, E> edgesBetween(final V src, final V dst) {
+    final ConcurrentHashMap<String, ConcurrentHashMap<String, E>> destMap =
+        endpointIndex.get(src.getId());
+    return destMap == null ? null : destMap.get(dst.getId());
+  }
+
+  /**
+   * Registers the given edge in the endpoint index, as leading from the given
+   * source to the given destination.
+   * 
+   * @param edge the given edge
+   * @param src the given source
+   * @param dst the given destination
+   */
+  protected void indexEdge(final E edge, final V src, final V dst) {
+    endpointIndex.computeIfAbsent(src.getId(), id -> new ConcurrentHashMap<>())
+        .computeIfAbsent(dst.getId(), id -> new ConcurrentHashMap<>())
+        .put(edge.getId(), edge);
+  }
+
+  /**
+   * Unregisters the given edge (leading from the given source to the given
+   * destination) from the endpoint index, dropping the maps which become empty.
+   * 
+   * @param edge the given edge
+   * @param src the given source
+   * @param dst the given destination
+   */
+  protected void unindexEdge(final E edge, final V src, final V dst) {
+    endpointIndex.computeIfPresent(src.getId(), (srcId, destMap) -> {
+      destMap.computeIfPresent(dst.getId(), (dstId, edgeMap) -> {
+        edgeMap.remove(edge.getId());
+        return edgeMap.isEmpty() ? null : edgeMap;
+      });
+      return destMap.isEmpty() ? null : destMap;
+    });
+  }
+
   /**
    * Unregisters the given edge as the out edge of the given vertex
    * 
@@ -281,7 +1182,14 @@ public class AbstractConcurrentGraph<V extends Node, E extends Edge> extends Gra
     if (!map.get(vertex.getId()).containsKey(edge.getId())) {
       throw new IllegalArgumentException(edgeString + edge + " no incident to " + vertex);
     }
-    map.get(vertex.getId()).remove(edge.getId());
+    final ConcurrentHashMap<String, V> boundary = inEdge ? sourceVertices : sinkVertices;
+    map.computeIfPresent(vertex.getId(), (id, edgeMap) -> {
+      edgeMap.remove(edge.getId());
+      if (edgeMap.isEmpty() && verticesConcurrent.containsKey(id)) {
+        boundary.put(id, vertex);
+      }
+      return edgeMap;
+    });
   }
 
   /**
@@ -313,10 +1221,35 @@ public class AbstractConcurrentGraph<V extends Node, E extends Edge> extends Gra
    */
   protected void addIncidentEdge(final V vertex, final E edge, final boolean inEdge) {
     final ConcurrentHashMap<String, ConcurrentHashMap<String, E>> map = inEdge ? inEdges : outEdges;
-    if (!map.containsKey(vertex.getId())) {
-      map.put(vertex.getId(), new ConcurrentHashMap<String, E>());
-    }
-    map.get(vertex.getId()).put(edge.getId(), edge);
+    final ConcurrentHashMap<String, V> boundary = inEdge ? sourceVertices : sinkVertices;
+    map.compute(vertex.getId(), (id, edgeMap) -> {
+      final ConcurrentHashMap<String, E> result =
+          edgeMap == null ? new ConcurrentHashMap<>() : edgeMap;
+      result.put(edge.getId(), edge);
+      boundary.remove(id);
+      return result;
+    });
+  }
+
+  /**
+   * Adds the given vertex to/removes it from the given boundary set (sources or
+   * sinks), depending on whether its adjacency in the given map is empty.
+   * 
+   * @param vertex the given vertex
+   * @param map the in or the out adjacency map
+   * @param boundary the corresponding boundary set
+   */
+  protected void updateBoundary(final V vertex,
+      final ConcurrentHashMap<String, ConcurrentHashMap<String, E>> map,
+      final ConcurrentHashMap<String, V> boundary) {
+    map.computeIfPresent(vertex.getId(), (id, edgeMap) -> {
+      if (edgeMap.isEmpty()) {
+        boundary.put(id, vertex);
+      } else {
+        boundary.remove(id);
+      }
+      return edgeMap;
+    });
   }
 
   // restricting access to unused methods exposed by the JUNG parent
@@ -371,8 +1304,9 @@ public class AbstractConcurrentGraph<V extends Node, E extends Edge> extends Gra
     if (!containsVertex(vertex.getId())) {
       throw new IllegalArgumentException("Vertex " + vertex.getId() + notInGraphString);
     }
-    final Set<E> result = new HashSet<>(getInEdges(vertex));
-    result.addAll(getOutEdges(vertex));
+    final Set<E> result = new HashSet<>();
+    forEachInEdge(vertex, result::add);
+    forEachOutEdge(vertex, result::add);
     return result;
   }
 
@@ -381,11 +1315,39 @@ public class AbstractConcurrentGraph<V extends Node, E extends Edge> extends Gra
     throw new IllegalAccessError(excMessageWrongMethod);
   }
 
+  @Override
+  public int getIncidentCount(final E edge) {
+    final V source = sources.get(edge.getId());
+    if (source == null) {
+      return 0;
+    }
+    return source.equals(dests.get(edge.getId())) ? 1 : 2;
+  }
+
   @Override
   public Collection<V> getNeighbors(final V vertex) {
     throw new IllegalAccessError(excMessageWrongMethod);
   }
 
+  @Override
+  public int getNeighborCount(final V vertex) {
+    if (!containsVertex(vertex.getId())) {
+      throw new IllegalArgumentException("Vertex " + vertex.getId() + notInGraphString);
+    }
+    final Set<String> neighborIds = new HashSet<>();
+    forEachInEdge(vertex, edge -> addOppositeId(vertex, edge, neighborIds));
+    forEachOutEdge(vertex, edge -> addOppositeId(vertex, edge, neighborIds));
+    return neighborIds.size();
+  }
+
+  @Override
+  public boolean isNeighbor(final V vertex1, final V vertex2) {
+    if (!containsVertex(vertex1.getId()) || !containsVertex(vertex2.getId())) {
+      throw new IllegalArgumentException("One of the requested end points not in the graph");
+    }
+    return edgesBetween(vertex1, vertex2) != null || edgesBetween(vertex2, vertex1) != null;
+  }
+
   @Override
   public V getOpposite(final V vertex, final E edge) {
     throw new IllegalAccessError(excMessageWrongMethod);
@@ -393,11 +1355,15 @@ public class AbstractConcurrentGraph<V extends Node, E extends Edge> extends Gra
 
   @Override
   public Collection<V> getPredecessors(final V vertex) {
-    return getInEdges(vertex).stream().map(edge -> getSource(edge)).collect(Collectors.toSet());
+    final Set<V> result = new HashSet<>();
+    forEachInEdge(vertex, edge -> result.add(getSource(edge)));
+    return result;
   }
 
   @Override
   public Collection<V> getSuccessors(final V vertex) {
-    return getOutEdges(vertex).stream().map(edge -> getDest(edge)).collect(Collectors.toSet());
+    final Set<V> result = new HashSet<>();
+    forEachOutEdge(vertex, edge -> result.add(getDest(edge)));
+    return result;
   }
 }
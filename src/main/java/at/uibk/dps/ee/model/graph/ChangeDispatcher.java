@@ -0,0 +1,155 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Delivers the changes of a model object to the registered listeners. Changes
+ * are collected per thread and delivered in batches: a batch is opened with
+ * {@link #beginBatch()} and its changes are delivered when the outermost open
+ * batch of the thread is closed with {@link #endBatch()}. Nothing is recorded
+ * (and no per-thread state is allocated) while no listener is registered:
+ * batches opened without listeners are not tracked, and changes recorded
+ * within them (after a listener was registered in the meantime) are delivered
+ * directly. The per-thread state is dropped when the outermost batch is
+ * closed, so that pooled threads do not retain it after the model object is
+ * gone.
+ * 
+ * @author Fedor Smirnov
+ * 
+ * @param <C> the type of the delivered changes
+ * @param <L> the type of the listeners
+ */
+public class ChangeDispatcher<C, L> {
+
+  protected final CopyOnWriteArrayList<L> listeners = new CopyOnWriteArrayList<>();
+  protected final BiConsumer<L, List<C>> delivery;
+  protected final ThreadLocal<Batch<C>> batches = new ThreadLocal<>();
+
+  /**
+   * Per-thread state of the currently open batches.
+   * 
+   * @author Fedor Smirnov
+   * 
+   * @param <C> the type of the collected changes
+   */
+  protected static class Batch<C> {
+    protected int depth;
+    protected List<C> changes;
+  }
+
+  /**
+   * Default constructor.
+   * 
+   * @param delivery the operation delivering a list of changes to a listener
+   */
+  public ChangeDispatcher(final BiConsumer<L, List<C>> delivery) {
+    this.delivery = delivery;
+  }
+
+  /**
+   * Registers the given listener.
+   * 
+   * @param listener the given listener
+   */
+  public void addListener(final L listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Unregisters the given listener.
+   * 
+   * @param listener the given listener
+   */
+  public void removeListener(final L listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Returns true iff at least one listener is registered.
+   * 
+   * @return true iff at least one listener is registered
+   */
+  public boolean hasListeners() {
+    return !listeners.isEmpty();
+  }
+
+  /**
+   * Opens a batch for the current thread (no effect if no listener is
+   * registered and no batch is open).
+   */
+  public void beginBatch() {
+    final Batch<C> batch = batches.get();
+    if (batch != null) {
+      batch.depth++;
+    } else if (hasListeners()) {
+      final Batch<C> opened = new Batch<>();
+      opened.depth = 1;
+      batches.set(opened);
+    }
+  }
+
+  /**
+   * Closes a batch of the current thread. If it was the outermost open batch,
+   * the collected changes are delivered.
+   */
+  public void endBatch() {
+    final Batch<C> batch = batches.get();
+    if (batch == null) {
+      return;
+    }
+    batch.depth--;
+    if (batch.depth > 0) {
+      return;
+    }
+    batches.remove();
+    if (batch.changes != null && !batch.changes.isEmpty()) {
+      final List<C> delivered = Collections.unmodifiableList(batch.changes);
+      listeners.forEach(listener -> delivery.accept(listener, delivered));
+    }
+  }
+
+  /**
+   * Records the given change (in case that a listener is registered). Changes
+   * recorded outside of a batch are delivered directly.
+   * 
+   * @param change the given change
+   */
+  public void record(final C change) {
+    if (!hasListeners()) {
+      return;
+    }
+    beginBatch();
+    try {
+      final Batch<C> batch = batches.get();
+      if (batch == null) {
+        // the last listener was removed in the meantime
+        return;
+      }
+      if (batch.changes == null) {
+        batch.changes = new ArrayList<>();
+      }
+      batch.changes.add(change);
+    } finally {
+      endBatch();
+    }
+  }
+
+  /**
+   * Executes the given action as one batch, so that all changes it causes are
+   * delivered together.
+   * 
+   * @param action the given action
+   */
+  public void batch(final Runnable action) {
+    beginBatch();
+    try {
+      action.run();
+    } finally {
+      endBatch();
+    }
+  }
+}
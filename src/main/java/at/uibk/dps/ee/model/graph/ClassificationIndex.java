@@ -0,0 +1,219 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtility;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Secondary index of the nodes of an {@link EnactmentGraph} by their
+ * classification: data nodes by their {@link PropertyServiceData.NodeType} and
+ * the {@link Marker}s, function nodes by their {@link UsageType} and (where
+ * applicable) by their utility or data flow type.
+ * 
+ * The classification is determined when a node is added to the index and is
+ * updated with {@link #reclassify(Task)}. The index is owned by its graph:
+ * changes of the classifying properties of a graph node are announced to the
+ * graph, either by the setter overloads taking the graph (e.g.,
+ * {@link PropertyServiceData#setNodeType(Task, PropertyServiceData.NodeType, EnactmentGraph)})
+ * or via {@link EnactmentGraph#reclassify(Task)}. The members of a class are
+ * maintained as a set, so that the queries return them without reading the
+ * node properties.
+ * 
+ * @author Fedor Smirnov
+ */
+public class ClassificationIndex {
+
+  /**
+   * Classes of data nodes which are not described by a property enum.
+   * 
+   * @author Fedor Smirnov
+   */
+  public enum Marker {
+    /**
+     * Constant data nodes (see {@link PropertyServiceData#isConstantNode(Task)})
+     */
+    Constant,
+    /**
+     * Data nodes annotated as workflow inputs
+     */
+    Root,
+    /**
+     * Data nodes annotated as workflow outputs
+     */
+    Leaf,
+    /**
+     * Data nodes modeling the start of a while loop
+     */
+    WhileStart
+  }
+
+  protected final ConcurrentHashMap<Enum<?>, Set<Task>> classMembers =
+      new ConcurrentHashMap<>();
+  protected final ConcurrentHashMap<String, Classified> nodeClasses = new ConcurrentHashMap<>();
+
+  /**
+   * An indexed node together with its classes.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static class Classified {
+    protected final Task node;
+    protected final List<Enum<?>> classes;
+
+    /**
+     * Default constructor.
+     * 
+     * @param node the indexed node
+     * @param classes the classes of the node
+     */
+    protected Classified(final Task node, final List<Enum<?>> classes) {
+      this.node = node;
+      this.classes = classes;
+    }
+  }
+
+  /**
+   * Creates an index containing the given nodes.
+   * 
+   * @param nodes the given nodes
+   */
+  public ClassificationIndex(final Iterable<Task> nodes) {
+    nodes.forEach(this::add);
+  }
+
+  /**
+   * Adds the given node to the index.
+   * 
+   * @param node the given node
+   */
+  public void add(final Task node) {
+    reclassify(node);
+  }
+
+  /**
+   * Removes the given node from the index.
+   * 
+   * @param node the given node
+   */
+  public void remove(final Task node) {
+    nodeClasses.computeIfPresent(node.getId(), (id, entry) -> {
+      entry.classes.forEach(classification -> removeMember(classification, entry.node));
+      return null;
+    });
+  }
+
+  /**
+   * Updates the classes of the given node according to its current properties.
+   * 
+   * @param node the given node
+   */
+  public void reclassify(final Task node) {
+    final List<Enum<?>> current = classify(node);
+    nodeClasses.compute(node.getId(), (id, previous) -> {
+      if (previous != null) {
+        previous.classes.forEach(classification -> removeMember(classification, previous.node));
+      }
+      current.forEach(classification -> getMemberSet(classification).add(node));
+      return new Classified(node, current);
+    });
+  }
+
+  /**
+   * Updates the classes of the given node according to its current properties,
+   * provided that the node (and not only a node with the same ID) is contained
+   * in the index.
+   * 
+   * @param node the given node
+   */
+  protected void reclassifyIfContained(final Task node) {
+    nodeClasses.computeIfPresent(node.getId(), (id, previous) -> {
+      if (previous.node != node) {
+        return previous;
+      }
+      final List<Enum<?>> current = classify(node);
+      previous.classes.forEach(classification -> removeMember(classification, node));
+      current.forEach(classification -> getMemberSet(classification).add(node));
+      return new Classified(node, current);
+    });
+  }
+
+  /**
+   * Returns the nodes of the given class as an unmodifiable view, which
+   * reflects the later changes of the index.
+   * 
+   * @param classification the given class
+   * @return the nodes of the given class
+   */
+  public Set<Task> getMembers(final Enum<?> classification) {
+    return Collections.unmodifiableSet(getMemberSet(classification));
+  }
+
+  /**
+   * Returns the (modifiable) set of the members of the given class, creating
+   * it if it does not exist.
+   * 
+   * @param classification the given class
+   * @return the set of the members of the given class
+   */
+  protected Set<Task> getMemberSet(final Enum<?> classification) {
+    return classMembers.computeIfAbsent(classification, c -> ConcurrentHashMap.newKeySet());
+  }
+
+  /**
+   * Removes the given node from the given class.
+   * 
+   * @param classification the given class
+   * @param node the given node
+   */
+  protected void removeMember(final Enum<?> classification, final Task node) {
+    final Set<Task> members = classMembers.get(classification);
+    if (members != null) {
+      members.remove(node);
+    }
+  }
+
+  /**
+   * Returns the classes of the given node, as defined by its current properties.
+   * 
+   * @param node the given node
+   * @return the classes of the given node
+   */
+  protected static List<Enum<?>> classify(final Task node) {
+    final List<Enum<?>> result = new ArrayList<>(3);
+    if (TaskPropertyService.isCommunication(node)) {
+      result.add(PropertyServiceData.getNodeType(node));
+      if (PropertyServiceData.isConstantNode(node)) {
+        result.add(Marker.Constant);
+      }
+      if (PropertyServiceData.isRoot(node)) {
+        result.add(Marker.Root);
+      }
+      if (PropertyServiceData.isLeaf(node)) {
+        result.add(Marker.Leaf);
+      }
+      if (PropertyServiceData.isWhileStart(node)) {
+        result.add(Marker.WhileStart);
+      }
+    } else if (PropertyServiceFunction.isUsageTypeSet(node)) {
+      final UsageType usageType = PropertyServiceFunction.getUsageType(node);
+      result.add(usageType);
+      if (usageType.equals(UsageType.Utility)
+          && PropertyServiceFunctionUtility.isUtilityTypeSet(node)) {
+        result.add(PropertyServiceFunctionUtility.getUtilityType(node));
+      } else if (usageType.equals(UsageType.DataFlow)
+          && PropertyServiceFunctionDataFlow.isDataFlowTypeSet(node)) {
+        result.add(PropertyServiceFunctionDataFlow.getDataFlowType(node));
+      }
+    }
+    return result;
+  }
+}
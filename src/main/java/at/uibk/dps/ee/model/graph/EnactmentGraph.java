@@ -1,6 +1,14 @@
 package at.uibk.dps.ee.model.graph;
 
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
 import edu.uci.ics.jung.graph.util.EdgeType;
+import at.uibk.dps.ee.model.graph.ClassificationIndex.Marker;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.NodeType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow.DataFlowType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtility.UtilityType;
 import net.sf.opendse.model.Application;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Task;
@@ -9,12 +17,42 @@ import net.sf.opendse.model.Task;
  * The {@link EnactmentGraph} models the data and the control flow of the
  * workflow to enact.
  * 
+ * On the first query, the graph starts to maintain a topological order of its
+ * nodes, which is then updated incrementally on each structural change. From
+ * then on, the insertion of edges closing a cycle is rejected. Only the
+ * insertion of edges which violate the current order (and require a
+ * reordering) is serialized; all other changes keep running concurrently.
+ * 
+ * Similarly, the first classification query (e.g., {@link #getNodes(NodeType)})
+ * creates a {@link ClassificationIndex} of the graph nodes, which is kept up to
+ * date on the addition and the removal of nodes. Changes of the classifying
+ * properties of a node in the graph are to be made with the setter overloads
+ * taking the graph or to be announced via {@link #reclassify(Task)}. The
+ * classification queries return unmodifiable live views of the maintained
+ * node sets.
+ * 
+ * The {@link ReadinessTracker} (created on the first call of
+ * {@link #getReadinessTracker()}) counts the pending inputs of the function
+ * nodes. Changes of the transmission annotation of an edge in the graph are to
+ * be made with the setter overloads taking the graph (in
+ * {@link at.uibk.dps.ee.model.properties.PropertyServiceDependency}) or to be
+ * announced via {@link #updateReadiness(Dependency)}.
+ * 
+ * Reachability queries (e.g., {@link #isReachable(Task, Task)}) are answered by
+ * a {@link ReachabilityIndex}, which is built on the first query and updated
+ * incrementally on the addition and the removal of nodes and edges.
+ * 
  * @author Fedor Smirnov
  */
 public class EnactmentGraph extends AbstractConcurrentGraph<Task, Dependency> {
 
   private static final long serialVersionUID = 1L;
 
+  protected transient volatile TopologicalOrder<Task, Dependency> topologicalOrder;
+  protected transient volatile ClassificationIndex classificationIndex;
+  protected transient volatile ReadinessTracker readinessTracker;
+  protected transient volatile ReachabilityIndex reachabilityIndex;
+
   /**
    * Default constructor.
    */
@@ -22,18 +60,436 @@ public class EnactmentGraph extends AbstractConcurrentGraph<Task, Dependency> {
     super();
   }
 
+  /**
+   * Constructor offering the possibility to use the concurrent maps as the only
+   * store of the graph structure.
+   * 
+   * @param concurrentStoreOnly true iff the graph structure is to be stored only
+   *        in the concurrent maps (without mirroring it into the JUNG parent)
+   */
+  public EnactmentGraph(final boolean concurrentStoreOnly) {
+    super(concurrentStoreOnly);
+  }
+
+  /**
+   * Constructor presizing the graph for the expected numbers of nodes and edges.
+   * 
+   * @param concurrentStoreOnly true iff the graph structure is to be stored only
+   *        in the concurrent maps (without mirroring it into the JUNG parent)
+   * @param expectedVertexCount the expected number of nodes
+   * @param expectedEdgeCount the expected number of edges
+   */
+  public EnactmentGraph(final boolean concurrentStoreOnly, final int expectedVertexCount,
+      final int expectedEdgeCount) {
+    super(concurrentStoreOnly, expectedVertexCount, expectedEdgeCount);
+  }
+
   /**
    * Constructor to build an {@link EnactmentGraph} out of an application.
    * 
    * @param application the given application
    */
   public EnactmentGraph(final Application<Task, Dependency> application) {
-    super();
-    application.getEdges().forEach(edge -> {
-      final Task src = application.getSource(edge);
-      final Task dst = application.getDest(edge);
-      this.addEdge(edge, src, dst, EdgeType.DIRECTED);
+    this(false, application.getVertexCount(), application.getEdgeCount());
+    GraphBuilder.enactmentGraph(application.getVertexCount(), application.getEdgeCount())
+        .addVertices(application)
+        .addEdges(application.getEdges(), application::getSource, application::getDest,
+            EdgeType.DIRECTED)
+        .loadInto(this);
+  }
+
+  @Override
+  public boolean addVertex(final Task vertex) {
+    final long stripes = stripeOf(vertex.getId());
+    beginMutation(stripes);
+    try {
+      final TopologicalOrder<Task, Dependency> order = topologicalOrder;
+      if (order == null) {
+        return super.addVertex(vertex);
+      }
+      final Lock shared = order.getLock().readLock();
+      shared.lock();
+      try {
+        final boolean result = super.addVertex(vertex);
+        order.vertexAdded(vertex);
+        return result;
+      } finally {
+        shared.unlock();
+      }
+    } finally {
+      endMutation(stripes);
+    }
+  }
+
+  @Override
+  public boolean removeVertex(final Task vertex) {
+    final long stripes = beginMutation(() -> neighborhoodStripes(vertex));
+    try {
+      final TopologicalOrder<Task, Dependency> order = topologicalOrder;
+      if (order == null) {
+        return super.removeVertex(vertex);
+      }
+      final Lock shared = order.getLock().readLock();
+      shared.lock();
+      try {
+        final boolean result = super.removeVertex(vertex);
+        order.vertexRemoved(vertex);
+        return result;
+      } finally {
+        shared.unlock();
+      }
+    } finally {
+      endMutation(stripes);
+    }
+  }
+
+  @Override
+  public boolean addEdge(final Dependency dependency, final Task src, final Task dst,
+      final EdgeType edgeType) {
+    final long stripes = stripeOf(src.getId()) | stripeOf(dst.getId());
+    beginMutation(stripes);
+    try {
+      final TopologicalOrder<Task, Dependency> order = topologicalOrder;
+      if (order == null) {
+        return super.addEdge(dependency, src, dst, edgeType);
+      }
+      // edges keeping the order valid are inserted concurrently
+      final Lock shared = order.getLock().readLock();
+      shared.lock();
+      try {
+        if (order.registerEdge(src, dst)) {
+          return super.addEdge(dependency, src, dst, edgeType);
+        }
+      } finally {
+        shared.unlock();
+      }
+      final Lock exclusive = order.getLock().writeLock();
+      exclusive.lock();
+      try {
+        order.edgeAdded(src, dst);
+        return super.addEdge(dependency, src, dst, edgeType);
+      } finally {
+        exclusive.unlock();
+      }
+    } finally {
+      endMutation(stripes);
+    }
+  }
+
+  @Override
+  public boolean removeEdge(final Dependency edge) {
+    final long stripes = edgeStripes(edge);
+    beginMutation(stripes);
+    try {
+      final TopologicalOrder<Task, Dependency> order = topologicalOrder;
+      if (order == null) {
+        return super.removeEdge(edge);
+      }
+      // keeps the adjacency stable while the order is rearranged
+      final Lock shared = order.getLock().readLock();
+      shared.lock();
+      try {
+        return super.removeEdge(edge);
+      } finally {
+        shared.unlock();
+      }
+    } finally {
+      endMutation(stripes);
+    }
+  }
+
+  /**
+   * Returns an unmodifiable, live view of the nodes of the graph in topological
+   * order. The view is the order maintained by the graph and is returned without
+   * copying (see {@link TopologicalOrder#getOrder()}).
+   * 
+   * @return an unmodifiable, live view of the nodes in topological order
+   */
+  public Collection<Task> getTopologicalOrder() {
+    return getOrderTracking().getOrder();
+  }
+
+  /**
+   * Returns the position of the given node within the topological order. Only
+   * the relative order of the positions is meaningful, i.e., the node positions
+   * are not necessarily dense.
+   * 
+   * @param task the given node
+   * @return the position of the given node within the topological order
+   */
+  public int getTopologicalPosition(final Task task) {
+    return getOrderTracking().getPosition(task);
+  }
+
+  /**
+   * Returns the object maintaining the topological order, creating it (while no
+   * structural changes are in progress) on the first call.
+   * 
+   * @return the object maintaining the topological order
+   */
+  protected TopologicalOrder<Task, Dependency> getOrderTracking() {
+    final TopologicalOrder<Task, Dependency> result = topologicalOrder;
+    if (result != null) {
+      return result;
+    }
+    return readConsistently(() -> {
+      if (topologicalOrder == null) {
+        topologicalOrder = new TopologicalOrder<>(this);
+      }
+      return topologicalOrder;
+    });
+  }
+
+  @Override
+  protected void onVertexAdded(final Task vertex) {
+    final ClassificationIndex index = classificationIndex;
+    if (index != null) {
+      index.add(vertex);
+    }
+    final ReadinessTracker tracker = readinessTracker;
+    if (tracker != null) {
+      tracker.vertexAdded(vertex);
+    }
+    final ReachabilityIndex reachability = reachabilityIndex;
+    if (reachability != null) {
+      reachability.vertexAdded(vertex);
+    }
+  }
+
+  @Override
+  protected void onVertexRemoved(final Task vertex) {
+    final ClassificationIndex index = classificationIndex;
+    if (index != null) {
+      index.remove(vertex);
+    }
+    final ReadinessTracker tracker = readinessTracker;
+    if (tracker != null) {
+      tracker.vertexRemoved(vertex);
+    }
+    final ReachabilityIndex reachability = reachabilityIndex;
+    if (reachability != null) {
+      reachability.vertexRemoved(vertex);
+    }
+  }
+
+  @Override
+  protected void onEdgeAdded(final Dependency edge, final Task src, final Task dst) {
+    final ReadinessTracker tracker = readinessTracker;
+    if (tracker != null) {
+      tracker.edgeAdded(edge, dst);
+    }
+    final ReachabilityIndex reachability = reachabilityIndex;
+    if (reachability != null) {
+      reachability.edgeAdded(src, dst);
+    }
+  }
+
+  @Override
+  protected void onEdgeRemoved(final Dependency edge, final Task src, final Task dst) {
+    final ReadinessTracker tracker = readinessTracker;
+    if (tracker != null) {
+      tracker.edgeRemoved(edge, dst);
+    }
+    final ReachabilityIndex reachability = reachabilityIndex;
+    if (reachability != null) {
+      reachability.edgeRemoved(src, dst);
+    }
+  }
+
+  /**
+   * Updates the pending input count of the destination of the given edge after
+   * a change of the transmission annotation of the edge. Does nothing for edges
+   * which are not in the graph (including other edges with the same ID, e.g.,
+   * copies) or while the readiness is not tracked.
+   * 
+   * @param edge the given edge
+   */
+  public void updateReadiness(final Dependency edge) {
+    final ReadinessTracker tracker = readinessTracker;
+    final Task dst = dests.get(edge.getId());
+    if (tracker != null && dst != null && edgesConcurrent.get(edge.getId()) == edge) {
+      tracker.updateTransmission(edge, dst);
+    }
+  }
+
+  /**
+   * Returns true iff the given destination can be reached from the given source
+   * via a (non-empty) path.
+   * 
+   * @param src the given source
+   * @param dst the given destination
+   * @return true iff the given destination can be reached from the given source
+   */
+  public boolean isReachable(final Task src, final Task dst) {
+    return getReachability().isReachable(src, dst);
+  }
+
+  /**
+   * Returns the nodes which can be reached from the given node.
+   * 
+   * @param task the given node
+   * @return the nodes which can be reached from the given node
+   */
+  public Set<Task> getDescendants(final Task task) {
+    return getReachability().getDescendants(task);
+  }
+
+  /**
+   * Returns the nodes from which the given node can be reached.
+   * 
+   * @param task the given node
+   * @return the nodes from which the given node can be reached
+   */
+  public Set<Task> getAncestors(final Task task) {
+    return getReachability().getAncestors(task);
+  }
+
+  /**
+   * Returns the reachability index of the graph, building it (while no
+   * structural changes are in progress) if it does not exist.
+   * 
+   * @return the reachability index of the graph
+   */
+  protected ReachabilityIndex getReachability() {
+    final ReachabilityIndex result = reachabilityIndex;
+    if (result != null) {
+      return result;
+    }
+    return readConsistently(() -> {
+      if (reachabilityIndex == null) {
+        reachabilityIndex = new ReachabilityIndex(this);
+      }
+      return reachabilityIndex;
+    });
+  }
+
+  /**
+   * Returns the object tracking the pending inputs of the function nodes,
+   * creating it (while no structural changes are in progress) on the first
+   * call.
+   * 
+   * @return the object tracking the pending inputs of the function nodes
+   */
+  public ReadinessTracker getReadinessTracker() {
+    final ReadinessTracker result = readinessTracker;
+    if (result != null) {
+      return result;
+    }
+    return readConsistently(() -> {
+      if (readinessTracker == null) {
+        readinessTracker = new ReadinessTracker(this);
+      }
+      return readinessTracker;
+    });
+  }
+
+  /**
+   * Returns the data nodes of the given type.
+   * 
+   * @param nodeType the given type
+   * @return the data nodes of the given type
+   */
+  public Set<Task> getNodes(final NodeType nodeType) {
+    return getClassification().getMembers(nodeType);
+  }
+
+  /**
+   * Returns the function nodes of the given usage type.
+   * 
+   * @param usageType the given usage type
+   * @return the function nodes of the given usage type
+   */
+  public Set<Task> getNodes(final UsageType usageType) {
+    return getClassification().getMembers(usageType);
+  }
+
+  /**
+   * Returns the utility function nodes of the given type.
+   * 
+   * @param utilityType the given type
+   * @return the utility function nodes of the given type
+   */
+  public Set<Task> getNodes(final UtilityType utilityType) {
+    return getClassification().getMembers(utilityType);
+  }
+
+  /**
+   * Returns the data flow function nodes of the given type.
+   * 
+   * @param dataFlowType the given type
+   * @return the data flow function nodes of the given type
+   */
+  public Set<Task> getNodes(final DataFlowType dataFlowType) {
+    return getClassification().getMembers(dataFlowType);
+  }
+
+  /**
+   * Returns the constant data nodes (constants and while counters).
+   * 
+   * @return the constant data nodes
+   */
+  public Set<Task> getConstantNodes() {
+    return getClassification().getMembers(Marker.Constant);
+  }
+
+  /**
+   * Returns the data nodes annotated as workflow inputs.
+   * 
+   * @return the data nodes annotated as workflow inputs
+   */
+  public Set<Task> getRootDataNodes() {
+    return getClassification().getMembers(Marker.Root);
+  }
+
+  /**
+   * Returns the data nodes annotated as workflow outputs.
+   * 
+   * @return the data nodes annotated as workflow outputs
+   */
+  public Set<Task> getLeafDataNodes() {
+    return getClassification().getMembers(Marker.Leaf);
+  }
+
+  /**
+   * Returns the data nodes modeling the start of a while loop.
+   * 
+   * @return the while start nodes
+   */
+  public Set<Task> getWhileStartNodes() {
+    return getClassification().getMembers(Marker.WhileStart);
+  }
+
+  /**
+   * Updates the classification of the given node after a change of its
+   * classifying properties. Does nothing for nodes which are not in the graph
+   * (including other nodes with the same ID) or while no classification query
+   * was made.
+   * 
+   * @param task the given node
+   */
+  public void reclassify(final Task task) {
+    final ClassificationIndex index = classificationIndex;
+    if (index != null) {
+      index.reclassifyIfContained(task);
+    }
+  }
+
+  /**
+   * Returns the index of the node classification, creating it (while no
+   * structural changes are in progress) on the first call.
+   * 
+   * @return the index of the node classification
+   */
+  protected ClassificationIndex getClassification() {
+    final ClassificationIndex result = classificationIndex;
+    if (result != null) {
+      return result;
+    }
+    return readConsistently(() -> {
+      if (classificationIndex == null) {
+        classificationIndex = new ClassificationIndex(getVertices());
+      }
+      return classificationIndex;
     });
-    application.forEach(task -> this.addVertex(task));
   }
 }
@@ -12,12 +12,12 @@ public class EnactmentSpecification extends Element {
   protected final EnactmentGraph eGraph;
   protected final ResourceGraph rGraph;
   protected final MappingsConcurrent mappings;
-  // TODO implement the routings as soon as we have the first use case
 
   /**
    * Creates an {@link EnactmentSpecification} containing the provided
    * {@link EnactmentGraph} and {@link ResourceGraph}, connected by the provided
-   * {@link MappingsConcurrent}. The message routing is set to null.
+   * {@link MappingsConcurrent}. The message routing is provided by the
+   * {@link RoutingTable} of the resource graph.
    * 
    * @param enactmentGraph the enactment graph (application model)
    * @param resourceGraph the resource graph (resource model)
@@ -52,4 +52,14 @@ public class EnactmentSpecification extends Element {
   public MappingsConcurrent getMappings() {
     return mappings;
   }
+
+  /**
+   * Returns the table of the cheapest routes between the resources of the
+   * resource graph.
+   * 
+   * @return the table of the cheapest routes between the resources
+   */
+  public RoutingTable getRoutings() {
+    return rGraph.getRoutingTable();
+  }
 }
@@ -0,0 +1,541 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Node;
+
+/**
+ * Read-only, index-based representation of a graph, meant for the phases where
+ * the graph is (mostly) read. Each vertex and each edge is assigned a dense int
+ * index. The adjacency is stored in compressed-sparse-row (CSR) arrays, so that
+ * the source and the destination of an edge can be looked up by its index in
+ * constant time and the in/out edges of a vertex are a contiguous array slice.
+ * Undirected edges are registered as in and out edges of both their end points
+ * (same as in the {@link AbstractConcurrentGraph}).
+ * 
+ * The frozen graph does not reflect the changes made to the original graph
+ * after its creation.
+ * 
+ * @author Fedor Smirnov
+ * 
+ * @param <V> the type of graph nodes
+ * @param <E> the type of graph edges
+ */
+public class FrozenGraph<V extends Node, E extends Edge> implements ReadableGraph<V, E> {
+
+  protected final List<V> vertices;
+  protected final List<E> edges;
+  protected final Map<String, Integer> vertexIndices;
+  protected final Map<String, Integer> edgeIndices;
+
+  protected final int[] edgeSources;
+  protected final int[] edgeDests;
+  protected final boolean[] undirected;
+
+  protected final int[] inOffsets;
+  protected final int[] inAdjacency;
+  protected final int[] outOffsets;
+  protected final int[] outAdjacency;
+
+  protected final long version;
+
+  /**
+   * Creates the frozen representation of the given graph. The given graph must
+   * not be structurally modified while the frozen graph is created (a
+   * modification is either detected by an exception or by comparing the version
+   * of the frozen graph with the version of the graph afterwards).
+   * 
+   * @param graph the graph to freeze
+   */
+  public FrozenGraph(final AbstractConcurrentGraph<V, E> graph) {
+    this.version = graph.getVersion();
+    this.vertices = new ArrayList<>(graph.getVertices());
+    this.vertexIndices = new HashMap<>(vertices.size() * 2);
+    for (int idx = 0; idx < vertices.size(); idx++) {
+      vertexIndices.put(vertices.get(idx).getId(), idx);
+    }
+    final List<E> edgeList = new ArrayList<>(graph.getEdgeCount());
+    final List<Integer> srcList = new ArrayList<>(graph.getEdgeCount());
+    final List<Integer> dstList = new ArrayList<>(graph.getEdgeCount());
+    for (final E edge : graph.getEdges()) {
+      final V src = graph.sources.get(edge.getId());
+      final V dst = graph.dests.get(edge.getId());
+      final Integer srcIdx = src == null ? null : vertexIndices.get(src.getId());
+      final Integer dstIdx = dst == null ? null : vertexIndices.get(dst.getId());
+      if (srcIdx == null || dstIdx == null) {
+        throw new IllegalStateException(
+            "Edge " + edge.getId() + " was modified while freezing the graph.");
+      }
+      edgeList.add(edge);
+      srcList.add(srcIdx);
+      dstList.add(dstIdx);
+    }
+    this.edges = edgeList;
+    final int edgeNum = edges.size();
+    this.edgeIndices = new HashMap<>(edgeNum * 2);
+    this.edgeSources = new int[edgeNum];
+    this.edgeDests = new int[edgeNum];
+    this.undirected = new boolean[edgeNum];
+    for (int idx = 0; idx < edgeNum; idx++) {
+      final E edge = edges.get(idx);
+      edgeIndices.put(edge.getId(), idx);
+      edgeSources[idx] = srcList.get(idx);
+      edgeDests[idx] = dstList.get(idx);
+      undirected[idx] = EdgeType.UNDIRECTED.equals(graph.getEdgeType(edge));
+    }
+    this.inOffsets = new int[vertices.size() + 1];
+    this.outOffsets = new int[vertices.size() + 1];
+    for (int idx = 0; idx < edgeNum; idx++) {
+      inOffsets[edgeDests[idx] + 1]++;
+      outOffsets[edgeSources[idx] + 1]++;
+      if (undirected[idx]) {
+        inOffsets[edgeSources[idx] + 1]++;
+        outOffsets[edgeDests[idx] + 1]++;
+      }
+    }
+    for (int idx = 0; idx < vertices.size(); idx++) {
+      inOffsets[idx + 1] += inOffsets[idx];
+      outOffsets[idx + 1] += outOffsets[idx];
+    }
+    this.inAdjacency = new int[inOffsets[vertices.size()]];
+    this.outAdjacency = new int[outOffsets[vertices.size()]];
+    final int[] inFill = new int[vertices.size()];
+    final int[] outFill = new int[vertices.size()];
+    for (int idx = 0; idx < edgeNum; idx++) {
+      final int src = edgeSources[idx];
+      final int dst = edgeDests[idx];
+      inAdjacency[inOffsets[dst] + inFill[dst]++] = idx;
+      outAdjacency[outOffsets[src] + outFill[src]++] = idx;
+      if (undirected[idx]) {
+        inAdjacency[inOffsets[src] + inFill[src]++] = idx;
+        outAdjacency[outOffsets[dst] + outFill[dst]++] = idx;
+      }
+    }
+  }
+
+  /**
+   * Returns the version of the original graph which the frozen graph was created
+   * from.
+   * 
+   * @return the version of the original graph
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  // index-based access
+
+  /**
+   * Returns the index of the given vertex.
+   * 
+   * @param vertex the given vertex
+   * @return the index of the given vertex
+   */
+  public int getVertexIndex(final V vertex) {
+    return getVertexIndex(vertex.getId());
+  }
+
+  /**
+   * Returns the index of the vertex with the given ID.
+   * 
+   * @param vertexId the given ID
+   * @return the index of the vertex with the given ID
+   */
+  public int getVertexIndex(final String vertexId) {
+    final Integer result = vertexIndices.get(vertexId);
+    if (result == null) {
+      throw new IllegalArgumentException("Vertex " + vertexId + " not in the graph");
+    }
+    return result;
+  }
+
+  /**
+   * Returns the index of the given edge.
+   * 
+   * @param edge the given edge
+   * @return the index of the given edge
+   */
+  public int getEdgeIndex(final E edge) {
+    return getEdgeIndex(edge.getId());
+  }
+
+  /**
+   * Returns the index of the edge with the given ID.
+   * 
+   * @param edgeId the given ID
+   * @return the index of the edge with the given ID
+   */
+  public int getEdgeIndex(final String edgeId) {
+    final Integer result = edgeIndices.get(edgeId);
+    if (result == null) {
+      throw new IllegalArgumentException(
+          AbstractConcurrentGraph.edgeString + edgeId + AbstractConcurrentGraph.notInGraphString);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the vertex with the given index.
+   * 
+   * @param vertexIdx the given index
+   * @return the vertex with the given index
+   */
+  public V getVertexAt(final int vertexIdx) {
+    return vertices.get(vertexIdx);
+  }
+
+  /**
+   * Returns the edge with the given index.
+   * 
+   * @param edgeIdx the given index
+   * @return the edge with the given index
+   */
+  public E getEdgeAt(final int edgeIdx) {
+    return edges.get(edgeIdx);
+  }
+
+  /**
+   * Returns the index of the source of the edge with the given index.
+   * 
+   * @param edgeIdx the given edge index
+   * @return the index of the source of the edge with the given index
+   */
+  public int getSourceIndex(final int edgeIdx) {
+    return edgeSources[edgeIdx];
+  }
+
+  /**
+   * Returns the index of the destination of the edge with the given index.
+   * 
+   * @param edgeIdx the given edge index
+   * @return the index of the destination of the edge with the given index
+   */
+  public int getDestIndex(final int edgeIdx) {
+    return edgeDests[edgeIdx];
+  }
+
+  /**
+   * Returns true iff the edge with the given index is undirected.
+   * 
+   * @param edgeIdx the given edge index
+   * @return true iff the edge with the given index is undirected
+   */
+  public boolean isUndirected(final int edgeIdx) {
+    return undirected[edgeIdx];
+  }
+
+  /**
+   * Returns the number of in edges of the vertex with the given index.
+   * 
+   * @param vertexIdx the given vertex index
+   * @return the number of in edges of the vertex with the given index
+   */
+  public int inDegree(final int vertexIdx) {
+    return inOffsets[vertexIdx + 1] - inOffsets[vertexIdx];
+  }
+
+  /**
+   * Returns the number of out edges of the vertex with the given index.
+   * 
+   * @param vertexIdx the given vertex index
+   * @return the number of out edges of the vertex with the given index
+   */
+  public int outDegree(final int vertexIdx) {
+    return outOffsets[vertexIdx + 1] - outOffsets[vertexIdx];
+  }
+
+  /**
+   * Returns the index of the position-th in edge of the vertex with the given
+   * index.
+   * 
+   * @param vertexIdx the given vertex index
+   * @param position the position within the in edges of the vertex
+   * @return the index of the position-th in edge of the vertex
+   */
+  public int getInEdgeIndex(final int vertexIdx, final int position) {
+    return inAdjacency[adjacencyPosition(inOffsets, vertexIdx, position)];
+  }
+
+  /**
+   * Returns the index of the position-th out edge of the vertex with the given
+   * index.
+   * 
+   * @param vertexIdx the given vertex index
+   * @param position the position within the out edges of the vertex
+   * @return the index of the position-th out edge of the vertex
+   */
+  public int getOutEdgeIndex(final int vertexIdx, final int position) {
+    return outAdjacency[adjacencyPosition(outOffsets, vertexIdx, position)];
+  }
+
+  /**
+   * Applies the given action to the index of each in edge of the vertex with the
+   * given index.
+   * 
+   * @param vertexIdx the given vertex index
+   * @param action the action to apply
+   */
+  public void forEachInEdgeIndex(final int vertexIdx, final IntConsumer action) {
+    for (int pos = inOffsets[vertexIdx]; pos < inOffsets[vertexIdx + 1]; pos++) {
+      action.accept(inAdjacency[pos]);
+    }
+  }
+
+  /**
+   * Applies the given action to the index of each out edge of the vertex with
+   * the given index.
+   * 
+   * @param vertexIdx the given vertex index
+   * @param action the action to apply
+   */
+  public void forEachOutEdgeIndex(final int vertexIdx, final IntConsumer action) {
+    for (int pos = outOffsets[vertexIdx]; pos < outOffsets[vertexIdx + 1]; pos++) {
+      action.accept(outAdjacency[pos]);
+    }
+  }
+
+  // read API shared with the mutable graphs
+
+  @Override
+  public Collection<V> getVertices() {
+    return Collections.unmodifiableList(vertices);
+  }
+
+  @Override
+  public Collection<E> getEdges() {
+    return Collections.unmodifiableList(edges);
+  }
+
+  @Override
+  public int getVertexCount() {
+    return vertices.size();
+  }
+
+  @Override
+  public int getEdgeCount() {
+    return edges.size();
+  }
+
+  @Override
+  public boolean containsVertex(final String vertexId) {
+    return vertexIndices.containsKey(vertexId);
+  }
+
+  @Override
+  public boolean containsEdge(final String edgeId) {
+    return edgeIndices.containsKey(edgeId);
+  }
+
+  @Override
+  public V getVertex(final String vertexId) {
+    final Integer vertexIdx = vertexIndices.get(vertexId);
+    if (vertexIdx == null) {
+      throw new IllegalStateException("Vertex " + vertexId + " not in the graph");
+    }
+    return vertices.get(vertexIdx);
+  }
+
+  @Override
+  public E getEdge(final String edgeId) {
+    return edges.get(getEdgeIndex(edgeId));
+  }
+
+  @Override
+  public V getSource(final E edge) {
+    return vertices.get(edgeSources[getEdgeIndex(edge)]);
+  }
+
+  @Override
+  public V getDest(final E edge) {
+    return vertices.get(edgeDests[getEdgeIndex(edge)]);
+  }
+
+  @Override
+  public EdgeType getEdgeType(final E edge) {
+    final Integer edgeIdx = edgeIndices.get(edge.getId());
+    if (edgeIdx == null) {
+      return null;
+    }
+    return undirected[edgeIdx] ? EdgeType.UNDIRECTED : EdgeType.DIRECTED;
+  }
+
+  @Override
+  public Collection<E> getInEdges(final V vertex) {
+    final Integer vertexIdx = vertexIndices.get(vertex.getId());
+    if (vertexIdx == null) {
+      return Collections.emptyList();
+    }
+    return new EdgeSlice(inAdjacency, inOffsets[vertexIdx], inOffsets[vertexIdx + 1]);
+  }
+
+  @Override
+  public Collection<E> getOutEdges(final V vertex) {
+    final Integer vertexIdx = vertexIndices.get(vertex.getId());
+    if (vertexIdx == null) {
+      return Collections.emptyList();
+    }
+    return new EdgeSlice(outAdjacency, outOffsets[vertexIdx], outOffsets[vertexIdx + 1]);
+  }
+
+  @Override
+  public void forEachInEdge(final V vertex, final Consumer<? super E> action) {
+    final Integer vertexIdx = vertexIndices.get(vertex.getId());
+    if (vertexIdx != null) {
+      forEachInEdgeIndex(vertexIdx, edgeIdx -> action.accept(edges.get(edgeIdx)));
+    }
+  }
+
+  @Override
+  public void forEachOutEdge(final V vertex, final Consumer<? super E> action) {
+    final Integer vertexIdx = vertexIndices.get(vertex.getId());
+    if (vertexIdx != null) {
+      forEachOutEdgeIndex(vertexIdx, edgeIdx -> action.accept(edges.get(edgeIdx)));
+    }
+  }
+
+  @Override
+  public int inDegree(final V vertex) {
+    final Integer vertexIdx = vertexIndices.get(vertex.getId());
+    return vertexIdx == null ? 0 : inDegree(vertexIdx.intValue());
+  }
+
+  @Override
+  public int outDegree(final V vertex) {
+    final Integer vertexIdx = vertexIndices.get(vertex.getId());
+    return vertexIdx == null ? 0 : outDegree(vertexIdx.intValue());
+  }
+
+  @Override
+  public Collection<V> getPredecessors(final V vertex) {
+    final Set<V> result = new HashSet<>();
+    final Integer vertexIdx = vertexIndices.get(vertex.getId());
+    if (vertexIdx != null) {
+      forEachInEdgeIndex(vertexIdx, edgeIdx -> result.add(vertices.get(edgeSources[edgeIdx])));
+    }
+    return result;
+  }
+
+  @Override
+  public Collection<V> getSuccessors(final V vertex) {
+    final Set<V> result = new HashSet<>();
+    final Integer vertexIdx = vertexIndices.get(vertex.getId());
+    if (vertexIdx != null) {
+      forEachOutEdgeIndex(vertexIdx, edgeIdx -> result.add(vertices.get(edgeDests[edgeIdx])));
+    }
+    return result;
+  }
+
+  @Override
+  public boolean areNodesConnected(final V first, final V second) {
+    if (!containsVertex(first.getId()) || !containsVertex(second.getId())) {
+      throw new IllegalArgumentException("One of the requested end points not in the graph");
+    }
+    final int firstIdx = getVertexIndex(first);
+    final int secondIdx = getVertexIndex(second);
+    return findIncidentEdge(firstIdx, secondIdx, true) != -1
+        || findIncidentEdge(secondIdx, firstIdx, true) != -1;
+  }
+
+  @Override
+  public E findEdge(final V firstNode, final V secondNode) {
+    if (!areNodesConnected(firstNode, secondNode)) {
+      throw new IllegalArgumentException("The given end points are not connected");
+    }
+    final int firstIdx = getVertexIndex(firstNode);
+    final int secondIdx = getVertexIndex(secondNode);
+    final int inEdge = findIncidentEdge(firstIdx, secondIdx, true);
+    return edges.get(inEdge == -1 ? findIncidentEdge(firstIdx, secondIdx, false) : inEdge);
+  }
+
+  // helper methods
+
+  /**
+   * Returns the index of an in/out edge of the given vertex which connects it to
+   * the given opposite vertex, or -1 if there is no such edge.
+   * 
+   * @param vertexIdx the index of the given vertex
+   * @param oppositeIdx the index of the opposite vertex
+   * @param inEdge true iff looking at the in edges of the given vertex
+   * @return the index of an edge connecting the two vertices, or -1
+   */
+  protected int findIncidentEdge(final int vertexIdx, final int oppositeIdx,
+      final boolean inEdge) {
+    final int[] offsets = inEdge ? inOffsets : outOffsets;
+    final int[] adjacency = inEdge ? inAdjacency : outAdjacency;
+    for (int pos = offsets[vertexIdx]; pos < offsets[vertexIdx + 1]; pos++) {
+      final int edgeIdx = adjacency[pos];
+      final int opposite =
+          edgeSources[edgeIdx] == vertexIdx ? edgeDests[edgeIdx] : edgeSources[edgeIdx];
+      if (opposite == oppositeIdx) {
+        return edgeIdx;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the position within the adjacency array of the position-th incident
+   * edge of the vertex with the given index.
+   * 
+   * @param offsets the offsets of the adjacency array
+   * @param vertexIdx the given vertex index
+   * @param position the position within the incident edges of the vertex
+   * @return the position within the adjacency array
+   */
+  protected int adjacencyPosition(final int[] offsets, final int vertexIdx, final int position) {
+    if (position < 0 || offsets[vertexIdx] + position >= offsets[vertexIdx + 1]) {
+      throw new IndexOutOfBoundsException(
+          "Position " + position + " out of bounds for vertex " + vertexIdx);
+    }
+    return offsets[vertexIdx] + position;
+  }
+
+  /**
+   * Unmodifiable list view of a slice of an adjacency array.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected class EdgeSlice extends AbstractList<E> {
+
+    protected final int[] adjacency;
+    protected final int start;
+    protected final int end;
+
+    /**
+     * Default constructor.
+     * 
+     * @param adjacency the adjacency array
+     * @param start the start of the slice (inclusive)
+     * @param end the end of the slice (exclusive)
+     */
+    protected EdgeSlice(final int[] adjacency, final int start, final int end) {
+      this.adjacency = adjacency;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public E get(final int index) {
+      if (index < 0 || start + index >= end) {
+        throw new IndexOutOfBoundsException("Index " + index + " out of bounds");
+      }
+      return edges.get(adjacency[start + index]);
+    }
+
+    @Override
+    public int size() {
+      return end - start;
+    }
+  }
+}
@@ -0,0 +1,288 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Node;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+/**
+ * Builder for the bulk creation of graphs. The builder collects the vertices
+ * and edges first and then fills the maps of a graph presized for the expected
+ * numbers of vertices and edges in a single pass (instead of adding the edges
+ * one at a time, with the according rehashing and redundant lookups). The
+ * builder itself is not thread-safe; the built graph is only handed out after
+ * it was completely filled.
+ * 
+ * With {@link #build(Executor)}, graphs using the concurrent maps as their only
+ * store are filled by concurrent insertions on the given executor. Graphs
+ * mirroring their structure into the JUNG parent are always filled by one
+ * thread, since the JUNG maps do not support concurrent insertion.
+ * 
+ * @author Fedor Smirnov
+ * 
+ * @param <V> the type of graph nodes
+ * @param <E> the type of graph edges
+ * @param <G> the type of the built graph
+ */
+public class GraphBuilder<V extends Node, E extends Edge,
+    G extends AbstractConcurrentGraph<V, E>> {
+
+  protected final BiFunction<Integer, Integer, G> graphFactory;
+  protected final int expectedVertexCount;
+  protected final int expectedEdgeCount;
+
+  protected final Map<String, V> vertices;
+  protected final List<E> edges;
+  protected final List<V> edgeSources;
+  protected final List<V> edgeDests;
+  protected final List<EdgeType> edgeTypes;
+
+  /**
+   * Default constructor.
+   * 
+   * @param graphFactory function creating an empty graph presized for the given
+   *        numbers of vertices and edges
+   * @param expectedVertexCount the expected number of vertices
+   * @param expectedEdgeCount the expected number of edges
+   */
+  public GraphBuilder(final BiFunction<Integer, Integer, G> graphFactory,
+      final int expectedVertexCount, final int expectedEdgeCount) {
+    this.graphFactory = graphFactory;
+    this.expectedVertexCount = expectedVertexCount;
+    this.expectedEdgeCount = expectedEdgeCount;
+    this.vertices = new LinkedHashMap<>(expectedVertexCount * 2);
+    this.edges = new ArrayList<>(expectedEdgeCount);
+    this.edgeSources = new ArrayList<>(expectedEdgeCount);
+    this.edgeDests = new ArrayList<>(expectedEdgeCount);
+    this.edgeTypes = new ArrayList<>(expectedEdgeCount);
+  }
+
+  /**
+   * Returns a builder for an {@link EnactmentGraph}.
+   * 
+   * @param expectedVertexCount the expected number of vertices
+   * @param expectedEdgeCount the expected number of edges
+   * @return a builder for an {@link EnactmentGraph}
+   */
+  public static GraphBuilder<Task, Dependency, EnactmentGraph> enactmentGraph(
+      final int expectedVertexCount, final int expectedEdgeCount) {
+    return enactmentGraph(expectedVertexCount, expectedEdgeCount, false);
+  }
+
+  /**
+   * Returns a builder for an {@link EnactmentGraph}.
+   * 
+   * @param expectedVertexCount the expected number of vertices
+   * @param expectedEdgeCount the expected number of edges
+   * @param concurrentStoreOnly true iff the graph structure is to be stored only
+   *        in the concurrent maps
+   * @return a builder for an {@link EnactmentGraph}
+   */
+  public static GraphBuilder<Task, Dependency, EnactmentGraph> enactmentGraph(
+      final int expectedVertexCount, final int expectedEdgeCount,
+      final boolean concurrentStoreOnly) {
+    return new GraphBuilder<>(
+        (vertexNum, edgeNum) -> new EnactmentGraph(concurrentStoreOnly, vertexNum, edgeNum),
+        expectedVertexCount, expectedEdgeCount);
+  }
+
+  /**
+   * Returns a builder for a {@link ResourceGraph}.
+   * 
+   * @param expectedVertexCount the expected number of vertices
+   * @param expectedEdgeCount the expected number of edges
+   * @return a builder for a {@link ResourceGraph}
+   */
+  public static GraphBuilder<Resource, Link, ResourceGraph> resourceGraph(
+      final int expectedVertexCount, final int expectedEdgeCount) {
+    return resourceGraph(expectedVertexCount, expectedEdgeCount, false);
+  }
+
+  /**
+   * Returns a builder for a {@link ResourceGraph}.
+   * 
+   * @param expectedVertexCount the expected number of vertices
+   * @param expectedEdgeCount the expected number of edges
+   * @param concurrentStoreOnly true iff the graph structure is to be stored only
+   *        in the concurrent maps
+   * @return a builder for a {@link ResourceGraph}
+   */
+  public static GraphBuilder<Resource, Link, ResourceGraph> resourceGraph(
+      final int expectedVertexCount, final int expectedEdgeCount,
+      final boolean concurrentStoreOnly) {
+    return new GraphBuilder<>(
+        (vertexNum, edgeNum) -> new ResourceGraph(concurrentStoreOnly, vertexNum, edgeNum),
+        expectedVertexCount, expectedEdgeCount);
+  }
+
+  /**
+   * Adds the given vertex.
+   * 
+   * @param vertex the given vertex
+   * @return the builder
+   */
+  public GraphBuilder<V, E, G> addVertex(final V vertex) {
+    vertices.putIfAbsent(vertex.getId(), vertex);
+    return this;
+  }
+
+  /**
+   * Adds the given vertices.
+   * 
+   * @param vertexCollection the given vertices
+   * @return the builder
+   */
+  public GraphBuilder<V, E, G> addVertices(final Iterable<? extends V> vertexCollection) {
+    vertexCollection.forEach(this::addVertex);
+    return this;
+  }
+
+  /**
+   * Adds the given edge (as well as its end points, if they were not added
+   * before).
+   * 
+   * @param edge the given edge
+   * @param src the source of the edge
+   * @param dst the destination of the edge
+   * @param edgeType the type of the edge
+   * @return the builder
+   */
+  public GraphBuilder<V, E, G> addEdge(final E edge, final V src, final V dst,
+      final EdgeType edgeType) {
+    addVertex(src);
+    addVertex(dst);
+    edges.add(edge);
+    edgeSources.add(vertices.get(src.getId()));
+    edgeDests.add(vertices.get(dst.getId()));
+    edgeTypes.add(edgeType);
+    return this;
+  }
+
+  /**
+   * Adds the given edges, all of the given type.
+   * 
+   * @param edgeCollection the given edges
+   * @param sourceFunction function returning the source of an edge
+   * @param destFunction function returning the destination of an edge
+   * @param edgeType the type of the edges
+   * @return the builder
+   */
+  public GraphBuilder<V, E, G> addEdges(final Iterable<? extends E> edgeCollection,
+      final Function<? super E, ? extends V> sourceFunction,
+      final Function<? super E, ? extends V> destFunction, final EdgeType edgeType) {
+    edgeCollection.forEach(edge -> addEdge(edge, sourceFunction.apply(edge),
+        destFunction.apply(edge), edgeType));
+    return this;
+  }
+
+  /**
+   * Creates a presized graph and fills it with the added vertices and edges.
+   * 
+   * @return the built graph
+   */
+  public G build() {
+    final G result = graphFactory.apply(Math.max(expectedVertexCount, vertices.size()),
+        Math.max(expectedEdgeCount, edges.size()));
+    loadInto(result);
+    return result;
+  }
+
+  /**
+   * Creates a presized graph and fills it with the added vertices and edges. If
+   * the graph uses the concurrent maps as its only store, the vertices (and then
+   * the edges) are inserted concurrently on the given executor. Otherwise, the
+   * graph is filled as with {@link #build()}.
+   * 
+   * @param executor the executor used for the insertion
+   * @return the built graph
+   */
+  public G build(final Executor executor) {
+    final G result = graphFactory.apply(Math.max(expectedVertexCount, vertices.size()),
+        Math.max(expectedEdgeCount, edges.size()));
+    if (!result.isConcurrentStoreOnly()) {
+      loadInto(result);
+      return result;
+    }
+    final List<V> vertexList = new ArrayList<>(vertices.values());
+    insertConcurrently(vertexList.size(), idx -> result.addVertex(vertexList.get(idx)),
+        executor);
+    insertConcurrently(edges.size(), idx -> result.addEdge(edges.get(idx),
+        edgeSources.get(idx), edgeDests.get(idx), edgeTypes.get(idx)), executor);
+    return result;
+  }
+
+  /**
+   * Runs the given insertion for all indices from 0 to the given number. The
+   * index range is split into one chunk per available processor. The chunks are
+   * claimed by helper tasks submitted to the given executor and by the calling
+   * thread itself, so that the insertion also completes if the executor has no
+   * free thread (e.g., when called from a task of the same executor). Returns
+   * after all chunks are processed; exceptions thrown by the insertion are
+   * rethrown.
+   * 
+   * @param elementNum the number of elements to insert
+   * @param insertion the insertion of the element with the given index
+   * @param executor the executor used for the insertion
+   */
+  protected void insertConcurrently(final int elementNum, final IntConsumer insertion,
+      final Executor executor) {
+    final int chunkNum =
+        Math.max(1, Math.min(elementNum, Runtime.getRuntime().availableProcessors()));
+    final int chunkSize = (elementNum + chunkNum - 1) / chunkNum;
+    final AtomicInteger nextChunk = new AtomicInteger();
+    final CountDownLatch remaining = new CountDownLatch(chunkNum);
+    final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    final Runnable worker = () -> {
+      int chunk = nextChunk.getAndIncrement();
+      while (chunk < chunkNum) {
+        try {
+          final int end = Math.min(elementNum, (chunk + 1) * chunkSize);
+          for (int idx = chunk * chunkSize; idx < end; idx++) {
+            insertion.accept(idx);
+          }
+        } catch (RuntimeException exc) {
+          failure.compareAndSet(null, exc);
+        } finally {
+          remaining.countDown();
+        }
+        chunk = nextChunk.getAndIncrement();
+      }
+    };
+    for (int helper = 1; helper < chunkNum; helper++) {
+      executor.execute(worker);
+    }
+    worker.run();
+    try {
+      remaining.await();
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted during the graph insertion.", exc);
+    }
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+  }
+
+  /**
+   * Fills the given (empty) graph with the added vertices and edges.
+   * 
+   * @param graph the given graph
+   */
+  protected void loadInto(final G graph) {
+    graph.loadStructure(vertices.values(), edges, edgeSources, edgeDests, edgeTypes);
+  }
+}
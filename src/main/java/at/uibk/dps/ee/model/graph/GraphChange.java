@@ -0,0 +1,150 @@
+package at.uibk.dps.ee.model.graph;
+
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Node;
+
+/**
+ * Describes a structural change of a graph: the addition or the removal of a
+ * vertex or an edge.
+ * 
+ * @author Fedor Smirnov
+ * 
+ * @param <V> the type of graph nodes
+ * @param <E> the type of graph edges
+ */
+public final class GraphChange<V extends Node, E extends Edge> {
+
+  /**
+   * The types of structural changes.
+   * 
+   * @author Fedor Smirnov
+   */
+  public enum ChangeType {
+    /**
+     * A vertex was added
+     */
+    VertexAdded,
+    /**
+     * A vertex was removed
+     */
+    VertexRemoved,
+    /**
+     * An edge was added
+     */
+    EdgeAdded,
+    /**
+     * An edge was removed
+     */
+    EdgeRemoved
+  }
+
+  private final ChangeType type;
+  private final V vertex;
+  private final E edge;
+  private final V source;
+  private final V dest;
+
+  /**
+   * Private constructor, use the static factory methods.
+   * 
+   * @param type the change type
+   * @param vertex the changed vertex (null for edge changes)
+   * @param edge the changed edge (null for vertex changes)
+   * @param source the source of the changed edge (null for vertex changes)
+   * @param dest the destination of the changed edge (null for vertex changes)
+   */
+  private GraphChange(final ChangeType type, final V vertex, final E edge, final V source,
+      final V dest) {
+    this.type = type;
+    this.vertex = vertex;
+    this.edge = edge;
+    this.source = source;
+    this.dest = dest;
+  }
+
+  /**
+   * Creates the change describing the addition/removal of the given vertex.
+   * 
+   * @param <V> the type of graph nodes
+   * @param <E> the type of graph edges
+   * @param vertex the given vertex
+   * @param added true for an addition, false for a removal
+   * @return the change describing the addition/removal of the given vertex
+   */
+  public static <V extends Node, E extends Edge> GraphChange<V, E> vertexChange(final V vertex,
+      final boolean added) {
+    return new GraphChange<>(added ? ChangeType.VertexAdded : ChangeType.VertexRemoved, vertex,
+        null, null, null);
+  }
+
+  /**
+   * Creates the change describing the addition/removal of the given edge.
+   * 
+   * @param <V> the type of graph nodes
+   * @param <E> the type of graph edges
+   * @param edge the given edge
+   * @param source the source of the given edge
+   * @param dest the destination of the given edge
+   * @param added true for an addition, false for a removal
+   * @return the change describing the addition/removal of the given edge
+   */
+  public static <V extends Node, E extends Edge> GraphChange<V, E> edgeChange(final E edge,
+      final V source, final V dest, final boolean added) {
+    return new GraphChange<>(added ? ChangeType.EdgeAdded : ChangeType.EdgeRemoved, null, edge,
+        source, dest);
+  }
+
+  /**
+   * Returns the type of the change.
+   * 
+   * @return the type of the change
+   */
+  public ChangeType getType() {
+    return type;
+  }
+
+  /**
+   * Returns true iff the change concerns a vertex.
+   * 
+   * @return true iff the change concerns a vertex
+   */
+  public boolean isVertexChange() {
+    return vertex != null;
+  }
+
+  /**
+   * Returns the changed vertex (null for edge changes).
+   * 
+   * @return the changed vertex
+   */
+  public V getVertex() {
+    return vertex;
+  }
+
+  /**
+   * Returns the changed edge (null for vertex changes).
+   * 
+   * @return the changed edge
+   */
+  public E getEdge() {
+    return edge;
+  }
+
+  /**
+   * Returns the source of the changed edge (null for vertex changes).
+   * 
+   * @return the source of the changed edge
+   */
+  public V getSource() {
+    return source;
+  }
+
+  /**
+   * Returns the destination of the changed edge (null for vertex changes).
+   * 
+   * @return the destination of the changed edge
+   */
+  public V getDest() {
+    return dest;
+  }
+}
@@ -0,0 +1,27 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.List;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Node;
+
+/**
+ * Interface for the classes which are notified about the structural changes of
+ * a graph.
+ * 
+ * @author Fedor Smirnov
+ * 
+ * @param <V> the type of graph nodes
+ * @param <E> the type of graph edges
+ */
+@FunctionalInterface
+public interface GraphChangeListener<V extends Node, E extends Edge> {
+
+  /**
+   * Notifies the listener about a batch of structural changes, in the order in
+   * which they were applied. Called by the thread which applied the changes,
+   * after the changes are complete.
+   * 
+   * @param changes the (unmodifiable) list of changes
+   */
+  void graphChanged(List<GraphChange<V, E>> changes);
+}
@@ -0,0 +1,258 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Node;
+
+/**
+ * Collects a sequence of structural changes which are then applied atomically
+ * by {@link AbstractConcurrentGraph#mutate(java.util.function.Consumer)}. The
+ * changes are only recorded when the methods of the transaction are called and
+ * applied (in the order of recording) after the transaction is defined.
+ * Recorded changes of elements which are already in the desired state (e.g.,
+ * the removal of an edge which is not in the graph) are ignored.
+ * 
+ * @author Fedor Smirnov
+ * 
+ * @param <V> the type of graph nodes
+ * @param <E> the type of graph edges
+ */
+public class GraphTransaction<V extends Node, E extends Edge> {
+
+  protected final AbstractConcurrentGraph<V, E> graph;
+  protected final List<Change<V, E>> changes = new ArrayList<>();
+
+  /**
+   * The types of the recorded changes.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected enum ChangeType {
+    /**
+     * Addition of a vertex
+     */
+    AddVertex,
+    /**
+     * Removal of a vertex
+     */
+    RemoveVertex,
+    /**
+     * Addition of an edge
+     */
+    AddEdge,
+    /**
+     * Removal of an edge
+     */
+    RemoveEdge
+  }
+
+  /**
+   * A recorded change.
+   * 
+   * @author Fedor Smirnov
+   * 
+   * @param <V> the type of graph nodes
+   * @param <E> the type of graph edges
+   */
+  protected static class Change<V extends Node, E extends Edge> {
+    protected final ChangeType type;
+    protected final V vertex;
+    protected final E edge;
+    protected final V dest;
+    protected final EdgeType edgeType;
+
+    /**
+     * Default constructor.
+     * 
+     * @param type the change type
+     * @param vertex the changed vertex (the source for edge additions)
+     * @param edge the changed edge
+     * @param dest the destination (for edge additions)
+     * @param edgeType the edge type (for edge additions)
+     */
+    protected Change(final ChangeType type, final V vertex, final E edge, final V dest,
+        final EdgeType edgeType) {
+      this.type = type;
+      this.vertex = vertex;
+      this.edge = edge;
+      this.dest = dest;
+      this.edgeType = edgeType;
+    }
+  }
+
+  /**
+   * Default constructor.
+   * 
+   * @param graph the graph to change
+   */
+  protected GraphTransaction(final AbstractConcurrentGraph<V, E> graph) {
+    this.graph = graph;
+  }
+
+  /**
+   * Records the addition of the given vertex (no effect if the graph already
+   * contains a vertex with the same ID).
+   * 
+   * @param vertex the given vertex
+   * @return the transaction, for chaining
+   */
+  public GraphTransaction<V, E> addVertex(final V vertex) {
+    changes.add(new Change<>(ChangeType.AddVertex, vertex, null, null, null));
+    return this;
+  }
+
+  /**
+   * Records the removal of the given vertex (and of its edges).
+   * 
+   * @param vertex the given vertex
+   * @return the transaction, for chaining
+   */
+  public GraphTransaction<V, E> removeVertex(final V vertex) {
+    changes.add(new Change<>(ChangeType.RemoveVertex, vertex, null, null, null));
+    return this;
+  }
+
+  /**
+   * Records the addition of the given edge and of its end points which are not
+   * in the graph (no effect if the graph already contains an edge with the same
+   * ID).
+   * 
+   * @param edge the given edge
+   * @param src the source of the given edge
+   * @param dst the destination of the given edge
+   * @param edgeType the type of the given edge
+   * @return the transaction, for chaining
+   */
+  public GraphTransaction<V, E> addEdge(final E edge, final V src, final V dst,
+      final EdgeType edgeType) {
+    changes.add(new Change<>(ChangeType.AddEdge, src, edge, dst, edgeType));
+    return this;
+  }
+
+  /**
+   * Records the removal of the given edge.
+   * 
+   * @param edge the given edge
+   * @return the transaction, for chaining
+   */
+  public GraphTransaction<V, E> removeEdge(final E edge) {
+    changes.add(new Change<>(ChangeType.RemoveEdge, null, edge, null, null));
+    return this;
+  }
+
+  /**
+   * Returns the stripes of the vertices touched by the recorded changes, as
+   * defined by the current state of the graph.
+   * 
+   * @return the stripes of the vertices touched by the recorded changes
+   */
+  protected long getStripes() {
+    long result = 0L;
+    for (final Change<V, E> change : changes) {
+      switch (change.type) {
+        case AddVertex:
+          result |= AbstractConcurrentGraph.stripeOf(change.vertex.getId());
+          break;
+        case RemoveVertex:
+          result |= graph.neighborhoodStripes(change.vertex);
+          break;
+        case AddEdge:
+          result |= AbstractConcurrentGraph.stripeOf(change.vertex.getId())
+              | AbstractConcurrentGraph.stripeOf(change.dest.getId());
+          break;
+        case RemoveEdge:
+          result |= graph.edgeStripes(change.edge);
+          break;
+        default:
+          throw new IllegalStateException("Unknown change type " + change.type);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Applies the recorded changes. If a change fails, the changes which were
+   * already applied are reverted (in reverse order) before the exception is
+   * rethrown. Called while the stripes of all touched vertices are locked.
+   */
+  protected void apply() {
+    final Deque<Runnable> reversals = new ArrayDeque<>();
+    try {
+      for (final Change<V, E> change : changes) {
+        applyChange(change, reversals);
+      }
+    } catch (RuntimeException exc) {
+      while (!reversals.isEmpty()) {
+        reversals.pop().run();
+      }
+      throw exc;
+    }
+  }
+
+  /**
+   * Applies the given change and records the operation reverting it.
+   * 
+   * @param change the given change
+   * @param reversals the stack of the reverting operations
+   */
+  protected void applyChange(final Change<V, E> change, final Deque<Runnable> reversals) {
+    switch (change.type) {
+      case AddVertex:
+        if (!graph.containsVertex(change.vertex.getId())) {
+          graph.addVertex(change.vertex);
+          reversals.push(() -> graph.removeVertex(change.vertex));
+        }
+        break;
+      case RemoveVertex:
+        if (graph.containsVertex(change.vertex.getId())) {
+          // the incident edges (deduplicated, undirected ones are in and out edges)
+          final Map<E, Change<V, E>> incidentEdges = new LinkedHashMap<>();
+          final Consumer<E> recordEdge = e -> incidentEdges.put(e, new Change<>(
+              ChangeType.AddEdge, graph.getSource(e), e, graph.getDest(e), graph.getEdgeType(e)));
+          graph.forEachInEdge(change.vertex, recordEdge);
+          graph.forEachOutEdge(change.vertex, recordEdge);
+          graph.removeVertex(change.vertex);
+          reversals.push(() -> {
+            graph.addVertex(change.vertex);
+            incidentEdges.values().forEach(edgeChange -> graph.addEdge(edgeChange.edge,
+                edgeChange.vertex, edgeChange.dest, edgeChange.edgeType));
+          });
+        }
+        break;
+      case AddEdge:
+        if (!graph.containsEdge(change.edge.getId())) {
+          final boolean newSrc = !graph.containsVertex(change.vertex.getId());
+          final boolean newDst = !graph.containsVertex(change.dest.getId());
+          graph.addEdge(change.edge, change.vertex, change.dest, change.edgeType);
+          reversals.push(() -> {
+            graph.removeEdge(change.edge);
+            if (newSrc) {
+              graph.removeVertex(change.vertex);
+            }
+            if (newDst && !change.dest.equals(change.vertex)) {
+              graph.removeVertex(change.dest);
+            }
+          });
+        }
+        break;
+      case RemoveEdge:
+        if (graph.containsEdge(change.edge.getId())) {
+          final V src = graph.getSource(change.edge);
+          final V dst = graph.getDest(change.edge);
+          final EdgeType type = graph.getEdgeType(change.edge);
+          graph.removeEdge(change.edge);
+          reversals.push(() -> graph.addEdge(change.edge, src, dst, type));
+        }
+        break;
+      default:
+        throw new IllegalStateException("Unknown change type " + change.type);
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
+
+/**
+ * Allocates unique IDs for generated graph elements in constant (amortized)
+ * time, also when called from multiple threads.
+ * 
+ * In the default mode, an allocation returns the given prefix itself if it is
+ * free, and otherwise appends the value of an atomic counter of the prefix
+ * (e.g., src--dst, src--dst'1, src--dst'2). The counters are kept per prefix,
+ * so that the suffix of an ID depends only on the allocations with the same
+ * prefix, not on the allocations for other elements. A counter is only created
+ * for a prefix which is allocated more than once. A prefix handed out
+ * without suffix is reserved until an element with this ID is added to the
+ * graph (see {@link #confirm(String)}), so that it is not handed out twice in
+ * the meantime. In the compact mode, the IDs are short numbers drawn from a
+ * single counter, independent of the prefix. In both modes, IDs which are
+ * already taken in the graph (e.g., chosen by the user) are skipped. The IDs of
+ * the other generated elements (links, sequelizer nodes, offspring, and
+ * mappings) are derived from the elements they connect or copy and are not
+ * allocated.
+ * 
+ * @author Fedor Smirnov
+ */
+public class IdAllocator {
+
+  protected final Predicate<String> isTaken;
+  protected final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+  protected final Set<String> reserved = ConcurrentHashMap.newKeySet();
+  protected final AtomicLong compactCounter = new AtomicLong();
+  protected volatile boolean compact;
+
+  /**
+   * Default constructor.
+   * 
+   * @param isTaken returns true for IDs which are already used in the graph
+   */
+  public IdAllocator(final Predicate<String> isTaken) {
+    this.isTaken = isTaken;
+  }
+
+  /**
+   * Returns a new unique ID for an element with the given prefix.
+   * 
+   * @param prefix the given prefix (describing the element)
+   * @return a new unique ID
+   */
+  public String allocate(final String prefix) {
+    if (compact) {
+      String result;
+      do {
+        result = ConstantsEEModel.KeyWordCompactId + compactCounter.incrementAndGet();
+      } while (isTaken.test(result));
+      return result;
+    }
+    // reserve first, so that an element added in the meantime is seen as taken
+    if (reserved.add(prefix)) {
+      if (!isTaken.test(prefix)) {
+        return prefix;
+      }
+      reserved.remove(prefix);
+    }
+    final AtomicLong counter = counters.computeIfAbsent(prefix, key -> new AtomicLong());
+    String result;
+    do {
+      result = prefix + ConstantsEEModel.KeyWordEdgeUniqueness + counter.incrementAndGet();
+    } while (isTaken.test(result));
+    return result;
+  }
+
+  /**
+   * Releases the reservation of the given ID after an element with this ID was
+   * added to the graph.
+   * 
+   * @param id the given ID
+   */
+  public void confirm(final String id) {
+    reserved.remove(id);
+  }
+
+  /**
+   * Sets whether compact numeric IDs are to be allocated.
+   * 
+   * @param compact true iff compact numeric IDs are to be allocated
+   */
+  public void setCompact(final boolean compact) {
+    this.compact = compact;
+  }
+
+  /**
+   * Returns true iff compact numeric IDs are allocated.
+   * 
+   * @return true iff compact numeric IDs are allocated
+   */
+  public boolean isCompact() {
+    return compact;
+  }
+
+  /**
+   * Drops the reservations of the IDs which were allocated but never added to
+   * the graph and the counters of the prefixes (to free their memory). Later
+   * allocations skip the IDs in the graph, so that they stay unique. Not to be
+   * called while IDs are allocated for elements which are not yet in the
+   * graph.
+   */
+  public void clear() {
+    reserved.clear();
+    counters.clear();
+  }
+}
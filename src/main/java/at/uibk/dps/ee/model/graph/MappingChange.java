@@ -0,0 +1,45 @@
+package at.uibk.dps.ee.model.graph;
+
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+/**
+ * Describes the addition or the removal of a mapping.
+ * 
+ * @author Fedor Smirnov
+ */
+public final class MappingChange {
+
+  private final Mapping<Task, Resource> mapping;
+  private final boolean added;
+
+  /**
+   * Default constructor.
+   * 
+   * @param mapping the changed mapping
+   * @param added true for an addition, false for a removal
+   */
+  public MappingChange(final Mapping<Task, Resource> mapping, final boolean added) {
+    this.mapping = mapping;
+    this.added = added;
+  }
+
+  /**
+   * Returns the changed mapping.
+   * 
+   * @return the changed mapping
+   */
+  public Mapping<Task, Resource> getMapping() {
+    return mapping;
+  }
+
+  /**
+   * Returns true if the mapping was added, false if it was removed.
+   * 
+   * @return true if the mapping was added, false if it was removed
+   */
+  public boolean isAdded() {
+    return added;
+  }
+}
@@ -0,0 +1,21 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.List;
+
+/**
+ * Interface for the classes which are notified about the changes of the
+ * {@link MappingsConcurrent}.
+ * 
+ * @author Fedor Smirnov
+ */
+@FunctionalInterface
+public interface MappingChangeListener {
+
+  /**
+   * Notifies the listener about a batch of mapping changes, in the order in
+   * which they were applied.
+   * 
+   * @param changes the (unmodifiable) list of changes
+   */
+  void mappingsChanged(List<MappingChange> changes);
+}
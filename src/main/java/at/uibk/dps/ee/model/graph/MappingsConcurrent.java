@@ -4,6 +4,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import net.sf.opendse.model.Mapping;
@@ -25,6 +26,49 @@ public class MappingsConcurrent implements Iterable<Mapping<Task, Resource>> {
       new ConcurrentHashMap<>();
   protected final ConcurrentHashMap<String, ConcurrentHashMap<String, Mapping<Task, Resource>>> resourceMappings =
       new ConcurrentHashMap<>();
+  protected final ChangeDispatcher<MappingChange, MappingChangeListener> changeDispatcher =
+      new ChangeDispatcher<>(MappingChangeListener::mappingsChanged);
+  protected final AtomicLong version = new AtomicLong();
+
+  /**
+   * Returns the version of the mapping set, which is incremented by each
+   * addition and removal of a mapping.
+   * 
+   * @return the version of the mapping set
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
+  /**
+   * Registers the given listener which is then notified about the addition and
+   * the removal of mappings.
+   * 
+   * @param listener the given listener
+   */
+  public void addMappingChangeListener(final MappingChangeListener listener) {
+    changeDispatcher.addListener(listener);
+  }
+
+  /**
+   * Unregisters the given listener.
+   * 
+   * @param listener the given listener
+   */
+  public void removeMappingChangeListener(final MappingChangeListener listener) {
+    changeDispatcher.removeListener(listener);
+  }
+
+  /**
+   * Applies the mapping changes made by the given action as one batch, i.e., the
+   * listeners are notified about all changes together, after the action is
+   * finished.
+   * 
+   * @param action the given action
+   */
+  public void batchChanges(final Runnable action) {
+    changeDispatcher.batch(action);
+  }
 
   @Override
   public Iterator<Mapping<Task, Resource>> iterator() {
@@ -58,10 +102,9 @@ public class MappingsConcurrent implements Iterable<Mapping<Task, Resource>> {
    * @return true if the set was altered as the result of the addition
    */
   public boolean addMapping(final Mapping<Task, Resource> mapping) {
-    if (mappings.containsKey(mapping.getId())) {
+    if (mappings.putIfAbsent(mapping.getId(), mapping) != null) {
       return false;
     } else {
-      mappings.put(mapping.getId(), mapping);
       final Resource tar = mapping.getTarget();
       final Task src = mapping.getSource();
       // housekeeping ...
@@ -71,6 +114,10 @@ public class MappingsConcurrent implements Iterable<Mapping<Task, Resource>> {
       // ... and the resource mappings
       resourceMappings.putIfAbsent(tar.getId(), new ConcurrentHashMap<>());
       resourceMappings.get(tar.getId()).put(mapping.getId(), mapping);
+      version.incrementAndGet();
+      if (changeDispatcher.hasListeners()) {
+        changeDispatcher.record(new MappingChange(mapping, true));
+      }
       return true;
     }
   }
@@ -83,12 +130,15 @@ public class MappingsConcurrent implements Iterable<Mapping<Task, Resource>> {
    * @return true if the set was altered as the result of removing the mapping.
    */
   public boolean removeMapping(final Mapping<Task, Resource> mapping) {
-    if (containsMapping(mapping)) {
-      mappings.remove(mapping.getId());
+    if (mappings.remove(mapping.getId()) != null) {
       final Resource tar = mapping.getTarget();
       final Task src = mapping.getSource();
       taskMappings.get(src.getId()).remove(mapping.getId());
       resourceMappings.get(tar.getId()).remove(mapping.getId());
+      version.incrementAndGet();
+      if (changeDispatcher.hasListeners()) {
+        changeDispatcher.record(new MappingChange(mapping, false));
+      }
       return true;
     } else {
       return false;
@@ -0,0 +1,880 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import at.uibk.dps.ee.model.properties.PropertySlots;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Task;
+
+/**
+ * Read-only, off-heap snapshot of an {@link EnactmentGraph}, meant for very
+ * large (e.g., heavily reproduced) graphs which are kept around without being
+ * modified. It is not a storage mode of the enactment graph: it reflects the
+ * state of the graph at its creation and cannot be changed afterwards. Graphs
+ * which are still modified (e.g., reproduced during the enactment) are kept on
+ * the heap; an off-heap storage mode which the enactment graph can write
+ * through is not provided.
+ * 
+ * The topology and the scalar attributes (booleans, numbers, and references to
+ * strings, which covers the types, flags, and JSON keys annotated by the
+ * property services) are stored in direct byte buffers. The strings themselves
+ * (IDs, attribute names, and string values) stay on the heap; they are
+ * interned, so that each distinct string is stored once. The graph does not
+ * keep any {@link Task} or {@link Dependency} objects: the nodes and edges
+ * returned by the queries are lightweight handles which are materialized on
+ * demand and are equal to the original elements. The handles are read-only:
+ * setting an attribute (e.g., by the property services) throws an
+ * {@link UnsupportedOperationException} instead of changing a detached copy.
+ * Modifiable copies of all elements are created with
+ * {@link #toEnactmentGraph()}.
+ * 
+ * Attributes with other values (e.g., the JSON inputs and outputs of the
+ * functions) are kept on the heap, for the elements which have them. The
+ * parent of an element is restored if it is part of the graph; otherwise, the
+ * parent is represented by a handle without attributes (the attributes
+ * inherited from the parent are stored with the element itself).
+ * 
+ * @author Fedor Smirnov
+ */
+public class OffHeapEnactmentGraph implements ReadableGraph<Task, Dependency> {
+
+  // vertex record: id, kind, first property, property count, parent id
+  protected static final int vertexInts = 5;
+  // edge record: id, source, destination, undirected, first property, property
+  // count, parent id
+  protected static final int edgeInts = 7;
+  // property record: name (int), kind (int), value (long)
+  protected static final int propertyBytes = 16;
+
+  protected static final int kindTask = 0;
+  protected static final int kindCommunication = 1;
+
+  protected static final int valueString = 0;
+  protected static final int valueBoolean = 1;
+  protected static final int valueInteger = 2;
+  protected static final int valueLong = 3;
+  protected static final int valueDouble = 4;
+
+  protected static final String readOnlyMessage =
+      "Elements of an off-heap graph are read-only: ";
+
+  protected final int vertexNum;
+  protected final int edgeNum;
+
+  protected final IntBuffer vertexRecords;
+  protected final IntBuffer edgeRecords;
+  protected final ByteBuffer properties;
+  protected final IntBuffer inOffsets;
+  protected final IntBuffer inAdjacency;
+  protected final IntBuffer outOffsets;
+  protected final IntBuffer outAdjacency;
+
+  protected final List<String> strings = new ArrayList<>();
+  protected final Map<String, Integer> stringIndices = new HashMap<>();
+  protected final IntBuffer vertexOfString;
+  protected final IntBuffer edgeOfString;
+  protected final Map<Integer, Map<String, Object>> vertexOverflow = new HashMap<>();
+  protected final Map<Integer, Map<String, Object>> edgeOverflow = new HashMap<>();
+
+  /**
+   * Creates the off-heap representation of the given graph.
+   * 
+   * @param graph the given graph
+   */
+  public OffHeapEnactmentGraph(final EnactmentGraph graph) {
+    this(graph.snapshot());
+  }
+
+  /**
+   * Creates the off-heap representation of the given graph snapshot.
+   * 
+   * @param snapshot the given graph snapshot
+   */
+  public OffHeapEnactmentGraph(final FrozenGraph<Task, Dependency> snapshot) {
+    this.vertexNum = snapshot.getVertexCount();
+    this.edgeNum = snapshot.getEdgeCount();
+    long propertyNum = 0;
+    for (final Task vertex : snapshot.getVertices()) {
+      propertyNum += vertex.getAttributeNames().size();
+    }
+    for (final Dependency edge : snapshot.getEdges()) {
+      propertyNum += edge.getAttributeNames().size();
+    }
+    this.vertexRecords = allocate((long) vertexNum * vertexInts, Integer.BYTES).asIntBuffer();
+    this.edgeRecords = allocate((long) edgeNum * edgeInts, Integer.BYTES).asIntBuffer();
+    this.properties = allocate(propertyNum, propertyBytes);
+    int propertyIdx = 0;
+    for (int idx = 0; idx < vertexNum; idx++) {
+      final Task vertex = snapshot.getVertexAt(idx);
+      final int base = idx * vertexInts;
+      vertexRecords.put(base, intern(vertex.getId()));
+      vertexRecords.put(base + 1,
+          vertex instanceof Communication ? kindCommunication : kindTask);
+      vertexRecords.put(base + 2, propertyIdx);
+      final int stored = storeProperties(vertex, propertyIdx, idx, vertexOverflow);
+      vertexRecords.put(base + 3, stored);
+      vertexRecords.put(base + 4, parentIndex(vertex));
+      propertyIdx += stored;
+    }
+    for (int idx = 0; idx < edgeNum; idx++) {
+      final Dependency edge = snapshot.getEdgeAt(idx);
+      final int base = idx * edgeInts;
+      edgeRecords.put(base, intern(edge.getId()));
+      edgeRecords.put(base + 1, snapshot.getSourceIndex(idx));
+      edgeRecords.put(base + 2, snapshot.getDestIndex(idx));
+      edgeRecords.put(base + 3, snapshot.isUndirected(idx) ? 1 : 0);
+      edgeRecords.put(base + 4, propertyIdx);
+      final int stored = storeProperties(edge, propertyIdx, idx, edgeOverflow);
+      edgeRecords.put(base + 5, stored);
+      edgeRecords.put(base + 6, parentIndex(edge));
+      propertyIdx += stored;
+    }
+    this.inOffsets = copyOffHeap(snapshot.inOffsets);
+    this.inAdjacency = copyOffHeap(snapshot.inAdjacency);
+    this.outOffsets = copyOffHeap(snapshot.outOffsets);
+    this.outAdjacency = copyOffHeap(snapshot.outAdjacency);
+    this.vertexOfString = allocate(strings.size(), Integer.BYTES).asIntBuffer();
+    this.edgeOfString = allocate(strings.size(), Integer.BYTES).asIntBuffer();
+    for (int idx = 0; idx < strings.size(); idx++) {
+      vertexOfString.put(idx, -1);
+      edgeOfString.put(idx, -1);
+    }
+    for (int idx = 0; idx < vertexNum; idx++) {
+      vertexOfString.put(vertexRecords.get(idx * vertexInts), idx);
+    }
+    for (int idx = 0; idx < edgeNum; idx++) {
+      edgeOfString.put(edgeRecords.get(idx * edgeInts), idx);
+    }
+  }
+
+  /**
+   * Creates an {@link EnactmentGraph} containing (materialized) copies of all
+   * nodes and edges of this graph.
+   * 
+   * @return an enactment graph with copies of the nodes and edges of this graph
+   */
+  public EnactmentGraph toEnactmentGraph() {
+    final GraphBuilder<Task, Dependency, EnactmentGraph> builder =
+        GraphBuilder.enactmentGraph(vertexNum, edgeNum);
+    final List<Task> vertices = new ArrayList<>(vertexNum);
+    for (int idx = 0; idx < vertexNum; idx++) {
+      vertices.add(materializeVertex(idx, false));
+      builder.addVertex(vertices.get(idx));
+    }
+    for (int idx = 0; idx < edgeNum; idx++) {
+      final int base = idx * edgeInts;
+      builder.addEdge(materializeEdge(idx, false), vertices.get(edgeRecords.get(base + 1)),
+          vertices.get(edgeRecords.get(base + 2)),
+          edgeRecords.get(base + 3) == 1 ? EdgeType.UNDIRECTED : EdgeType.DIRECTED);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Returns the number of bytes stored off the heap.
+   * 
+   * @return the number of bytes stored off the heap
+   */
+  public long getOffHeapBytes() {
+    return (long) Integer.BYTES * (vertexRecords.capacity() + edgeRecords.capacity()
+        + inOffsets.capacity() + inAdjacency.capacity() + outOffsets.capacity()
+        + outAdjacency.capacity() + vertexOfString.capacity() + edgeOfString.capacity())
+        + properties.capacity();
+  }
+
+  /**
+   * Materializes the vertex with the given index.
+   * 
+   * @param vertexIdx the given index
+   * @return a (read-only) handle of the vertex with the given index
+   */
+  public Task getVertexAt(final int vertexIdx) {
+    return materializeVertex(vertexIdx, true);
+  }
+
+  /**
+   * Materializes the edge with the given index.
+   * 
+   * @param edgeIdx the given index
+   * @return a (read-only) handle of the edge with the given index
+   */
+  public Dependency getEdgeAt(final int edgeIdx) {
+    return materializeEdge(edgeIdx, true);
+  }
+
+  // read API shared with the other graphs
+
+  @Override
+  public Collection<Task> getVertices() {
+    return new HandleList<>(vertexNum, this::getVertexAt);
+  }
+
+  @Override
+  public Collection<Dependency> getEdges() {
+    return new HandleList<>(edgeNum, this::getEdgeAt);
+  }
+
+  @Override
+  public int getVertexCount() {
+    return vertexNum;
+  }
+
+  @Override
+  public int getEdgeCount() {
+    return edgeNum;
+  }
+
+  @Override
+  public boolean containsVertex(final String vertexId) {
+    final Integer stringIdx = stringIndices.get(vertexId);
+    return stringIdx != null && vertexOfString.get(stringIdx) != -1;
+  }
+
+  @Override
+  public boolean containsEdge(final String edgeId) {
+    final Integer stringIdx = stringIndices.get(edgeId);
+    return stringIdx != null && edgeOfString.get(stringIdx) != -1;
+  }
+
+  @Override
+  public Task getVertex(final String vertexId) {
+    final int vertexIdx = findVertexIndex(vertexId);
+    if (vertexIdx == -1) {
+      throw new IllegalStateException("Vertex " + vertexId + " not in the graph");
+    }
+    return getVertexAt(vertexIdx);
+  }
+
+  @Override
+  public Dependency getEdge(final String edgeId) {
+    return getEdgeAt(getEdgeIndex(edgeId));
+  }
+
+  @Override
+  public Task getSource(final Dependency edge) {
+    return getVertexAt(edgeRecords.get(getEdgeIndex(edge.getId()) * edgeInts + 1));
+  }
+
+  @Override
+  public Task getDest(final Dependency edge) {
+    return getVertexAt(edgeRecords.get(getEdgeIndex(edge.getId()) * edgeInts + 2));
+  }
+
+  @Override
+  public EdgeType getEdgeType(final Dependency edge) {
+    final int edgeIdx = findEdgeIndex(edge.getId());
+    if (edgeIdx == -1) {
+      return null;
+    }
+    return edgeRecords.get(edgeIdx * edgeInts + 3) == 1
+        ? EdgeType.UNDIRECTED
+        : EdgeType.DIRECTED;
+  }
+
+  @Override
+  public Collection<Dependency> getInEdges(final Task vertex) {
+    return adjacencyList(inOffsets, inAdjacency, findVertexIndex(vertex.getId()));
+  }
+
+  @Override
+  public Collection<Dependency> getOutEdges(final Task vertex) {
+    return adjacencyList(outOffsets, outAdjacency, findVertexIndex(vertex.getId()));
+  }
+
+  @Override
+  public void forEachInEdge(final Task vertex, final Consumer<? super Dependency> action) {
+    forEachIncident(inOffsets, inAdjacency, findVertexIndex(vertex.getId()),
+        edgeIdx -> action.accept(getEdgeAt(edgeIdx)));
+  }
+
+  @Override
+  public void forEachOutEdge(final Task vertex, final Consumer<? super Dependency> action) {
+    forEachIncident(outOffsets, outAdjacency, findVertexIndex(vertex.getId()),
+        edgeIdx -> action.accept(getEdgeAt(edgeIdx)));
+  }
+
+  @Override
+  public int inDegree(final Task vertex) {
+    final int vertexIdx = findVertexIndex(vertex.getId());
+    if (vertexIdx == -1) {
+      return 0;
+    }
+    return inOffsets.get(vertexIdx + 1) - inOffsets.get(vertexIdx);
+  }
+
+  @Override
+  public int outDegree(final Task vertex) {
+    final int vertexIdx = findVertexIndex(vertex.getId());
+    if (vertexIdx == -1) {
+      return 0;
+    }
+    return outOffsets.get(vertexIdx + 1) - outOffsets.get(vertexIdx);
+  }
+
+  @Override
+  public Collection<Task> getPredecessors(final Task vertex) {
+    final Set<Task> result = new HashSet<>();
+    forEachIncident(inOffsets, inAdjacency, findVertexIndex(vertex.getId()),
+        edgeIdx -> result.add(getVertexAt(edgeRecords.get(edgeIdx * edgeInts + 1))));
+    return result;
+  }
+
+  @Override
+  public Collection<Task> getSuccessors(final Task vertex) {
+    final Set<Task> result = new HashSet<>();
+    forEachIncident(outOffsets, outAdjacency, findVertexIndex(vertex.getId()),
+        edgeIdx -> result.add(getVertexAt(edgeRecords.get(edgeIdx * edgeInts + 2))));
+    return result;
+  }
+
+  @Override
+  public boolean areNodesConnected(final Task first, final Task second) {
+    if (!containsVertex(first.getId()) || !containsVertex(second.getId())) {
+      throw new IllegalArgumentException("One of the requested end points not in the graph");
+    }
+    final int firstIdx = getVertexIndex(first.getId());
+    final int secondIdx = getVertexIndex(second.getId());
+    return findIncidentEdge(firstIdx, secondIdx, true) != -1
+        || findIncidentEdge(secondIdx, firstIdx, true) != -1;
+  }
+
+  @Override
+  public Dependency findEdge(final Task firstNode, final Task secondNode) {
+    if (!areNodesConnected(firstNode, secondNode)) {
+      throw new IllegalArgumentException("The given end points are not connected");
+    }
+    final int firstIdx = getVertexIndex(firstNode.getId());
+    final int secondIdx = getVertexIndex(secondNode.getId());
+    final int inEdge = findIncidentEdge(firstIdx, secondIdx, true);
+    return getEdgeAt(inEdge == -1 ? findIncidentEdge(firstIdx, secondIdx, false) : inEdge);
+  }
+
+  // helper methods
+
+  /**
+   * Materializes the vertex with the given index (and its parent).
+   * 
+   * @param vertexIdx the given index
+   * @param readOnly true to create a read-only handle, false for a modifiable
+   *        copy
+   * @return the materialized vertex
+   */
+  protected Task materializeVertex(final int vertexIdx, final boolean readOnly) {
+    final int base = vertexIdx * vertexInts;
+    final boolean communication = vertexRecords.get(base + 1) == kindCommunication;
+    final Task result = createVertex(strings.get(vertexRecords.get(base)), communication,
+        readOnly);
+    loadProperties(result, vertexRecords.get(base + 2), vertexRecords.get(base + 3),
+        vertexOverflow.get(vertexIdx));
+    final int parentIdx = vertexRecords.get(base + 4);
+    if (parentIdx != -1) {
+      final int parentVertex = vertexOfString.get(parentIdx);
+      result.setParent(parentVertex == -1
+          ? seal(createVertex(strings.get(parentIdx), communication, readOnly))
+          : materializeVertex(parentVertex, readOnly));
+    }
+    return seal(result);
+  }
+
+  /**
+   * Materializes the edge with the given index (and its parent).
+   * 
+   * @param edgeIdx the given index
+   * @param readOnly true to create a read-only handle, false for a modifiable
+   *        copy
+   * @return the materialized edge
+   */
+  protected Dependency materializeEdge(final int edgeIdx, final boolean readOnly) {
+    final int base = edgeIdx * edgeInts;
+    final Dependency result = createEdge(strings.get(edgeRecords.get(base)), readOnly);
+    loadProperties(result, edgeRecords.get(base + 4), edgeRecords.get(base + 5),
+        edgeOverflow.get(edgeIdx));
+    final int parentIdx = edgeRecords.get(base + 6);
+    if (parentIdx != -1) {
+      final int parentEdge = edgeOfString.get(parentIdx);
+      result.setParent(parentEdge == -1 ? seal(createEdge(strings.get(parentIdx), readOnly))
+          : materializeEdge(parentEdge, readOnly));
+    }
+    return seal(result);
+  }
+
+  /**
+   * Creates an (empty) vertex with the given ID.
+   * 
+   * @param vertexId the given ID
+   * @param communication true for a data node, false for a function node
+   * @param readOnly true to create a read-only handle (which is writable until
+   *        it is sealed)
+   * @return the created vertex
+   */
+  protected static Task createVertex(final String vertexId, final boolean communication,
+      final boolean readOnly) {
+    if (readOnly) {
+      return communication ? new CommunicationHandle(vertexId) : new TaskHandle(vertexId);
+    }
+    return communication ? new Communication(vertexId) : new Task(vertexId);
+  }
+
+  /**
+   * Creates an (empty) edge with the given ID.
+   * 
+   * @param edgeId the given ID
+   * @param readOnly true to create a read-only handle (which is writable until
+   *        it is sealed)
+   * @return the created edge
+   */
+  protected static Dependency createEdge(final String edgeId, final boolean readOnly) {
+    return readOnly ? new DependencyHandle(edgeId) : new Dependency(edgeId);
+  }
+
+  /**
+   * Makes the given element read-only if it is a handle (no effect for
+   * modifiable copies).
+   * 
+   * @param <T> the type of the given element
+   * @param element the given element
+   * @return the given element
+   */
+  protected static <T extends Element> T seal(final T element) {
+    if (element instanceof Handle) {
+      ((Handle) element).seal();
+    }
+    return element;
+  }
+
+  /**
+   * Returns the index of the vertex with the given ID.
+   * 
+   * @param vertexId the given ID
+   * @return the index of the vertex with the given ID
+   */
+  protected int getVertexIndex(final String vertexId) {
+    final int result = findVertexIndex(vertexId);
+    if (result == -1) {
+      throw new IllegalArgumentException("Vertex " + vertexId + " not in the graph");
+    }
+    return result;
+  }
+
+  /**
+   * Returns the index of the vertex with the given ID, or -1 if there is no such
+   * vertex.
+   * 
+   * @param vertexId the given ID
+   * @return the index of the vertex with the given ID, or -1
+   */
+  protected int findVertexIndex(final String vertexId) {
+    final Integer stringIdx = stringIndices.get(vertexId);
+    return stringIdx == null ? -1 : vertexOfString.get(stringIdx);
+  }
+
+  /**
+   * Returns the index of the edge with the given ID.
+   * 
+   * @param edgeId the given ID
+   * @return the index of the edge with the given ID
+   */
+  protected int getEdgeIndex(final String edgeId) {
+    final int result = findEdgeIndex(edgeId);
+    if (result == -1) {
+      throw new IllegalArgumentException(
+          AbstractConcurrentGraph.edgeString + edgeId + AbstractConcurrentGraph.notInGraphString);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the index of the edge with the given ID, or -1 if there is no such
+   * edge.
+   * 
+   * @param edgeId the given ID
+   * @return the index of the edge with the given ID, or -1
+   */
+  protected int findEdgeIndex(final String edgeId) {
+    final Integer stringIdx = stringIndices.get(edgeId);
+    return stringIdx == null ? -1 : edgeOfString.get(stringIdx);
+  }
+
+  /**
+   * Returns the index of an in/out edge of the given vertex which connects it to
+   * the given opposite vertex, or -1 if there is no such edge.
+   * 
+   * @param vertexIdx the index of the given vertex
+   * @param oppositeIdx the index of the opposite vertex
+   * @param inEdge true iff looking at the in edges of the given vertex
+   * @return the index of an edge connecting the two vertices, or -1
+   */
+  protected int findIncidentEdge(final int vertexIdx, final int oppositeIdx,
+      final boolean inEdge) {
+    final IntBuffer offsets = inEdge ? inOffsets : outOffsets;
+    final IntBuffer adjacency = inEdge ? inAdjacency : outAdjacency;
+    for (int pos = offsets.get(vertexIdx); pos < offsets.get(vertexIdx + 1); pos++) {
+      final int edgeIdx = adjacency.get(pos);
+      final int src = edgeRecords.get(edgeIdx * edgeInts + 1);
+      final int opposite = src == vertexIdx ? edgeRecords.get(edgeIdx * edgeInts + 2) : src;
+      if (opposite == oppositeIdx) {
+        return edgeIdx;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Applies the given action to the indices of the incident edges of the given
+   * vertex.
+   * 
+   * @param offsets the adjacency offsets
+   * @param adjacency the adjacency
+   * @param vertexIdx the index of the given vertex (-1 if not in the graph)
+   * @param action the action to apply
+   */
+  protected void forEachIncident(final IntBuffer offsets, final IntBuffer adjacency,
+      final int vertexIdx, final IntConsumer action) {
+    if (vertexIdx == -1) {
+      return;
+    }
+    for (int pos = offsets.get(vertexIdx); pos < offsets.get(vertexIdx + 1); pos++) {
+      action.accept(adjacency.get(pos));
+    }
+  }
+
+  /**
+   * Returns a list view materializing the incident edges of the given vertex.
+   * 
+   * @param offsets the adjacency offsets
+   * @param adjacency the adjacency
+   * @param vertexIdx the index of the given vertex (-1 if not in the graph)
+   * @return a list view of the incident edges of the given vertex
+   */
+  protected List<Dependency> adjacencyList(final IntBuffer offsets, final IntBuffer adjacency,
+      final int vertexIdx) {
+    if (vertexIdx == -1) {
+      return Collections.emptyList();
+    }
+    final int start = offsets.get(vertexIdx);
+    return new HandleList<>(offsets.get(vertexIdx + 1) - start,
+        position -> getEdgeAt(adjacency.get(start + position)));
+  }
+
+  /**
+   * Stores the attributes of the given element starting at the given property
+   * index. Attributes with non-scalar values are put into the given overflow
+   * map The record of the property slots is not
+   * stored.
+   * 
+   * @param element the given element
+   * @param firstProperty the index of the first property record
+   * @param elementIdx the index of the element
+   * @param overflow the overflow map
+   * @return the number of stored property records
+   */
+  protected int storeProperties(final Element element, final int firstProperty,
+      final int elementIdx, final Map<Integer, Map<String, Object>> overflow) {
+    int stored = 0;
+    for (final String attrName : element.getAttributeNames()) {
+      if (PropertySlots.isRecordAttribute(attrName)) {
+        // the record belongs to the original element
+        continue;
+      }
+      final Object value = element.getAttribute(attrName);
+      final int kind;
+      final long encoded;
+      if (value instanceof String) {
+        kind = valueString;
+        encoded = intern((String) value);
+      } else if (value instanceof Boolean) {
+        kind = valueBoolean;
+        encoded = (Boolean) value ? 1L : 0L;
+      } else if (value instanceof Integer) {
+        kind = valueInteger;
+        encoded = (Integer) value;
+      } else if (value instanceof Long) {
+        kind = valueLong;
+        encoded = (Long) value;
+      } else if (value instanceof Double) {
+        kind = valueDouble;
+        encoded = Double.doubleToRawLongBits((Double) value);
+      } else {
+        if (value != null) {
+          overflow.computeIfAbsent(elementIdx, idx -> new HashMap<>()).put(attrName, value);
+        }
+        continue;
+      }
+      final int position = (firstProperty + stored) * propertyBytes;
+      properties.putInt(position, intern(attrName));
+      properties.putInt(position + Integer.BYTES, kind);
+      properties.putLong(position + 2 * Integer.BYTES, encoded);
+      stored++;
+    }
+    return stored;
+  }
+
+  /**
+   * Sets the stored attributes on the given element.
+   * 
+   * @param element the given element
+   * @param firstProperty the index of the first property record
+   * @param propertyNum the number of property records
+   * @param overflow the non-scalar attributes of the element (may be null)
+   */
+  protected void loadProperties(final Element element, final int firstProperty,
+      final int propertyNum, final Map<String, Object> overflow) {
+    for (int idx = firstProperty; idx < firstProperty + propertyNum; idx++) {
+      final int position = idx * propertyBytes;
+      final String attrName = strings.get(properties.getInt(position));
+      final int kind = properties.getInt(position + Integer.BYTES);
+      final long encoded = properties.getLong(position + 2 * Integer.BYTES);
+      final Object value;
+      switch (kind) {
+        case valueString:
+          value = strings.get((int) encoded);
+          break;
+        case valueBoolean:
+          value = encoded == 1L;
+          break;
+        case valueInteger:
+          value = (int) encoded;
+          break;
+        case valueLong:
+          value = encoded;
+          break;
+        case valueDouble:
+          value = Double.longBitsToDouble(encoded);
+          break;
+        default:
+          throw new IllegalStateException("Unknown value kind " + kind);
+      }
+      element.setAttribute(attrName, value);
+    }
+    if (overflow != null) {
+      overflow.forEach(element::setAttribute);
+    }
+  }
+
+  /**
+   * Returns the index of the ID of the parent of the given element (-1 if it
+   * has none).
+   * 
+   * @param element the given element
+   * @return the index of the ID of the parent of the given element, or -1
+   */
+  protected int parentIndex(final Element element) {
+    return element.getParent() == null ? -1 : intern(element.getParent().getId());
+  }
+
+  /**
+   * Returns the index of the given string in the string table, adding it if
+   * necessary.
+   * 
+   * @param string the given string
+   * @return the index of the given string
+   */
+  protected final int intern(final String string) {
+    return stringIndices.computeIfAbsent(string, str -> {
+      strings.add(str);
+      return strings.size() - 1;
+    });
+  }
+
+  /**
+   * Copies the given array into a direct buffer.
+   * 
+   * @param array the given array
+   * @return a direct buffer with the content of the given array
+   */
+  protected static IntBuffer copyOffHeap(final int[] array) {
+    final IntBuffer result = allocate(array.length, Integer.BYTES).asIntBuffer();
+    result.put(array);
+    result.clear();
+    return result;
+  }
+
+  /**
+   * Allocates a direct buffer (in native byte order) for the given number of
+   * elements of the given size.
+   * 
+   * @param elementNum the number of elements
+   * @param elementBytes the size of an element in bytes
+   * @return the allocated buffer
+   * @throws IllegalArgumentException if the buffer would exceed the maximal
+   *         buffer capacity
+   */
+  protected static ByteBuffer allocate(final long elementNum, final int elementBytes) {
+    if (elementNum > Integer.MAX_VALUE / elementBytes) {
+      throw new IllegalArgumentException("The graph is too large for the off-heap "
+          + "representation: " + elementNum + " elements of " + elementBytes
+          + " bytes exceed the maximal buffer capacity.");
+    }
+    return ByteBuffer.allocateDirect((int) (elementNum * elementBytes))
+        .order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * Element materialized as a read-only handle. The attributes are set while
+   * the handle is materialized; afterwards, the handle is sealed.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected interface Handle {
+
+    /**
+     * Makes the handle read-only.
+     */
+    void seal();
+  }
+
+  /**
+   * Read-only handle of a function node.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static class TaskHandle extends Task implements Handle {
+
+    private static final long serialVersionUID = 1L;
+
+    protected boolean sealed;
+
+    /**
+     * Default constructor.
+     * 
+     * @param taskId the ID of the node
+     */
+    protected TaskHandle(final String taskId) {
+      super(taskId);
+    }
+
+    @Override
+    public void seal() {
+      sealed = true;
+    }
+
+    @Override
+    public void setAttribute(final String identifier, final Object object) {
+      if (sealed) {
+        throw new UnsupportedOperationException(readOnlyMessage + getId());
+      }
+      super.setAttribute(identifier, object);
+    }
+  }
+
+  /**
+   * Read-only handle of a data node.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static class CommunicationHandle extends Communication implements Handle {
+
+    private static final long serialVersionUID = 1L;
+
+    protected boolean sealed;
+
+    /**
+     * Default constructor.
+     * 
+     * @param communicationId the ID of the node
+     */
+    protected CommunicationHandle(final String communicationId) {
+      super(communicationId);
+    }
+
+    @Override
+    public void seal() {
+      sealed = true;
+    }
+
+    @Override
+    public void setAttribute(final String identifier, final Object object) {
+      if (sealed) {
+        throw new UnsupportedOperationException(readOnlyMessage + getId());
+      }
+      super.setAttribute(identifier, object);
+    }
+  }
+
+  /**
+   * Read-only handle of an edge.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static class DependencyHandle extends Dependency implements Handle {
+
+    private static final long serialVersionUID = 1L;
+
+    protected boolean sealed;
+
+    /**
+     * Default constructor.
+     * 
+     * @param dependencyId the ID of the edge
+     */
+    protected DependencyHandle(final String dependencyId) {
+      super(dependencyId);
+    }
+
+    @Override
+    public void seal() {
+      sealed = true;
+    }
+
+    @Override
+    public void setAttribute(final String identifier, final Object object) {
+      if (sealed) {
+        throw new UnsupportedOperationException(readOnlyMessage + getId());
+      }
+      super.setAttribute(identifier, object);
+    }
+  }
+
+  /**
+   * Unmodifiable list view materializing its elements on access.
+   * 
+   * @author Fedor Smirnov
+   * 
+   * @param <T> the element type
+   */
+  protected static class HandleList<T> extends AbstractList<T> {
+
+    protected final int size;
+    protected final IntFunction<T> materializer;
+
+    /**
+     * Default constructor.
+     * 
+     * @param size the size of the list
+     * @param materializer the function materializing the element at an index
+     */
+    protected HandleList(final int size, final IntFunction<T> materializer) {
+      this.size = size;
+      this.materializer = materializer;
+    }
+
+    @Override
+    public T get(final int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index " + index + " out of bounds");
+      }
+      return materializer.apply(index);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
@@ -0,0 +1,469 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * Transitive closure of an {@link EnactmentGraph}, stored as one descendant
+ * and one ancestor set per node (over dense node indices). Answers
+ * reachability queries without traversing the graph. The sets are sparse
+ * ({@link SparseBits}), so that the memory grows with the number of reachable
+ * node pairs and not with the square of the node number.
+ * 
+ * The closure is built from a snapshot of the graph, processing the nodes
+ * level by level, where the nodes of each level are processed in parallel.
+ * Afterwards, the closure is updated incrementally on the addition and the
+ * removal of nodes and edges. The removal of an edge only recomputes the sets
+ * of the nodes it can affect: the descendants of the ancestors of its source
+ * and the ancestors of the descendants of its destination.
+ * 
+ * @author Fedor Smirnov
+ */
+public class ReachabilityIndex {
+
+  protected final EnactmentGraph graph;
+  protected final Map<String, Integer> indices;
+  protected final List<Task> nodes;
+  protected final List<SparseBits> descendants;
+  protected final List<SparseBits> ancestors;
+  protected final Deque<Integer> freeIndices = new ArrayDeque<>();
+
+  /**
+   * A sparse set of non-negative integers, stored as the sorted indices of its
+   * non-empty 64-bit words together with the words themselves.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static class SparseBits {
+
+    protected int[] keys = new int[0];
+    protected long[] words = new long[0];
+
+    /**
+     * Returns true iff the given value is contained in the set.
+     * 
+     * @param value the given value
+     * @return true iff the given value is contained in the set
+     */
+    protected boolean get(final int value) {
+      final int pos = Arrays.binarySearch(keys, value >>> 6);
+      return pos >= 0 && (words[pos] & (1L << value)) != 0;
+    }
+
+    /**
+     * Adds the given value to the set.
+     * 
+     * @param value the given value
+     */
+    protected void set(final int value) {
+      final int key = value >>> 6;
+      int pos = Arrays.binarySearch(keys, key);
+      if (pos < 0) {
+        pos = -pos - 1;
+        final int[] newKeys = new int[keys.length + 1];
+        final long[] newWords = new long[words.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, pos);
+        System.arraycopy(words, 0, newWords, 0, pos);
+        System.arraycopy(keys, pos, newKeys, pos + 1, keys.length - pos);
+        System.arraycopy(words, pos, newWords, pos + 1, words.length - pos);
+        newKeys[pos] = key;
+        keys = newKeys;
+        words = newWords;
+      }
+      words[pos] |= 1L << value;
+    }
+
+    /**
+     * Adds all values of the given set to this set.
+     * 
+     * @param other the given set
+     */
+    protected void or(final SparseBits other) {
+      final int[] newKeys = new int[keys.length + other.keys.length];
+      final long[] newWords = new long[newKeys.length];
+      int own = 0;
+      int foreign = 0;
+      int size = 0;
+      while (own < keys.length || foreign < other.keys.length) {
+        if (foreign == other.keys.length
+            || own < keys.length && keys[own] < other.keys[foreign]) {
+          newKeys[size] = keys[own];
+          newWords[size++] = words[own++];
+        } else if (own == keys.length || other.keys[foreign] < keys[own]) {
+          newKeys[size] = other.keys[foreign];
+          newWords[size++] = other.words[foreign++];
+        } else {
+          newKeys[size] = keys[own];
+          newWords[size++] = words[own++] | other.words[foreign++];
+        }
+      }
+      keys = Arrays.copyOf(newKeys, size);
+      words = Arrays.copyOf(newWords, size);
+    }
+
+    /**
+     * Returns a copy of this set.
+     * 
+     * @return a copy of this set
+     */
+    protected SparseBits copy() {
+      final SparseBits result = new SparseBits();
+      result.keys = keys.clone();
+      result.words = words.clone();
+      return result;
+    }
+
+    /**
+     * Returns the number of values in the set.
+     * 
+     * @return the number of values in the set
+     */
+    protected int cardinality() {
+      int result = 0;
+      for (final long word : words) {
+        result += Long.bitCount(word);
+      }
+      return result;
+    }
+
+    /**
+     * Applies the given consumer to all values of the set (in ascending order).
+     * 
+     * @param consumer the given consumer
+     */
+    protected void forEach(final IntConsumer consumer) {
+      for (int pos = 0; pos < keys.length; pos++) {
+        long word = words[pos];
+        while (word != 0) {
+          consumer.accept(keys[pos] * Long.SIZE + Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+    }
+  }
+
+  /**
+   * Builds the closure of the given graph (from a snapshot of its current
+   * state).
+   * 
+   * @param graph the given graph
+   */
+  public ReachabilityIndex(final EnactmentGraph graph) {
+    this.graph = graph;
+    final FrozenGraph<Task, Dependency> snapshot = graph.snapshot();
+    final int nodeNum = snapshot.getVertexCount();
+    this.indices = new HashMap<>(nodeNum * 2);
+    this.nodes = new ArrayList<>(nodeNum);
+    this.descendants = new ArrayList<>(nodeNum);
+    this.ancestors = new ArrayList<>(nodeNum);
+    for (int idx = 0; idx < nodeNum; idx++) {
+      final Task node = snapshot.getVertexAt(idx);
+      indices.put(node.getId(), idx);
+      nodes.add(node);
+      descendants.add(new SparseBits());
+      ancestors.add(new SparseBits());
+    }
+    buildClosure(snapshot, true);
+    buildClosure(snapshot, false);
+  }
+
+  /**
+   * Returns true iff the given destination can be reached from the given source
+   * via a (non-empty) path.
+   * 
+   * @param src the given source
+   * @param dst the given destination
+   * @return true iff the given destination can be reached from the given source
+   */
+  public synchronized boolean isReachable(final Task src, final Task dst) {
+    return descendants.get(getIndex(src)).get(getIndex(dst));
+  }
+
+  /**
+   * Returns the nodes which can be reached from the given node.
+   * 
+   * @param node the given node
+   * @return the nodes which can be reached from the given node
+   */
+  public synchronized Set<Task> getDescendants(final Task node) {
+    return toNodes(descendants.get(getIndex(node)));
+  }
+
+  /**
+   * Returns the nodes from which the given node can be reached.
+   * 
+   * @param node the given node
+   * @return the nodes from which the given node can be reached
+   */
+  public synchronized Set<Task> getAncestors(final Task node) {
+    return toNodes(ancestors.get(getIndex(node)));
+  }
+
+  /**
+   * Registers the given (new) node, reusing the index of a removed node if
+   * there is one.
+   * 
+   * @param node the given node
+   */
+  protected synchronized void vertexAdded(final Task node) {
+    if (indices.containsKey(node.getId())) {
+      return;
+    }
+    final Integer free = freeIndices.poll();
+    if (free == null) {
+      indices.put(node.getId(), nodes.size());
+      nodes.add(node);
+      descendants.add(new SparseBits());
+      ancestors.add(new SparseBits());
+    } else {
+      indices.put(node.getId(), free);
+      nodes.set(free, node);
+      descendants.set(free, new SparseBits());
+      ancestors.set(free, new SparseBits());
+    }
+  }
+
+  /**
+   * Unregisters the given node. Its edges are removed before the node, so that
+   * its index is not contained in any set and can be reused.
+   * 
+   * @param node the given node
+   */
+  protected synchronized void vertexRemoved(final Task node) {
+    final Integer idx = indices.remove(node.getId());
+    if (idx != null) {
+      nodes.set(idx, null);
+      descendants.set(idx, null);
+      ancestors.set(idx, null);
+      freeIndices.add(idx);
+    }
+  }
+
+  /**
+   * Updates the closure after the addition of an edge from the given source to
+   * the given destination: the descendants of the destination become the
+   * descendants of the source and of all its ancestors (and vice versa).
+   * 
+   * @param src the given source
+   * @param dst the given destination
+   */
+  protected synchronized void edgeAdded(final Task src, final Task dst) {
+    final int srcIdx = getIndex(src);
+    final int dstIdx = getIndex(dst);
+    if (descendants.get(srcIdx).get(dstIdx)) {
+      return;
+    }
+    final SparseBits reachedFromSrc = descendants.get(dstIdx).copy();
+    reachedFromSrc.set(dstIdx);
+    final SparseBits reachingDst = ancestors.get(srcIdx).copy();
+    reachingDst.set(srcIdx);
+    reachingDst.forEach(idx -> descendants.get(idx).or(reachedFromSrc));
+    reachedFromSrc.forEach(idx -> ancestors.get(idx).or(reachingDst));
+  }
+
+  /**
+   * Updates the closure after the removal of an edge from the given source to
+   * the given destination (the edge is already removed from the graph). Only
+   * the descendants of the source and its ancestors and the ancestors of the
+   * destination and its descendants can change; they are recomputed from the
+   * (unaffected) sets of their direct neighbors.
+   * 
+   * @param src the given source
+   * @param dst the given destination
+   */
+  protected synchronized void edgeRemoved(final Task src, final Task dst) {
+    final int srcIdx = getIndex(src);
+    final int dstIdx = getIndex(dst);
+    final SparseBits affectedSources = ancestors.get(srcIdx).copy();
+    affectedSources.set(srcIdx);
+    final SparseBits affectedDests = descendants.get(dstIdx).copy();
+    affectedDests.set(dstIdx);
+    recompute(affectedSources, true);
+    recompute(affectedDests, false);
+  }
+
+  /**
+   * Recomputes the descendant (or the ancestor) sets of the given nodes from
+   * the sets of their successors (predecessors) in the graph. The nodes are
+   * processed so that the successors (predecessors) within the given nodes are
+   * processed first.
+   * 
+   * @param affected the indices of the nodes to recompute
+   * @param forDescendants true for the descendant sets, false for the ancestor
+   *        sets
+   */
+  protected void recompute(final SparseBits affected, final boolean forDescendants) {
+    final List<SparseBits> closure = forDescendants ? descendants : ancestors;
+    final Map<Integer, List<Integer>> neighbors = new HashMap<>();
+    final Map<Integer, Integer> remaining = new HashMap<>();
+    affected.forEach(nodeIdx -> {
+      final List<Integer> nodeNeighbors = getNeighborIndices(nodeIdx, forDescendants);
+      neighbors.put(nodeIdx, nodeNeighbors);
+      remaining.put(nodeIdx,
+          (int) nodeNeighbors.stream().filter(affected::get).count());
+    });
+    final Deque<Integer> ready = new ArrayDeque<>();
+    remaining.forEach((nodeIdx, count) -> {
+      if (count == 0) {
+        ready.add(nodeIdx);
+      }
+    });
+    final Map<Integer, List<Integer>> dependents = new HashMap<>();
+    neighbors.forEach((nodeIdx, nodeNeighbors) -> nodeNeighbors.stream()
+        .filter(affected::get)
+        .forEach(neighbor -> dependents.computeIfAbsent(neighbor, key -> new ArrayList<>())
+            .add(nodeIdx)));
+    while (!ready.isEmpty()) {
+      final int nodeIdx = ready.poll();
+      final SparseBits reached = new SparseBits();
+      for (final int neighbor : neighbors.get(nodeIdx)) {
+        reached.set(neighbor);
+        reached.or(closure.get(neighbor));
+      }
+      closure.set(nodeIdx, reached);
+      for (final int dependent : dependents.getOrDefault(nodeIdx, List.of())) {
+        if (remaining.merge(dependent, -1, Integer::sum) == 0) {
+          ready.add(dependent);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the indices of the successors (predecessors) of the node with the
+   * given index in the graph.
+   * 
+   * @param nodeIdx the given node index
+   * @param successors true for the successors, false for the predecessors
+   * @return the indices of the successors (predecessors) of the given node
+   */
+  protected List<Integer> getNeighborIndices(final int nodeIdx, final boolean successors) {
+    final Task node = nodes.get(nodeIdx);
+    final Map<String, Dependency> edges =
+        successors ? graph.outEdges.get(node.getId()) : graph.inEdges.get(node.getId());
+    final List<Integer> result = new ArrayList<>();
+    if (edges == null) {
+      return result;
+    }
+    for (final Dependency edge : edges.values()) {
+      final Task neighbor =
+          successors ? graph.dests.get(edge.getId()) : graph.sources.get(edge.getId());
+      final Integer neighborIdx = neighbor == null ? null : indices.get(neighbor.getId());
+      if (neighborIdx != null) {
+        result.add(neighborIdx);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Fills the descendant (or the ancestor) sets, processing the nodes in levels
+   * so that the sets of the successors (predecessors) of each node are
+   * complete when the node is processed. The nodes of a level are processed in
+   * parallel.
+   * 
+   * @param snapshot the graph snapshot
+   * @param forDescendants true for the descendant sets, false for the ancestor
+   *        sets
+   */
+  protected final void buildClosure(final FrozenGraph<Task, Dependency> snapshot,
+      final boolean forDescendants) {
+    final List<SparseBits> closure = forDescendants ? descendants : ancestors;
+    for (final int[] level : getLevels(snapshot, forDescendants)) {
+      IntStream.of(level).parallel().forEach(nodeIdx -> {
+        final SparseBits reached = closure.get(nodeIdx);
+        final int degree =
+            forDescendants ? snapshot.outDegree(nodeIdx) : snapshot.inDegree(nodeIdx);
+        for (int pos = 0; pos < degree; pos++) {
+          final int neighbor = forDescendants
+              ? snapshot.getDestIndex(snapshot.getOutEdgeIndex(nodeIdx, pos))
+              : snapshot.getSourceIndex(snapshot.getInEdgeIndex(nodeIdx, pos));
+          reached.set(neighbor);
+          reached.or(closure.get(neighbor));
+        }
+      });
+    }
+  }
+
+  /**
+   * Groups the nodes of the given snapshot into levels: the first level
+   * contains the nodes without successors (predecessors), each further level
+   * the nodes whose successors (predecessors) are all on previous levels.
+   * 
+   * @param snapshot the graph snapshot
+   * @param bySuccessors true to level the nodes by their successors, false to
+   *        level them by their predecessors
+   * @return the node indices, grouped into levels
+   */
+  protected List<int[]> getLevels(final FrozenGraph<Task, Dependency> snapshot,
+      final boolean bySuccessors) {
+    final int nodeNum = snapshot.getVertexCount();
+    final int[] remaining = new int[nodeNum];
+    int[] level = IntStream.range(0, nodeNum).filter(nodeIdx -> {
+      remaining[nodeIdx] =
+          bySuccessors ? snapshot.outDegree(nodeIdx) : snapshot.inDegree(nodeIdx);
+      return remaining[nodeIdx] == 0;
+    }).toArray();
+    final List<int[]> result = new ArrayList<>();
+    int processed = 0;
+    while (level.length > 0) {
+      result.add(level);
+      processed += level.length;
+      final List<Integer> next = new ArrayList<>();
+      for (final int nodeIdx : level) {
+        final int degree =
+            bySuccessors ? snapshot.inDegree(nodeIdx) : snapshot.outDegree(nodeIdx);
+        for (int pos = 0; pos < degree; pos++) {
+          final int neighbor = bySuccessors
+              ? snapshot.getSourceIndex(snapshot.getInEdgeIndex(nodeIdx, pos))
+              : snapshot.getDestIndex(snapshot.getOutEdgeIndex(nodeIdx, pos));
+          if (--remaining[neighbor] == 0) {
+            next.add(neighbor);
+          }
+        }
+      }
+      level = next.stream().mapToInt(Integer::intValue).toArray();
+    }
+    if (processed != nodeNum) {
+      throw new IllegalStateException("The graph contains a cycle.");
+    }
+    return result;
+  }
+
+  /**
+   * Returns the nodes with the set indices.
+   * 
+   * @param bits the set of node indices
+   * @return the nodes with the set indices
+   */
+  protected Set<Task> toNodes(final SparseBits bits) {
+    final Set<Task> result = new HashSet<>(bits.cardinality() * 2);
+    bits.forEach(idx -> result.add(nodes.get(idx)));
+    return result;
+  }
+
+  /**
+   * Returns the index of the given node.
+   * 
+   * @param node the given node
+   * @return the index of the given node
+   */
+  protected int getIndex(final Task node) {
+    final Integer result = indices.get(node.getId());
+    if (result == null) {
+      throw new IllegalArgumentException("Node " + node.getId() + " not in the index.");
+    }
+    return result;
+  }
+}
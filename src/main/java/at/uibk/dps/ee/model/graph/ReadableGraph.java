@@ -0,0 +1,195 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Node;
+
+/**
+ * Interface for the read access to the graphs used by Apollo. Implemented both
+ * by the mutable graphs and by their read-only representations.
+ * 
+ * All implementations treat elements which are not part of the graph in the
+ * same way as the mutable graphs: looking up an unknown vertex by its ID throws
+ * an {@link IllegalStateException}, the edge queries (lookup by ID, source and
+ * destination) throw an {@link IllegalArgumentException} for unknown edges, and
+ * the edge type of an unknown edge is null. The adjacency queries of an unknown
+ * vertex return empty results, while querying the connection of unknown end
+ * points throws an {@link IllegalArgumentException}.
+ * 
+ * @author Fedor Smirnov
+ * 
+ * @param <V> the type of graph nodes
+ * @param <E> the type of graph edges
+ */
+public interface ReadableGraph<V extends Node, E extends Edge> {
+
+  /**
+   * Returns the vertices of the graph.
+   * 
+   * @return the vertices of the graph
+   */
+  Collection<V> getVertices();
+
+  /**
+   * Returns the edges of the graph.
+   * 
+   * @return the edges of the graph
+   */
+  Collection<E> getEdges();
+
+  /**
+   * Returns the number of vertices in the graph.
+   * 
+   * @return the number of vertices in the graph
+   */
+  int getVertexCount();
+
+  /**
+   * Returns the number of edges in the graph.
+   * 
+   * @return the number of edges in the graph
+   */
+  int getEdgeCount();
+
+  /**
+   * Returns true if the graph contains a vertex with the given ID.
+   * 
+   * @param vertexId the given ID
+   * @return true if the graph contains a vertex with the given ID
+   */
+  boolean containsVertex(String vertexId);
+
+  /**
+   * Returns true iff the graph contains an edge with the specified ID.
+   * 
+   * @param edgeId the specified ID
+   * @return true iff the graph contains an edge with the specified ID
+   */
+  boolean containsEdge(String edgeId);
+
+  /**
+   * Returns the vertex with the given ID.
+   * 
+   * @param vertexId the given ID
+   * @return the vertex with the given ID
+   * @throws IllegalStateException if there is no vertex with the given ID
+   */
+  V getVertex(String vertexId);
+
+  /**
+   * Returns the edge with the given ID.
+   * 
+   * @param edgeId the given ID
+   * @return the edge with the given ID
+   * @throws IllegalArgumentException if there is no edge with the given ID
+   */
+  E getEdge(String edgeId);
+
+  /**
+   * Returns the source of the given edge.
+   * 
+   * @param edge the given edge
+   * @return the source of the given edge
+   */
+  V getSource(E edge);
+
+  /**
+   * Returns the destination of the given edge.
+   * 
+   * @param edge the given edge
+   * @return the destination of the given edge
+   */
+  V getDest(E edge);
+
+  /**
+   * Returns the type of the given edge.
+   * 
+   * @param edge the given edge
+   * @return the type of the given edge (null if the edge is not in the graph)
+   */
+  EdgeType getEdgeType(E edge);
+
+  /**
+   * Returns the in edges of the given vertex.
+   * 
+   * @param vertex the given vertex
+   * @return the in edges of the given vertex
+   */
+  Collection<E> getInEdges(V vertex);
+
+  /**
+   * Returns the out edges of the given vertex.
+   * 
+   * @param vertex the given vertex
+   * @return the out edges of the given vertex
+   */
+  Collection<E> getOutEdges(V vertex);
+
+  /**
+   * Applies the given action to each in edge of the given vertex.
+   * 
+   * @param vertex the given vertex
+   * @param action the action to apply
+   */
+  void forEachInEdge(V vertex, Consumer<? super E> action);
+
+  /**
+   * Applies the given action to each out edge of the given vertex.
+   * 
+   * @param vertex the given vertex
+   * @param action the action to apply
+   */
+  void forEachOutEdge(V vertex, Consumer<? super E> action);
+
+  /**
+   * Returns the number of in edges of the given vertex.
+   * 
+   * @param vertex the given vertex
+   * @return the number of in edges of the given vertex
+   */
+  int inDegree(V vertex);
+
+  /**
+   * Returns the number of out edges of the given vertex.
+   * 
+   * @param vertex the given vertex
+   * @return the number of out edges of the given vertex
+   */
+  int outDegree(V vertex);
+
+  /**
+   * Returns the predecessors of the given vertex.
+   * 
+   * @param vertex the given vertex
+   * @return the predecessors of the given vertex
+   */
+  Collection<V> getPredecessors(V vertex);
+
+  /**
+   * Returns the successors of the given vertex.
+   * 
+   * @param vertex the given vertex
+   * @return the successors of the given vertex
+   */
+  Collection<V> getSuccessors(V vertex);
+
+  /**
+   * Returns true if the two given nodes of the graph are connected.
+   * 
+   * @param first the first node
+   * @param second the second node
+   * @return true if the two given nodes of the graph are connected
+   */
+  boolean areNodesConnected(V first, V second);
+
+  /**
+   * Returns an edge connecting the two given nodes.
+   * 
+   * @param firstNode the first node
+   * @param secondNode the second node
+   * @return an edge connecting the two given nodes
+   */
+  E findEdge(V firstNode, V secondNode);
+}
@@ -0,0 +1,219 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Tracks the number of pending inputs (in edges without a finished
+ * transmission) of the function nodes of an {@link EnactmentGraph}. Function
+ * nodes whose last pending input is transmitted are put into a ready queue, so
+ * that deciding whether a function can be executed does not require iterating
+ * its in edges.
+ * 
+ * The tracker is owned by its graph and kept up to date with the structure of
+ * the graph. Changes of the transmission annotation of a graph edge are
+ * announced to the graph, either by the setter overloads taking the graph
+ * (e.g.,
+ * {@link PropertyServiceDependency#annotateFinishedTransmission(Dependency, EnactmentGraph)})
+ * or via {@link EnactmentGraph#updateReadiness(Dependency)}. Removing the last
+ * in edge of a function does not make the function ready.
+ * 
+ * @author Fedor Smirnov
+ */
+public class ReadinessTracker {
+
+  protected final EnactmentGraph graph;
+  protected final ConcurrentHashMap<String, AtomicInteger> pendingInputs;
+  protected final Set<String> pendingEdges = ConcurrentHashMap.newKeySet();
+  protected final ConcurrentLinkedQueue<Task> readyQueue = new ConcurrentLinkedQueue<>();
+  protected final Set<String> queuedTasks = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Creates the tracker for the current state of the given graph. Functions
+   * whose inputs are all transmitted are put into the ready queue.
+   * 
+   * @param graph the given graph
+   */
+  public ReadinessTracker(final EnactmentGraph graph) {
+    this.graph = graph;
+    this.pendingInputs = new ConcurrentHashMap<>(graph.getVertexCount());
+    graph.getVertices().forEach(this::vertexAdded);
+    graph.getEdges().forEach(edge -> edgeAdded(edge, graph.getDest(edge)));
+    pendingInputs.forEach((taskId, pending) -> {
+      final Task task = graph.getVertex(taskId);
+      if (pending.get() == 0 && graph.inDegree(task) > 0) {
+        enqueue(task);
+      }
+    });
+  }
+
+  /**
+   * Returns the number of pending inputs of the given function node.
+   * 
+   * @param function the given function node
+   * @return the number of pending inputs of the given function node
+   */
+  public int getPendingInputs(final Task function) {
+    return getCounter(function).get();
+  }
+
+  /**
+   * Returns true iff all inputs of the given function node are transmitted.
+   * 
+   * @param function the given function node
+   * @return true iff all inputs of the given function node are transmitted
+   */
+  public boolean isReady(final Task function) {
+    return getPendingInputs(function) == 0;
+  }
+
+  /**
+   * Removes and returns a function node whose inputs are all transmitted.
+   * Entries which are no longer ready (because a transmission was reset after
+   * the function was queued) are skipped.
+   * 
+   * @return a ready function node, or null if there is none
+   */
+  public Task pollReadyTask() {
+    Task result = readyQueue.poll();
+    while (result != null) {
+      queuedTasks.remove(result.getId());
+      final AtomicInteger counter = pendingInputs.get(result.getId());
+      if (counter != null && counter.get() == 0) {
+        return result;
+      }
+      result = readyQueue.poll();
+    }
+    return null;
+  }
+
+  /**
+   * Updates the pending input count of the given destination according to the
+   * current transmission annotation of the given edge.
+   * 
+   * @param edge the given edge
+   * @param dst the destination of the given edge
+   */
+  public void updateTransmission(final Dependency edge, final Task dst) {
+    if (!pendingInputs.containsKey(dst.getId())) {
+      return;
+    }
+    if (PropertyServiceDependency.isTransmissionDone(edge)) {
+      markTransmitted(edge, dst);
+    } else {
+      markPending(edge, dst);
+    }
+  }
+
+  /**
+   * Registers the given node (function nodes only).
+   * 
+   * @param task the given node
+   */
+  protected void vertexAdded(final Task task) {
+    if (TaskPropertyService.isProcess(task)) {
+      pendingInputs.putIfAbsent(task.getId(), new AtomicInteger());
+    }
+  }
+
+  /**
+   * Unregisters the given node.
+   * 
+   * @param task the given node
+   */
+  protected void vertexRemoved(final Task task) {
+    pendingInputs.remove(task.getId());
+  }
+
+  /**
+   * Registers the given edge (in case it points to a function node).
+   * 
+   * @param edge the given edge
+   * @param dst the destination of the given edge
+   */
+  protected void edgeAdded(final Dependency edge, final Task dst) {
+    if (pendingInputs.containsKey(dst.getId())
+        && !PropertyServiceDependency.isTransmissionDone(edge)) {
+      markPending(edge, dst);
+    }
+  }
+
+  /**
+   * Unregisters the given edge (which is already removed from the graph). A
+   * function without any remaining in edges is not enqueued, since it has no
+   * inputs which could have been transmitted.
+   * 
+   * @param edge the given edge
+   * @param dst the destination of the given edge
+   */
+  protected void edgeRemoved(final Dependency edge, final Task dst) {
+    if (graph.inDegree(dst) > 0) {
+      markTransmitted(edge, dst);
+    } else if (pendingEdges.remove(edge.getId())) {
+      final AtomicInteger counter = pendingInputs.get(dst.getId());
+      if (counter != null) {
+        counter.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Marks the given edge as pending (if it was not pending already).
+   * 
+   * @param edge the given edge
+   * @param dst the destination of the given edge
+   */
+  protected void markPending(final Dependency edge, final Task dst) {
+    if (pendingEdges.add(edge.getId())) {
+      getCounter(dst).incrementAndGet();
+    }
+  }
+
+  /**
+   * Marks the given edge as no longer pending (if it was pending), enqueuing
+   * its destination in case that it was its last pending input.
+   * 
+   * @param edge the given edge
+   * @param dst the destination of the given edge
+   */
+  protected void markTransmitted(final Dependency edge, final Task dst) {
+    if (pendingEdges.remove(edge.getId())) {
+      final AtomicInteger counter = pendingInputs.get(dst.getId());
+      if (counter != null && counter.decrementAndGet() == 0) {
+        enqueue(dst);
+      }
+    }
+  }
+
+  /**
+   * Puts the given function into the ready queue, unless it is queued already.
+   * 
+   * @param function the given function
+   */
+  protected void enqueue(final Task function) {
+    if (queuedTasks.add(function.getId())) {
+      readyQueue.add(function);
+    }
+  }
+
+  /**
+   * Returns the counter of the pending inputs of the given function node.
+   * 
+   * @param function the given function node
+   * @return the counter of the pending inputs of the given function node
+   */
+  protected AtomicInteger getCounter(final Task function) {
+    final AtomicInteger result = pendingInputs.get(function.getId());
+    if (result == null) {
+      throw new IllegalArgumentException("Task " + function.getId()
+          + " is not a function node of the tracked graph.");
+    }
+    return result;
+  }
+}
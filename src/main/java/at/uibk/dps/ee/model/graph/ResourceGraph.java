@@ -9,32 +9,112 @@ import net.sf.opendse.model.Resource;
  * The {@link ResourceGraph} models the resources available for the execution,
  * as well as their connections to each other.
  * 
+ * The {@link RoutingTable} (created on the first call of
+ * {@link #getRoutingTable()}) stores the cheapest routes between all pairs of
+ * resources and is kept up to date on the structural changes of the graph.
+ * 
  * @author Fedor Smirnov
  *
  */
 public class ResourceGraph extends AbstractConcurrentGraph<Resource, Link> {
 
   private static final long serialVersionUID = 1L;
-  
+
+  protected transient volatile RoutingTable routingTable;
+
   /**
    * Default constructor.
    */
   public ResourceGraph() {
     super();
   }
-  
+
+  /**
+   * Constructor offering the possibility to use the concurrent maps as the only
+   * store of the graph structure.
+   * 
+   * @param concurrentStoreOnly true iff the graph structure is to be stored only
+   *        in the concurrent maps (without mirroring it into the JUNG parent)
+   */
+  public ResourceGraph(final boolean concurrentStoreOnly) {
+    super(concurrentStoreOnly);
+  }
+
+  /**
+   * Constructor presizing the graph for the expected numbers of nodes and edges.
+   * 
+   * @param concurrentStoreOnly true iff the graph structure is to be stored only
+   *        in the concurrent maps (without mirroring it into the JUNG parent)
+   * @param expectedVertexCount the expected number of nodes
+   * @param expectedEdgeCount the expected number of edges
+   */
+  public ResourceGraph(final boolean concurrentStoreOnly, final int expectedVertexCount,
+      final int expectedEdgeCount) {
+    super(concurrentStoreOnly, expectedVertexCount, expectedEdgeCount);
+  }
+
   /**
    * Constructor to build the {@link ResourceGraph} out of an architecture.
    * 
    * @param arch the given architecture
    */
   public ResourceGraph(final Architecture<Resource, Link> arch) {
-    super();
-    arch.getEdges().forEach(link -> {
-      final Resource res1 = arch.getEndpoints(link).getFirst();
-      final Resource res2 = arch.getEndpoints(link).getSecond();
-      this.addEdge(link, res1, res2, EdgeType.UNDIRECTED);
+    this(false, arch.getVertexCount(), arch.getEdgeCount());
+    GraphBuilder.resourceGraph(arch.getVertexCount(), arch.getEdgeCount())
+        .addVertices(arch)
+        .addEdges(arch.getEdges(), link -> arch.getEndpoints(link).getFirst(),
+            link -> arch.getEndpoints(link).getSecond(), EdgeType.UNDIRECTED)
+        .loadInto(this);
+  }
+
+  /**
+   * Returns the table of the cheapest routes between the resources, creating it
+   * (while no structural changes are in progress) on the first call.
+   * 
+   * @return the table of the cheapest routes between the resources
+   */
+  public RoutingTable getRoutingTable() {
+    final RoutingTable result = routingTable;
+    if (result != null) {
+      return result;
+    }
+    return readConsistently(() -> {
+      if (routingTable == null) {
+        routingTable = new RoutingTable(snapshot());
+      }
+      return routingTable;
     });
-    arch.forEach(res -> this.addVertex(res));
+  }
+
+  @Override
+  protected void onVertexAdded(final Resource vertex) {
+    final RoutingTable table = routingTable;
+    if (table != null) {
+      table.resourceAdded(vertex);
+    }
+  }
+
+  @Override
+  protected void onVertexRemoved(final Resource vertex) {
+    final RoutingTable table = routingTable;
+    if (table != null) {
+      table.resourceRemoved(vertex);
+    }
+  }
+
+  @Override
+  protected void onEdgeAdded(final Link edge, final Resource src, final Resource dst) {
+    final RoutingTable table = routingTable;
+    if (table != null) {
+      table.linkAdded(edge, src, dst, getEdgeType(edge).equals(EdgeType.UNDIRECTED));
+    }
+  }
+
+  @Override
+  protected void onEdgeRemoved(final Link edge, final Resource src, final Resource dst) {
+    final RoutingTable table = routingTable;
+    if (table != null) {
+      table.linkRemoved(edge);
+    }
   }
 }
@@ -0,0 +1,523 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+import at.uibk.dps.ee.model.properties.PropertyServiceLink;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Resource;
+
+/**
+ * All-pairs cheapest routes over the {@link Link}s of a {@link ResourceGraph}.
+ * For each (source, destination) pair of resources, the table stores the cost
+ * of the cheapest route and its first link, so that cost and next-hop queries
+ * are answered in constant time. Routes are reconstructed by following the
+ * next hops.
+ * 
+ * The cost of a link is its transfer time estimate (see
+ * {@link PropertyServiceLink#getTransferTimeEstimate(Link)}) or
+ * {@link #defaultLinkCost} if no estimate is annotated, so that routes minimize
+ * the number of hops in resource graphs without estimates.
+ * 
+ * The table is built with one Dijkstra search per source resource (run in
+ * parallel) and then updated incrementally on the structural changes of the
+ * graph: an added link relaxes all pairs via the link, a removed link repeats
+ * the searches only for the sources with a cheapest route over the link.
+ * Changes of the transfer time estimates are not announced; use
+ * {@link #refresh()} after such changes.
+ * 
+ * The updates are serialized and work on a private copy of the table, which is
+ * published as an immutable {@link Routes} object after each update. The
+ * queries read the latest published routes without locking, so that they are
+ * neither blocked by nor see intermediate states of an update (e.g., the
+ * searches after the removal of a link).
+ * 
+ * @author Fedor Smirnov
+ */
+public class RoutingTable {
+
+  /**
+   * The cost of links without a transfer time estimate.
+   */
+  public static final double defaultLinkCost = 1.0;
+
+  protected static final int initialCapacity = 16;
+  // relative tolerance when comparing route costs summed in different orders
+  protected static final double tolerance = 1E-9;
+
+  // the working copy of the table, guarded by this
+  protected final Map<String, Integer> indices = new HashMap<>();
+  protected final List<Resource> resources = new ArrayList<>();
+  protected final Map<String, LinkEntry> links = new LinkedHashMap<>();
+  protected int capacity;
+  // row-major (source row, destination column) with the stride capacity
+  protected double[] costs;
+  protected Link[] firstHops;
+  // the routes answering the queries
+  protected volatile Routes routes;
+
+  /**
+   * Immutable copy of the table, published after each update.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static final class Routes {
+
+    protected final Map<String, Integer> indices;
+    protected final List<Resource> resources;
+    protected final Map<String, LinkEntry> links;
+    protected final int capacity;
+    protected final double[] costs;
+    protected final Link[] firstHops;
+
+    /**
+     * Copies the working state of the given table.
+     * 
+     * @param table the given table
+     */
+    protected Routes(final RoutingTable table) {
+      this.indices = Map.copyOf(table.indices);
+      this.resources = List.copyOf(table.resources);
+      this.links = Map.copyOf(table.links);
+      this.capacity = table.capacity;
+      this.costs = table.costs.clone();
+      this.firstHops = table.firstHops.clone();
+    }
+
+    /**
+     * Returns the array position of the given (source, destination) pair.
+     * 
+     * @param src the index of the source
+     * @param dst the index of the destination
+     * @return the array position of the given pair
+     */
+    protected int cell(final int src, final int dst) {
+      return src * capacity + dst;
+    }
+
+    /**
+     * Returns the index of the given resource.
+     * 
+     * @param resource the given resource
+     * @return the index of the given resource
+     */
+    protected int getIndex(final Resource resource) {
+      return RoutingTable.getIndex(indices, resource);
+    }
+  }
+
+  /**
+   * A link of the table with its end points and cost.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static final class LinkEntry {
+
+    protected final Link link;
+    protected final Resource src;
+    protected final Resource dst;
+    protected final boolean undirected;
+    protected double cost;
+
+    /**
+     * Default constructor.
+     * 
+     * @param link the link
+     * @param src the source of the link
+     * @param dst the destination of the link
+     * @param undirected true iff the link can be used in both directions
+     */
+    protected LinkEntry(final Link link, final Resource src, final Resource dst,
+        final boolean undirected) {
+      this.link = link;
+      this.src = src;
+      this.dst = dst;
+      this.undirected = undirected;
+      this.cost = linkCost(link);
+    }
+  }
+
+  /**
+   * Builds the table for the given snapshot of a resource graph.
+   * 
+   * @param snapshot the given snapshot
+   */
+  public RoutingTable(final FrozenGraph<Resource, Link> snapshot) {
+    this.capacity = Math.max(initialCapacity, snapshot.getVertexCount());
+    this.costs = new double[capacity * capacity];
+    this.firstHops = new Link[capacity * capacity];
+    snapshot.getVertices().forEach(this::addResource);
+    for (int edgeIdx = 0; edgeIdx < snapshot.getEdgeCount(); edgeIdx++) {
+      final Link link = snapshot.getEdgeAt(edgeIdx);
+      links.put(link.getId(),
+          new LinkEntry(link, snapshot.getVertexAt(snapshot.getSourceIndex(edgeIdx)),
+              snapshot.getVertexAt(snapshot.getDestIndex(edgeIdx)),
+              snapshot.isUndirected(edgeIdx)));
+    }
+    search(IntStream.range(0, resources.size()));
+    publish();
+  }
+
+  /**
+   * Returns the cost of the cheapest route from the given source to the given
+   * destination (0 for equal resources, positive infinity if there is no
+   * route).
+   * 
+   * @param src the given source
+   * @param dst the given destination
+   * @return the cost of the cheapest route
+   */
+  public double getCost(final Resource src, final Resource dst) {
+    final Routes current = routes;
+    return current.costs[current.cell(current.getIndex(src), current.getIndex(dst))];
+  }
+
+  /**
+   * Returns true iff there is a route from the given source to the given
+   * destination.
+   * 
+   * @param src the given source
+   * @param dst the given destination
+   * @return true iff there is a route from the given source to the given
+   *         destination
+   */
+  public boolean isReachable(final Resource src, final Resource dst) {
+    return getCost(src, dst) != Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Returns the first link of the cheapest route from the given source to the
+   * given destination (null for equal resources or if there is no route).
+   * 
+   * @param src the given source
+   * @param dst the given destination
+   * @return the first link of the cheapest route
+   */
+  public Link getNextHop(final Resource src, final Resource dst) {
+    final Routes current = routes;
+    return current.firstHops[current.cell(current.getIndex(src), current.getIndex(dst))];
+  }
+
+  /**
+   * Returns the links of the cheapest route from the given source to the given
+   * destination (empty for equal resources).
+   * 
+   * @param src the given source
+   * @param dst the given destination
+   * @return the links of the cheapest route
+   */
+  public List<Link> getRoute(final Resource src, final Resource dst) {
+    final Routes snapshot = routes;
+    final int dstIdx = snapshot.getIndex(dst);
+    int current = snapshot.getIndex(src);
+    if (snapshot.costs[snapshot.cell(current, dstIdx)] == Double.POSITIVE_INFINITY) {
+      throw new IllegalArgumentException("No route from " + src + " to " + dst);
+    }
+    final List<Link> result = new ArrayList<>();
+    while (current != dstIdx) {
+      final LinkEntry hop =
+          snapshot.links.get(snapshot.firstHops[snapshot.cell(current, dstIdx)].getId());
+      result.add(hop.link);
+      current = snapshot.getIndex(
+          hop.src.getId().equals(snapshot.resources.get(current).getId()) ? hop.dst : hop.src);
+    }
+    return result;
+  }
+
+  /**
+   * Rereads the link costs and recomputes all routes. Used after changes of the
+   * transfer time estimates.
+   */
+  public synchronized void refresh() {
+    links.values().forEach(entry -> entry.cost = linkCost(entry.link));
+    search(IntStream.range(0, resources.size()));
+    publish();
+  }
+
+  /**
+   * Adds the given resource (without links).
+   * 
+   * @param resource the given resource
+   */
+  protected synchronized void resourceAdded(final Resource resource) {
+    if (!indices.containsKey(resource.getId())) {
+      addResource(resource);
+      publish();
+    }
+  }
+
+  /**
+   * Removes the given resource. Its links are expected to be removed before.
+   * The last resource is moved to the index of the removed one.
+   * 
+   * @param resource the given resource
+   */
+  protected synchronized void resourceRemoved(final Resource resource) {
+    final Integer removed = indices.remove(resource.getId());
+    if (removed == null) {
+      return;
+    }
+    final int last = resources.size() - 1;
+    final Resource moved = resources.remove(last);
+    if (removed != last) {
+      resources.set(removed, moved);
+      indices.put(moved.getId(), removed);
+      for (int idx = 0; idx < last; idx++) {
+        costs[cell(removed, idx)] = costs[cell(last, idx)];
+        firstHops[cell(removed, idx)] = firstHops[cell(last, idx)];
+        costs[cell(idx, removed)] = costs[cell(idx, last)];
+        firstHops[cell(idx, removed)] = firstHops[cell(idx, last)];
+      }
+      costs[cell(removed, removed)] = 0;
+      firstHops[cell(removed, removed)] = null;
+    }
+    publish();
+  }
+
+  /**
+   * Adds the given link and relaxes all routes via the link.
+   * 
+   * @param link the given link
+   * @param src the source of the given link
+   * @param dst the destination of the given link
+   * @param undirected true iff the link can be used in both directions
+   */
+  protected synchronized void linkAdded(final Link link, final Resource src,
+      final Resource dst, final boolean undirected) {
+    for (final Resource endPoint : List.of(src, dst)) {
+      if (!indices.containsKey(endPoint.getId())) {
+        addResource(endPoint);
+      }
+    }
+    final LinkEntry entry = new LinkEntry(link, src, dst, undirected);
+    links.put(link.getId(), entry);
+    relaxVia(entry, getIndex(src), getIndex(dst));
+    if (undirected) {
+      relaxVia(entry, getIndex(dst), getIndex(src));
+    }
+    publish();
+  }
+
+  /**
+   * Removes the given link and recomputes the routes of the sources with a
+   * cheapest route over the link.
+   * 
+   * @param link the given link
+   */
+  protected synchronized void linkRemoved(final Link link) {
+    final LinkEntry entry = links.remove(link.getId());
+    if (entry == null) {
+      return;
+    }
+    final int srcIdx = getIndex(entry.src);
+    final int dstIdx = getIndex(entry.dst);
+    search(IntStream.range(0, resources.size())
+        .filter(source -> isTight(source, srcIdx, dstIdx, entry.cost)
+            || entry.undirected && isTight(source, dstIdx, srcIdx, entry.cost)));
+    publish();
+  }
+
+  /**
+   * Publishes a copy of the working state of the table to the queries.
+   */
+  protected void publish() {
+    routes = new Routes(this);
+  }
+
+  /**
+   * Returns true iff the route from the given source to the end of a link
+   * (with the given cost) can lead over the start of the link.
+   * 
+   * @param source the given source
+   * @param start the start of the link
+   * @param end the end of the link
+   * @param cost the cost of the link
+   * @return true iff the cheapest route to the end can use the link
+   */
+  protected boolean isTight(final int source, final int start, final int end,
+      final double cost) {
+    final double toStart = costs[cell(source, start)];
+    final double toEnd = costs[cell(source, end)];
+    return toStart != Double.POSITIVE_INFINITY
+        && Math.abs(toStart + cost - toEnd) <= tolerance * Math.max(1, toEnd);
+  }
+
+  /**
+   * Updates all routes which get cheaper when using the given link from the
+   * given start to the given end.
+   * 
+   * @param entry the given link
+   * @param start the index of the start of the link
+   * @param end the index of the end of the link
+   */
+  protected void relaxVia(final LinkEntry entry, final int start, final int end) {
+    final int count = resources.size();
+    for (int source = 0; source < count; source++) {
+      final double toStart = costs[cell(source, start)];
+      if (toStart == Double.POSITIVE_INFINITY) {
+        continue;
+      }
+      final Link first = source == start ? entry.link : firstHops[cell(source, start)];
+      for (int target = 0; target < count; target++) {
+        final double candidate = toStart + entry.cost + costs[cell(end, target)];
+        if (candidate < costs[cell(source, target)]) {
+          costs[cell(source, target)] = candidate;
+          firstHops[cell(source, target)] = first;
+        }
+      }
+    }
+  }
+
+  /**
+   * Recomputes the rows of the given sources with one Dijkstra search each (in
+   * parallel, since each search writes only its own row).
+   * 
+   * @param sources the given sources
+   */
+  protected void search(final IntStream sources) {
+    final int count = resources.size();
+    final List<List<LinkEntry>> outLinks = new ArrayList<>(count);
+    for (int idx = 0; idx < count; idx++) {
+      outLinks.add(new ArrayList<>());
+    }
+    links.values().forEach(entry -> {
+      outLinks.get(getIndex(entry.src)).add(entry);
+      if (entry.undirected) {
+        outLinks.get(getIndex(entry.dst)).add(entry);
+      }
+    });
+    sources.parallel().forEach(source -> search(source, outLinks));
+  }
+
+  /**
+   * Recomputes the row of the given source with a Dijkstra search.
+   * 
+   * @param source the given source
+   * @param outLinks the links leaving each resource
+   */
+  protected void search(final int source, final List<List<LinkEntry>> outLinks) {
+    final int rowStart = cell(source, 0);
+    final int count = resources.size();
+    Arrays.fill(costs, rowStart, rowStart + count, Double.POSITIVE_INFINITY);
+    Arrays.fill(firstHops, rowStart, rowStart + count, null);
+    costs[rowStart + source] = 0;
+    final boolean[] settled = new boolean[count];
+    final PriorityQueue<double[]> queue =
+        new PriorityQueue<>((first, second) -> Double.compare(first[0], second[0]));
+    queue.add(new double[] {0, source});
+    while (!queue.isEmpty()) {
+      final int current = (int) queue.poll()[1];
+      if (settled[current]) {
+        continue;
+      }
+      settled[current] = true;
+      final String currentId = resources.get(current).getId();
+      for (final LinkEntry entry : outLinks.get(current)) {
+        final int next = getIndex(entry.src.getId().equals(currentId) ? entry.dst : entry.src);
+        final double candidate = costs[rowStart + current] + entry.cost;
+        if (candidate < costs[rowStart + next]) {
+          costs[rowStart + next] = candidate;
+          firstHops[rowStart + next] =
+              current == source ? entry.link : firstHops[rowStart + current];
+          queue.add(new double[] {candidate, next});
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds the given resource as the last index, growing the arrays if
+   * necessary.
+   * 
+   * @param resource the given resource
+   */
+  protected void addResource(final Resource resource) {
+    final int idx = resources.size();
+    if (idx == capacity) {
+      grow();
+    }
+    indices.put(resource.getId(), idx);
+    resources.add(resource);
+    for (int other = 0; other <= idx; other++) {
+      costs[cell(idx, other)] = Double.POSITIVE_INFINITY;
+      firstHops[cell(idx, other)] = null;
+      costs[cell(other, idx)] = Double.POSITIVE_INFINITY;
+      firstHops[cell(other, idx)] = null;
+    }
+    costs[cell(idx, idx)] = 0;
+  }
+
+  /**
+   * Doubles the capacity of the arrays.
+   */
+  protected void grow() {
+    final int newCapacity = capacity * 2;
+    final double[] newCosts = new double[newCapacity * newCapacity];
+    final Link[] newFirstHops = new Link[newCapacity * newCapacity];
+    for (int row = 0; row < capacity; row++) {
+      System.arraycopy(costs, row * capacity, newCosts, row * newCapacity, capacity);
+      System.arraycopy(firstHops, row * capacity, newFirstHops, row * newCapacity, capacity);
+    }
+    capacity = newCapacity;
+    costs = newCosts;
+    firstHops = newFirstHops;
+  }
+
+  /**
+   * Returns the array position of the given (source, destination) pair.
+   * 
+   * @param src the index of the source
+   * @param dst the index of the destination
+   * @return the array position of the given pair
+   */
+  protected int cell(final int src, final int dst) {
+    return src * capacity + dst;
+  }
+
+  /**
+   * Returns the index of the given resource.
+   * 
+   * @param resource the given resource
+   * @return the index of the given resource
+   */
+  protected int getIndex(final Resource resource) {
+    return getIndex(indices, resource);
+  }
+
+  /**
+   * Returns the index of the given resource in the given index map.
+   * 
+   * @param indices the given index map
+   * @param resource the given resource
+   * @return the index of the given resource
+   */
+  protected static int getIndex(final Map<String, Integer> indices, final Resource resource) {
+    final Integer result = indices.get(resource.getId());
+    if (result == null) {
+      throw new IllegalArgumentException("Resource " + resource + " not in the routing table");
+    }
+    return result;
+  }
+
+  /**
+   * Returns the cost of the given link.
+   * 
+   * @param link the given link
+   * @return the cost of the given link
+   */
+  protected static double linkCost(final Link link) {
+    if (!PropertyServiceLink.isTransferTimeEstimateSet(link)) {
+      return defaultLinkCost;
+    }
+    final double estimate = PropertyServiceLink.getTransferTimeEstimate(link);
+    if (estimate < 0) {
+      throw new IllegalArgumentException("Negative transfer time estimate on link " + link);
+    }
+    return estimate;
+  }
+}
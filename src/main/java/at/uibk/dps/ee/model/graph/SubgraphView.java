@@ -0,0 +1,363 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Node;
+
+/**
+ * Read-only view of the part of a graph induced by a subset of its vertices
+ * (e.g., the nodes of a while body or of a reproduction scope). The view does
+ * not copy the graph: all queries are answered by the underlying graph and
+ * filtered by the membership of the vertices, so that the view reflects later
+ * changes of the graph. An edge is part of the view iff both its end points
+ * are.
+ * 
+ * The members are defined either by a precomputed set of vertex IDs or by a
+ * vertex predicate. With a member set, iterating the view only touches the
+ * members and their edges; a predicate view has to scan the vertices of the
+ * underlying graph when iterating (but not for the adjacency queries). Use
+ * {@link #ofRegion(ReadableGraph, Collection, Predicate)} to turn a predicate
+ * into a member set by expanding a region from seed vertices.
+ * 
+ * @author Fedor Smirnov
+ * 
+ * @param <V> the type of graph nodes
+ * @param <E> the type of graph edges
+ */
+public class SubgraphView<V extends Node, E extends Edge> implements ReadableGraph<V, E> {
+
+  protected final ReadableGraph<V, E> graph;
+  protected final Set<String> memberIds;
+  protected final Predicate<? super V> memberPredicate;
+
+  /**
+   * Creates a view containing the given vertices of the given graph.
+   * 
+   * @param graph the underlying graph
+   * @param members the vertices of the view
+   */
+  public SubgraphView(final ReadableGraph<V, E> graph, final Collection<? extends V> members) {
+    this.graph = graph;
+    this.memberIds = members.stream().map(Node::getId).collect(Collectors.toSet());
+    this.memberPredicate = null;
+  }
+
+  /**
+   * Creates a view containing the vertices of the given graph which satisfy the
+   * given predicate.
+   * 
+   * @param graph the underlying graph
+   * @param memberPredicate the predicate defining the vertices of the view
+   */
+  public SubgraphView(final ReadableGraph<V, E> graph,
+      final Predicate<? super V> memberPredicate) {
+    this.graph = graph;
+    this.memberIds = null;
+    this.memberPredicate = memberPredicate;
+  }
+
+  /**
+   * Creates a view of the region which is formed by the given seed vertices and
+   * all vertices which satisfy the given predicate and are connected to a seed
+   * via such vertices. The region is expanded along the edges of the graph (in
+   * both directions), so that the cost depends on the size of the region, not
+   * on the size of the graph.
+   * 
+   * @param <V> the type of graph nodes
+   * @param <E> the type of graph edges
+   * @param graph the underlying graph
+   * @param seeds the seed vertices
+   * @param memberPredicate the predicate defining the vertices of the region
+   * @return a view of the region expanded from the given seeds
+   */
+  public static <V extends Node, E extends Edge> SubgraphView<V, E> ofRegion(
+      final ReadableGraph<V, E> graph, final Collection<? extends V> seeds,
+      final Predicate<? super V> memberPredicate) {
+    final Set<V> region = new HashSet<>(seeds);
+    final Deque<V> stack = new ArrayDeque<>(seeds);
+    while (!stack.isEmpty()) {
+      final V current = stack.pop();
+      final Consumer<V> visit = neighbor -> {
+        if (memberPredicate.test(neighbor) && region.add(neighbor)) {
+          stack.push(neighbor);
+        }
+      };
+      graph.forEachInEdge(current, edge -> visit.accept(graph.getSource(edge)));
+      graph.forEachOutEdge(current, edge -> visit.accept(graph.getDest(edge)));
+    }
+    return new SubgraphView<>(graph, region);
+  }
+
+  /**
+   * Returns the underlying graph.
+   * 
+   * @return the underlying graph
+   */
+  public ReadableGraph<V, E> getGraph() {
+    return graph;
+  }
+
+  /**
+   * Returns true iff the given vertex is part of the view.
+   * 
+   * @param vertex the given vertex
+   * @return true iff the given vertex is part of the view
+   */
+  public boolean isMember(final V vertex) {
+    if (!graph.containsVertex(vertex.getId())) {
+      return false;
+    }
+    return memberIds == null ? memberPredicate.test(vertex)
+        : memberIds.contains(vertex.getId());
+  }
+
+  /**
+   * Returns true iff the given edge (of the underlying graph) is part of the
+   * view.
+   * 
+   * @param edge the given edge
+   * @return true iff the given edge is part of the view
+   */
+  public boolean isMemberEdge(final E edge) {
+    return graph.containsEdge(edge.getId()) && isMember(graph.getSource(edge))
+        && isMember(graph.getDest(edge));
+  }
+
+  @Override
+  public Collection<V> getVertices() {
+    return new StreamView<>(this::streamVertices);
+  }
+
+  @Override
+  public Collection<E> getEdges() {
+    return new StreamView<>(this::streamEdges);
+  }
+
+  @Override
+  public int getVertexCount() {
+    return (int) streamVertices().count();
+  }
+
+  @Override
+  public int getEdgeCount() {
+    return (int) streamEdges().count();
+  }
+
+  @Override
+  public boolean containsVertex(final String vertexId) {
+    return graph.containsVertex(vertexId) && isMember(graph.getVertex(vertexId));
+  }
+
+  @Override
+  public boolean containsEdge(final String edgeId) {
+    return graph.containsEdge(edgeId) && isMemberEdge(graph.getEdge(edgeId));
+  }
+
+  @Override
+  public V getVertex(final String vertexId) {
+    if (!containsVertex(vertexId)) {
+      throw new IllegalStateException("Vertex " + vertexId + " not in the subgraph");
+    }
+    return graph.getVertex(vertexId);
+  }
+
+  @Override
+  public E getEdge(final String edgeId) {
+    if (!containsEdge(edgeId)) {
+      throw new IllegalArgumentException("Edge " + edgeId + " not in the subgraph");
+    }
+    return graph.getEdge(edgeId);
+  }
+
+  @Override
+  public V getSource(final E edge) {
+    return graph.getSource(checkEdge(edge));
+  }
+
+  @Override
+  public V getDest(final E edge) {
+    return graph.getDest(checkEdge(edge));
+  }
+
+  @Override
+  public EdgeType getEdgeType(final E edge) {
+    return isMemberEdge(edge) ? graph.getEdgeType(edge) : null;
+  }
+
+  @Override
+  public Collection<E> getInEdges(final V vertex) {
+    return new StreamView<>(() -> isMember(vertex)
+        ? graph.getInEdges(vertex).stream().filter(this::isMemberEdge)
+        : Stream.empty());
+  }
+
+  @Override
+  public Collection<E> getOutEdges(final V vertex) {
+    return new StreamView<>(() -> isMember(vertex)
+        ? graph.getOutEdges(vertex).stream().filter(this::isMemberEdge)
+        : Stream.empty());
+  }
+
+  @Override
+  public void forEachInEdge(final V vertex, final Consumer<? super E> action) {
+    if (!isMember(vertex)) {
+      return;
+    }
+    graph.forEachInEdge(vertex, edge -> {
+      if (isMemberEdge(edge)) {
+        action.accept(edge);
+      }
+    });
+  }
+
+  @Override
+  public void forEachOutEdge(final V vertex, final Consumer<? super E> action) {
+    if (!isMember(vertex)) {
+      return;
+    }
+    graph.forEachOutEdge(vertex, edge -> {
+      if (isMemberEdge(edge)) {
+        action.accept(edge);
+      }
+    });
+  }
+
+  @Override
+  public int inDegree(final V vertex) {
+    return getInEdges(vertex).size();
+  }
+
+  @Override
+  public int outDegree(final V vertex) {
+    return getOutEdges(vertex).size();
+  }
+
+  @Override
+  public Collection<V> getPredecessors(final V vertex) {
+    if (!isMember(vertex)) {
+      return new HashSet<>();
+    }
+    return graph.getPredecessors(vertex).stream().filter(this::isMember)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public Collection<V> getSuccessors(final V vertex) {
+    if (!isMember(vertex)) {
+      return new HashSet<>();
+    }
+    return graph.getSuccessors(vertex).stream().filter(this::isMember)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public boolean areNodesConnected(final V first, final V second) {
+    checkVertex(first);
+    checkVertex(second);
+    return graph.areNodesConnected(first, second);
+  }
+
+  @Override
+  public E findEdge(final V firstNode, final V secondNode) {
+    checkVertex(firstNode);
+    checkVertex(secondNode);
+    return graph.findEdge(firstNode, secondNode);
+  }
+
+  /**
+   * Returns the stream of the vertices of the view.
+   * 
+   * @return the stream of the vertices of the view
+   */
+  protected Stream<V> streamVertices() {
+    if (memberIds == null) {
+      return graph.getVertices().stream().filter(memberPredicate);
+    }
+    return memberIds.stream().filter(graph::containsVertex).map(graph::getVertex);
+  }
+
+  /**
+   * Returns the stream of the edges of the view. Each edge is reported once, as
+   * an out edge of its source.
+   * 
+   * @return the stream of the edges of the view
+   */
+  protected Stream<E> streamEdges() {
+    return streamVertices().flatMap(vertex -> graph.getOutEdges(vertex).stream()
+        .filter(edge -> vertex.equals(graph.getSource(edge)) && isMember(graph.getDest(edge))));
+  }
+
+  /**
+   * Throws an exception if the given vertex is not part of the view.
+   * 
+   * @param vertex the given vertex
+   */
+  protected void checkVertex(final V vertex) {
+    if (!isMember(vertex)) {
+      throw new IllegalArgumentException("Vertex " + vertex.getId() + " not in the subgraph");
+    }
+  }
+
+  /**
+   * Throws an exception if the given edge is not part of the view.
+   * 
+   * @param edge the given edge
+   * @return the given edge
+   */
+  protected E checkEdge(final E edge) {
+    if (!isMemberEdge(edge)) {
+      throw new IllegalArgumentException("Edge " + edge.getId() + " not in the subgraph");
+    }
+    return edge;
+  }
+
+  /**
+   * Unmodifiable collection backed by a stream supplier. Each iteration (and
+   * each size query) evaluates a new stream, so that the collection is a live
+   * view which is never copied.
+   * 
+   * @author Fedor Smirnov
+   * 
+   * @param <T> the element type
+   */
+  protected static class StreamView<T> extends AbstractCollection<T> {
+
+    protected final Supplier<Stream<T>> streamSupplier;
+
+    /**
+     * Default constructor.
+     * 
+     * @param streamSupplier the supplier of the element stream
+     */
+    protected StreamView(final Supplier<Stream<T>> streamSupplier) {
+      this.streamSupplier = streamSupplier;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return streamSupplier.get().iterator();
+    }
+
+    @Override
+    public int size() {
+      return (int) streamSupplier.get().count();
+    }
+
+    @Override
+    public Stream<T> stream() {
+      return streamSupplier.get();
+    }
+  }
+}
@@ -0,0 +1,277 @@
+package at.uibk.dps.ee.model.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Node;
+
+/**
+ * Topological order of a directed acyclic graph which is maintained online, as
+ * described by Pearce and Kelly ("A dynamic topological sort algorithm for
+ * directed acyclic graphs"). Each vertex is assigned a position; on the
+ * insertion of an edge which violates the order, only the vertices within the
+ * affected region (between the positions of the edge's end points) are
+ * reordered. Edges closing a cycle are detected on the way and rejected.
+ * 
+ * The positions are not necessarily dense (removed vertices leave gaps, new
+ * vertices without predecessors are placed in front of all others), so that
+ * only their relative order is meaningful.
+ * 
+ * The order has to be notified about each structural change of the graph
+ * before (edge insertion) or after (vertex insertion/removal) it is applied to
+ * the graph, while holding its lock (see {@link #getLock()}): the shared lock
+ * for the changes which keep the order valid (vertex changes, edge removals,
+ * and the insertion of edges accepted by {@link #registerEdge(Node, Node)}),
+ * and the exclusive lock for the insertion of edges requiring a reordering
+ * ({@link #edgeAdded(Node, Node)}). Changes which keep the order valid can
+ * therefore be applied concurrently.
+ * 
+ * @author Fedor Smirnov
+ * 
+ * @param <V> the type of graph nodes
+ * @param <E> the type of graph edges
+ */
+public class TopologicalOrder<V extends Node, E extends Edge> {
+
+  protected final ReadableGraph<V, E> graph;
+  protected final ConcurrentHashMap<String, Integer> positions = new ConcurrentHashMap<>();
+  protected final ConcurrentSkipListMap<Integer, V> slots = new ConcurrentSkipListMap<>();
+  protected final Collection<V> orderView = Collections.unmodifiableCollection(slots.values());
+  protected final AtomicInteger nextPosition = new AtomicInteger();
+  protected final AtomicInteger firstPosition = new AtomicInteger();
+  protected final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /**
+   * Creates the topological order of the current state of the given graph.
+   * 
+   * @param graph the given graph
+   */
+  public TopologicalOrder(final ReadableGraph<V, E> graph) {
+    this.graph = graph;
+    final Map<String, Integer> inDegrees = new HashMap<>();
+    final Deque<V> ready = new ArrayDeque<>();
+    for (final V vertex : graph.getVertices()) {
+      final int inDegree = graph.inDegree(vertex);
+      inDegrees.put(vertex.getId(), inDegree);
+      if (inDegree == 0) {
+        ready.add(vertex);
+      }
+    }
+    while (!ready.isEmpty()) {
+      final V vertex = ready.poll();
+      place(vertex, nextPosition.getAndIncrement());
+      graph.forEachOutEdge(vertex, edge -> {
+        final V dest = graph.getDest(edge);
+        if (inDegrees.merge(dest.getId(), -1, Integer::sum) == 0) {
+          ready.add(dest);
+        }
+      });
+    }
+    if (positions.size() != inDegrees.size()) {
+      throw new IllegalStateException("The graph contains a cycle.");
+    }
+  }
+
+  /**
+   * Returns an unmodifiable, live view of the vertices of the graph in
+   * topological order. The view is the maintained order itself, so that it is
+   * returned in constant time and never copied. Iterating it while the order is
+   * changed is safe, but may then miss or repeat the reordered vertices; callers
+   * requiring a stable order copy the view while no structural changes are in
+   * progress.
+   * 
+   * @return an unmodifiable, live view of the vertices in topological order
+   */
+  public Collection<V> getOrder() {
+    return orderView;
+  }
+
+  /**
+   * Returns the lock guarding the changes of the order (see the class
+   * documentation).
+   * 
+   * @return the lock guarding the changes of the order
+   */
+  public ReentrantReadWriteLock getLock() {
+    return lock;
+  }
+
+  /**
+   * Returns the position of the given vertex within the topological order.
+   * 
+   * @param vertex the given vertex
+   * @return the position of the given vertex within the topological order
+   */
+  public int getPosition(final V vertex) {
+    final Integer result = positions.get(vertex.getId());
+    if (result == null) {
+      throw new IllegalArgumentException("Vertex " + vertex.getId() + " is not ordered.");
+    }
+    return result;
+  }
+
+  /**
+   * Registers the given vertex (no effect if it is already registered). New
+   * vertices are placed at the end of the order.
+   * 
+   * @param vertex the given vertex
+   */
+  public void vertexAdded(final V vertex) {
+    register(vertex, false);
+  }
+
+  /**
+   * Unregisters the given vertex.
+   * 
+   * @param vertex the given vertex
+   */
+  public void vertexRemoved(final V vertex) {
+    final Integer position = positions.remove(vertex.getId());
+    if (position != null) {
+      slots.remove(position);
+    }
+  }
+
+  /**
+   * Checks whether the insertion of an edge from the given source to the given
+   * destination keeps the order valid, i.e., whether it can be applied without
+   * a reordering. Has to be called (holding the shared lock) before the edge is
+   * added to the graph; if the result is false, the edge is to be inserted via
+   * {@link #edgeAdded(Node, Node)}. End points which are not registered yet are
+   * registered: a new source is placed in front of all other vertices, a new
+   * destination behind them (an unregistered end point has no edges, so that
+   * the edge cannot close a cycle).
+   * 
+   * @param src the source of the edge to insert
+   * @param dst the destination of the edge to insert
+   * @return true iff the edge keeps the order valid
+   * @throws IllegalArgumentException if the edge is a self loop
+   */
+  public boolean registerEdge(final V src, final V dst) {
+    if (src.equals(dst)) {
+      throw new IllegalArgumentException("Self loop on " + src.getId() + " closes a cycle.");
+    }
+    final int srcPosition = register(src, true);
+    final int dstPosition = register(dst, false);
+    return srcPosition < dstPosition;
+  }
+
+  /**
+   * Adapts the order to the insertion of an edge from the given source to the
+   * given destination. Has to be called (holding the exclusive lock) before the
+   * edge is added to the graph. End points which are not registered yet are
+   * registered as described for {@link #registerEdge(Node, Node)}.
+   * 
+   * @param src the source of the edge to insert
+   * @param dst the destination of the edge to insert
+   * @throws IllegalArgumentException if the edge would close a cycle
+   */
+  public void edgeAdded(final V src, final V dst) {
+    if (registerEdge(src, dst)) {
+      return;
+    }
+    final int upperBound = positions.get(src.getId());
+    final int lowerBound = positions.get(dst.getId());
+    // the forward search detects cycles before the order is changed
+    final List<V> forward = collectAffected(dst, upperBound, true);
+    final List<V> backward = collectAffected(src, lowerBound, false);
+    final Comparator<V> byPosition = Comparator.comparing(v -> positions.get(v.getId()));
+    forward.sort(byPosition);
+    backward.sort(byPosition);
+    final List<Integer> freedPositions = new ArrayList<>(forward.size() + backward.size());
+    final List<V> reordered = new ArrayList<>(backward);
+    reordered.addAll(forward);
+    for (final V vertex : reordered) {
+      final int position = positions.get(vertex.getId());
+      freedPositions.add(position);
+      slots.remove(position);
+    }
+    Collections.sort(freedPositions);
+    for (int idx = 0; idx < reordered.size(); idx++) {
+      place(reordered.get(idx), freedPositions.get(idx));
+    }
+  }
+
+  /**
+   * Collects the vertices of the affected region reachable from the given start
+   * (forward: via out edges, to vertices positioned before the bound; backward:
+   * via in edges, to vertices positioned after the bound).
+   * 
+   * @param start the vertex to start from
+   * @param bound the position bounding the affected region
+   * @param forward true for the forward search
+   * @return the vertices of the affected region reachable from the start
+   * @throws IllegalArgumentException if the forward search reaches the bound,
+   *         i.e., if the inserted edge closes a cycle
+   */
+  protected List<V> collectAffected(final V start, final int bound, final boolean forward) {
+    final List<V> result = new ArrayList<>();
+    final Set<String> visited = new HashSet<>();
+    final Deque<V> stack = new ArrayDeque<>();
+    visited.add(start.getId());
+    stack.push(start);
+    while (!stack.isEmpty()) {
+      final V current = stack.pop();
+      result.add(current);
+      final List<V> neighbors = new ArrayList<>();
+      if (forward) {
+        graph.forEachOutEdge(current, edge -> neighbors.add(graph.getDest(edge)));
+      } else {
+        graph.forEachInEdge(current, edge -> neighbors.add(graph.getSource(edge)));
+      }
+      for (final V neighbor : neighbors) {
+        final int position = positions.get(neighbor.getId());
+        if (forward && position == bound) {
+          throw new IllegalArgumentException("Edge to " + start.getId() + " closes a cycle.");
+        }
+        final boolean inRegion = forward ? position < bound : position > bound;
+        if (inRegion && visited.add(neighbor.getId())) {
+          stack.push(neighbor);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Registers the given vertex (no effect if it is already registered) and
+   * returns its position.
+   * 
+   * @param vertex the given vertex
+   * @param first true to place a new vertex in front of all others, false to
+   *        place it behind them
+   * @return the position of the given vertex
+   */
+  protected int register(final V vertex, final boolean first) {
+    return positions.computeIfAbsent(vertex.getId(), id -> {
+      final int position =
+          first ? firstPosition.decrementAndGet() : nextPosition.getAndIncrement();
+      slots.put(position, vertex);
+      return position;
+    });
+  }
+
+  /**
+   * Places the given vertex at the given position.
+   * 
+   * @param vertex the given vertex
+   * @param position the given position
+   */
+  protected void place(final V vertex, final int position) {
+    positions.put(vertex.getId(), position);
+    slots.put(position, vertex);
+  }
+}
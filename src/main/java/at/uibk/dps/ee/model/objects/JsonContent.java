@@ -0,0 +1,118 @@
+package at.uibk.dps.ee.model.objects;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+/**
+ * The content of a data node, kept in its parsed form, so that the consumers
+ * of the data do not have to parse it again. The string form is only created
+ * (and then cached) when it is requested, e.g., when the specification is
+ * persisted.
+ * 
+ * The content is treated as immutable: the element passed on creation is
+ * copied, while the element returned by {@link #getJson()} is shared by all
+ * readers and must not be modified (data node readers obtain copies via
+ * {@link at.uibk.dps.ee.model.properties.PropertyServiceData#getContent}).
+ * 
+ * @author Fedor Smirnov
+ */
+public final class JsonContent implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private transient JsonElement json;
+  // created on request; benign race (equal strings)
+  private volatile String serialized;
+
+  /**
+   * Default constructor.
+   * 
+   * @param json the content (copied)
+   */
+  public JsonContent(final JsonElement json) {
+    this.json = json.deepCopy();
+  }
+
+  /**
+   * This constructor is needed to deserialize the content.
+   * 
+   * @param serialized the serialized content
+   */
+  public JsonContent(final String serialized) {
+    this.json = JsonParser.parseString(serialized);
+    this.serialized = serialized;
+  }
+
+  /**
+   * Returns the (shared) content. Not to be modified.
+   * 
+   * @return the (shared) content
+   */
+  public JsonElement getJson() {
+    return json;
+  }
+
+  /**
+   * Returns true iff the string form of the content was already created.
+   * 
+   * @return true iff the string form of the content was already created
+   */
+  public boolean isSerialized() {
+    return serialized != null;
+  }
+
+  /**
+   * Writes the string form of the content.
+   * 
+   * @param out the output stream
+   * @throws IOException if writing fails
+   */
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    toString();
+    out.defaultWriteObject();
+  }
+
+  /**
+   * Restores the content from its string form.
+   * 
+   * @param in the input stream
+   * @throws IOException if reading fails
+   * @throws ClassNotFoundException if a class of the stream is not found
+   */
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    json = JsonParser.parseString(serialized);
+  }
+
+  @Override
+  public String toString() {
+    String result = serialized;
+    if (result == null) {
+      result = json.toString();
+      serialized = result;
+    }
+    return result;
+  }
+
+  // compared by the string form, since the Gson hash codes of equal parsed and
+  // created numbers differ
+  @Override
+  public int hashCode() {
+    return toString().hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof JsonContent)) {
+      return false;
+    }
+    return toString().equals(obj.toString());
+  }
+}
@@ -1,6 +1,9 @@
 package at.uibk.dps.ee.model.persistance;
 
+import java.util.concurrent.Executor;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.GraphBuilder;
+import at.uibk.dps.ee.model.properties.PropertySlots;
 import edu.uci.ics.jung.graph.util.EdgeType;
 import net.sf.opendse.model.Application;
 import net.sf.opendse.model.Dependency;
@@ -20,17 +23,55 @@ public final class EnactmentGraphTransformer {
 
   /**
    * Transforms the application representation used by OpenDSE to the one used by
-   * Apollo.
+   * Apollo. The elements get the records of their property slots.
    * 
    * @param application application graph (OpenDSE's application representation)
    * @return enactment graph (Apollo's application representation)
    */
   public static EnactmentGraph toApollo(final Application<Task, Dependency> application) {
-    final EnactmentGraph result = new EnactmentGraph();
-    application.forEach(task -> result.addVertex(task));
-    application.getEdges().forEach(edge -> result.addEdge(edge, application.getSource(edge),
-        application.getDest(edge), EdgeType.DIRECTED));
-    return result;
+    attachSlots(application);
+    return GraphBuilder
+        .enactmentGraph(application.getVertexCount(), application.getEdgeCount())
+        .addVertices(application)
+        .addEdges(application.getEdges(), application::getSource, application::getDest,
+            EdgeType.DIRECTED)
+        .build();
+  }
+
+  /**
+   * Transforms the application representation used by OpenDSE to the one used by
+   * Apollo. If the created graph uses the concurrent maps as its only store, its
+   * elements are inserted concurrently on the given executor. The elements get
+   * the records of their property slots.
+   * 
+   * @param application application graph (OpenDSE's application representation)
+   * @param concurrentStoreOnly true iff the graph structure is to be stored only
+   *        in the concurrent maps
+   * @param executor the executor used for the insertion
+   * @return enactment graph (Apollo's application representation)
+   */
+  public static EnactmentGraph toApollo(final Application<Task, Dependency> application,
+      final boolean concurrentStoreOnly, final Executor executor) {
+    attachSlots(application);
+    return GraphBuilder
+        .enactmentGraph(application.getVertexCount(), application.getEdgeCount(),
+            concurrentStoreOnly)
+        .addVertices(application)
+        .addEdges(application.getEdges(), application::getSource, application::getDest,
+            EdgeType.DIRECTED)
+        .build(executor);
+  }
+
+  /**
+   * Attaches the records of the property slots to the elements of the given
+   * application (read from a file, so that the slots are loaded from the
+   * attributes once instead of on every read).
+   * 
+   * @param application the given application
+   */
+  protected static void attachSlots(final Application<Task, Dependency> application) {
+    application.getVertices().forEach(PropertySlots::attach);
+    application.getEdges().forEach(PropertySlots::attach);
   }
 
   /**
@@ -1,5 +1,6 @@
 package at.uibk.dps.ee.model.persistance;
 
+import java.util.concurrent.Executor;
 import at.uibk.dps.ee.model.graph.EnactmentSpecification;
 import net.sf.opendse.io.SpecificationReader;
 import net.sf.opendse.io.SpecificationWriter;
@@ -43,4 +44,19 @@ public final class EnactmentSpecIo {
     final Specification spec = reader.read(filePath);
     return EnactmentSpecTransformer.toApollo(spec);
   }
+
+  /**
+   * Reads an {@link EnactmentSpecification} from the given file. The parts of
+   * the read specification are transformed concurrently on the given executor.
+   * 
+   * @param filePath the file path to read from
+   * @param executor the executor used for the transformation
+   * @return the {@link EnactmentSpecification}
+   */
+  public static EnactmentSpecification readSpecFromFilePath(final String filePath,
+      final Executor executor) {
+    final SpecificationReader reader = new SpecificationReader();
+    final Specification spec = reader.read(filePath);
+    return EnactmentSpecTransformer.toApollo(spec, executor);
+  }
 }
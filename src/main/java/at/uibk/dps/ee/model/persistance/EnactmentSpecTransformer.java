@@ -1,8 +1,12 @@
 package at.uibk.dps.ee.model.persistance;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import at.uibk.dps.ee.model.constants.ConstantsEEModel;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.graph.EnactmentSpecification;
+import at.uibk.dps.ee.model.graph.GraphBuilder;
 import at.uibk.dps.ee.model.graph.MappingsConcurrent;
 import at.uibk.dps.ee.model.graph.ResourceGraph;
 import net.sf.opendse.model.Application;
@@ -17,6 +21,14 @@ import net.sf.opendse.model.Task;
 /**
  * Transforms between the apollo and the odse spec representation.
  * 
+ * The overloads taking an {@link Executor} transform the application, the
+ * architecture, and the mappings concurrently. When creating graphs which use
+ * the concurrent maps as their only store, the elements of each graph are
+ * additionally inserted concurrently (see {@link GraphBuilder#build(Executor)}).
+ * The elements of graphs mirroring their structure into the JUNG parent are
+ * inserted by one thread, since the JUNG maps do not support concurrent
+ * insertion.
+ * 
  * @author Fedor Smirnov
  *
  */
@@ -45,6 +57,29 @@ public final class EnactmentSpecTransformer {
     return result;
   }
 
+  /**
+   * Transforms an Apollo spec to an Odse spec. The application, the architecture,
+   * and the mappings are transformed concurrently on the given executor.
+   * 
+   * @param eSpec the Apollo spec
+   * @param executor the executor used for the transformation
+   * @return the Odse spec
+   */
+  public static Specification toOdse(final EnactmentSpecification eSpec,
+      final Executor executor) {
+    final CompletableFuture<Architecture<Resource, Link>> arch = CompletableFuture
+        .supplyAsync(() -> ResourceGraphTransformer.toOdse(eSpec.getResourceGraph()), executor);
+    final CompletableFuture<Application<Task, Dependency>> appl = CompletableFuture
+        .supplyAsync(() -> EnactmentGraphTransformer.toOdse(eSpec.getEnactmentGraph()), executor);
+    final CompletableFuture<Mappings<Task, Resource>> mappings = CompletableFuture
+        .supplyAsync(() -> MappingsTransformer.toOdse(eSpec.getMappings()), executor);
+    final Specification result =
+        new Specification(await(appl), await(arch), await(mappings));
+    eSpec.getAttributeNames()
+        .forEach(attrName -> result.setAttribute(attrName, eSpec.getAttribute(attrName)));
+    return result;
+  }
+
   /**
    * Transforms an Odse spec to an Apollo spec.
    * 
@@ -61,4 +96,67 @@ public final class EnactmentSpecTransformer {
         .forEach(attrName -> result.setAttribute(attrName, spec.getAttribute(attrName)));
     return result;
   }
+
+  /**
+   * Transforms an Odse spec to an Apollo spec. The application, the architecture,
+   * and the mappings are transformed concurrently on the given executor.
+   * 
+   * @param spec the odse spec
+   * @param executor the executor used for the transformation
+   * @return the apollo spec
+   */
+  public static EnactmentSpecification toApollo(final Specification spec,
+      final Executor executor) {
+    return toApollo(spec, false, executor);
+  }
+
+  /**
+   * Transforms an Odse spec to an Apollo spec. The application, the architecture,
+   * and the mappings are transformed concurrently on the given executor. Graphs
+   * which use the concurrent maps as their only store are additionally filled
+   * by concurrent insertions on the given executor.
+   * 
+   * @param spec the odse spec
+   * @param concurrentStoreOnly true iff the structure of the created graphs is to
+   *        be stored only in the concurrent maps
+   * @param executor the executor used for the transformation
+   * @return the apollo spec
+   */
+  public static EnactmentSpecification toApollo(final Specification spec,
+      final boolean concurrentStoreOnly, final Executor executor) {
+    final CompletableFuture<EnactmentGraph> eGraph = CompletableFuture.supplyAsync(
+        () -> EnactmentGraphTransformer.toApollo(spec.getApplication(), concurrentStoreOnly,
+            executor),
+        executor);
+    final CompletableFuture<ResourceGraph> rGraph = CompletableFuture.supplyAsync(
+        () -> ResourceGraphTransformer.toApollo(spec.getArchitecture(), concurrentStoreOnly,
+            executor),
+        executor);
+    final CompletableFuture<MappingsConcurrent> mappings = CompletableFuture
+        .supplyAsync(() -> MappingsTransformer.toApollo(spec.getMappings()), executor);
+    final EnactmentSpecification result = new EnactmentSpecification(await(eGraph),
+        await(rGraph), await(mappings), ConstantsEEModel.SpecIdDefault);
+    spec.getAttributeNames()
+        .forEach(attrName -> result.setAttribute(attrName, spec.getAttribute(attrName)));
+    return result;
+  }
+
+  /**
+   * Waits for the given transformation and returns its result. Exceptions thrown
+   * during the transformation are rethrown unwrapped.
+   * 
+   * @param <T> the type of the transformation result
+   * @param future the future of the given transformation
+   * @return the transformation result
+   */
+  private static <T> T await(final CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException exc) {
+      if (exc.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) exc.getCause();
+      }
+      throw new IllegalStateException("Spec transformation failed.", exc.getCause());
+    }
+  }
 }
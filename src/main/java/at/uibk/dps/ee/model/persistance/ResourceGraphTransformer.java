@@ -1,5 +1,7 @@
 package at.uibk.dps.ee.model.persistance;
 
+import java.util.concurrent.Executor;
+import at.uibk.dps.ee.model.graph.GraphBuilder;
 import at.uibk.dps.ee.model.graph.ResourceGraph;
 import edu.uci.ics.jung.graph.util.EdgeType;
 import net.sf.opendse.model.Architecture;
@@ -40,11 +42,33 @@ public final class ResourceGraphTransformer {
    * @return the apollo resource graph
    */
   public static ResourceGraph toApollo(final Architecture<Resource, Link> architecture) {
-    final ResourceGraph result = new ResourceGraph();
-    architecture.forEach(res -> result.addVertex(res));
-    architecture.getEdges()
-        .forEach(edge -> result.addEdge(edge, architecture.getEndpoints(edge).getFirst(),
-            architecture.getEndpoints(edge).getSecond(), EdgeType.UNDIRECTED));
-    return result;
+    return GraphBuilder
+        .resourceGraph(architecture.getVertexCount(), architecture.getEdgeCount())
+        .addVertices(architecture)
+        .addEdges(architecture.getEdges(), edge -> architecture.getEndpoints(edge).getFirst(),
+            edge -> architecture.getEndpoints(edge).getSecond(), EdgeType.UNDIRECTED)
+        .build();
+  }
+
+  /**
+   * Transforms an odse architecture to an apollo resource graph. If the created
+   * graph uses the concurrent maps as its only store, its elements are inserted
+   * concurrently on the given executor.
+   * 
+   * @param architecture the odse architecture
+   * @param concurrentStoreOnly true iff the graph structure is to be stored only
+   *        in the concurrent maps
+   * @param executor the executor used for the insertion
+   * @return the apollo resource graph
+   */
+  public static ResourceGraph toApollo(final Architecture<Resource, Link> architecture,
+      final boolean concurrentStoreOnly, final Executor executor) {
+    return GraphBuilder
+        .resourceGraph(architecture.getVertexCount(), architecture.getEdgeCount(),
+            concurrentStoreOnly)
+        .addVertices(architecture)
+        .addEdges(architecture.getEdges(), edge -> architecture.getEndpoints(edge).getFirst(),
+            edge -> architecture.getEndpoints(edge).getSecond(), EdgeType.UNDIRECTED)
+        .build(executor);
   }
 }
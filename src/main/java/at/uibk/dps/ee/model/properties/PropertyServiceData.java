@@ -3,6 +3,8 @@ package at.uibk.dps.ee.model.properties;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.objects.JsonContent;
 import net.sf.opendse.model.Communication;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.model.properties.AbstractPropertyService;
@@ -18,10 +20,24 @@ import net.sf.opendse.model.properties.TaskPropertyService;
  */
 public final class PropertyServiceData extends AbstractPropertyService {
 
+  private static final String propNameContent = Property.Content.name();
   private static final String propNameOriginalWhileEnd = Property.OriginalWhileEnd.name();
   private static final String propNameOriginalWhileStart = Property.OriginalWhileStart.name();
-  private static final String propNameWhileStart = Property.WhileStart.name();
-  private static final String propNameWhileCounter = Property.WhileCounter.name();
+
+  private static final PropertySlot.BooleanSlot slotDataAvailable =
+      PropertySlot.ofBoolean(Property.DataAvailable);
+  private static final PropertySlot.BooleanSlot slotRoot = PropertySlot.ofBoolean(Property.Root);
+  private static final PropertySlot.BooleanSlot slotLeaf = PropertySlot.ofBoolean(Property.Leaf);
+  private static final PropertySlot.BooleanSlot slotBoundary =
+      PropertySlot.ofBoolean(Property.Boundary);
+  private static final PropertySlot.BooleanSlot slotWhileStart =
+      PropertySlot.ofBoolean(Property.WhileStart);
+  private static final PropertySlot.BooleanSlot slotWhileCounter =
+      PropertySlot.ofBoolean(Property.WhileCounter);
+  private static final PropertySlot.EnumSlot<NodeType> slotNodeType =
+      PropertySlot.ofEnum(Property.NodeType, NodeType.class);
+  private static final PropertySlot.EnumSlot<DataType> slotDataType =
+      PropertySlot.ofEnum(Property.DataType, DataType.class);
 
   static final int initialWhileCounterValue = 1;
 
@@ -77,7 +93,11 @@ public final class PropertyServiceData extends AbstractPropertyService {
     /**
      * Data node representing the loop counter of a while compound
      */
-    WhileCounter
+    WhileCounter,
+    /**
+     * Data node exchanged with another part of a partitioned workflow
+     */
+    Boundary
   }
 
   public enum DataType {
@@ -199,12 +219,7 @@ public final class PropertyServiceData extends AbstractPropertyService {
    */
   public static NodeType getNodeType(final Task task) {
     checkTask(task);
-    final String attrName = Property.NodeType.name();
-    if (isAttributeSet(task, attrName)) {
-      return NodeType.valueOf((String) getAttribute(task, attrName));
-    } else {
-      return NodeType.Default;
-    }
+    return slotNodeType.get(task, NodeType.Default);
   }
 
   /**
@@ -215,8 +230,21 @@ public final class PropertyServiceData extends AbstractPropertyService {
    */
   public static void setNodeType(final Task task, final NodeType nodeType) {
     checkTask(task);
-    final String attrName = Property.NodeType.name();
-    task.setAttribute(attrName, nodeType.name());
+    slotNodeType.set(task, nodeType);
+  }
+
+  /**
+   * Sets the provided node type for the provided task, which is a node of the
+   * given graph, and updates the classification of the graph.
+   * 
+   * @param task the provided task.
+   * @param nodeType the node type to set
+   * @param graph the graph containing the task
+   */
+  public static void setNodeType(final Task task, final NodeType nodeType,
+      final EnactmentGraph graph) {
+    setNodeType(task, nodeType);
+    graph.reclassify(task);
   }
 
   /**
@@ -232,10 +260,8 @@ public final class PropertyServiceData extends AbstractPropertyService {
     final Task result = new Communication(nodeId);
     setDataType(result, dataType);
     setNodeType(result, NodeType.Constant);
-    final String attrNameContent = Property.Content.name();
-    result.setAttribute(attrNameContent, content.toString());
-    final String dataAvalAttrName = Property.DataAvailable.name();
-    result.setAttribute(dataAvalAttrName, true);
+    result.setAttribute(propNameContent, new JsonContent(content));
+    slotDataAvailable.set(result, true);
     return result;
   }
 
@@ -286,11 +312,7 @@ public final class PropertyServiceData extends AbstractPropertyService {
    */
   public static boolean isWhileCounter(final Task data) {
     checkTask(data);
-    if (isAttributeSet(data, propNameWhileCounter)) {
-      return (boolean) getAttribute(data, propNameWhileCounter);
-    } else {
-      return false;
-    }
+    return slotWhileCounter.get(data);
   }
 
   /**
@@ -300,7 +322,7 @@ public final class PropertyServiceData extends AbstractPropertyService {
    */
   static void makeWhileCounter(final Task data) {
     checkTask(data);
-    data.setAttribute(propNameWhileCounter, true);
+    slotWhileCounter.set(data, true);
   }
 
   /**
@@ -311,11 +333,7 @@ public final class PropertyServiceData extends AbstractPropertyService {
    */
   public static boolean isWhileStart(final Task data) {
     checkTask(data);
-    if (isAttributeSet(data, propNameWhileStart)) {
-      return (boolean) data.getAttribute(propNameWhileStart);
-    } else {
-      return false;
-    }
+    return slotWhileStart.get(data);
   }
 
   /**
@@ -325,7 +343,7 @@ public final class PropertyServiceData extends AbstractPropertyService {
    */
   static void makeWhileStart(final Task data) {
     checkTask(data);
-    data.setAttribute(propNameWhileStart, true);
+    slotWhileStart.set(data, true);
     setOriginalWhileStartAnnotation(data, data.getId());
   }
 
@@ -339,7 +357,7 @@ public final class PropertyServiceData extends AbstractPropertyService {
     if (!isWhileCounter(whileCounter)) {
       throw new IllegalArgumentException("Data node " + whileCounter + " is not a while counter.");
     }
-    final int curCount = getContent(whileCounter).getAsInt();
+    final int curCount = getContentReadOnly(whileCounter).getAsInt();
     setContent(whileCounter, new JsonPrimitive(curCount + 1));
   }
 
@@ -364,8 +382,7 @@ public final class PropertyServiceData extends AbstractPropertyService {
    */
   public static DataType getDataType(final Task task) {
     checkTask(task);
-    final String attrName = Property.DataType.name();
-    return DataType.valueOf((String) getAttribute(task, attrName));
+    return slotDataType.get(task);
   }
 
   /**
@@ -376,8 +393,7 @@ public final class PropertyServiceData extends AbstractPropertyService {
    */
   public static void setDataType(final Task task, final DataType type) {
     checkTask(task);
-    final String attrName = Property.DataType.name();
-    task.setAttribute(attrName, type.name());
+    slotDataType.set(task, type);
   }
 
   /**
@@ -420,8 +436,19 @@ public final class PropertyServiceData extends AbstractPropertyService {
    */
   public static void makeLeaf(final Task task) {
     checkTask(task);
-    final String attrName = Property.Leaf.name();
-    task.setAttribute(attrName, true);
+    slotLeaf.set(task, true);
+  }
+
+  /**
+   * Annotates the given task, which is a node of the given graph, as leaf and
+   * updates the classification of the graph.
+   * 
+   * @param task the given task
+   * @param graph the graph containing the task
+   */
+  public static void makeLeaf(final Task task, final EnactmentGraph graph) {
+    makeLeaf(task);
+    graph.reclassify(task);
   }
 
   /**
@@ -432,11 +459,30 @@ public final class PropertyServiceData extends AbstractPropertyService {
    */
   public static boolean isLeaf(final Task task) {
     checkTask(task);
-    final String attrName = Property.Leaf.name();
-    if (!isAttributeSet(task, attrName)) {
-      return false;
-    }
-    return (boolean) getAttribute(task, attrName);
+    return slotLeaf.get(task);
+  }
+
+  /**
+   * Annotates the given data node as a boundary node, i.e., as a node which is
+   * produced or consumed in another part of a partitioned workflow.
+   * 
+   * @param task the given data node
+   */
+  public static void makeBoundary(final Task task) {
+    checkTask(task);
+    slotBoundary.set(task, true);
+  }
+
+  /**
+   * Checks whether the given data node is a boundary node of a partitioned
+   * workflow.
+   * 
+   * @param task the given data node
+   * @return <code>true</code> iff the given data node is a boundary node
+   */
+  public static boolean isBoundary(final Task task) {
+    checkTask(task);
+    return slotBoundary.get(task);
   }
 
   /**
@@ -446,8 +492,19 @@ public final class PropertyServiceData extends AbstractPropertyService {
    */
   public static void makeRoot(final Task task) {
     checkTask(task);
-    final String attrName = Property.Root.name();
-    task.setAttribute(attrName, true);
+    slotRoot.set(task, true);
+  }
+
+  /**
+   * Annotates the given task, which is a node of the given graph, as a root and
+   * updates the classification of the graph.
+   * 
+   * @param task the given task
+   * @param graph the graph containing the task
+   */
+  public static void makeRoot(final Task task, final EnactmentGraph graph) {
+    makeRoot(task);
+    graph.reclassify(task);
   }
 
   /**
@@ -458,15 +515,12 @@ public final class PropertyServiceData extends AbstractPropertyService {
    */
   public static boolean isRoot(final Task task) {
     checkTask(task);
-    final String attrName = Property.Root.name();
-    if (!isAttributeSet(task, attrName)) {
-      return false;
-    }
-    return (boolean) getAttribute(task, attrName);
+    return slotRoot.get(task);
   }
 
   /**
-   * Annotates the given content to the given data node.
+   * Annotates the given content to the given data node. The content is copied
+   * and stored in its parsed form (see {@link JsonContent}).
    * 
    * @param task the given data node
    * @param content the content to annotate
@@ -477,25 +531,45 @@ public final class PropertyServiceData extends AbstractPropertyService {
         && !(isWhileCounter(task) || isWhileStart(task))) {
       throw new IllegalArgumentException("The content of a constant data node must not be set.");
     }
-    final String attrNameContent = Property.Content.name();
-    task.setAttribute(attrNameContent, content.toString());
-    final String attrNameAval = Property.DataAvailable.name();
-    task.setAttribute(attrNameAval, true);
+    task.setAttribute(propNameContent, new JsonContent(content));
+    slotDataAvailable.set(task, true);
   }
 
   /**
-   * Returns the data content of the given data node. Throws an exception if no
-   * data annotated.
+   * Returns (a copy of) the data content of the given data node. Throws an
+   * exception if no data annotated.
    * 
    * @param task the given task
    * @return the data content of the given data node
    */
   public static JsonElement getContent(final Task task) {
     checkTask(task);
-    final String attrName = Property.Content.name();
-    checkAttribute(task, attrName);
-    final String jsonString = (String) getAttribute(task, attrName);
-    return JsonParser.parseString(jsonString);
+    final Object content = task.getAttribute(propNameContent);
+    // the string form is parsed into a fresh element anyway
+    return content instanceof JsonContent ? ((JsonContent) content).getJson().deepCopy()
+        : getContentReadOnly(task);
+  }
+
+  /**
+   * Returns the data content of the given data node without copying it. Throws
+   * an exception if no data annotated. The returned element may be shared by
+   * all readers of the node and must not be modified (use
+   * {@link #getContent(Task)} to obtain a modifiable copy).
+   * 
+   * @param task the given task
+   * @return the data content of the given data node (not to be modified)
+   */
+  public static JsonElement getContentReadOnly(final Task task) {
+    checkTask(task);
+    final Object content = task.getAttribute(propNameContent);
+    if (content instanceof JsonContent) {
+      return ((JsonContent) content).getJson();
+    } else if (content instanceof String) {
+      // content annotated as string (specs persisted before the content objects)
+      return JsonParser.parseString((String) content);
+    } else {
+      throw new IllegalArgumentException("Attribute " + propNameContent + " not set for " + task);
+    }
   }
 
   /**
@@ -506,11 +580,7 @@ public final class PropertyServiceData extends AbstractPropertyService {
    */
   public static boolean isDataAvailable(final Task task) {
     checkTask(task);
-    final String attrName = Property.DataAvailable.name();
-    if (!isAttributeSet(task, attrName)) {
-      return false;
-    }
-    return (boolean) getAttribute(task, attrName);
+    return slotDataAvailable.get(task);
   }
 
   /**
@@ -523,8 +593,7 @@ public final class PropertyServiceData extends AbstractPropertyService {
     if (getNodeType(task).equals(NodeType.Constant) && !isWhileStart(task)) {
       throw new IllegalArgumentException("The content of a constant data node must not be set.");
     }
-    final String attrName = Property.DataAvailable.name();
-    task.setAttribute(attrName, false);
+    slotDataAvailable.set(task, false);
     final String attrNameContent = Property.Content.name();
     task.setAttribute(attrNameContent, null);
   }
@@ -18,8 +18,14 @@ import net.sf.opendse.model.properties.TaskPropertyService;
  */
 public final class PropertyServiceDependency extends AbstractPropertyService {
 
-  private static final String propNameExtractionDone = Property.ExtractionDone.name();
-  private static final String propNameDataConsumed = Property.DataConsumed.name();
+  private static final PropertySlot.BooleanSlot slotExtractionDone =
+      PropertySlot.ofBoolean(Property.ExtractionDone);
+  private static final PropertySlot.BooleanSlot slotDataConsumed =
+      PropertySlot.ofBoolean(Property.DataConsumed);
+  private static final PropertySlot.BooleanSlot slotTransmissionDone =
+      PropertySlot.ofBoolean(Property.TransmissionDone);
+  private static final PropertySlot.EnumSlot<TypeDependency> slotType =
+      PropertySlot.ofEnum(Property.Type, TypeDependency.class);
   private static final String propNameWhileRepDataRefList =
       Property.WhileRepDataReferenceList.name();
   private static final String propNameWhileRepFuncRefList =
@@ -280,13 +286,28 @@ public final class PropertyServiceDependency extends AbstractPropertyService {
   }
 
   /**
-   * Resets the transmission annotations on the given edge
+   * Resets the transmission annotations on the given edge. For edges of a graph
+   * whose readiness is tracked, use
+   * {@link #resetTransmission(Dependency, EnactmentGraph)}.
    * 
    * @param dependency the given edge
    */
   public static void resetTransmission(final Dependency dependency) {
     resetTransmissionAnnotation(dependency);
-    dependency.setAttribute(propNameDataConsumed, false);
+    slotDataConsumed.set(dependency, false);
+  }
+
+  /**
+   * Resets the transmission annotations on the given edge and updates the
+   * pending input count of its destination in the given graph.
+   * 
+   * @param dependency the given edge
+   * @param graph the graph containing the given edge
+   */
+  public static void resetTransmission(final Dependency dependency,
+      final EnactmentGraph graph) {
+    resetTransmission(dependency);
+    graph.updateReadiness(dependency);
   }
 
   /**
@@ -299,7 +320,7 @@ public final class PropertyServiceDependency extends AbstractPropertyService {
       throw new IllegalStateException(
           "Data consumption can only occur after transmission: " + dependency);
     }
-    dependency.setAttribute(propNameDataConsumed, true);
+    slotDataConsumed.set(dependency, true);
   }
 
   /**
@@ -311,10 +332,7 @@ public final class PropertyServiceDependency extends AbstractPropertyService {
    *         by the edge source
    */
   public static boolean isDataConsumed(final Dependency dependency) {
-    if (!isAttributeSet(dependency, propNameDataConsumed)) {
-      return false;
-    }
-    return (boolean) getAttribute(dependency, propNameDataConsumed);
+    return slotDataConsumed.get(dependency);
   }
 
   /**
@@ -324,10 +342,7 @@ public final class PropertyServiceDependency extends AbstractPropertyService {
    * @return true iff the data extraction over the given edge is finished
    */
   public static boolean isExtractionDone(final Dependency dependency) {
-    if (!isAttributeSet(dependency, propNameExtractionDone)) {
-      return false;
-    }
-    return (boolean) getAttribute(dependency, propNameExtractionDone);
+    return slotExtractionDone.get(dependency);
   }
 
   /**
@@ -336,7 +351,7 @@ public final class PropertyServiceDependency extends AbstractPropertyService {
    * @param dependency the given edge
    */
   public static void setExtractionDone(final Dependency dependency) {
-    dependency.setAttribute(propNameExtractionDone, true);
+    slotExtractionDone.set(dependency, true);
   }
 
   /**
@@ -345,7 +360,7 @@ public final class PropertyServiceDependency extends AbstractPropertyService {
    * @param dependency the given edge
    */
   public static void resetExtractionDone(final Dependency dependency) {
-    dependency.setAttribute(propNameExtractionDone, false);
+    slotExtractionDone.set(dependency, false);
   }
 
   /**
@@ -355,11 +370,7 @@ public final class PropertyServiceDependency extends AbstractPropertyService {
    * @return true if the data transmission over the edge has occurred
    */
   public static boolean isTransmissionDone(final Dependency dependency) {
-    final String attrName = Property.TransmissionDone.name();
-    if (!isAttributeSet(dependency, attrName)) {
-      return false;
-    }
-    return (boolean) getAttribute(dependency, attrName);
+    return slotTransmissionDone.get(dependency);
   }
 
   /**
@@ -373,7 +384,8 @@ public final class PropertyServiceDependency extends AbstractPropertyService {
 
   /**
    * Annotates that the data transmission over the given dependency has already
-   * occurred.
+   * occurred. For edges of a graph whose readiness is tracked, use
+   * {@link #annotateFinishedTransmission(Dependency, EnactmentGraph)}.
    * 
    * @param dependency the given dependency
    */
@@ -381,6 +393,20 @@ public final class PropertyServiceDependency extends AbstractPropertyService {
     setTransmissionDone(dependency, true);
   }
 
+  /**
+   * Annotates that the data transmission over the given dependency has already
+   * occurred and updates the pending input count of its destination in the
+   * given graph.
+   * 
+   * @param dependency the given dependency
+   * @param graph the graph containing the given dependency
+   */
+  public static void annotateFinishedTransmission(final Dependency dependency,
+      final EnactmentGraph graph) {
+    annotateFinishedTransmission(dependency);
+    graph.updateReadiness(dependency);
+  }
+
   /**
    * Annotates whether the transmission on the given edge has already occurred.
    * 
@@ -389,23 +415,21 @@ public final class PropertyServiceDependency extends AbstractPropertyService {
    *        done
    */
   static void setTransmissionDone(final Dependency dependency, final boolean done) {
-    final String attrName = Property.TransmissionDone.name();
-    dependency.setAttribute(attrName, done);
+    slotTransmissionDone.set(dependency, done);
   }
 
   /**
-   * Returns a dependency with a unique ID made from the IDs of its endpoints.
+   * Returns a dependency with a unique ID made from the IDs of its endpoints
+   * (allocated by the edge ID allocator of the graph).
    * 
    * @param src the edge source
    * @param dest the edge destination
+   * @param graph the enactment graph
    * @return a dependency with a unique ID made from the IDs of its endpoints
    */
   static Dependency createDependency(final Task src, final Task dest, final EnactmentGraph graph) {
-    String dependencyId = src.getId() + ConstantsEEModel.KeywordSeparator1 + dest.getId();
-    while (graph.containsEdge(dependencyId)) {
-      dependencyId = dependencyId.concat(ConstantsEEModel.KeyWordEdgeUniqueness);
-    }
-    return new Dependency(dependencyId);
+    return new Dependency(graph.getEdgeIdAllocator()
+        .allocate(src.getId() + ConstantsEEModel.KeywordSeparator1 + dest.getId()));
   }
 
   /**
@@ -476,8 +500,7 @@ public final class PropertyServiceDependency extends AbstractPropertyService {
    * @param dep the given dependency
    */
   public static TypeDependency getType(final Dependency dep) {
-    final String attrName = Property.Type.name();
-    return TypeDependency.valueOf((String) getAttribute(dep, attrName));
+    return slotType.get(dep);
   }
 
   /**
@@ -487,7 +510,6 @@ public final class PropertyServiceDependency extends AbstractPropertyService {
    * @param type the type to set
    */
   public static void setType(final Dependency dep, final TypeDependency type) {
-    final String attrName = Property.Type.name();
-    dep.setAttribute(attrName, type.name());
+    slotType.set(dep, type);
   }
 }
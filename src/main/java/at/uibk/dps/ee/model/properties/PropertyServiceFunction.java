@@ -1,6 +1,8 @@
 package at.uibk.dps.ee.model.properties;
 
+import java.util.Set;
 import com.google.gson.JsonObject;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.model.properties.AbstractPropertyService;
 import net.sf.opendse.model.properties.TaskPropertyService;
@@ -14,10 +16,12 @@ import net.sf.opendse.model.properties.TaskPropertyService;
  */
 public final class PropertyServiceFunction extends AbstractPropertyService {
 
-  private static final String propNameUsageType = Property.UsageType.name();
   private static final String propNameInput = Property.Input.name();
   private static final String propNameOutput = Property.Output.name();
-  private static final String propNameNegligibleWorkload = Property.NegligibleWorkload.name();
+  private static final PropertySlot.BooleanSlot slotNegligibleWorkload =
+      PropertySlot.ofBoolean(Property.NegligibleWorkload);
+  static final PropertySlot.EnumSlot<UsageType> slotUsageType =
+      PropertySlot.ofEnum(Property.UsageType, UsageType.class);
 
   /**
    * No constructor
@@ -82,10 +86,7 @@ public final class PropertyServiceFunction extends AbstractPropertyService {
    *         resource where it is mapped
    */
   public static boolean hasNegligibleWorkload(final Task task) {
-    if (!isAttributeSet(task, propNameNegligibleWorkload)) {
-      return true;
-    }
-    return (boolean) getAttribute(task, propNameNegligibleWorkload);
+    return slotNegligibleWorkload.get(task, true);
   }
 
   /**
@@ -94,7 +95,7 @@ public final class PropertyServiceFunction extends AbstractPropertyService {
    * @param task the given task
    */
   public static void annotateNonNegligibleWorkload(final Task task) {
-    task.setAttribute(propNameNegligibleWorkload, false);
+    slotNegligibleWorkload.set(task, false);
   }
 
   /**
@@ -203,7 +204,43 @@ public final class PropertyServiceFunction extends AbstractPropertyService {
    */
   public static void setUsageType(final UsageType functionType, final Task task) {
     checkTask(task);
-    task.setAttribute(propNameUsageType, functionType.name());
+    slotUsageType.set(task, functionType);
+    PropertyServiceFunctionClassification.update(task);
+  }
+
+  /**
+   * Sets the function type for the provided function, which is a node of the
+   * given graph, and updates the classification of the graph.
+   * 
+   * @param functionType the type to set
+   * @param task the task to annotate
+   * @param graph the graph containing the task
+   */
+  public static void setUsageType(final UsageType functionType, final Task task,
+      final EnactmentGraph graph) {
+    setUsageType(functionType, task);
+    graph.reclassify(task);
+  }
+
+  /**
+   * Returns true iff the usage type of the given task is set.
+   * 
+   * @param task the given task
+   * @return true iff the usage type of the given task is set
+   */
+  public static boolean isUsageTypeSet(final Task task) {
+    checkTask(task);
+    return slotUsageType.isSet(task);
+  }
+
+  /**
+   * Returns the names of the attributes holding the input and the output of the
+   * function nodes (which change with every enactment).
+   * 
+   * @return the names of the attributes holding the input and the output
+   */
+  public static Set<String> getRuntimeAttributeNames() {
+    return Set.of(propNameInput, propNameOutput);
   }
 
   /**
@@ -214,7 +251,7 @@ public final class PropertyServiceFunction extends AbstractPropertyService {
    */
   public static UsageType getUsageType(final Task task) {
     checkTask(task);
-    return UsageType.valueOf((String) getAttribute(task, propNameUsageType));
+    return slotUsageType.get(task);
   }
 
   /**
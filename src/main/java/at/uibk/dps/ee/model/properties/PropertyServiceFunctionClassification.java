@@ -0,0 +1,160 @@
+package at.uibk.dps.ee.model.properties;
+
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow.DataFlowType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtility.UtilityType;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.AbstractPropertyService;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Static method container for the classification of function nodes, kept as a
+ * bit mask combining the usage type with the utility, data flow, and operation
+ * type of the node. The mask is kept in the record of the property slots of the
+ * node ({@link PropertySlots}), where it is computed once when the record is
+ * created (by the first typing, or when the node is read from a file or
+ * copied) and again whenever a type is set. The classification predicates
+ * (e.g., {@link PropertyServiceFunctionDataFlowCollections#isAggregationNode(Task)})
+ * are thereby answered with a record lookup and a mask test instead of
+ * parsing the chain of type attributes.
+ * 
+ * The masks are not part of the persisted attributes, so their layout (a
+ * fixed group of bits per type, with one bit per constant, by ordinal) can
+ * change freely. For nodes without a record (e.g., typed only by directly
+ * setting the attributes), the mask is computed on each request. Nodes
+ * retyped by directly setting the attributes are to be announced via
+ * {@link #invalidate(Task)}.
+ * 
+ * @author Fedor Smirnov
+ */
+public final class PropertyServiceFunctionClassification extends AbstractPropertyService {
+
+  protected static final int bitsPerType = 8;
+
+  /**
+   * No constructor.
+   */
+  private PropertyServiceFunctionClassification() {}
+
+  /**
+   * Returns the mask with the bits of the given types.
+   * 
+   * @param types the given types (constants of {@link UsageType},
+   *        {@link UtilityType}, {@link DataFlowType}, or {@link OperationType})
+   * @return the mask with the bits of the given types
+   */
+  public static int maskOf(final Enum<?>... types) {
+    int result = 0;
+    for (final Enum<?> type : types) {
+      result |= bitOf(type);
+    }
+    return result;
+  }
+
+  /**
+   * Returns true iff the given task is a function node whose classification
+   * contains all bits of the given mask.
+   * 
+   * @param task the given task
+   * @param mask the given mask (see {@link #maskOf(Enum...)})
+   * @return true iff the classification of the given task contains the mask
+   */
+  public static boolean matches(final Task task, final int mask) {
+    return (getMask(task) & mask) == mask;
+  }
+
+  /**
+   * Returns the classification mask of the given task (0 for data nodes and
+   * untyped function nodes).
+   * 
+   * @param task the given task
+   * @return the classification mask of the given task
+   */
+  public static int getMask(final Task task) {
+    if (!TaskPropertyService.isProcess(task)) {
+      return 0;
+    }
+    final PropertySlots record = PropertySlots.get(task);
+    final int stored =
+        record == null ? PropertySlots.unknownClassification : record.classification;
+    return stored == PropertySlots.unknownClassification ? computeMask(task) : stored;
+  }
+
+  /**
+   * Drops the record of the property slots of the given node (including its
+   * classification mask), so that the mask is computed from the type
+   * attributes. To be called after setting the type attributes directly.
+   * 
+   * @param task the given node
+   */
+  public static void invalidate(final Task task) {
+    PropertySlots.invalidate(task);
+  }
+
+  /**
+   * Recomputes the classification mask of the given function node from its
+   * types and stores it in the record of the node. To be called whenever one of
+   * the types is set.
+   * 
+   * @param task the given function node
+   */
+  static void update(final Task task) {
+    PropertySlots.attach(task).classification = computeMask(task);
+  }
+
+  /**
+   * Computes the classification mask of the given function node from its type
+   * attributes.
+   * 
+   * @param task the given function node
+   * @return the classification mask of the given function node
+   */
+  protected static int computeMask(final Task task) {
+    final UsageType usageType = PropertyServiceFunction.slotUsageType.get(task, null);
+    if (usageType == null) {
+      return 0;
+    }
+    int result = bitOf(usageType);
+    if (usageType == UsageType.Utility) {
+      final UtilityType utilityType =
+          PropertyServiceFunctionUtility.slotUtilityType.get(task, null);
+      result |= utilityType == null ? 0 : bitOf(utilityType);
+    } else if (usageType == UsageType.DataFlow) {
+      final DataFlowType dataFlowType =
+          PropertyServiceFunctionDataFlow.slotDataFlowType.get(task, null);
+      result |= dataFlowType == null ? 0 : bitOf(dataFlowType);
+      if (dataFlowType == DataFlowType.Collections) {
+        final OperationType operationType =
+            PropertyServiceFunctionDataFlowCollections.slotOperationType.get(task, null);
+        result |= operationType == null ? 0 : bitOf(operationType);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the bit of the given type.
+   * 
+   * @param type the given type
+   * @return the bit of the given type
+   */
+  protected static int bitOf(final Enum<?> type) {
+    final int group;
+    if (type instanceof UsageType) {
+      group = 0;
+    } else if (type instanceof UtilityType) {
+      group = 1;
+    } else if (type instanceof DataFlowType) {
+      group = 2;
+    } else if (type instanceof OperationType) {
+      group = 3;
+    } else {
+      throw new IllegalArgumentException("Type " + type + " is not a function type.");
+    }
+    if (type.ordinal() >= bitsPerType) {
+      throw new IllegalStateException("Too many constants in " + type.getClass());
+    }
+    return 1 << (group * bitsPerType + type.ordinal());
+  }
+}
@@ -1,9 +1,9 @@
 package at.uibk.dps.ee.model.properties;
 
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.model.properties.AbstractPropertyService;
-import net.sf.opendse.model.properties.TaskPropertyService;
 
 /**
  * Static method container to access properties of data flow function nodes.
@@ -12,6 +12,13 @@ import net.sf.opendse.model.properties.TaskPropertyService;
  */
 public final class PropertyServiceFunctionDataFlow extends AbstractPropertyService {
 
+  static final PropertySlot.EnumSlot<DataFlowType> slotDataFlowType =
+      PropertySlot.ofEnum(Property.DataFlowType, DataFlowType.class);
+  private static final int maskDataFlow =
+      PropertyServiceFunctionClassification.maskOf(UsageType.DataFlow);
+  private static final int maskMultiplexer =
+      PropertyServiceFunctionClassification.maskOf(UsageType.DataFlow, DataFlowType.Multiplexer);
+
   /**
    * No constructor.
    */
@@ -58,9 +65,7 @@ public final class PropertyServiceFunctionDataFlow extends AbstractPropertyServi
    * @return true if the given task is a multiplexer node
    */
   public static boolean isMultiplexerNode(final Task task) {
-    return TaskPropertyService.isProcess(task)
-        && PropertyServiceFunction.getUsageType(task).equals(UsageType.DataFlow)
-        && getDataFlowType(task).equals(DataFlowType.Multiplexer);
+    return PropertyServiceFunctionClassification.matches(task, maskMultiplexer);
   }
 
   /**
@@ -77,6 +82,17 @@ public final class PropertyServiceFunctionDataFlow extends AbstractPropertyServi
     return result;
   }
 
+  /**
+   * Returns true iff the data flow type of the given task is set.
+   * 
+   * @param task the given task
+   * @return true iff the data flow type of the given task is set
+   */
+  public static boolean isDataFlowTypeSet(final Task task) {
+    checkTask(task);
+    return slotDataFlowType.isSet(task);
+  }
+
   /**
    * Returns the data flow type for the given task.
    * 
@@ -85,8 +101,7 @@ public final class PropertyServiceFunctionDataFlow extends AbstractPropertyServi
    */
   public static DataFlowType getDataFlowType(final Task task) {
     checkTask(task);
-    final String attrName = Property.DataFlowType.name();
-    return DataFlowType.valueOf((String) getAttribute(task, attrName));
+    return slotDataFlowType.get(task);
   }
 
   /**
@@ -97,8 +112,22 @@ public final class PropertyServiceFunctionDataFlow extends AbstractPropertyServi
    */
   public static void setDataFlowType(final Task task, final DataFlowType type) {
     checkTask(task);
-    final String attrName = Property.DataFlowType.name();
-    task.setAttribute(attrName, type.name());
+    slotDataFlowType.set(task, type);
+    PropertyServiceFunctionClassification.update(task);
+  }
+
+  /**
+   * Sets the data flow type for the given task, which is a node of the given
+   * graph, and updates the classification of the graph.
+   * 
+   * @param task the given task
+   * @param type the type to set
+   * @param graph the graph containing the task
+   */
+  public static void setDataFlowType(final Task task, final DataFlowType type,
+      final EnactmentGraph graph) {
+    setDataFlowType(task, type);
+    graph.reclassify(task);
   }
 
   /**
@@ -108,7 +137,7 @@ public final class PropertyServiceFunctionDataFlow extends AbstractPropertyServi
    */
   static void checkTask(final Task task) {
     PropertyServiceFunction.checkTask(task);
-    if (!PropertyServiceFunction.getUsageType(task).equals(UsageType.DataFlow)) {
+    if (!PropertyServiceFunctionClassification.matches(task, maskDataFlow)) {
       throw new IllegalArgumentException("Task " + task.getId() + " is not a data flow task");
     }
   }
@@ -1,10 +1,10 @@
 package at.uibk.dps.ee.model.properties;
 
+import java.util.Set;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow.DataFlowType;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.model.properties.AbstractPropertyService;
-import net.sf.opendse.model.properties.TaskPropertyService;
 
 /**
  * Static method container for methods used to control the properties of the
@@ -15,6 +15,16 @@ import net.sf.opendse.model.properties.TaskPropertyService;
 public final class PropertyServiceFunctionDataFlowCollections extends AbstractPropertyService {
 
   private static final String propertyNameFinished = Property.Finished.name();
+  private static final PropertySlot.IntSlot slotIterationNumber =
+      PropertySlot.ofInt(Property.IterationNumber);
+  static final PropertySlot.EnumSlot<OperationType> slotOperationType =
+      PropertySlot.ofEnum(Property.OperationType, OperationType.class);
+  private static final int maskCollections = PropertyServiceFunctionClassification
+      .maskOf(UsageType.DataFlow, DataFlowType.Collections);
+  private static final int maskAggregation = PropertyServiceFunctionClassification
+      .maskOf(UsageType.DataFlow, DataFlowType.Collections, OperationType.Aggregation);
+  private static final int maskDistribution = PropertyServiceFunctionClassification
+      .maskOf(UsageType.DataFlow, DataFlowType.Collections, OperationType.Distribution);
 
   /**
    * No constructor.
@@ -45,6 +55,17 @@ public final class PropertyServiceFunctionDataFlowCollections extends AbstractPr
     Finished
   }
 
+  /**
+   * Returns the names of the attributes holding the iteration state of the
+   * distribution and aggregation nodes (the iteration number and the finished
+   * flag, which change during an enactment).
+   * 
+   * @return the names of the attributes holding the iteration state
+   */
+  public static Set<String> getRuntimeAttributeNames() {
+    return Set.of(Property.IterationNumber.name(), propertyNameFinished);
+  }
+
   /**
    * Type of the data flow operation
    * 
@@ -117,8 +138,7 @@ public final class PropertyServiceFunctionDataFlowCollections extends AbstractPr
     if (!isDistributionNode(task)) {
       throw new IllegalArgumentException("Task " + task.getId() + " is not a distribution node.");
     }
-    final String attrName = Property.IterationNumber.name();
-    task.setAttribute(attrName, iterationNumber);
+    slotIterationNumber.set(task, iterationNumber);
   }
 
   /**
@@ -131,8 +151,7 @@ public final class PropertyServiceFunctionDataFlowCollections extends AbstractPr
     if (!isDistributionNode(task)) {
       throw new IllegalArgumentException("Task " + task.getId() + " is not a distribution node.");
     }
-    final String attrName = Property.IterationNumber.name();
-    return (int) getAttribute(task, attrName);
+    return slotIterationNumber.get(task);
   }
 
   /**
@@ -142,11 +161,7 @@ public final class PropertyServiceFunctionDataFlowCollections extends AbstractPr
    * @return true iff the given node is an aggregation node
    */
   public static boolean isAggregationNode(final Task task) {
-    return TaskPropertyService.isProcess(task)
-        && PropertyServiceFunction.getUsageType(task).equals(UsageType.DataFlow)
-        && PropertyServiceFunctionDataFlow.getDataFlowType(task).equals(DataFlowType.Collections)
-        && PropertyServiceFunctionDataFlowCollections.getOperationType(task)
-            .equals(OperationType.Aggregation);
+    return PropertyServiceFunctionClassification.matches(task, maskAggregation);
   }
 
   /**
@@ -156,11 +171,7 @@ public final class PropertyServiceFunctionDataFlowCollections extends AbstractPr
    * @return true iff the given node is an distribution node
    */
   public static boolean isDistributionNode(final Task task) {
-    return TaskPropertyService.isProcess(task)
-        && PropertyServiceFunction.getUsageType(task).equals(UsageType.DataFlow)
-        && PropertyServiceFunctionDataFlow.getDataFlowType(task).equals(DataFlowType.Collections)
-        && PropertyServiceFunctionDataFlowCollections.getOperationType(task)
-            .equals(OperationType.Distribution);
+    return PropertyServiceFunctionClassification.matches(task, maskDistribution);
   }
 
   /**
@@ -171,8 +182,8 @@ public final class PropertyServiceFunctionDataFlowCollections extends AbstractPr
    */
   static void setOperationType(final Task task, final OperationType operationType) {
     checkTask(task);
-    final String attrName = Property.OperationType.name();
-    task.setAttribute(attrName, operationType.name());
+    slotOperationType.set(task, operationType);
+    PropertyServiceFunctionClassification.update(task);
   }
 
   /**
@@ -183,8 +194,7 @@ public final class PropertyServiceFunctionDataFlowCollections extends AbstractPr
    */
   public static OperationType getOperationType(final Task task) {
     checkTask(task);
-    final String attrName = Property.OperationType.name();
-    return OperationType.valueOf((String) getAttribute(task, attrName));
+    return slotOperationType.get(task);
   }
 
   /**
@@ -218,7 +228,7 @@ public final class PropertyServiceFunctionDataFlowCollections extends AbstractPr
    */
   static void checkTask(final Task task) {
     PropertyServiceFunctionDataFlow.checkTask(task);
-    if (!PropertyServiceFunctionDataFlow.getDataFlowType(task).equals(DataFlowType.Collections)) {
+    if (!PropertyServiceFunctionClassification.matches(task, maskCollections)) {
       throw new IllegalArgumentException(
           "Task " + task.getId() + " does not model a collection data flow operation.");
     }
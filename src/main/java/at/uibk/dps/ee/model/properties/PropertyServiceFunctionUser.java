@@ -14,6 +14,7 @@ public final class PropertyServiceFunctionUser extends AbstractPropertyService {
 
   private static final String propNameFunctionType = Property.TypeID.name();
   private static final String propNameWhileRef = Property.WhileRef.name();
+  private static final int maskUser = PropertyServiceFunctionClassification.maskOf(UsageType.User);
 
   /**
    * No constructor.
@@ -118,7 +119,7 @@ public final class PropertyServiceFunctionUser extends AbstractPropertyService {
    */
   static void checkTask(final Task task) {
     PropertyServiceFunction.checkTask(task);
-    if (!PropertyServiceFunction.getUsageType(task).equals(UsageType.User)) {
+    if (!PropertyServiceFunctionClassification.matches(task, maskUser)) {
       throw new IllegalArgumentException("The task " + task.getId() + " is not a user task.");
     }
   }
@@ -18,6 +18,11 @@ import net.sf.opendse.model.properties.TaskPropertyService;
  */
 public final class PropertyServiceFunctionUtility extends AbstractPropertyService {
 
+  static final PropertySlot.EnumSlot<UtilityType> slotUtilityType =
+      PropertySlot.ofEnum(Property.UtilityType, UtilityType.class);
+  private static final int maskUtility =
+      PropertyServiceFunctionClassification.maskOf(UsageType.Utility);
+
   /**
    * No constructor.
    */
@@ -55,12 +60,13 @@ public final class PropertyServiceFunctionUtility extends AbstractPropertyServic
 
   /**
    * Adds a sequelizer node to the given graph to make sure that dataFirst
-   * precedes dataSecond.
+   * precedes dataSecond. The ID of the node is made from the IDs of the data
+   * nodes; if the graph already contains it, the existing node is returned.
    * 
    * @param dataFirst the first node
    * @param dataSecond the second node
    * @param graph the enactment graph
-   * @return the node which was added to the graph
+   * @return the node sequelizing the given data nodes in the graph
    */
   static Task addSequelizerNode(final Task dataFirst, final Task dataSecond,
       final EnactmentGraph graph) {
@@ -69,6 +75,9 @@ public final class PropertyServiceFunctionUtility extends AbstractPropertyServic
       throw new IllegalArgumentException("A sequelizer node has to connect 2 data nodes.");
     }
     final String seqNodeId = dataFirst.getId() + "-to-" + dataSecond.getId();
+    if (graph.containsVertex(seqNodeId)) {
+      return graph.getVertex(seqNodeId);
+    }
     final Task result = new Task(seqNodeId);
     PropertyServiceFunction.setUsageType(UsageType.Utility, result);
     setUtilityType(result, UtilityType.Sequelizer);
@@ -128,8 +137,19 @@ public final class PropertyServiceFunctionUtility extends AbstractPropertyServic
    */
   static void setUtilityType(final Task task, final UtilityType type) {
     checkTask(task);
-    final String attrName = Property.UtilityType.name();
-    task.setAttribute(attrName, type.name());
+    slotUtilityType.set(task, type);
+    PropertyServiceFunctionClassification.update(task);
+  }
+
+  /**
+   * Returns true iff the utility type of the given task is set.
+   * 
+   * @param task the given task
+   * @return true iff the utility type of the given task is set
+   */
+  public static boolean isUtilityTypeSet(final Task task) {
+    checkTask(task);
+    return slotUtilityType.isSet(task);
   }
 
   /**
@@ -140,8 +160,7 @@ public final class PropertyServiceFunctionUtility extends AbstractPropertyServic
    */
   public static UtilityType getUtilityType(final Task task) {
     checkTask(task);
-    final String attrName = Property.UtilityType.name();
-    return UtilityType.valueOf((String) getAttribute(task, attrName));
+    return slotUtilityType.get(task);
   }
 
   /**
@@ -152,7 +171,7 @@ public final class PropertyServiceFunctionUtility extends AbstractPropertyServic
    */
   static void checkTask(final Task task) {
     PropertyServiceFunction.checkTask(task);
-    if (!PropertyServiceFunction.getUsageType(task).equals(UsageType.Utility)) {
+    if (!PropertyServiceFunctionClassification.matches(task, maskUtility)) {
       throw new IllegalArgumentException("Task " + task.getId() + " is not a utility function.");
     }
   }
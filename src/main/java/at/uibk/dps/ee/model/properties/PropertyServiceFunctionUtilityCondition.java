@@ -16,6 +16,9 @@ import net.sf.opendse.model.properties.AbstractPropertyService;
  */
 public final class PropertyServiceFunctionUtilityCondition extends AbstractPropertyService {
 
+  private static final int maskCondition =
+      PropertyServiceFunctionClassification.maskOf(UsageType.Utility, UtilityType.Condition);
+
   /**
    * No constructor
    */
@@ -80,7 +83,7 @@ public final class PropertyServiceFunctionUtilityCondition extends AbstractPrope
    * @param task the task to check.
    */
   static void checkTask(final Task task) {
-    if (!PropertyServiceFunctionUtility.getUtilityType(task).equals(UtilityType.Condition)) {
+    if (!PropertyServiceFunctionClassification.matches(task, maskCondition)) {
       throw new IllegalArgumentException("Task " + task.getId() + " is not a condition node.");
     }
   }
@@ -5,7 +5,6 @@ import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtility.UtilityType;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.model.properties.AbstractPropertyService;
-import net.sf.opendse.model.properties.TaskPropertyService;
 
 /**
  * Static method container for characterizing the function nodes used to model
@@ -17,6 +16,8 @@ public final class PropertyServiceFunctionUtilityWhile extends AbstractPropertyS
 
   private final static String propNameWhileStart = Properties.WhileStartRef.name();
   private final static String propNameWhileCounter = Properties.WhileCounterRef.name();
+  private static final int maskWhileEnd =
+      PropertyServiceFunctionClassification.maskOf(UsageType.Utility, UtilityType.While);
 
   /**
    * No constructor.
@@ -48,9 +49,7 @@ public final class PropertyServiceFunctionUtilityWhile extends AbstractPropertyS
    * @return true iff the provided task models a while end operation
    */
   public static boolean isWhileEndTask(final Task task) {
-    return TaskPropertyService.isProcess(task)
-        && PropertyServiceFunction.getUsageType(task).equals(UsageType.Utility)
-        && PropertyServiceFunctionUtility.getUtilityType(task).equals(UtilityType.While);
+    return PropertyServiceFunctionClassification.matches(task, maskWhileEnd);
   }
 
   /**
@@ -123,7 +122,7 @@ public final class PropertyServiceFunctionUtilityWhile extends AbstractPropertyS
    */
   static void checkTask(final Task task) {
     PropertyServiceFunctionUtility.checkTask(task);
-    if (!PropertyServiceFunctionUtility.getUtilityType(task).equals(UtilityType.While)) {
+    if (!isWhileEndTask(task)) {
       throw new IllegalArgumentException(
           "The task " + task.getId() + " does not model the end of a while compound");
     }
@@ -16,9 +16,65 @@ import net.sf.opendse.model.properties.AbstractPropertyService;
  */
 public final class PropertyServiceLink extends AbstractPropertyService {
 
+  private static final String propNameTransferTimeEstimate =
+      Property.TransferTimeEstimate.name();
+
+  /**
+   * No constructor.
+   */
+  private PropertyServiceLink() {}
+
+  /**
+   * The properties annotated on the links.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected enum Property {
+    /**
+     * The estimated time for the transfer of data over the link (used to
+     * prioritize the tasks during scheduling)
+     */
+    TransferTimeEstimate
+  }
+
+  /**
+   * Returns true iff a transfer time estimate is annotated on the given link.
+   * 
+   * @param link the given link
+   * @return true iff a transfer time estimate is annotated on the given link
+   */
+  public static boolean isTransferTimeEstimateSet(final Link link) {
+    return isAttributeSet(link, propNameTransferTimeEstimate);
+  }
+
+  /**
+   * Returns the transfer time estimate annotated on the given link.
+   * 
+   * @param link the given link
+   * @return the transfer time estimate annotated on the given link
+   */
+  public static double getTransferTimeEstimate(final Link link) {
+    if (!isTransferTimeEstimateSet(link)) {
+      throw new IllegalArgumentException(
+          "No transfer time estimate annotated on link " + link.getId());
+    }
+    return (double) getAttribute(link, propNameTransferTimeEstimate);
+  }
+
+  /**
+   * Annotates the given transfer time estimate on the given link.
+   * 
+   * @param link the given link
+   * @param estimate the transfer time estimate
+   */
+  public static void setTransferTimeEstimate(final Link link, final double estimate) {
+    link.setAttribute(propNameTransferTimeEstimate, estimate);
+  }
+
   /**
    * Connects the given resources by generating a bidirectional {@link Link} with
-   * a unique ID and adding it to the graph.
+   * an ID made from the IDs of the resources and adding it to the graph. Does
+   * nothing if the graph already contains the link.
    * 
    * @param graph the resource graph
    * @param resourceA first resource to connect
@@ -26,16 +82,20 @@ public final class PropertyServiceLink extends AbstractPropertyService {
    */
   public static void connectResources(final ResourceGraph graph, final Resource resourceA,
       final Resource resourceB) {
-    final Link link = new Link(generateLinkID(resourceA, resourceB));
+    final String linkId = generateLinkID(resourceA, resourceB);
+    if (graph.containsEdge(linkId)) {
+      return;
+    }
+    final Link link = new Link(linkId);
     graph.addEdge(link, resourceA, resourceB, EdgeType.UNDIRECTED);
   }
 
   /**
-   * Generates a unique ID to connect the given resources.
+   * Generates the ID of the link connecting the given resources.
    * 
    * @param resourceA first end point
    * @param resourceB second end point
-   * @return a unique ID to connect the given resources
+   * @return the ID of the link connecting the given resources
    */
   static String generateLinkID(final Resource resourceA, final Resource resourceB) {
     return resourceA.getId() + ConstantsEEModel.KeywordSeparator1 + resourceB.getId();
@@ -17,6 +17,7 @@ public final class PropertyServiceMapping extends AbstractPropertyService {
 
   private static final String propNameEnactmentMode = Property.EnactmentMode.name();
   private static final String propNameImplId = Property.ImplementationId.name();
+  private static final String propNameExecTimeEstimate = Property.ExecutionTimeEstimate.name();
 
   /**
    * No constructor.
@@ -39,7 +40,12 @@ public final class PropertyServiceMapping extends AbstractPropertyService {
      * The id of the function implementation (e.g., to distinguish a function
      * written in Python from one written in Java)
      */
-    ImplementationId
+    ImplementationId,
+    /**
+     * The estimated execution time of the source task on the target resource
+     * (used to prioritize the tasks during scheduling)
+     */
+    ExecutionTimeEstimate
   }
 
   /**
@@ -100,6 +106,42 @@ public final class PropertyServiceMapping extends AbstractPropertyService {
     return EnactmentMode.valueOf((String) getAttribute(mapping, propNameEnactmentMode));
   }
 
+  /**
+   * Returns true iff an execution time estimate is annotated on the given
+   * mapping.
+   * 
+   * @param mapping the given mapping
+   * @return true iff an execution time estimate is annotated on the mapping
+   */
+  public static boolean isExecutionTimeEstimateSet(final Mapping<Task, Resource> mapping) {
+    return isAttributeSet(mapping, propNameExecTimeEstimate);
+  }
+
+  /**
+   * Returns the execution time estimate annotated on the given mapping.
+   * 
+   * @param mapping the given mapping
+   * @return the execution time estimate annotated on the given mapping
+   */
+  public static double getExecutionTimeEstimate(final Mapping<Task, Resource> mapping) {
+    if (!isExecutionTimeEstimateSet(mapping)) {
+      throw new IllegalArgumentException(
+          "No execution time estimate annotated on mapping " + mapping.getId());
+    }
+    return (double) getAttribute(mapping, propNameExecTimeEstimate);
+  }
+
+  /**
+   * Annotates the given execution time estimate on the given mapping.
+   * 
+   * @param mapping the given mapping
+   * @param estimate the execution time estimate
+   */
+  public static void setExecutionTimeEstimate(final Mapping<Task, Resource> mapping,
+      final double estimate) {
+    mapping.setAttribute(propNameExecTimeEstimate, estimate);
+  }
+
   /**
    * Sets the implementation ID for the given mapping
    * 
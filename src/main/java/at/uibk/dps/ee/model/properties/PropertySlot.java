@@ -0,0 +1,422 @@
+package at.uibk.dps.ee.model.properties;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.sf.opendse.model.Element;
+
+/**
+ * Typed slot of one property of the elements (e.g.,
+ * {@link PropertyServiceData.Property#DataAvailable}). Each slot has a fixed
+ * index in the {@link PropertySlots} record of an element, where its value is
+ * kept as a primitive (booleans and ints) or as the enum constant. The value is
+ * also exported to the attribute map of the element, in the format used by the
+ * property services before (Booleans, Integers, and the names of the enum
+ * constants), where it is picked up by the persistence.
+ *
+ * A read of a slot loaded into the record of the element costs the lookup of
+ * the record and an array access (instead of the lookup of the attribute, the
+ * check whether it is set, and the unboxing or the parsing of the enum name).
+ * For elements without a record and for slots not loaded into the record, the
+ * value is read from the attribute map.
+ *
+ * @author Fedor Smirnov
+ */
+public abstract class PropertySlot {
+
+  private static final List<PropertySlot> registered = new CopyOnWriteArrayList<>();
+  private static final AtomicInteger flagSlotNum = new AtomicInteger();
+  private static final AtomicInteger intSlotNum = new AtomicInteger();
+  private static final AtomicInteger enumSlotNum = new AtomicInteger();
+
+  protected final String attrName;
+  protected final int index;
+
+  /**
+   * Default constructor.
+   *
+   * @param property the property stored in the slot
+   * @param index the index of the slot in the records
+   */
+  protected PropertySlot(final Enum<?> property, final int index) {
+    this.attrName = property.name();
+    this.index = index;
+  }
+
+  /**
+   * Returns the name of the attribute the slot is exported to.
+   *
+   * @return the name of the attribute the slot is exported to
+   */
+  public String getAttributeName() {
+    return attrName;
+  }
+
+  /**
+   * Returns true iff the slot is set for the given element (or its parent).
+   *
+   * @param element the given element
+   * @return true iff the slot is set for the given element
+   */
+  public abstract boolean isSet(Element element);
+
+  /**
+   * Loads the value of the slot from the attributes of the given element into
+   * the given record. Values inherited from a parent are not loaded (but read
+   * from the attributes), so that later changes of the parent are seen. Values
+   * which the slot cannot decode (e.g., attributes with the same name set by
+   * other services) are not loaded either, so that reading them fails as
+   * before.
+   *
+   * @param record the given record
+   * @param element the given element (the owner of the record)
+   */
+  protected abstract void load(PropertySlots record, Element element);
+
+  /**
+   * Returns the slots created so far.
+   *
+   * @return the slots created so far
+   */
+  static List<PropertySlot> getRegistered() {
+    return registered;
+  }
+
+  /**
+   * Creates a boolean slot for the given property.
+   *
+   * @param property the given property
+   * @return a boolean slot for the given property
+   */
+  public static BooleanSlot ofBoolean(final Enum<?> property) {
+    return register(
+        new BooleanSlot(property, nextIndex(flagSlotNum, PropertySlots.flagCapacity)));
+  }
+
+  /**
+   * Creates an int slot for the given property.
+   *
+   * @param property the given property
+   * @return an int slot for the given property
+   */
+  public static IntSlot ofInt(final Enum<?> property) {
+    return register(new IntSlot(property, nextIndex(intSlotNum, PropertySlots.intCapacity)));
+  }
+
+  /**
+   * Creates a slot holding the constants of the given enum for the given
+   * property.
+   *
+   * @param <E> the enum type of the values
+   * @param property the given property
+   * @param type the class of the enum
+   * @return a slot holding the constants of the given enum
+   */
+  public static <E extends Enum<E>> EnumSlot<E> ofEnum(final Enum<?> property,
+      final Class<E> type) {
+    return register(
+        new EnumSlot<>(property, type, nextIndex(enumSlotNum, PropertySlots.enumCapacity)));
+  }
+
+  /**
+   * Registers the given (fully constructed) slot, so that it is loaded into the
+   * records created afterwards.
+   *
+   * @param <S> the type of the slot
+   * @param slot the given slot
+   * @return the given slot
+   */
+  protected static <S extends PropertySlot> S register(final S slot) {
+    registered.add(slot);
+    return slot;
+  }
+
+  /**
+   * Returns the next index of the given counter.
+   *
+   * @param counter the given counter
+   * @param capacity the number of slots of this kind in the records
+   * @return the next index of the given counter
+   */
+  protected static int nextIndex(final AtomicInteger counter, final int capacity) {
+    final int result = counter.getAndIncrement();
+    if (result >= capacity) {
+      throw new IllegalStateException("More than " + capacity + " slots of one kind.");
+    }
+    return result;
+  }
+
+  /**
+   * Returns the attribute value of the given element which is loaded into a
+   * record: the local value, or the (absent) value of an element without
+   * parent. Returns the record state unloaded if the value may be inherited.
+   *
+   * @param element the given element
+   * @return the value to load (null if not set), or the record state unloaded
+   */
+  protected Object loadedValue(final Element element) {
+    final Object local = element.getLocalAttribute(attrName);
+    if (local == null && element.getParent() != null) {
+      return PropertySlots.unloadedValue;
+    }
+    return local;
+  }
+
+  /**
+   * Slot holding a boolean.
+   *
+   * @author Fedor Smirnov
+   */
+  public static final class BooleanSlot extends PropertySlot {
+
+    /**
+     * Default constructor.
+     *
+     * @param property the property stored in the slot
+     * @param index the index of the slot in the records
+     */
+    BooleanSlot(final Enum<?> property, final int index) {
+      super(property, index);
+    }
+
+    /**
+     * Returns the value of the slot of the given element (false if not set).
+     *
+     * @param element the given element
+     * @return the value of the slot of the given element
+     */
+    public boolean get(final Element element) {
+      return get(element, false);
+    }
+
+    /**
+     * Returns the value of the slot of the given element, or the given default if
+     * the slot is not set.
+     *
+     * @param element the given element
+     * @param defaultValue the given default
+     * @return the value of the slot of the given element or the default
+     */
+    public boolean get(final Element element, final boolean defaultValue) {
+      final PropertySlots record = PropertySlots.get(element);
+      final byte state = record == null ? PropertySlots.unloaded : record.flags[index];
+      if (state == PropertySlots.unloaded) {
+        final Object value = element.getAttribute(attrName);
+        return value == null ? defaultValue : (Boolean) value;
+      }
+      return state == PropertySlots.unset ? defaultValue : state == PropertySlots.setTrue;
+    }
+
+    @Override
+    public boolean isSet(final Element element) {
+      final PropertySlots record = PropertySlots.get(element);
+      final byte state = record == null ? PropertySlots.unloaded : record.flags[index];
+      return state == PropertySlots.unloaded ? element.getAttribute(attrName) != null
+          : state != PropertySlots.unset;
+    }
+
+    /**
+     * Sets the value of the slot of the given element.
+     *
+     * @param element the given element
+     * @param value the value to set
+     */
+    public void set(final Element element, final boolean value) {
+      element.setAttribute(attrName, value);
+      PropertySlots.attach(element).flags[index] =
+          value ? PropertySlots.setTrue : PropertySlots.setFalse;
+    }
+
+    @Override
+    protected void load(final PropertySlots record, final Element element) {
+      final Object value = loadedValue(element);
+      if (value == null) {
+        record.flags[index] = PropertySlots.unset;
+      } else if (value instanceof Boolean) {
+        record.flags[index] = (Boolean) value ? PropertySlots.setTrue : PropertySlots.setFalse;
+      }
+    }
+  }
+
+  /**
+   * Slot holding an int.
+   *
+   * @author Fedor Smirnov
+   */
+  public static final class IntSlot extends PropertySlot {
+
+    /**
+     * Default constructor.
+     *
+     * @param property the property stored in the slot
+     * @param index the index of the slot in the records
+     */
+    IntSlot(final Enum<?> property, final int index) {
+      super(property, index);
+    }
+
+    /**
+     * Returns the value of the slot of the given element. Throws an exception if
+     * the slot is not set.
+     *
+     * @param element the given element
+     * @return the value of the slot of the given element
+     */
+    public int get(final Element element) {
+      if (!isSet(element)) {
+        throw new IllegalArgumentException("Attribute " + attrName + " not set for " + element);
+      }
+      return get(element, 0);
+    }
+
+    /**
+     * Returns the value of the slot of the given element, or the given default if
+     * the slot is not set.
+     *
+     * @param element the given element
+     * @param defaultValue the given default
+     * @return the value of the slot of the given element or the default
+     */
+    public int get(final Element element, final int defaultValue) {
+      final PropertySlots record = PropertySlots.get(element);
+      final byte state = record == null ? PropertySlots.unloaded : record.intStates[index];
+      if (state == PropertySlots.unloaded) {
+        final Object value = element.getAttribute(attrName);
+        return value == null ? defaultValue : ((Number) value).intValue();
+      }
+      return state == PropertySlots.unset ? defaultValue : record.ints[index];
+    }
+
+    @Override
+    public boolean isSet(final Element element) {
+      final PropertySlots record = PropertySlots.get(element);
+      final byte state = record == null ? PropertySlots.unloaded : record.intStates[index];
+      return state == PropertySlots.unloaded ? element.getAttribute(attrName) != null
+          : state != PropertySlots.unset;
+    }
+
+    /**
+     * Sets the value of the slot of the given element.
+     *
+     * @param element the given element
+     * @param value the value to set
+     */
+    public void set(final Element element, final int value) {
+      element.setAttribute(attrName, value);
+      final PropertySlots record = PropertySlots.attach(element);
+      record.ints[index] = value;
+      record.intStates[index] = PropertySlots.intSet;
+    }
+
+    @Override
+    protected void load(final PropertySlots record, final Element element) {
+      final Object value = loadedValue(element);
+      if (value == null) {
+        record.intStates[index] = PropertySlots.unset;
+      } else if (value instanceof Number) {
+        record.ints[index] = ((Number) value).intValue();
+        record.intStates[index] = PropertySlots.intSet;
+      }
+    }
+  }
+
+  /**
+   * Slot holding an enum constant.
+   *
+   * @author Fedor Smirnov
+   *
+   * @param <E> the enum type of the values
+   */
+  public static final class EnumSlot<E extends Enum<E>> extends PropertySlot {
+
+    protected final Class<E> type;
+
+    /**
+     * Default constructor.
+     *
+     * @param property the property stored in the slot
+     * @param type the class of the enum
+     * @param index the index of the slot in the records
+     */
+    EnumSlot(final Enum<?> property, final Class<E> type, final int index) {
+      super(property, index);
+      this.type = type;
+    }
+
+    /**
+     * Returns the value of the slot of the given element. Throws an exception if
+     * the slot is not set.
+     *
+     * @param element the given element
+     * @return the value of the slot of the given element
+     */
+    public E get(final Element element) {
+      final E result = get(element, null);
+      if (result == null) {
+        throw new IllegalArgumentException("Attribute " + attrName + " not set for " + element);
+      }
+      return result;
+    }
+
+    /**
+     * Returns the value of the slot of the given element, or the given default if
+     * the slot is not set.
+     *
+     * @param element the given element
+     * @param defaultValue the given default
+     * @return the value of the slot of the given element or the default
+     */
+    public E get(final Element element, final E defaultValue) {
+      final PropertySlots record = PropertySlots.get(element);
+      final Object value = record == null ? null : record.enums[index];
+      if (value == null) {
+        final E result = decode(element.getAttribute(attrName));
+        return result == null ? defaultValue : result;
+      }
+      return value == PropertySlots.unsetValue ? defaultValue : type.cast(value);
+    }
+
+    @Override
+    public boolean isSet(final Element element) {
+      final PropertySlots record = PropertySlots.get(element);
+      final Object value = record == null ? null : record.enums[index];
+      return value == null ? element.getAttribute(attrName) != null
+          : value != PropertySlots.unsetValue;
+    }
+
+    /**
+     * Sets the value of the slot of the given element.
+     *
+     * @param element the given element
+     * @param value the value to set
+     */
+    public void set(final Element element, final E value) {
+      element.setAttribute(attrName, value.name());
+      PropertySlots.attach(element).enums[index] = value;
+    }
+
+    @Override
+    protected void load(final PropertySlots record, final Element element) {
+      final Object value = loadedValue(element);
+      if (value == null) {
+        record.enums[index] = PropertySlots.unsetValue;
+      } else if (value instanceof String) {
+        for (final E constant : type.getEnumConstants()) {
+          if (constant.name().equals(value)) {
+            record.enums[index] = constant;
+          }
+        }
+      }
+    }
+
+    /**
+     * Decodes the given attribute value.
+     *
+     * @param value the given attribute value (the name of a constant or null)
+     * @return the encoded constant (null if the value is null)
+     */
+    protected E decode(final Object value) {
+      return value == null ? null : Enum.valueOf(type, (String) value);
+    }
+  }
+}
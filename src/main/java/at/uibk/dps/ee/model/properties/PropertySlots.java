@@ -0,0 +1,145 @@
+package at.uibk.dps.ee.model.properties;
+
+import java.io.Serializable;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Record with the values of the {@link PropertySlot}s of one element, kept in
+ * the attribute map of the element under {@link #attributeName} (OpenDSE
+ * elements cannot carry additional fields). The record is created when a slot
+ * of the element is set (or with {@link #attach(Element)}, e.g., when a
+ * specification is read); it then loads the current values of all slots from
+ * the attributes of the element. Reads never create or change a record, so that
+ * elements which are only read can be shared between threads as before.
+ *
+ * The record references its owner: a record copied to another element together
+ * with the attributes (or read from a file, where it is written without its
+ * content) is ignored, and the slots of that element are read from its
+ * attributes until it gets its own record. Attributes of slots which are set
+ * directly (instead of through the property services) are not seen by an
+ * existing record, which is therefore to be dropped with
+ * {@link #invalidate(Element)} after such changes.
+ *
+ * The record of a function node also holds its classification mask (see
+ * {@link PropertyServiceFunctionClassification}), computed when the record is
+ * created and whenever a type of the node is set.
+ *
+ * @author Fedor Smirnov
+ */
+public final class PropertySlots implements Serializable {
+
+  /**
+   * The name of the attribute holding the record.
+   */
+  public static final String attributeName = "PropertySlots";
+
+  private static final long serialVersionUID = 1L;
+
+  static final int flagCapacity = 32;
+  static final int intCapacity = 8;
+  static final int enumCapacity = 16;
+
+  // states of the flag and the int slots
+  static final byte unloaded = 0;
+  static final byte unset = 1;
+  static final byte setFalse = 2;
+  static final byte setTrue = 3;
+  static final byte intSet = 2;
+  // marks enum slots which are loaded, but not set
+  static final Object unsetValue = new Object();
+  // returned by the slots for values which are not loaded
+  static final Object unloadedValue = new Object();
+  // marks records of nodes which are not classified by a mask
+  static final int unknownClassification = -1;
+
+  protected final transient Element owner;
+  final transient byte[] flags = new byte[flagCapacity];
+  final transient byte[] intStates = new byte[intCapacity];
+  final transient int[] ints = new int[intCapacity];
+  final transient Object[] enums = new Object[enumCapacity];
+  transient int classification = unknownClassification;
+
+  /**
+   * Default constructor.
+   *
+   * @param owner the element the record belongs to
+   */
+  private PropertySlots(final Element owner) {
+    this.owner = owner;
+  }
+
+  /**
+   * Returns the record of the given element (null if the element has no record
+   * of its own).
+   *
+   * @param element the given element
+   * @return the record of the given element (null if there is none)
+   */
+  public static PropertySlots get(final Element element) {
+    final Object record = element.getLocalAttribute(attributeName);
+    return record instanceof PropertySlots && ((PropertySlots) record).owner == element
+        ? (PropertySlots) record
+        : null;
+  }
+
+  /**
+   * Returns the record of the given element, creating it (with the values of
+   * the slots loaded from the attributes) if the element has no record of its
+   * own. Modifies the attributes of the element, like setting a property.
+   *
+   * @param element the given element
+   * @return the record of the given element
+   */
+  public static PropertySlots attach(final Element element) {
+    final PropertySlots existing = get(element);
+    if (existing != null) {
+      return existing;
+    }
+    final PropertySlots result = new PropertySlots(element);
+    for (final PropertySlot slot : PropertySlot.getRegistered()) {
+      slot.load(result, element);
+    }
+    if (element instanceof Task && TaskPropertyService.isProcess((Task) element)) {
+      try {
+        result.classification =
+            PropertyServiceFunctionClassification.computeMask((Task) element);
+      } catch (IllegalArgumentException exc) {
+        // unknown type names are rejected when the node is classified
+        result.classification = unknownClassification;
+      }
+    }
+    element.setAttribute(attributeName, result);
+    return result;
+  }
+
+  /**
+   * Drops the record of the given element, so that its slots are read from the
+   * attributes. To be called after setting the attributes of slots directly.
+   *
+   * @param element the given element
+   */
+  public static void invalidate(final Element element) {
+    if (element.getLocalAttribute(attributeName) != null) {
+      element.setAttribute(attributeName, null);
+    }
+  }
+
+  /**
+   * Returns true iff the attribute with the given name holds the record of the
+   * slots (and is therefore not to be copied, hashed, or stored as a
+   * property).
+   *
+   * @param attrName the given attribute name
+   * @return true iff the attribute with the given name holds the record
+   */
+  public static boolean isRecordAttribute(final String attrName) {
+    return attributeName.equals(attrName);
+  }
+
+  @Override
+  public String toString() {
+    return attributeName + (owner == null ? "" : " of " + owner.getId());
+  }
+}
@@ -0,0 +1,191 @@
+package at.uibk.dps.ee.model.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * Immutable result of the estimation of the heap footprint of a specification,
+ * as computed by {@link UtilsMemoryFootprint}. All sizes are estimates in
+ * bytes.
+ * 
+ * @author Fedor Smirnov
+ */
+public final class MemoryFootprint {
+
+  private final Map<String, Long> bytesPerElementKind;
+  private final Map<String, Long> bytesPerAttribute;
+  private final Map<String, Long> largestContents;
+  private final long concurrentMapBytes;
+  private final double sampleRate;
+
+  /**
+   * Default constructor.
+   * 
+   * @param bytesPerElementKind the bytes of the elements (objects, attribute
+   *        maps, and attribute values) per element kind
+   * @param bytesPerAttribute the bytes of the attribute entries and values per
+   *        attribute name
+   * @param largestContents the largest data node contents (node ID to bytes),
+   *        sorted by decreasing size
+   * @param concurrentMapBytes the bytes of the maps storing the graph structure
+   *        and the mapping indices
+   * @param sampleRate the fraction of the elements whose attributes were walked
+   */
+  MemoryFootprint(final Map<String, Long> bytesPerElementKind,
+      final Map<String, Long> bytesPerAttribute, final Map<String, Long> largestContents,
+      final long concurrentMapBytes, final double sampleRate) {
+    this.bytesPerElementKind = Collections.unmodifiableMap(bytesPerElementKind);
+    this.bytesPerAttribute = Collections.unmodifiableMap(bytesPerAttribute);
+    this.largestContents = Collections.unmodifiableMap(largestContents);
+    this.concurrentMapBytes = concurrentMapBytes;
+    this.sampleRate = sampleRate;
+  }
+
+  /**
+   * Returns the estimated bytes per element kind (the simple class name of the
+   * elements, e.g., Task, Communication, or Dependency).
+   * 
+   * @return the estimated bytes per element kind
+   */
+  public Map<String, Long> getBytesPerElementKind() {
+    return bytesPerElementKind;
+  }
+
+  /**
+   * Returns the estimated bytes per attribute name (over all elements).
+   * 
+   * @return the estimated bytes per attribute name
+   */
+  public Map<String, Long> getBytesPerAttribute() {
+    return bytesPerAttribute;
+  }
+
+  /**
+   * Returns the largest data node contents (among the walked elements), as a
+   * map from the node ID to the content size, sorted by decreasing size.
+   * 
+   * @return the largest data node contents
+   */
+  public Map<String, Long> getLargestContents() {
+    return largestContents;
+  }
+
+  /**
+   * Returns the estimated bytes of the concurrent maps storing the graph
+   * structure and the mapping indices.
+   * 
+   * @return the estimated bytes of the concurrent maps
+   */
+  public long getConcurrentMapBytes() {
+    return concurrentMapBytes;
+  }
+
+  /**
+   * Returns the fraction of the elements whose attributes were walked. The
+   * element and attribute sizes are extrapolated from this sample.
+   * 
+   * @return the fraction of the elements whose attributes were walked
+   */
+  public double getSampleRate() {
+    return sampleRate;
+  }
+
+  /**
+   * Returns the estimated total bytes of the specification.
+   * 
+   * @return the estimated total bytes of the specification
+   */
+  public long getTotalBytes() {
+    return concurrentMapBytes
+        + bytesPerElementKind.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  /**
+   * Returns the footprint as a JSON object.
+   * 
+   * @return the footprint as a JSON object
+   */
+  public JsonObject toJson() {
+    final JsonObject result = new JsonObject();
+    result.addProperty("totalBytes", getTotalBytes());
+    result.addProperty("concurrentMapBytes", concurrentMapBytes);
+    result.addProperty("sampleRate", sampleRate);
+    result.add("bytesPerElementKind", toJson(bytesPerElementKind));
+    result.add("bytesPerAttribute", toJson(bytesPerAttribute));
+    final JsonArray contents = new JsonArray();
+    largestContents.forEach((nodeId, bytes) -> {
+      final JsonObject entry = new JsonObject();
+      entry.addProperty("node", nodeId);
+      entry.addProperty("bytes", bytes);
+      contents.add(entry);
+    });
+    result.add("largestContents", contents);
+    return result;
+  }
+
+  /**
+   * Returns a compact, human-readable report of the footprint.
+   * 
+   * @return a report of the footprint
+   */
+  public String toReport() {
+    final StringBuilder result = new StringBuilder();
+    result.append(String.format("Total: %d bytes (sample rate %.2f)%n", getTotalBytes(),
+        sampleRate));
+    result.append(String.format("  Concurrent maps: %d%n", concurrentMapBytes));
+    appendSection(result, "Element kinds", bytesPerElementKind);
+    appendSection(result, "Attributes", bytesPerAttribute);
+    appendSection(result, "Largest contents", largestContents);
+    return result.toString();
+  }
+
+  @Override
+  public String toString() {
+    return toReport();
+  }
+
+  /**
+   * Appends the given section, sorted by decreasing size, to the given report.
+   * 
+   * @param report the given report
+   * @param title the title of the section
+   * @param entries the entries of the section
+   */
+  private static void appendSection(final StringBuilder report, final String title,
+      final Map<String, Long> entries) {
+    report.append("  ").append(title).append(':').append(System.lineSeparator());
+    sortedBySize(entries).forEach((key, bytes) -> report
+        .append(String.format("    %-40s %d%n", key, bytes)));
+  }
+
+  /**
+   * Returns the given entries sorted by decreasing size.
+   * 
+   * @param entries the given entries
+   * @return the given entries sorted by decreasing size
+   */
+  static Map<String, Long> sortedBySize(final Map<String, Long> entries) {
+    final List<Map.Entry<String, Long>> sorted = new ArrayList<>(entries.entrySet());
+    sorted.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+    final Map<String, Long> result = new LinkedHashMap<>();
+    sorted.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+    return result;
+  }
+
+  /**
+   * Converts the given size map into a JSON object (sorted by decreasing size).
+   * 
+   * @param entries the given size map
+   * @return the size map as a JSON object
+   */
+  private static JsonObject toJson(final Map<String, Long> entries) {
+    final JsonObject result = new JsonObject();
+    sortedBySize(entries).forEach(result::addProperty);
+    return result;
+  }
+}
@@ -0,0 +1,139 @@
+package at.uibk.dps.ee.model.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import net.sf.opendse.model.Task;
+
+/**
+ * Immutable container for the static scheduling priorities of the function
+ * nodes of an enactment graph, as computed by {@link UtilsSchedulingPriority}:
+ * the upward rank (the length of the longest path from the start of the task to
+ * the end of the workflow), the length of the longest path through the task,
+ * and the slack of the task (the difference between the critical path length of
+ * the workflow and the longest path through the task).
+ * 
+ * @author Fedor Smirnov
+ */
+public final class SchedulingPriorities {
+
+  private final Map<String, Double> upwardRanks;
+  private final Map<String, Double> downwardRanks;
+  private final List<Task> tasksByPriority;
+  private final double criticalPathLength;
+  private final long resourceGraphVersion;
+  private final long mappingsVersion;
+
+  /**
+   * Default constructor.
+   * 
+   * @param upwardRanks the upward ranks of the function nodes (by node ID)
+   * @param downwardRanks the downward ranks (the length of the longest path from
+   *        the start of the workflow to the start of the task) of the function
+   *        nodes (by node ID)
+   * @param tasks the function nodes
+   * @param resourceGraphVersion the version of the resource graph the priorities
+   *        were computed for
+   * @param mappingsVersion the version of the mappings the priorities were
+   *        computed for
+   */
+  SchedulingPriorities(final Map<String, Double> upwardRanks,
+      final Map<String, Double> downwardRanks, final List<Task> tasks,
+      final long resourceGraphVersion, final long mappingsVersion) {
+    this.upwardRanks = upwardRanks;
+    this.downwardRanks = downwardRanks;
+    final List<Task> sorted = new ArrayList<>(tasks);
+    sorted.sort(Comparator.comparingDouble((Task task) -> upwardRanks.get(task.getId()))
+        .reversed());
+    this.tasksByPriority = Collections.unmodifiableList(sorted);
+    this.criticalPathLength = upwardRanks.values().stream().mapToDouble(Double::doubleValue)
+        .max().orElse(0.0);
+    this.resourceGraphVersion = resourceGraphVersion;
+    this.mappingsVersion = mappingsVersion;
+  }
+
+  /**
+   * Returns the upward rank of the given function node.
+   * 
+   * @param task the given function node
+   * @return the upward rank of the given function node
+   */
+  public double getUpwardRank(final Task task) {
+    return getValue(upwardRanks, task);
+  }
+
+  /**
+   * Returns the length of the longest path through the given function node.
+   * 
+   * @param task the given function node
+   * @return the length of the longest path through the given function node
+   */
+  public double getCriticalPathLength(final Task task) {
+    return getValue(downwardRanks, task) + getValue(upwardRanks, task);
+  }
+
+  /**
+   * Returns the slack of the given function node, i.e., the time by which its
+   * execution can be delayed without extending the critical path.
+   * 
+   * @param task the given function node
+   * @return the slack of the given function node
+   */
+  public double getSlack(final Task task) {
+    return criticalPathLength - getCriticalPathLength(task);
+  }
+
+  /**
+   * Returns the length of the critical path of the workflow.
+   * 
+   * @return the length of the critical path of the workflow
+   */
+  public double getCriticalPathLength() {
+    return criticalPathLength;
+  }
+
+  /**
+   * Returns the function nodes, sorted by decreasing upward rank (the HEFT
+   * priority order).
+   * 
+   * @return the function nodes, sorted by decreasing upward rank
+   */
+  public List<Task> getTasksByPriority() {
+    return tasksByPriority;
+  }
+
+  /**
+   * Returns the version of the resource graph the priorities were computed for.
+   * 
+   * @return the version of the resource graph the priorities were computed for
+   */
+  long getResourceGraphVersion() {
+    return resourceGraphVersion;
+  }
+
+  /**
+   * Returns the version of the mappings the priorities were computed for.
+   * 
+   * @return the version of the mappings the priorities were computed for
+   */
+  long getMappingsVersion() {
+    return mappingsVersion;
+  }
+
+  /**
+   * Returns the value of the given function node from the given map.
+   * 
+   * @param values the value map
+   * @param task the given function node
+   * @return the value of the given function node
+   */
+  private static double getValue(final Map<String, Double> values, final Task task) {
+    final Double result = values.get(task.getId());
+    if (result == null) {
+      throw new IllegalArgumentException("No priority computed for task " + task.getId());
+    }
+    return result;
+  }
+}
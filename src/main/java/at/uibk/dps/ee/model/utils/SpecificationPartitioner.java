@@ -0,0 +1,642 @@
+package at.uibk.dps.ee.model.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.EnactmentSpecification;
+import at.uibk.dps.ee.model.graph.FrozenGraph;
+import at.uibk.dps.ee.model.graph.MappingsConcurrent;
+import at.uibk.dps.ee.model.graph.ResourceGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Splits the enactment graph of a specification into a given number of parts,
+ * e.g., to distribute the enactment of a large workflow over multiple engine
+ * instances. The partitioning minimizes the number of cut dependencies while
+ * balancing the number of functions with non-negligible workload (all
+ * functions, if none of them has a non-negligible workload) among the parts.
+ * 
+ * The partitioner is multilevel: the graph is coarsened by heavy-edge
+ * matching, the coarsest graph is split by graph growing, and the split is
+ * projected back and refined on each level by greedy boundary moves. Two
+ * functions are only matched if they share a mapping target, so that the
+ * functions which are merged during coarsening can be executed on a common
+ * resource.
+ * 
+ * @author Fedor Smirnov
+ */
+public class SpecificationPartitioner {
+
+  protected static final int coarsestSizePerPart = 20;
+  protected static final double minCoarseningRatio = 0.95;
+  protected static final int refinementPasses = 8;
+  protected static final long randomSeed = 42L;
+
+  protected final int numParts;
+  protected final double imbalance;
+
+  /**
+   * Default constructor.
+   * 
+   * @param numParts the number of parts
+   * @param imbalance the tolerated imbalance (0.1 means that the workload of a
+   *        part may exceed the average part workload by 10 percent)
+   */
+  public SpecificationPartitioner(final int numParts, final double imbalance) {
+    if (numParts < 1) {
+      throw new IllegalArgumentException("The number of parts must be positive.");
+    }
+    if (imbalance < 0) {
+      throw new IllegalArgumentException("The imbalance must not be negative.");
+    }
+    this.numParts = numParts;
+    this.imbalance = imbalance;
+  }
+
+  /**
+   * The graph of a coarsening level in compressed adjacency form. Each vertex
+   * of a coarse level represents one or two vertices of the finer level.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static class Level {
+    protected final int[] offsets;
+    protected final int[] adjacency;
+    protected final int[] edgeWeights;
+    protected final int[] vertexWeights;
+    protected final BitSet[] targets;
+    protected final int[] fineToCoarse;
+    protected final long totalWeight;
+
+    /**
+     * Default constructor.
+     * 
+     * @param offsets the adjacency offsets of the vertices
+     * @param adjacency the neighbors of the vertices
+     * @param edgeWeights the weights of the adjacency entries
+     * @param vertexWeights the vertex weights
+     * @param targets the common mapping targets of the vertices (null if
+     *        unconstrained)
+     * @param fineToCoarse the vertex of this level representing each vertex of
+     *        the finer level (null for the finest level)
+     */
+    protected Level(final int[] offsets, final int[] adjacency, final int[] edgeWeights,
+        final int[] vertexWeights, final BitSet[] targets, final int[] fineToCoarse) {
+      this.offsets = offsets;
+      this.adjacency = adjacency;
+      this.edgeWeights = edgeWeights;
+      this.vertexWeights = vertexWeights;
+      this.targets = targets;
+      this.fineToCoarse = fineToCoarse;
+      this.totalWeight = Arrays.stream(vertexWeights).asLongStream().sum();
+    }
+
+    /**
+     * Returns the number of vertices of the level.
+     * 
+     * @return the number of vertices of the level
+     */
+    protected int size() {
+      return vertexWeights.length;
+    }
+  }
+
+  /**
+   * Partitions the given specification and returns one specification per part.
+   * Each part contains its nodes and the data nodes it exchanges with other
+   * parts, which are annotated as boundary nodes. All nodes and edges are deep
+   * copies; each part contains the whole resource graph and the mappings of its
+   * functions.
+   * 
+   * @param spec the given specification
+   * @return the specifications of the parts
+   */
+  public List<EnactmentSpecification> partition(final EnactmentSpecification spec) {
+    final FrozenGraph<Task, Dependency> snapshot = spec.getEnactmentGraph().snapshot();
+    final int[] parts = computeParts(snapshot, spec.getMappings());
+    final List<EnactmentSpecification> result = new ArrayList<>(numParts);
+    for (int part = 0; part < numParts; part++) {
+      result.add(createPartSpec(spec, snapshot, parts, part));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the part of each node of the enactment graph of the given
+   * specification.
+   * 
+   * @param spec the given specification
+   * @return map from node ID to the index of the part of the node
+   */
+  public Map<String, Integer> computeParts(final EnactmentSpecification spec) {
+    final FrozenGraph<Task, Dependency> snapshot = spec.getEnactmentGraph().snapshot();
+    final int[] parts = computeParts(snapshot, spec.getMappings());
+    final Map<String, Integer> result = new HashMap<>(parts.length * 2);
+    for (int idx = 0; idx < parts.length; idx++) {
+      result.put(snapshot.getVertexAt(idx).getId(), parts[idx]);
+    }
+    return result;
+  }
+
+  /**
+   * Computes the part of each vertex of the given snapshot.
+   * 
+   * @param snapshot the snapshot of the enactment graph
+   * @param mappings the mappings of the specification
+   * @return the part of each vertex (by vertex index)
+   */
+  protected int[] computeParts(final FrozenGraph<Task, Dependency> snapshot,
+      final MappingsConcurrent mappings) {
+    final Deque<Level> levels = new ArrayDeque<>();
+    Level current = createFinestLevel(snapshot, mappings);
+    levels.push(current);
+    final int coarsestSize = numParts * coarsestSizePerPart;
+    final int maxCoarseWeight = (int) Math.max(1, current.totalWeight / (numParts * 4L));
+    while (current.size() > coarsestSize) {
+      final Level coarser = coarsen(current, maxCoarseWeight);
+      if (coarser.size() > current.size() * minCoarseningRatio) {
+        break;
+      }
+      levels.push(coarser);
+      current = coarser;
+    }
+    int[] parts = initialPartition(current);
+    refine(current, parts);
+    while (levels.size() > 1) {
+      final Level coarse = levels.pop();
+      final Level fine = levels.peek();
+      final int[] fineParts = new int[fine.size()];
+      for (int vertex = 0; vertex < fineParts.length; vertex++) {
+        fineParts[vertex] = parts[coarse.fineToCoarse[vertex]];
+      }
+      parts = fineParts;
+      refine(fine, parts);
+    }
+    return parts;
+  }
+
+  /**
+   * Creates the finest level from the given snapshot. The vertices are
+   * weighted by their workload, the edges by the number of dependencies
+   * connecting their end points.
+   * 
+   * @param snapshot the snapshot of the enactment graph
+   * @param mappings the mappings of the specification
+   * @return the finest level
+   */
+  protected Level createFinestLevel(final FrozenGraph<Task, Dependency> snapshot,
+      final MappingsConcurrent mappings) {
+    final int vertexNum = snapshot.getVertexCount();
+    final int[] vertexWeights = new int[vertexNum];
+    final BitSet[] targets = new BitSet[vertexNum];
+    final Map<String, Integer> resourceIndices = new HashMap<>();
+    boolean weighted = false;
+    for (int idx = 0; idx < vertexNum; idx++) {
+      final Task node = snapshot.getVertexAt(idx);
+      if (TaskPropertyService.isProcess(node)) {
+        if (!PropertyServiceFunction.hasNegligibleWorkload(node)) {
+          vertexWeights[idx] = 1;
+          weighted = true;
+        }
+        for (final Resource target : mappings.getTargets(node)) {
+          if (targets[idx] == null) {
+            targets[idx] = new BitSet();
+          }
+          targets[idx].set(resourceIndices.computeIfAbsent(target.getId(),
+              resId -> resourceIndices.size()));
+        }
+      }
+    }
+    if (!weighted) {
+      for (int idx = 0; idx < vertexNum; idx++) {
+        vertexWeights[idx] = TaskPropertyService.isProcess(snapshot.getVertexAt(idx)) ? 1 : 0;
+      }
+    }
+    final int[][] neighbors = new int[vertexNum][];
+    final int[][] weights = new int[vertexNum][];
+    final Accumulator accumulator = new Accumulator(vertexNum);
+    for (int idx = 0; idx < vertexNum; idx++) {
+      final int vertex = idx;
+      snapshot.forEachInEdgeIndex(vertex,
+          edgeIdx -> accumulator.add(vertex, snapshot.getSourceIndex(edgeIdx), 1));
+      snapshot.forEachOutEdgeIndex(vertex,
+          edgeIdx -> accumulator.add(vertex, snapshot.getDestIndex(edgeIdx), 1));
+      neighbors[vertex] = accumulator.getNeighbors();
+      weights[vertex] = accumulator.drainWeights();
+    }
+    return createLevel(neighbors, weights, vertexWeights, targets, null);
+  }
+
+  /**
+   * Creates the next coarser level by contracting a heavy-edge matching of the
+   * given level.
+   * 
+   * @param level the given level
+   * @param maxCoarseWeight the maximal weight of a coarse vertex
+   * @return the next coarser level
+   */
+  protected Level coarsen(final Level level, final int maxCoarseWeight) {
+    final int vertexNum = level.size();
+    final int[] match = new int[vertexNum];
+    Arrays.fill(match, -1);
+    for (final int vertex : randomOrder(vertexNum)) {
+      if (match[vertex] != -1) {
+        continue;
+      }
+      int best = vertex;
+      int bestWeight = 0;
+      for (int pos = level.offsets[vertex]; pos < level.offsets[vertex + 1]; pos++) {
+        final int neighbor = level.adjacency[pos];
+        if (match[neighbor] == -1 && level.edgeWeights[pos] > bestWeight
+            && level.vertexWeights[vertex] + level.vertexWeights[neighbor] <= maxCoarseWeight
+            && areCompatible(level.targets[vertex], level.targets[neighbor])) {
+          best = neighbor;
+          bestWeight = level.edgeWeights[pos];
+        }
+      }
+      match[vertex] = best;
+      match[best] = vertex;
+    }
+    final int[] fineToCoarse = new int[vertexNum];
+    Arrays.fill(fineToCoarse, -1);
+    int coarseNum = 0;
+    for (int vertex = 0; vertex < vertexNum; vertex++) {
+      if (fineToCoarse[vertex] == -1) {
+        fineToCoarse[vertex] = coarseNum;
+        fineToCoarse[match[vertex]] = coarseNum;
+        coarseNum++;
+      }
+    }
+    final int[] vertexWeights = new int[coarseNum];
+    final BitSet[] targets = new BitSet[coarseNum];
+    final int[][] neighbors = new int[coarseNum][];
+    final int[][] weights = new int[coarseNum][];
+    final Accumulator accumulator = new Accumulator(coarseNum);
+    for (int vertex = 0; vertex < vertexNum; vertex++) {
+      final int partner = match[vertex];
+      if (partner < vertex) {
+        continue;
+      }
+      final int coarse = fineToCoarse[vertex];
+      vertexWeights[coarse] = level.vertexWeights[vertex]
+          + (partner == vertex ? 0 : level.vertexWeights[partner]);
+      targets[coarse] = mergeTargets(level.targets[vertex], level.targets[partner]);
+      for (final int member : partner == vertex ? new int[] {vertex}
+          : new int[] {vertex, partner}) {
+        for (int pos = level.offsets[member]; pos < level.offsets[member + 1]; pos++) {
+          accumulator.add(coarse, fineToCoarse[level.adjacency[pos]], level.edgeWeights[pos]);
+        }
+      }
+      neighbors[coarse] = accumulator.getNeighbors();
+      weights[coarse] = accumulator.drainWeights();
+    }
+    return createLevel(neighbors, weights, vertexWeights, targets, fineToCoarse);
+  }
+
+  /**
+   * Splits the vertices of the given (coarsest) level into parts by growing
+   * each part breadth-first until it reaches its share of the total weight.
+   * 
+   * @param level the given level
+   * @return the part of each vertex
+   */
+  protected int[] initialPartition(final Level level) {
+    final int vertexNum = level.size();
+    final int[] parts = new int[vertexNum];
+    Arrays.fill(parts, -1);
+    final Deque<Integer> queue = new ArrayDeque<>();
+    int part = 0;
+    long assignedWeight = 0;
+    int nextSeed = 0;
+    int assignedNum = 0;
+    while (assignedNum < vertexNum) {
+      if (queue.isEmpty()) {
+        while (parts[nextSeed] != -1) {
+          nextSeed++;
+        }
+        queue.add(nextSeed);
+      }
+      final int vertex = queue.poll();
+      if (parts[vertex] != -1) {
+        continue;
+      }
+      final int weight = level.vertexWeights[vertex];
+      if (part < numParts - 1 && weight > 0
+          && assignedWeight + weight > (part + 1) * level.totalWeight / (double) numParts
+          && assignedWeight > part * level.totalWeight / (double) numParts) {
+        part++;
+        queue.clear();
+      }
+      parts[vertex] = part;
+      assignedWeight += weight;
+      assignedNum++;
+      for (int pos = level.offsets[vertex]; pos < level.offsets[vertex + 1]; pos++) {
+        if (parts[level.adjacency[pos]] == -1) {
+          queue.add(level.adjacency[pos]);
+        }
+      }
+    }
+    return parts;
+  }
+
+  /**
+   * Refines the given partition of the given level by greedily moving boundary
+   * vertices to the neighboring part they are most connected to, as long as
+   * this reduces the cut (or restores the balance) without overloading the
+   * target part.
+   * 
+   * @param level the given level
+   * @param parts the part of each vertex (adjusted by this method)
+   */
+  protected void refine(final Level level, final int[] parts) {
+    final long maxPartWeight =
+        (long) Math.ceil(level.totalWeight / (double) numParts * (1 + imbalance));
+    final long[] partWeights = new long[numParts];
+    for (int vertex = 0; vertex < level.size(); vertex++) {
+      partWeights[parts[vertex]] += level.vertexWeights[vertex];
+    }
+    final int[] connectivity = new int[numParts];
+    final int[] touched = new int[numParts];
+    for (int pass = 0; pass < refinementPasses; pass++) {
+      boolean moved = false;
+      for (int vertex = 0; vertex < level.size(); vertex++) {
+        final int own = parts[vertex];
+        final int weight = level.vertexWeights[vertex];
+        int touchedNum = 0;
+        for (int pos = level.offsets[vertex]; pos < level.offsets[vertex + 1]; pos++) {
+          final int part = parts[level.adjacency[pos]];
+          if (connectivity[part] == 0) {
+            touched[touchedNum++] = part;
+          }
+          connectivity[part] += level.edgeWeights[pos];
+        }
+        int best = own;
+        int bestGain = Integer.MIN_VALUE;
+        for (int idx = 0; idx < touchedNum; idx++) {
+          final int candidate = touched[idx];
+          final int gain = connectivity[candidate] - connectivity[own];
+          if (candidate != own && partWeights[candidate] + weight <= maxPartWeight
+              && (gain > bestGain
+                  || gain == bestGain && partWeights[candidate] < partWeights[best])) {
+            best = candidate;
+            bestGain = gain;
+          }
+        }
+        for (int idx = 0; idx < touchedNum; idx++) {
+          connectivity[touched[idx]] = 0;
+        }
+        if (best != own && (bestGain > 0
+            || bestGain == 0 && weight > 0 && partWeights[best] + weight < partWeights[own]
+            || weight > 0 && partWeights[own] > maxPartWeight)) {
+          parts[vertex] = best;
+          partWeights[own] -= weight;
+          partWeights[best] += weight;
+          moved = true;
+        }
+      }
+      if (!moved) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Creates the specification of the given part.
+   * 
+   * @param spec the partitioned specification
+   * @param snapshot the snapshot of its enactment graph
+   * @param parts the part of each vertex
+   * @param part the given part
+   * @return the specification of the given part
+   */
+  protected EnactmentSpecification createPartSpec(final EnactmentSpecification spec,
+      final FrozenGraph<Task, Dependency> snapshot, final int[] parts, final int part) {
+    final EnactmentGraph original = spec.getEnactmentGraph();
+    final EnactmentGraph partGraph = new EnactmentGraph();
+    for (int idx = 0; idx < parts.length; idx++) {
+      if (parts[idx] == part) {
+        partGraph.addVertex(UtilsCopy.deepCopyEGraphNode(snapshot.getVertexAt(idx)));
+      }
+    }
+    for (int idx = 0; idx < parts.length; idx++) {
+      if (parts[idx] == part && TaskPropertyService.isProcess(snapshot.getVertexAt(idx))) {
+        snapshot.forEachInEdgeIndex(idx,
+            edgeIdx -> addForeignData(snapshot.getSourceIndex(edgeIdx), snapshot, partGraph));
+        snapshot.forEachOutEdgeIndex(idx,
+            edgeIdx -> addForeignData(snapshot.getDestIndex(edgeIdx), snapshot, partGraph));
+      }
+    }
+    for (int edgeIdx = 0; edgeIdx < snapshot.getEdgeCount(); edgeIdx++) {
+      final int src = snapshot.getSourceIndex(edgeIdx);
+      final int dst = snapshot.getDestIndex(edgeIdx);
+      if ((parts[src] == part || parts[dst] == part)
+          && partGraph.containsVertex(snapshot.getVertexAt(src).getId())
+          && partGraph.containsVertex(snapshot.getVertexAt(dst).getId())) {
+        UtilsCopy.addDeepCopyDependency(snapshot.getEdgeAt(edgeIdx), original, partGraph);
+      }
+    }
+    for (final Task node : partGraph.getVertices()) {
+      final int idx = snapshot.getVertexIndex(node.getId());
+      if (TaskPropertyService.isCommunication(node) && partGraph.inDegree(node)
+          + partGraph.outDegree(node) < snapshot.inDegree(idx) + snapshot.outDegree(idx)) {
+        PropertyServiceData.makeBoundary(node);
+      }
+    }
+    final ResourceGraph partRGraph = UtilsCopy.deepCopyRGraph(spec.getResourceGraph());
+    final MappingsConcurrent partMappings = new MappingsConcurrent();
+    for (final Task node : partGraph.getVertices()) {
+      if (TaskPropertyService.isProcess(node)) {
+        spec.getMappings().getMappings(snapshot.getVertex(node.getId()))
+            .forEach(mapping -> partMappings
+            .addMapping(UtilsCopy.deepCopyMapping(mapping, partGraph, partRGraph)));
+      }
+    }
+    return new EnactmentSpecification(partGraph, partRGraph, partMappings,
+        spec.getId() + ConstantsEEModel.KeyWordSeparator2 + part);
+  }
+
+  /**
+   * Adds a copy of the given neighbor of a function of the part to the part
+   * graph (in case it is a data node which is not yet in the part).
+   * 
+   * @param neighborIdx the index of the neighbor
+   * @param snapshot the snapshot of the enactment graph
+   * @param partGraph the graph of the part
+   */
+  protected void addForeignData(final int neighborIdx,
+      final FrozenGraph<Task, Dependency> snapshot, final EnactmentGraph partGraph) {
+    final Task neighbor = snapshot.getVertexAt(neighborIdx);
+    if (partGraph.containsVertex(neighbor.getId())) {
+      return;
+    }
+    if (!TaskPropertyService.isCommunication(neighbor)) {
+      throw new IllegalStateException(
+          "Cut edge between function nodes, neighbor " + neighbor.getId());
+    }
+    partGraph.addVertex(UtilsCopy.deepCopyEGraphNode(neighbor));
+  }
+
+  /**
+   * Creates a level from the given (merged) adjacency lists.
+   * 
+   * @param neighbors the neighbors of each vertex
+   * @param weights the weights of the edges to the neighbors
+   * @param vertexWeights the vertex weights
+   * @param targets the mapping targets of the vertices
+   * @param fineToCoarse the vertex representing each vertex of the finer level
+   * @return the created level
+   */
+  protected static Level createLevel(final int[][] neighbors, final int[][] weights,
+      final int[] vertexWeights, final BitSet[] targets, final int[] fineToCoarse) {
+    final int[] offsets = new int[neighbors.length + 1];
+    for (int vertex = 0; vertex < neighbors.length; vertex++) {
+      offsets[vertex + 1] = offsets[vertex] + neighbors[vertex].length;
+    }
+    final int[] adjacency = new int[offsets[neighbors.length]];
+    final int[] edgeWeights = new int[adjacency.length];
+    for (int vertex = 0; vertex < neighbors.length; vertex++) {
+      System.arraycopy(neighbors[vertex], 0, adjacency, offsets[vertex],
+          neighbors[vertex].length);
+      System.arraycopy(weights[vertex], 0, edgeWeights, offsets[vertex],
+          weights[vertex].length);
+    }
+    return new Level(offsets, adjacency, edgeWeights, vertexWeights, targets, fineToCoarse);
+  }
+
+  /**
+   * Returns true iff two vertices with the given mapping targets can be
+   * merged, i.e., if one of them is unconstrained or if they share a target.
+   * 
+   * @param first the targets of the first vertex
+   * @param second the targets of the second vertex
+   * @return true iff vertices with the given targets can be merged
+   */
+  protected static boolean areCompatible(final BitSet first, final BitSet second) {
+    return first == null || second == null || first.intersects(second);
+  }
+
+  /**
+   * Returns the common targets of two merged vertices.
+   * 
+   * @param first the targets of the first vertex
+   * @param second the targets of the second vertex
+   * @return the common targets of the merged vertices
+   */
+  protected static BitSet mergeTargets(final BitSet first, final BitSet second) {
+    if (first == null || first == second) {
+      return second;
+    }
+    if (second == null) {
+      return first;
+    }
+    final BitSet result = (BitSet) first.clone();
+    result.and(second);
+    return result;
+  }
+
+  /**
+   * Returns the numbers from 0 to the given bound (exclusive) in a pseudo-random
+   * order (seeded, so that the partitioning is deterministic).
+   * 
+   * @param bound the given bound
+   * @return the numbers up to the given bound in a pseudo-random order
+   */
+  protected static int[] randomOrder(final int bound) {
+    final int[] result = new int[bound];
+    for (int idx = 0; idx < bound; idx++) {
+      result[idx] = idx;
+    }
+    final Random random = new Random(randomSeed);
+    for (int idx = bound - 1; idx > 0; idx--) {
+      final int swapIdx = random.nextInt(idx + 1);
+      final int tmp = result[idx];
+      result[idx] = result[swapIdx];
+      result[swapIdx] = tmp;
+    }
+    return result;
+  }
+
+  /**
+   * Merges the (weighted) neighbor entries of a vertex, summing the weights of
+   * duplicate neighbors and skipping self loops. Reused for all vertices of a
+   * level, so that merging is linear in the number of entries.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static class Accumulator {
+    protected final int[] slots;
+    protected int[] neighbors = new int[16];
+    protected int[] weights = new int[16];
+    protected int size;
+
+    /**
+     * Default constructor.
+     * 
+     * @param vertexNum the number of vertices of the built level
+     */
+    protected Accumulator(final int vertexNum) {
+      this.slots = new int[vertexNum];
+      Arrays.fill(slots, -1);
+    }
+
+    /**
+     * Adds the given weight to the entry of the given neighbor.
+     * 
+     * @param vertex the vertex whose neighbors are accumulated
+     * @param neighbor the given neighbor
+     * @param weight the given weight
+     */
+    protected void add(final int vertex, final int neighbor, final int weight) {
+      if (neighbor == vertex) {
+        return;
+      }
+      if (slots[neighbor] == -1) {
+        if (size == neighbors.length) {
+          neighbors = Arrays.copyOf(neighbors, size * 2);
+          weights = Arrays.copyOf(weights, size * 2);
+        }
+        slots[neighbor] = size;
+        neighbors[size] = neighbor;
+        weights[size] = 0;
+        size++;
+      }
+      weights[slots[neighbor]] += weight;
+    }
+
+    /**
+     * Returns the accumulated neighbors.
+     * 
+     * @return the accumulated neighbors
+     */
+    protected int[] getNeighbors() {
+      return Arrays.copyOf(neighbors, size);
+    }
+
+    /**
+     * Returns the accumulated weights and resets the accumulator.
+     * 
+     * @return the accumulated weights
+     */
+    protected int[] drainWeights() {
+      final int[] result = Arrays.copyOf(weights, size);
+      for (int idx = 0; idx < size; idx++) {
+        slots[neighbors[idx]] = -1;
+      }
+      size = 0;
+      return result;
+    }
+  }
+}
@@ -0,0 +1,465 @@
+package at.uibk.dps.ee.model.utils;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import com.google.gson.JsonElement;
+import at.uibk.dps.ee.model.graph.AbstractConcurrentGraph;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.EnactmentSpecification;
+import at.uibk.dps.ee.model.graph.GraphChange;
+import at.uibk.dps.ee.model.graph.GraphChangeListener;
+import at.uibk.dps.ee.model.graph.MappingChange;
+import at.uibk.dps.ee.model.graph.MappingChangeListener;
+import at.uibk.dps.ee.model.graph.ResourceGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertySlots;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Node;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+/**
+ * Canonical 64-bit hash over the structure of an enactment specification: the
+ * IDs, classes, and attributes of the nodes, links, and mappings, the classes
+ * and attributes of the dependencies, and the end points of the edges and
+ * mappings. The runtime attributes listed in
+ * {@link #runtimeAttributes} (e.g., the data content or the transmission
+ * state) are ignored, so that the fingerprint can be used to key caches of
+ * artifacts derived from the structure (validation results, schedules, etc.)
+ * across enactments with different inputs.
+ * 
+ * Dependencies are hashed without their IDs, since the IDs handed out by the
+ * ID allocator of a graph (see
+ * {@link PropertyServiceDependency#addDataDependency(Task, Task, String, EnactmentGraph)})
+ * depend on the order of the allocations. A dependency is identified by its
+ * end points and its attributes instead, so that equal structures built in a
+ * different order have equal fingerprints.
+ * 
+ * The fingerprint is the combination of order-independent sums of per-element
+ * hashes. It is computed in parallel on creation and then updated
+ * incrementally on the structural changes of the graphs and the mappings.
+ * Changes of the (non-runtime) attributes of elements which are already in the
+ * specification are not announced; use {@link #refresh()} after such changes.
+ * The fingerprint is to be created while the specification is not modified.
+ * 
+ * @author Fedor Smirnov
+ */
+public class StructuralFingerprint {
+
+  /**
+   * The names of the attributes which describe the runtime state of an
+   * enactment (or hold the record of the property slots) and are ignored by
+   * the fingerprint.
+   */
+  public static final Set<String> runtimeAttributes = collectRuntimeAttributes();
+
+  protected static final long fnvOffset = 0xcbf29ce484222325L;
+  protected static final long fnvPrime = 0x100000001b3L;
+  protected static final long golden = 0x9e3779b97f4a7c15L;
+  // distinguish the element types, so that equal hashes in different sums differ
+  protected static final long taskSeed = 1;
+  protected static final long dependencySeed = 2;
+  protected static final long resourceSeed = 3;
+  protected static final long linkSeed = 4;
+  protected static final long mappingSeed = 5;
+
+  protected final EnactmentSpecification spec;
+  protected final HashSum taskSum = new HashSum(taskSeed);
+  protected final HashSum dependencySum = new HashSum(dependencySeed);
+  protected final HashSum resourceSum = new HashSum(resourceSeed);
+  protected final HashSum linkSum = new HashSum(linkSeed);
+  protected final HashSum mappingSum = new HashSum(mappingSeed);
+
+  protected final GraphChangeListener<Task, Dependency> enactmentListener;
+  protected final GraphChangeListener<Resource, Link> resourceListener;
+  protected final MappingChangeListener mappingListener;
+
+  /**
+   * Computes the fingerprint of the given specification and registers the
+   * listeners keeping it up to date.
+   * 
+   * @param spec the given specification
+   */
+  public StructuralFingerprint(final EnactmentSpecification spec) {
+    this.spec = spec;
+    this.enactmentListener =
+        changes -> graphChanged(changes, spec.getEnactmentGraph(), taskSum, dependencySum);
+    this.resourceListener =
+        changes -> graphChanged(changes, spec.getResourceGraph(), resourceSum, linkSum);
+    this.mappingListener = this::mappingsChanged;
+    spec.getEnactmentGraph().addGraphChangeListener(enactmentListener);
+    spec.getResourceGraph().addGraphChangeListener(resourceListener);
+    spec.getMappings().addMappingChangeListener(mappingListener);
+    refresh();
+  }
+
+  /**
+   * Computes the fingerprint of the given specification once, without tracking
+   * its changes.
+   * 
+   * @param spec the given specification
+   * @return the fingerprint of the given specification
+   */
+  public static long compute(final EnactmentSpecification spec) {
+    final EnactmentGraph eGraph = spec.getEnactmentGraph();
+    final ResourceGraph rGraph = spec.getResourceGraph();
+    final long tasks = eGraph.getVertices().parallelStream()
+        .mapToLong(task -> seed(hashNode(task), taskSeed)).sum();
+    final long dependencies = eGraph.getEdges().parallelStream()
+        .mapToLong(edge -> seed(hashEdge(edge, eGraph), dependencySeed)).sum();
+    final long resources = rGraph.getVertices().parallelStream()
+        .mapToLong(res -> seed(hashNode(res), resourceSeed)).sum();
+    final long links = rGraph.getEdges().parallelStream()
+        .mapToLong(link -> seed(hashEdge(link, rGraph), linkSeed)).sum();
+    final long mappings = spec.getMappings().mappingStream().parallel()
+        .mapToLong(mapping -> seed(hashMapping(mapping), mappingSeed)).sum();
+    return combine(tasks, dependencies, resources, links, mappings);
+  }
+
+  /**
+   * Returns the current fingerprint of the specification.
+   * 
+   * @return the current fingerprint of the specification
+   */
+  public long getFingerprint() {
+    return combine(taskSum.sum.get(), dependencySum.sum.get(), resourceSum.sum.get(),
+        linkSum.sum.get(), mappingSum.sum.get());
+  }
+
+  /**
+   * Recomputes the hashes of all elements (in parallel). Used after changes of
+   * the attributes of the elements.
+   */
+  public final void refresh() {
+    final EnactmentGraph eGraph = spec.getEnactmentGraph();
+    final ResourceGraph rGraph = spec.getResourceGraph();
+    taskSum.clear();
+    dependencySum.clear();
+    resourceSum.clear();
+    linkSum.clear();
+    mappingSum.clear();
+    eGraph.getVertices().parallelStream()
+        .forEach(task -> taskSum.put(task.getId(), hashNode(task)));
+    eGraph.getEdges().parallelStream()
+        .forEach(edge -> dependencySum.put(edge.getId(), hashEdge(edge, eGraph)));
+    rGraph.getVertices().parallelStream()
+        .forEach(res -> resourceSum.put(res.getId(), hashNode(res)));
+    rGraph.getEdges().parallelStream()
+        .forEach(link -> linkSum.put(link.getId(), hashEdge(link, rGraph)));
+    spec.getMappings().mappingStream().parallel()
+        .forEach(mapping -> mappingSum.put(mapping.getId(), hashMapping(mapping)));
+  }
+
+  /**
+   * Unregisters the listeners from the specification. The fingerprint is not
+   * updated afterwards.
+   */
+  public void detach() {
+    spec.getEnactmentGraph().removeGraphChangeListener(enactmentListener);
+    spec.getResourceGraph().removeGraphChangeListener(resourceListener);
+    spec.getMappings().removeMappingChangeListener(mappingListener);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%016x", getFingerprint());
+  }
+
+  /**
+   * Applies the given changes of the given graph to the given sums.
+   * 
+   * @param changes the given changes
+   * @param graph the given graph
+   * @param vertexSum the sum of the vertex hashes of the graph
+   * @param edgeSum the sum of the edge hashes of the graph
+   */
+  protected <V extends Node, E extends Edge> void graphChanged(
+      final List<GraphChange<V, E>> changes, final AbstractConcurrentGraph<V, E> graph,
+      final HashSum vertexSum, final HashSum edgeSum) {
+    for (final GraphChange<V, E> change : changes) {
+      switch (change.getType()) {
+        case VertexAdded:
+          vertexSum.put(change.getVertex().getId(), hashNode(change.getVertex()));
+          break;
+        case VertexRemoved:
+          vertexSum.remove(change.getVertex().getId());
+          break;
+        case EdgeAdded:
+          edgeSum.put(change.getEdge().getId(), hashEdge(change.getEdge(), change.getSource(),
+              change.getDest(), isUndirected(change.getEdge(), graph)));
+          break;
+        case EdgeRemoved:
+          edgeSum.remove(change.getEdge().getId());
+          break;
+        default:
+          throw new IllegalStateException("Unknown change type " + change.getType());
+      }
+    }
+  }
+
+  /**
+   * Applies the given mapping changes.
+   * 
+   * @param changes the given mapping changes
+   */
+  protected void mappingsChanged(final List<MappingChange> changes) {
+    for (final MappingChange change : changes) {
+      if (change.isAdded()) {
+        mappingSum.put(change.getMapping().getId(), hashMapping(change.getMapping()));
+      } else {
+        mappingSum.remove(change.getMapping().getId());
+      }
+    }
+  }
+
+  /**
+   * Returns true iff the given edge is an undirected edge of the given graph.
+   * 
+   * @param edge the given edge
+   * @param graph the given graph
+   * @return true iff the given edge is an undirected edge of the given graph
+   */
+  protected static <V extends Node, E extends Edge> boolean isUndirected(final E edge,
+      final AbstractConcurrentGraph<V, E> graph) {
+    return graph.containsEdge(edge) && graph.getEdgeType(edge) == EdgeType.UNDIRECTED;
+  }
+
+  /**
+   * Combines the hash of an element with the seed of its type.
+   * 
+   * @param hash the hash of the element
+   * @param seed the seed of the element type
+   * @return the seeded hash
+   */
+  protected static long seed(final long hash, final long seed) {
+    return mix(hash + seed * golden);
+  }
+
+  /**
+   * Combines the sums of the element hashes into the fingerprint.
+   * 
+   * @param sums the sums of the element hashes of the different element types
+   * @return the fingerprint
+   */
+  protected static long combine(final long... sums) {
+    long result = fnvOffset;
+    for (final long sum : sums) {
+      result = mix(result * fnvPrime + sum);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the hash of the given node.
+   * 
+   * @param node the given node
+   * @return the hash of the given node
+   */
+  protected static long hashNode(final Node node) {
+    return mix(hashElement(node, true));
+  }
+
+  /**
+   * Returns the hash of the given edge of the given graph.
+   * 
+   * @param edge the given edge
+   * @param graph the given graph
+   * @return the hash of the given edge
+   */
+  protected static <V extends Node, E extends Edge> long hashEdge(final E edge,
+      final AbstractConcurrentGraph<V, E> graph) {
+    return hashEdge(edge, graph.getSource(edge), graph.getDest(edge), isUndirected(edge, graph));
+  }
+
+  /**
+   * Returns the hash of the given edge with the given end points.
+   * 
+   * @param edge the given edge
+   * @param src the source of the given edge
+   * @param dst the destination of the given edge
+   * @param undirected true iff the edge is undirected (so that the order of the
+   *        end points does not matter)
+   * @return the hash of the given edge
+   */
+  protected static long hashEdge(final Edge edge, final Node src, final Node dst,
+      final boolean undirected) {
+    final long srcHash = mix(hashString(src.getId()));
+    final long dstHash = mix(hashString(dst.getId()));
+    final long endPoints =
+        undirected ? srcHash + dstHash : srcHash + mix(dstHash ^ golden);
+    // the IDs of the dependencies are allocated and do not describe the structure
+    return mix(hashElement(edge, !(edge instanceof Dependency)) + endPoints * fnvPrime);
+  }
+
+  /**
+   * Returns the hash of the given mapping.
+   * 
+   * @param mapping the given mapping
+   * @return the hash of the given mapping
+   */
+  protected static long hashMapping(final Mapping<Task, Resource> mapping) {
+    return hashEdge(mapping, mapping.getSource(), mapping.getTarget(), false);
+  }
+
+  /**
+   * Collects the names of the runtime attributes of the property services.
+   * 
+   * @return the names of the runtime attributes
+   */
+  protected static Set<String> collectRuntimeAttributes() {
+    final Set<String> result = new HashSet<>();
+    result.add(PropertyServiceData.Property.Content.name());
+    result.add(PropertyServiceData.Property.DataAvailable.name());
+    result.add(PropertyServiceDependency.Property.TransmissionDone.name());
+    result.add(PropertyServiceDependency.Property.DataConsumed.name());
+    result.add(PropertyServiceDependency.Property.ExtractionDone.name());
+    result.addAll(PropertyServiceFunction.getRuntimeAttributeNames());
+    result.addAll(PropertyServiceFunctionDataFlowCollections.getRuntimeAttributeNames());
+    result.add(PropertySlots.attributeName);
+    return Set.copyOf(result);
+  }
+
+  /**
+   * Returns the hash of the class, the ID (if requested), and the non-runtime
+   * attributes of the given element (including the attributes inherited from
+   * its parent).
+   * 
+   * @param element the given element
+   * @param withId true iff the ID of the element is hashed
+   * @return the hash of the given element
+   */
+  protected static long hashElement(final Element element, final boolean withId) {
+    long result = hashString(element.getClass().getName()) * fnvPrime;
+    if (withId) {
+      result += hashString(element.getId());
+    }
+    for (final String name : element.getAttributeNames()) {
+      if (runtimeAttributes.contains(name)) {
+        continue;
+      }
+      final Object value = element.getAttribute(name);
+      if (value != null) {
+        // sum, so that the order of the attributes does not matter
+        result += mix(hashString(name) * fnvPrime ^ hashValue(value));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the hash of the given attribute value.
+   * 
+   * @param value the given attribute value
+   * @return the hash of the given attribute value
+   */
+  protected static long hashValue(final Object value) {
+    if (value instanceof Element) {
+      return hashString(((Element) value).getId());
+    } else if (value instanceof Collection) {
+      long result = golden;
+      for (final Object entry : (Collection<?>) value) {
+        result += mix(hashValue(entry));
+      }
+      return result;
+    } else if (value instanceof JsonElement) {
+      return hashString(value.toString());
+    } else {
+      return hashString(value.getClass().getName()) ^ mix(hashString(value.toString()));
+    }
+  }
+
+  /**
+   * Returns the 64-bit FNV-1a hash of the given string.
+   * 
+   * @param string the given string
+   * @return the hash of the given string
+   */
+  protected static long hashString(final String string) {
+    long result = fnvOffset;
+    for (int idx = 0; idx < string.length(); idx++) {
+      result = (result ^ string.charAt(idx)) * fnvPrime;
+    }
+    return result;
+  }
+
+  /**
+   * Scrambles the bits of the given value (finalizer of SplitMix64).
+   * 
+   * @param value the given value
+   * @return the scrambled value
+   */
+  protected static long mix(final long value) {
+    long result = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+    result = (result ^ (result >>> 27)) * 0x94d049bb133111ebL;
+    return result ^ (result >>> 31);
+  }
+
+  /**
+   * Order-independent sum of the hashes of the elements of one type. The hash
+   * of each element is stored, so that its removal subtracts the hash it was
+   * added with.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static final class HashSum {
+
+    protected final long seed;
+    protected final ConcurrentHashMap<String, Long> hashes = new ConcurrentHashMap<>();
+    protected final AtomicLong sum = new AtomicLong();
+
+    /**
+     * Default constructor.
+     * 
+     * @param seed the seed distinguishing the element types
+     */
+    protected HashSum(final long seed) {
+      this.seed = seed;
+    }
+
+    /**
+     * Sets the hash of the element with the given ID.
+     * 
+     * @param elementId the given ID
+     * @param hash the hash of the element
+     */
+    protected void put(final String elementId, final long hash) {
+      final long seeded = StructuralFingerprint.seed(hash, seed);
+      hashes.compute(elementId, (key, previous) -> {
+        sum.addAndGet(previous == null ? seeded : seeded - previous);
+        return seeded;
+      });
+    }
+
+    /**
+     * Removes the hash of the element with the given ID.
+     * 
+     * @param elementId the given ID
+     */
+    protected void remove(final String elementId) {
+      hashes.computeIfPresent(elementId, (key, previous) -> {
+        sum.addAndGet(-previous);
+        return null;
+      });
+    }
+
+    /**
+     * Removes all hashes.
+     */
+    protected void clear() {
+      hashes.clear();
+      sum.set(0);
+    }
+  }
+}
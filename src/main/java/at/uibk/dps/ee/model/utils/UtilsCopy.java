@@ -8,6 +8,7 @@ import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.graph.EnactmentSpecification;
 import at.uibk.dps.ee.model.graph.MappingsConcurrent;
 import at.uibk.dps.ee.model.graph.ResourceGraph;
+import at.uibk.dps.ee.model.properties.PropertySlots;
 import edu.uci.ics.jung.graph.util.EdgeType;
 import net.sf.opendse.model.Communication;
 import net.sf.opendse.model.Dependency;
@@ -98,7 +99,9 @@ public final class UtilsCopy {
 
   /**
    * Restores the attributes of an adjusted element by setting it to the values
-   * found in the original.
+   * found in the original. The record of the property slots is not copied; the
+   * record of the adjusted element is dropped, since its slots are set
+   * directly.
    * 
    * @param original the original element
    * @param adjusted the element with adjusted values
@@ -107,10 +110,13 @@ public final class UtilsCopy {
     // all attributes which were not in the original are set to null
     adjusted.getAttributeNames().stream()
         .filter(attrName -> !original.getAttributeNames().contains(attrName))
+        .filter(attrName -> !PropertySlots.isRecordAttribute(attrName))
         .forEach(notInOriginal -> adjusted.setAttribute(notInOriginal, null));
     // all other attributes are set to the same value as in the original
-    original.getAttributeNames()
+    original.getAttributeNames().stream()
+        .filter(attrName -> !PropertySlots.isRecordAttribute(attrName))
         .forEach(attrName -> adjusted.setAttribute(attrName, original.getAttribute(attrName)));
+    PropertySlots.invalidate(adjusted);
   }
 
   /**
@@ -139,7 +145,8 @@ public final class UtilsCopy {
    * @return the deep copy of the enactment graph
    */
   public static EnactmentGraph deepCopyEGraph(final EnactmentGraph original) {
-    final EnactmentGraph result = new EnactmentGraph();
+    final EnactmentGraph result = new EnactmentGraph(original.isConcurrentStoreOnly(),
+        original.getVertexCount(), original.getEdgeCount());
     original.getVertices()
         .forEach(originalNode -> result.addVertex(deepCopyEGraphNode(originalNode)));
     original.getEdges()
@@ -155,7 +162,8 @@ public final class UtilsCopy {
    * @return the deep copy of the resource graph
    */
   public static ResourceGraph deepCopyRGraph(final ResourceGraph original) {
-    final ResourceGraph result = new ResourceGraph();
+    final ResourceGraph result = new ResourceGraph(original.isConcurrentStoreOnly(),
+        original.getVertexCount(), original.getEdgeCount());
     original.getVertices().forEach(originalRes -> result.addVertex(deepCopyResource(originalRes)));
     original.getEdges().forEach(originalLink -> addDeepCopyLink(originalLink, original, result));
     return result;
@@ -190,23 +198,28 @@ public final class UtilsCopy {
   }
 
   /**
-   * Creates a deep copy of a task.
+   * Creates a deep copy of a task (with its own record of the property slots).
    * 
    * @param original the original task
    * @return the deep copy of the task
    */
   public static Task deepCopyTask(final Task original) {
-    return deepCopyElement(Task.class, original);
+    final Task result = deepCopyElement(Task.class, original);
+    PropertySlots.attach(result);
+    return result;
   }
 
   /**
-   * Creates a deep copy of a communication
+   * Creates a deep copy of a communication (with its own record of the property
+   * slots).
    * 
    * @param original the original communication
    * @return the deep copy of the communication
    */
   public static Communication deepCopyCommunication(final Task original) {
-    return deepCopyElement(Communication.class, original);
+    final Communication result = deepCopyElement(Communication.class, original);
+    PropertySlots.attach(result);
+    return result;
   }
 
   /**
@@ -242,7 +255,9 @@ public final class UtilsCopy {
   }
 
   /**
-   * Copies all attributes of a given original to a copy.
+   * Copies all attributes of a given original to a copy (apart from the record
+   * of the property slots, which belongs to the original; the record of the
+   * copy is dropped, since its slots are set directly).
    * 
    * @param original the given original
    * @param copy the given copy
@@ -252,8 +267,10 @@ public final class UtilsCopy {
       throw new IllegalArgumentException("Element " + original.getId() + " and element "
           + copy.getId() + " are not of the same class.");
     }
-    original.getAttributeNames()
+    original.getAttributeNames().stream()
+        .filter(attrName -> !PropertySlots.isRecordAttribute(attrName))
         .forEach(attrName -> copy.setAttribute(attrName, original.getAttribute(attrName)));
+    PropertySlots.invalidate(copy);
   }
 
   /**
@@ -273,19 +290,23 @@ public final class UtilsCopy {
         .orElseThrow(() -> new IllegalStateException(
             "Target of mapping " + original.getId() + " not in the copied r graph."));
     final Mapping<Task, Resource> result = new Mapping<>(original.getId(), taskCopy, resCopy);
-    original.getAttributeNames()
+    original.getAttributeNames().stream()
+        .filter(attrName -> !PropertySlots.isRecordAttribute(attrName))
         .forEach(attrName -> result.setAttribute(attrName, original.getAttribute(attrName)));
     return result;
   }
 
   /**
-   * Returns a deep copy of the given dependency.
+   * Returns a deep copy of the given dependency (with its own record of the
+   * property slots).
    * 
    * @param original the given dependency
    * @return a deep copy of the given dependency
    */
   public static Dependency deepCopyDependency(final Dependency original) {
-    return deepCopyElement(Dependency.class, original);
+    final Dependency result = deepCopyElement(Dependency.class, original);
+    PropertySlots.attach(result);
+    return result;
   }
 
   /**
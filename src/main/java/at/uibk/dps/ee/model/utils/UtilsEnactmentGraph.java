@@ -1,11 +1,14 @@
 package at.uibk.dps.ee.model.utils;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.SubgraphView;
 import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceReproduction;
+import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Task;
-import net.sf.opendse.model.properties.TaskPropertyService;
 
 /**
  * Static container for utility methods used to process enactment graphs.
@@ -22,18 +25,11 @@ public final class UtilsEnactmentGraph {
    * @return the constant data nodes of the given graph
    */
   public static Set<Task> getConstantDataNodes(final EnactmentGraph graph) {
-    // get the actually constant nodes (constant and while counters)
-    final Set<Task> result =
-        graph.getVertices().stream().filter(task -> TaskPropertyService.isCommunication(task))
-            .filter(dataNode -> PropertyServiceData.isConstantNode(dataNode))
-            .collect(Collectors.toSet());
+    // the actually constant nodes (constant and while counters)
+    final Set<Task> result = new HashSet<>(graph.getConstantNodes());
     // add the while data nodes which are not nested
-    final Set<Task> relevantWhileNodes =
-        graph.getVertices().stream().filter(node -> TaskPropertyService.isCommunication(node))
-            .filter(dataNode -> PropertyServiceData.isWhileStart(dataNode))
-            .filter(whileStart -> graph.getPredecessorCount(whileStart) == 0)
-            .collect(Collectors.toSet());
-    result.addAll(relevantWhileNodes);
+    graph.getWhileStartNodes().stream().filter(whileStart -> graph.inDegree(whileStart) == 0)
+        .forEach(result::add);
     return result;
   }
 
@@ -44,8 +40,7 @@ public final class UtilsEnactmentGraph {
    * @return the non-constant root data nodes (inputs) of the given graph
    */
   public static Set<Task> getNonConstRootNodes(final EnactmentGraph graph) {
-    final Set<Task> result = graph.getVertices().stream()
-        .filter(node -> graph.getInEdges(node).size() == 0).collect(Collectors.toSet());
+    final Set<Task> result = new HashSet<>(graph.getSourceVertices());
     result.removeAll(getConstantDataNodes(graph));
     if (result.stream().anyMatch(rootNode -> !PropertyServiceData.isRoot(rootNode))) {
       throw new IllegalStateException("Non root nodes without in edges found.");
@@ -53,6 +48,24 @@ public final class UtilsEnactmentGraph {
     return result;
   }
 
+  /**
+   * Returns a view of the reproduction scope of the given (reproduced) node,
+   * i.e., of the nodes with the same reproduction scope which are connected to
+   * the given node via such nodes. The view is expanded from the given node, so
+   * that its creation and iteration do not depend on the size of the graph.
+   * 
+   * @param graph the given graph
+   * @param scopeMember a reproduced node of the requested scope
+   * @return a view of the reproduction scope of the given node
+   */
+  public static SubgraphView<Task, Dependency> getReproductionScopeView(
+      final EnactmentGraph graph, final Task scopeMember) {
+    final String scope = PropertyServiceReproduction.getReproductionScope(scopeMember);
+    return SubgraphView.ofRegion(graph, Collections.singleton(scopeMember),
+        node -> PropertyServiceReproduction.isReproduced(node)
+            && scope.equals(PropertyServiceReproduction.getReproductionScope(node)));
+  }
+
   /**
    * No constructor.
    */
@@ -0,0 +1,452 @@
+package at.uibk.dps.ee.model.utils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.model.graph.AbstractConcurrentGraph;
+import at.uibk.dps.ee.model.graph.EnactmentSpecification;
+import at.uibk.dps.ee.model.graph.MappingsConcurrent;
+import at.uibk.dps.ee.model.objects.JsonContent;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.Property;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Node;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+/**
+ * Static container for the methods estimating the heap footprint of an
+ * enactment specification.
+ * 
+ * The estimate is based on a fixed model of the object layout of a 64-bit JVM
+ * with compressed references (12-byte object headers, 8-byte alignment, compact
+ * strings). It does not use instrumentation and is meant to find the parts of a
+ * specification which dominate its footprint, not to predict the heap usage to
+ * the byte. The attributes of large specifications can be walked for a
+ * deterministic sample of the elements, with the results extrapolated to all
+ * elements. The contents of the data nodes, whose sizes vary too much to be
+ * extrapolated, are always walked for all data nodes, as is the graph
+ * structure which determines the overhead of the concurrent maps.
+ * 
+ * @author Fedor Smirnov
+ */
+public final class UtilsMemoryFootprint {
+
+  /**
+   * The number of largest data node contents listed by default.
+   */
+  public static final int defaultTopN = 10;
+
+  protected static final int objectHeader = 12;
+  protected static final int arrayHeader = 16;
+  protected static final int reference = 4;
+  // String object (header, value reference, hash, coder, hashIsZero)
+  protected static final int stringShell = 24;
+  // Element object (header, id, parent, and attribute map references)
+  protected static final int elementShell = 24;
+  // HashMap object without its table
+  protected static final int hashMapShell = 48;
+  protected static final int hashMapNode = 32;
+  // ConcurrentHashMap object without its table
+  protected static final int concurrentMapShell = 64;
+  protected static final int concurrentMapNode = 32;
+  protected static final int boxedInt = 16;
+  protected static final int boxedLong = 24;
+  // objects of unknown classes are counted as a header plus one field
+  protected static final int unknownObject = 16;
+  // JUNG pair of the endpoints of an edge
+  protected static final int jungPair = 24;
+
+  /**
+   * Estimates the footprint of the given specification, walking all of its
+   * elements.
+   * 
+   * @param spec the given specification
+   * @return the footprint of the given specification
+   */
+  public static MemoryFootprint estimate(final EnactmentSpecification spec) {
+    return estimate(spec, 1.0, defaultTopN);
+  }
+
+  /**
+   * Estimates the footprint of the given specification, walking the attributes
+   * of every k-th element, with k = round(1 / sampleRate). The data node
+   * contents are walked for all data nodes.
+   * 
+   * @param spec the given specification
+   * @param sampleRate the fraction of the elements to walk (in (0, 1])
+   * @param topN the number of largest data node contents to list
+   * @return the footprint of the given specification
+   */
+  public static MemoryFootprint estimate(final EnactmentSpecification spec,
+      final double sampleRate, final int topN) {
+    if (!(sampleRate > 0 && sampleRate <= 1)) {
+      throw new IllegalArgumentException("The sample rate must be in (0, 1]: " + sampleRate);
+    }
+    if (topN < 0) {
+      throw new IllegalArgumentException("Negative number of listed contents: " + topN);
+    }
+    final Walk walk = new Walk(Math.max(1, Math.round(1 / sampleRate)), topN);
+    walk.addAll(spec.getEnactmentGraph().getVertices());
+    walk.addAll(spec.getEnactmentGraph().getEdges());
+    walk.addAll(spec.getResourceGraph().getVertices());
+    walk.addAll(spec.getResourceGraph().getEdges());
+    walk.addAll(spec.getMappings().mappingStream().collect(Collectors.toList()));
+    final long mapBytes = estimateGraphMaps(spec.getEnactmentGraph())
+        + estimateGraphMaps(spec.getResourceGraph()) + estimateMappingMaps(spec.getMappings());
+    return walk.finish(mapBytes, 1.0 / walk.step);
+  }
+
+  /**
+   * Estimates the size of the given string, including its value array.
+   * 
+   * @param string the given string
+   * @return the size of the given string
+   */
+  public static long estimateString(final String string) {
+    final boolean latin1 = string.chars().allMatch(c -> c < 256);
+    return stringShell + align(arrayHeader + (long) string.length() * (latin1 ? 1 : 2));
+  }
+
+  /**
+   * Estimates the size of the given attribute value, including the objects it
+   * references (but excluding the elements of the specification).
+   * 
+   * @param value the given attribute value
+   * @return the size of the given attribute value
+   */
+  public static long estimateValue(final Object value) {
+    if (value == null || value instanceof Boolean || value instanceof Enum) {
+      // shared instances
+      return 0;
+    } else if (value instanceof String) {
+      return estimateString((String) value);
+    } else if (value instanceof Integer || value instanceof Short || value instanceof Byte
+        || value instanceof Float || value instanceof Character) {
+      return boxedInt;
+    } else if (value instanceof Long || value instanceof Double) {
+      return boxedLong;
+    } else if (value instanceof JsonElement) {
+      return estimateJson((JsonElement) value);
+    } else if (value instanceof JsonContent) {
+      // the parsed content and, if already created, its string form
+      final JsonContent content = (JsonContent) value;
+      return objectHeader + 2 * reference + estimateJson(content.getJson())
+          + (content.isSerialized() ? estimateString(content.toString()) : 0);
+    } else if (value instanceof Collection) {
+      final Collection<?> collection = (Collection<?>) value;
+      long result = hashMapShell + estimateTable(collection.size(), reference)
+          + (long) collection.size() * hashMapNode;
+      for (final Object entry : collection) {
+        result += entry instanceof Element ? 0 : estimateValue(entry);
+      }
+      return result;
+    } else if (value instanceof Element) {
+      // elements are counted separately
+      return 0;
+    } else {
+      return unknownObject;
+    }
+  }
+
+  /**
+   * Estimates the size of the given Gson element.
+   * 
+   * @param json the given Gson element
+   * @return the size of the given Gson element
+   */
+  protected static long estimateJson(final JsonElement json) {
+    if (json.isJsonPrimitive()) {
+      final JsonPrimitive primitive = json.getAsJsonPrimitive();
+      final Object value = primitive.isString() ? primitive.getAsString()
+          : primitive.isBoolean() ? Boolean.TRUE : primitive.getAsNumber();
+      return objectHeader + reference + estimateValue(value);
+    } else if (json.isJsonArray()) {
+      final JsonArray array = json.getAsJsonArray();
+      // JsonArray wrapping an ArrayList (24 bytes without its array)
+      long result = objectHeader + reference + 24 + align(arrayHeader + array.size() * reference);
+      for (final JsonElement entry : array) {
+        result += estimateJson(entry);
+      }
+      return result;
+    } else if (json.isJsonObject()) {
+      // JsonObject wrapping a LinkedTreeMap (nodes with five references)
+      final Set<Map.Entry<String, JsonElement>> entries = json.getAsJsonObject().entrySet();
+      long result = objectHeader + reference + hashMapShell;
+      for (final Map.Entry<String, JsonElement> entry : entries) {
+        result += 40 + estimateString(entry.getKey()) + estimateJson(entry.getValue());
+      }
+      return result;
+    } else {
+      // JsonNull singleton
+      return 0;
+    }
+  }
+
+  /**
+   * Estimates the size of the concurrent maps storing the structure of the
+   * given graph (and of its JUNG mirror, if present).
+   * 
+   * @param graph the given graph
+   * @return the size of the maps storing the structure of the given graph
+   */
+  protected static <V extends Node, E extends Edge> long estimateGraphMaps(
+      final AbstractConcurrentGraph<V, E> graph) {
+    final int vertexCount = graph.getVertexCount();
+    final int edgeCount = graph.getEdgeCount();
+    long result = 0;
+    // vertex, edge, source, dest, and edge type maps
+    result += estimateConcurrentMap(vertexCount);
+    result += 4 * estimateConcurrentMap(edgeCount);
+    // in/out edges, sources and sinks, endpoint index
+    result += 2 * estimateConcurrentMap(vertexCount);
+    int sourceCount = 0;
+    int sinkCount = 0;
+    int indexedVertices = 0;
+    for (final V vertex : graph.getVertices()) {
+      final int inDegree = graph.inDegree(vertex);
+      final int outDegree = graph.outDegree(vertex);
+      sourceCount += inDegree == 0 ? 1 : 0;
+      sinkCount += outDegree == 0 ? 1 : 0;
+      result += estimateConcurrentMap(inDegree) + estimateConcurrentMap(outDegree);
+      if (outDegree > 0) {
+        indexedVertices++;
+        final Collection<V> successors = graph.getSuccessors(vertex);
+        result += estimateConcurrentMap(successors.size());
+        // on average, the edges are spread evenly over the successors
+        result += successors.size() * concurrentMapShell
+            + estimateTable(outDegree, reference) + (long) outDegree * concurrentMapNode;
+      }
+    }
+    result += estimateConcurrentMap(sourceCount) + estimateConcurrentMap(sinkCount)
+        + estimateConcurrentMap(indexedVertices);
+    if (!graph.isConcurrentStoreOnly()) {
+      // JUNG vertex map (with a pair of adjacency maps per vertex) and edge map
+      result += hashMapShell + estimateTable(vertexCount, reference)
+          + vertexCount * (hashMapNode + jungPair + 2L * hashMapShell);
+      result += hashMapShell + estimateTable(edgeCount, reference)
+          + edgeCount * (hashMapNode + jungPair + 2L * hashMapNode);
+    }
+    return result;
+  }
+
+  /**
+   * Estimates the size of the concurrent maps indexing the given mappings.
+   * 
+   * @param mappings the given mappings
+   * @return the size of the maps indexing the given mappings
+   */
+  protected static long estimateMappingMaps(final MappingsConcurrent mappings) {
+    final Map<String, Integer> perTask = new HashMap<>();
+    final Map<String, Integer> perResource = new HashMap<>();
+    mappings.forEach(mapping -> {
+      perTask.merge(mapping.getSource().getId(), 1, Integer::sum);
+      perResource.merge(mapping.getTarget().getId(), 1, Integer::sum);
+    });
+    long result = estimateConcurrentMap(perTask.values().stream().mapToInt(i -> i).sum());
+    result += estimateConcurrentMap(perTask.size()) + estimateConcurrentMap(perResource.size());
+    for (final int count : perTask.values()) {
+      result += estimateConcurrentMap(count);
+    }
+    for (final int count : perResource.values()) {
+      result += estimateConcurrentMap(count);
+    }
+    return result;
+  }
+
+  /**
+   * Estimates the size of a concurrent map with the given number of entries
+   * (excluding the keys and values).
+   * 
+   * @param entries the given number of entries
+   * @return the size of a concurrent map with the given number of entries
+   */
+  protected static long estimateConcurrentMap(final int entries) {
+    return concurrentMapShell + estimateTable(entries, reference)
+        + (long) entries * concurrentMapNode;
+  }
+
+  /**
+   * Estimates the size of the table of a hash map with the given number of
+   * entries (a power of two keeping the load factor below 0.75).
+   * 
+   * @param entries the given number of entries
+   * @param slotSize the size of a table slot
+   * @return the size of the table
+   */
+  protected static long estimateTable(final int entries, final int slotSize) {
+    if (entries == 0) {
+      return 0;
+    }
+    long capacity = 16;
+    while (capacity * 3 / 4 < entries) {
+      capacity <<= 1;
+    }
+    return align(arrayHeader + capacity * slotSize);
+  }
+
+  /**
+   * Rounds the given size up to the object alignment.
+   * 
+   * @param size the given size
+   * @return the aligned size
+   */
+  protected static long align(final long size) {
+    return (size + 7) & ~7L;
+  }
+
+  /**
+   * Accumulates the sizes of the walked elements.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static final class Walk {
+
+    protected final long step;
+    protected final int topN;
+    protected final Map<String, Long> perKind = new LinkedHashMap<>();
+    protected final Map<String, Long> perAttribute = new LinkedHashMap<>();
+    // smallest content on top
+    protected final PriorityQueue<Map.Entry<String, Long>> largest =
+        new PriorityQueue<>(Map.Entry.comparingByValue());
+    protected long index;
+
+    /**
+     * Default constructor.
+     * 
+     * @param step the distance between two walked elements
+     * @param topN the number of largest data node contents to list
+     */
+    protected Walk(final long step, final int topN) {
+      this.step = step;
+      this.topN = topN;
+    }
+
+    /**
+     * Adds the sampled elements among the given elements.
+     * 
+     * @param elements the given elements
+     */
+    protected void addAll(final Collection<? extends Element> elements) {
+      for (final Element element : elements) {
+        if (index++ % step == 0) {
+          add(element);
+        }
+        addContent(element);
+      }
+    }
+
+    /**
+     * Adds the given (sampled) element, except for its content (see
+     * {@link #addContent(Element)}). Attributes inherited from a parent are
+     * counted for the parent only.
+     * 
+     * @param element the given element
+     */
+    protected void add(final Element element) {
+      long elementBytes = elementShell + estimateString(element.getId());
+      int localCount = 0;
+      long attributeBytes = 0;
+      for (final String name : element.getAttributeNames()) {
+        final Object value = element.getLocalAttribute(name);
+        if (value == null) {
+          continue;
+        }
+        localCount++;
+        if (isContent(element, name)) {
+          continue;
+        }
+        final long valueBytes = hashMapNode + estimateValue(value);
+        attributeBytes += valueBytes;
+        perAttribute.merge(name, valueBytes * step, Long::sum);
+      }
+      elementBytes += hashMapShell + estimateTable(localCount, reference) + attributeBytes;
+      if (element instanceof Mapping) {
+        // mapping elements additionally reference their source and target
+        elementBytes += 2 * reference;
+      }
+      perKind.merge(kindOf(element), elementBytes * step, Long::sum);
+    }
+
+    /**
+     * Adds the content of the given element (if it is a data node with a
+     * content). Contents are added for every element, without extrapolation.
+     * 
+     * @param element the given element
+     */
+    protected void addContent(final Element element) {
+      final String name = Property.Content.name();
+      final Object value = element.getLocalAttribute(name);
+      if (value == null || !isContent(element, name)) {
+        return;
+      }
+      final long valueBytes = estimateValue(value);
+      perAttribute.merge(name, hashMapNode + valueBytes, Long::sum);
+      perKind.merge(kindOf(element), hashMapNode + valueBytes, Long::sum);
+      largest.add(Map.entry(element.getId(), valueBytes));
+      if (largest.size() > topN) {
+        largest.poll();
+      }
+    }
+
+    /**
+     * Returns true iff the attribute with the given name is the content of a
+     * data node.
+     * 
+     * @param element the element with the attribute
+     * @param name the attribute name
+     * @return true iff the attribute is the content of a data node
+     */
+    protected static boolean isContent(final Element element, final String name) {
+      return element instanceof Communication && Property.Content.name().equals(name);
+    }
+
+    /**
+     * Returns the kind of the given element.
+     * 
+     * @param element the given element
+     * @return the kind of the given element
+     */
+    protected static String kindOf(final Element element) {
+      if (element instanceof Communication) {
+        return Communication.class.getSimpleName();
+      } else if (element instanceof Task) {
+        return Task.class.getSimpleName();
+      } else if (element instanceof Resource) {
+        return Resource.class.getSimpleName();
+      } else if (element instanceof Mapping) {
+        return Mapping.class.getSimpleName();
+      }
+      return element.getClass().getSimpleName();
+    }
+
+    /**
+     * Creates the footprint from the accumulated sizes.
+     * 
+     * @param mapBytes the size of the concurrent maps
+     * @param sampleRate the effective sample rate
+     * @return the footprint
+     */
+    protected MemoryFootprint finish(final long mapBytes, final double sampleRate) {
+      final Map<String, Long> contents = new HashMap<>();
+      largest.forEach(entry -> contents.put(entry.getKey(), entry.getValue()));
+      return new MemoryFootprint(MemoryFootprint.sortedBySize(perKind),
+          MemoryFootprint.sortedBySize(perAttribute), MemoryFootprint.sortedBySize(contents),
+          mapBytes, sampleRate);
+    }
+  }
+
+  /**
+   * No constructor.
+   */
+  private UtilsMemoryFootprint() {}
+}
@@ -0,0 +1,246 @@
+package at.uibk.dps.ee.model.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.EnactmentSpecification;
+import at.uibk.dps.ee.model.graph.FrozenGraph;
+import at.uibk.dps.ee.model.graph.MappingsConcurrent;
+import at.uibk.dps.ee.model.graph.ReadableGraph;
+import at.uibk.dps.ee.model.graph.ResourceGraph;
+import at.uibk.dps.ee.model.graph.RoutingTable;
+import at.uibk.dps.ee.model.properties.PropertyServiceMapping;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Static container for the methods computing HEFT-style scheduling priorities
+ * for the function nodes of an enactment specification.
+ * 
+ * The cost of a function is the mean execution time estimate annotated on its
+ * mappings (missing estimates count as zero). The cost of the data transfer
+ * between two functions (connected via a data node) is the mean over the
+ * resource pairs they are mapped to, where a transfer on the same resource is
+ * free and a transfer between different resources costs the cheapest route
+ * between them (see {@link RoutingTable#getCost(Resource, Resource)}). Pairs
+ * without a route are infeasible and left out of the mean; a transfer without
+ * any routable pair costs nothing, so that the ranks and the slack stay
+ * finite.
+ * 
+ * @author Fedor Smirnov
+ */
+public final class UtilsSchedulingPriority {
+
+  private static final String cacheKey = SchedulingPriorities.class.getName();
+
+  /**
+   * Returns the scheduling priorities for the given specification. The
+   * priorities are cached on the enactment graph and recomputed after changes
+   * of the graph, the resource graph, or the mappings. Changes of the cost
+   * annotations are not detected; use {@link #invalidate(EnactmentSpecification)}
+   * after such changes.
+   * 
+   * @param spec the given specification
+   * @return the scheduling priorities for the given specification
+   */
+  public static SchedulingPriorities getPriorities(final EnactmentSpecification spec) {
+    final EnactmentGraph graph = spec.getEnactmentGraph();
+    SchedulingPriorities result =
+        graph.getDerivedValue(cacheKey, () -> computePriorities(spec));
+    if (result.getResourceGraphVersion() != spec.getResourceGraph().getVersion()
+        || result.getMappingsVersion() != spec.getMappings().getVersion()) {
+      invalidate(spec);
+      result = graph.getDerivedValue(cacheKey, () -> computePriorities(spec));
+    }
+    return result;
+  }
+
+  /**
+   * Drops the cached scheduling priorities of the given specification.
+   * 
+   * @param spec the given specification
+   */
+  public static void invalidate(final EnactmentSpecification spec) {
+    spec.getEnactmentGraph().invalidateDerivedValue(cacheKey);
+  }
+
+  /**
+   * Computes the scheduling priorities for the given specification. The nodes
+   * of a snapshot of the enactment graph are processed in (reverse) topological
+   * order, so that the computation is linear in the number of
+   * function-data-function paths. The order is computed once for the snapshot
+   * (and not maintained on the graph).
+   * 
+   * @param spec the given specification
+   * @return the scheduling priorities for the given specification
+   */
+  public static SchedulingPriorities computePriorities(final EnactmentSpecification spec) {
+    final FrozenGraph<Task, Dependency> graph = spec.getEnactmentGraph().snapshot();
+    final long resourceVersion = spec.getResourceGraph().getVersion();
+    final long mappingsVersion = spec.getMappings().getVersion();
+    final List<Task> functions = new ArrayList<>();
+    for (final int nodeIdx : getTopologicalOrder(graph)) {
+      final Task node = graph.getVertexAt(nodeIdx);
+      if (TaskPropertyService.isProcess(node)) {
+        functions.add(node);
+      }
+    }
+    final Map<String, Double> costs = new HashMap<>(functions.size() * 2);
+    functions.forEach(function -> costs.put(function.getId(),
+        getExecutionCost(function, spec.getMappings())));
+    final Map<String, Double> downwardRanks = new HashMap<>(functions.size() * 2);
+    for (final Task function : functions) {
+      double rank = 0.0;
+      for (final Task pred : getFunctionPredecessors(function, graph)) {
+        rank = Math.max(rank, downwardRanks.get(pred.getId()) + costs.get(pred.getId())
+            + getTransferCost(pred, function, spec));
+      }
+      downwardRanks.put(function.getId(), rank);
+    }
+    final Map<String, Double> upwardRanks = new HashMap<>(functions.size() * 2);
+    for (int idx = functions.size() - 1; idx >= 0; idx--) {
+      final Task function = functions.get(idx);
+      double maxSuccessorPath = 0.0;
+      for (final Task succ : getFunctionSuccessors(function, graph)) {
+        maxSuccessorPath = Math.max(maxSuccessorPath,
+            getTransferCost(function, succ, spec) + upwardRanks.get(succ.getId()));
+      }
+      upwardRanks.put(function.getId(), costs.get(function.getId()) + maxSuccessorPath);
+    }
+    return new SchedulingPriorities(upwardRanks, downwardRanks, functions, resourceVersion,
+        mappingsVersion);
+  }
+
+  /**
+   * Returns the node indices of the given snapshot in topological order.
+   * 
+   * @param snapshot the given snapshot
+   * @return the node indices of the given snapshot in topological order
+   */
+  static int[] getTopologicalOrder(final FrozenGraph<Task, Dependency> snapshot) {
+    final int nodeNum = snapshot.getVertexCount();
+    final int[] remaining = new int[nodeNum];
+    final int[] result = new int[nodeNum];
+    int size = 0;
+    for (int nodeIdx = 0; nodeIdx < nodeNum; nodeIdx++) {
+      remaining[nodeIdx] = snapshot.inDegree(nodeIdx);
+      if (remaining[nodeIdx] == 0) {
+        result[size++] = nodeIdx;
+      }
+    }
+    for (int pos = 0; pos < size; pos++) {
+      final int nodeIdx = result[pos];
+      for (int edgePos = 0; edgePos < snapshot.outDegree(nodeIdx); edgePos++) {
+        final int succ = snapshot.getDestIndex(snapshot.getOutEdgeIndex(nodeIdx, edgePos));
+        if (--remaining[succ] == 0) {
+          result[size++] = succ;
+        }
+      }
+    }
+    if (size != nodeNum) {
+      throw new IllegalStateException("The enactment graph contains a cycle.");
+    }
+    return result;
+  }
+
+  /**
+   * Returns the mean execution time estimate of the mappings of the given
+   * function.
+   * 
+   * @param function the given function
+   * @param mappings the mappings
+   * @return the mean execution time estimate of the mappings of the function
+   */
+  static double getExecutionCost(final Task function, final MappingsConcurrent mappings) {
+    final Set<Mapping<Task, Resource>> taskMappings = mappings.getMappings(function);
+    if (taskMappings.isEmpty()) {
+      return 0.0;
+    }
+    double sum = 0.0;
+    for (final Mapping<Task, Resource> mapping : taskMappings) {
+      if (PropertyServiceMapping.isExecutionTimeEstimateSet(mapping)) {
+        sum += PropertyServiceMapping.getExecutionTimeEstimate(mapping);
+      }
+    }
+    return sum / taskMappings.size();
+  }
+
+  /**
+   * Returns the mean cost of transferring data from the first to the second
+   * function, over all pairs of the resources they are mapped to which are
+   * connected by a route. Pairs without a route are infeasible and skipped; if
+   * no pair is connected (e.g., in a resource graph without links), the cost is
+   * 0, so that the ranks stay finite.
+   * 
+   * @param first the first function
+   * @param second the second function
+   * @param spec the specification
+   * @return the mean cost of transferring data from the first to the second
+   *         function
+   */
+  static double getTransferCost(final Task first, final Task second,
+      final EnactmentSpecification spec) {
+    final Set<Resource> firstTargets = spec.getMappings().getTargets(first);
+    final Set<Resource> secondTargets = spec.getMappings().getTargets(second);
+    if (firstTargets.isEmpty() || secondTargets.isEmpty()) {
+      return 0.0;
+    }
+    final ResourceGraph rGraph = spec.getResourceGraph();
+    final RoutingTable routings = spec.getRoutings();
+    double sum = 0.0;
+    int routedPairs = 0;
+    for (final Resource src : firstTargets) {
+      for (final Resource dst : secondTargets) {
+        final double cost = src.equals(dst) || !rGraph.containsVertex(src)
+            || !rGraph.containsVertex(dst) ? 0.0 : routings.getCost(src, dst);
+        if (cost != Double.POSITIVE_INFINITY) {
+          sum += cost;
+          routedPairs++;
+        }
+      }
+    }
+    return routedPairs == 0 ? 0.0 : sum / routedPairs;
+  }
+
+  /**
+   * Returns the functions which consume data produced by the given function.
+   * 
+   * @param function the given function
+   * @param graph the enactment graph
+   * @return the functions which consume data produced by the given function
+   */
+  static Set<Task> getFunctionSuccessors(final Task function,
+      final ReadableGraph<Task, Dependency> graph) {
+    final Set<Task> result = new HashSet<>();
+    graph.forEachOutEdge(function, outEdge -> graph.forEachOutEdge(graph.getDest(outEdge),
+        dataOutEdge -> result.add(graph.getDest(dataOutEdge))));
+    return result;
+  }
+
+  /**
+   * Returns the functions which produce data consumed by the given function.
+   * 
+   * @param function the given function
+   * @param graph the enactment graph
+   * @return the functions which produce data consumed by the given function
+   */
+  static Set<Task> getFunctionPredecessors(final Task function,
+      final ReadableGraph<Task, Dependency> graph) {
+    final Set<Task> result = new HashSet<>();
+    graph.forEachInEdge(function, inEdge -> graph.forEachInEdge(graph.getSource(inEdge),
+        dataInEdge -> result.add(graph.getSource(dataInEdge))));
+    return result;
+  }
+
+  /**
+   * No constructor.
+   */
+  private UtilsSchedulingPriority() {}
+}
@@ -1,7 +1,12 @@
 package at.uibk.dps.ee.model.graph;
 
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import edu.uci.ics.jung.graph.util.EdgeType;
@@ -22,6 +27,124 @@ class AbstractConcurrentGraphTest {
     tested = new MockGraph();
   }
 
+  @Test
+  void testAdjacencyViewsAreLive() {
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Link link1 = new Link("link1");
+    Link link2 = new Link("link2");
+    tested.addEdge(link1, t1, t2, EdgeType.DIRECTED);
+    Collection<Link> inView = tested.getInEdges(t2);
+    Collection<Link> outView = tested.getOutEdges(t1);
+    assertEquals(1, inView.size());
+    assertEquals(1, outView.size());
+    tested.addEdge(link2, t3, t2, EdgeType.DIRECTED);
+    assertEquals(2, inView.size());
+    assertTrue(inView.contains(link2));
+    tested.removeEdge(link1);
+    assertEquals(1, inView.size());
+    assertTrue(outView.isEmpty());
+    assertThrows(UnsupportedOperationException.class, () -> {
+      inView.remove(link2);
+    });
+  }
+
+  @Test
+  void testDegreesAndVisitors() {
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Task isolated = new Task("isolated");
+    Link link1 = new Link("link1");
+    Link link2 = new Link("link2");
+    tested.addEdge(link1, t1, t2, EdgeType.DIRECTED);
+    tested.addEdge(link2, t1, t3, EdgeType.DIRECTED);
+    tested.addVertex(isolated);
+    assertEquals(2, tested.outDegree(t1));
+    assertEquals(0, tested.inDegree(t1));
+    assertEquals(1, tested.inDegree(t2));
+    assertEquals(0, tested.inDegree(isolated));
+    assertTrue(tested.getInEdges(isolated).isEmpty());
+    Set<Link> visited = new HashSet<>();
+    tested.forEachOutEdge(t1, visited::add);
+    assertEquals(2, visited.size());
+    assertTrue(visited.contains(link1));
+    assertTrue(visited.contains(link2));
+    visited.clear();
+    tested.forEachInEdge(t3, visited::add);
+    assertEquals(1, visited.size());
+    assertTrue(visited.contains(link2));
+  }
+
+  @Test
+  void testSourceAndSinkVertices() {
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Link link1 = new Link("link1");
+    Link link2 = new Link("link2");
+    tested.addVertex(t3);
+    Collection<Task> sourceView = tested.getSourceVertices();
+    Collection<Task> sinkView = tested.getSinkVertices();
+    assertEquals(Set.of(t3), new HashSet<>(sourceView));
+    tested.addEdge(link1, t1, t2, EdgeType.DIRECTED);
+    assertEquals(Set.of(t1, t3), new HashSet<>(sourceView));
+    assertEquals(Set.of(t2, t3), new HashSet<>(sinkView));
+    tested.addEdge(link2, t2, t3, EdgeType.UNDIRECTED);
+    assertEquals(Set.of(t1), new HashSet<>(sourceView));
+    assertEquals(Set.of(), new HashSet<>(sinkView));
+    tested.removeEdge(link2);
+    assertEquals(Set.of(t1, t3), new HashSet<>(sourceView));
+    assertEquals(Set.of(t2, t3), new HashSet<>(sinkView));
+    tested.removeVertex(t1);
+    assertEquals(Set.of(t2, t3), new HashSet<>(sourceView));
+    assertEquals(Set.of(t2, t3), new HashSet<>(sinkView));
+  }
+
+  @Test
+  void testFindEdge() {
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Link link = new Link("link");
+    tested.addEdge(link, t1, t2, EdgeType.DIRECTED);
+    tested.addVertex(t3);
+    assertTrue(tested.areNodesConnected(t1, t2));
+    assertTrue(tested.areNodesConnected(t2, t1));
+    assertFalse(tested.areNodesConnected(t1, t3));
+    assertEquals(link, tested.findEdge(t1, t2));
+    assertEquals(link, tested.findEdge(t2, t1));
+    assertThrows(IllegalArgumentException.class, () -> {
+      tested.findEdge(t1, t3);
+    });
+  }
+
+  @Test
+  void testFindEdges() {
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Link link1 = new Link("link1");
+    Link link2 = new Link("link2");
+    Link link3 = new Link("link3");
+    tested.addEdge(link1, t1, t2, EdgeType.DIRECTED);
+    tested.addEdge(link2, t1, t2, EdgeType.DIRECTED);
+    tested.addEdge(link3, t2, t1, EdgeType.UNDIRECTED);
+    assertEquals(Set.of(link1, link2, link3), new HashSet<>(tested.findEdges(t1, t2)));
+    assertEquals(Set.of(link3), new HashSet<>(tested.findEdges(t2, t1)));
+    assertTrue(tested.isSuccessor(t1, t2));
+    assertTrue(tested.isPredecessor(t1, t2));
+    tested.removeEdge(link3);
+    assertEquals(Set.of(link1, link2), tested.findEdgeSet(t1, t2));
+    assertTrue(tested.findEdges(t2, t1).isEmpty());
+    assertFalse(tested.isPredecessor(t1, t2));
+    tested.removeVertex(t2);
+    tested.addVertex(t2);
+    assertTrue(tested.findEdges(t1, t2).isEmpty());
+    assertFalse(tested.areNodesConnected(t1, t2));
+    assertTrue(tested.endpointIndex.isEmpty());
+  }
+
   @Test
   void testRemoveEdgeWithVertex() {
 
@@ -112,4 +235,202 @@ class AbstractConcurrentGraphTest {
       tested.getOpposite(new Task("t"), new Link("l"));
     });
   }
+
+  @Test
+  void testNeighborQueries() {
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Link link1 = new Link("link1");
+    Link link2 = new Link("link2");
+    Link link3 = new Link("link3");
+    tested.addEdge(link1, t1, t2, EdgeType.DIRECTED);
+    tested.addEdge(link2, t2, t1, EdgeType.DIRECTED);
+    tested.addEdge(link3, t3, t2, EdgeType.UNDIRECTED);
+    assertEquals(2, tested.getIncidentCount(link1));
+    assertEquals(0, tested.getIncidentCount(new Link("other")));
+    assertEquals(2, tested.getNeighborCount(t2));
+    assertEquals(1, tested.getNeighborCount(t1));
+    assertTrue(tested.isNeighbor(t1, t2));
+    assertTrue(tested.isNeighbor(t2, t3));
+    assertFalse(tested.isNeighbor(t1, t3));
+    assertThrows(IllegalArgumentException.class, () -> {
+      tested.isNeighbor(t1, new Task("t4"));
+    });
+  }
+
+  @Test
+  void testSnapshot() {
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Link link1 = new Link("link1");
+    tested.addEdge(link1, t1, t2, EdgeType.DIRECTED);
+    FrozenGraph<Task, Link> snapshot = tested.snapshot();
+    assertSame(snapshot, tested.snapshot());
+    assertEquals(tested.getVersion(), snapshot.getVersion());
+    tested.removeEdge(link1);
+    FrozenGraph<Task, Link> updated = tested.snapshot();
+    assertNotSame(snapshot, updated);
+    assertEquals(1, snapshot.getEdgeCount());
+    assertEquals(0, updated.getEdgeCount());
+    assertEquals(2, updated.getVertexCount());
+  }
+
+  @Test
+  void testSnapshotDuringChanges() throws InterruptedException {
+    int edgeNum = 200;
+    Thread writer = new Thread(() -> {
+      for (int idx = 0; idx < edgeNum; idx++) {
+        Task src = new Task("src" + idx);
+        Task dst = new Task("dst" + idx);
+        tested.addEdge(new Link("link" + idx), src, dst, EdgeType.DIRECTED);
+      }
+    });
+    writer.start();
+    while (writer.isAlive()) {
+      FrozenGraph<Task, Link> snapshot = tested.snapshot();
+      for (Link link : snapshot.getEdges()) {
+        assertTrue(snapshot.containsVertex(snapshot.getSource(link).getId()));
+        assertEquals(1, snapshot.outDegree(snapshot.getSource(link)));
+        assertEquals(1, snapshot.inDegree(snapshot.getDest(link)));
+      }
+    }
+    writer.join();
+    assertEquals(edgeNum, tested.snapshot().getEdgeCount());
+  }
+
+  @Test
+  void testDerivationDoesNotBlockWriters() throws InterruptedException {
+    tested.addEdge(new Link("link1"), new Task("t1"), new Task("t2"), EdgeType.DIRECTED);
+    AtomicInteger derivationNum = new AtomicInteger();
+    Integer edgeCount = tested.getDerivedValue("edges", () -> {
+      if (derivationNum.incrementAndGet() == 1) {
+        // a writer running during the derivation is not blocked by it
+        Thread writer = new Thread(() -> tested.addEdge(new Link("link2"), new Task("t3"),
+            new Task("t4"), EdgeType.DIRECTED));
+        writer.start();
+        try {
+          writer.join();
+        } catch (InterruptedException exc) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return tested.snapshot().getEdgeCount();
+    });
+    // the derivation interrupted by the change is repeated
+    assertEquals(2, derivationNum.get());
+    assertEquals(2, edgeCount);
+    assertEquals(2, (int) tested.getDerivedValue("edges", () -> -1));
+  }
+
+  @Test
+  void testChangeListener() {
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Link link1 = new Link("link1");
+    Link link2 = new Link("link2");
+    List<List<GraphChange<Task, Link>>> batches = new ArrayList<>();
+    GraphChangeListener<Task, Link> listener = batches::add;
+    tested.addGraphChangeListener(listener);
+    tested.addEdge(link1, t1, t2, EdgeType.DIRECTED);
+    // one batch for the edge and the two implicitly added vertices
+    assertEquals(1, batches.size());
+    assertEquals(3, batches.get(0).size());
+    GraphChange<Task, Link> edgeAdded = batches.get(0).get(2);
+    assertEquals(GraphChange.ChangeType.EdgeAdded, edgeAdded.getType());
+    assertEquals(link1, edgeAdded.getEdge());
+    assertEquals(t1, edgeAdded.getSource());
+    assertEquals(t2, edgeAdded.getDest());
+    tested.addVertex(t1);
+    assertEquals(1, batches.size());
+    tested.batchChanges(() -> {
+      tested.addEdge(link2, t2, t3, EdgeType.DIRECTED);
+      tested.removeVertex(t1);
+    });
+    assertEquals(2, batches.size());
+    List<GraphChange<Task, Link>> batch = batches.get(1);
+    assertEquals(4, batch.size());
+    assertEquals(GraphChange.ChangeType.EdgeRemoved, batch.get(2).getType());
+    assertEquals(GraphChange.ChangeType.VertexRemoved, batch.get(3).getType());
+    assertEquals(t1, batch.get(3).getVertex());
+    tested.removeGraphChangeListener(listener);
+    tested.removeEdge(link2);
+    assertEquals(2, batches.size());
+  }
+
+  @Test
+  void testBatchStateReleased() {
+    tested.addGraphChangeListener(changes -> {
+    });
+    tested.changeDispatcher.beginBatch();
+    ChangeDispatcher.Batch<GraphChange<Task, Link>> open = tested.changeDispatcher.batches.get();
+    tested.addVertex(new Task("t1"));
+    assertSame(open, tested.changeDispatcher.batches.get());
+    tested.changeDispatcher.endBatch();
+    // the state of the closed batch is not retained by the thread
+    assertNull(tested.changeDispatcher.batches.get());
+  }
+
+  @Test
+  void testNoBatchStateWithoutListeners() {
+    tested.changeDispatcher.beginBatch();
+    assertNull(tested.changeDispatcher.batches.get());
+    tested.addEdge(new Link("link1"), new Task("t1"), new Task("t2"), EdgeType.DIRECTED);
+    assertNull(tested.changeDispatcher.batches.get());
+    // a listener registered within an untracked batch is notified directly
+    List<List<GraphChange<Task, Link>>> batches = new ArrayList<>();
+    tested.addGraphChangeListener(batches::add);
+    tested.addVertex(new Task("t3"));
+    assertEquals(1, batches.size());
+    tested.changeDispatcher.endBatch();
+    assertEquals(1, batches.size());
+    assertNull(tested.changeDispatcher.batches.get());
+  }
+
+  @Test
+  void testMutate() {
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Link link1 = new Link("link1");
+    Link link2 = new Link("link2");
+    tested.addEdge(link1, t1, t2, EdgeType.DIRECTED);
+    List<List<GraphChange<Task, Link>>> batches = new ArrayList<>();
+    tested.addGraphChangeListener(batches::add);
+    tested.mutate(tx -> tx.removeVertex(t1).addEdge(link2, t2, t3, EdgeType.DIRECTED));
+    assertFalse(tested.containsVertex(t1));
+    assertFalse(tested.containsEdge(link1));
+    assertEquals(t3, tested.getDest(link2));
+    assertEquals(1, batches.size());
+    assertEquals(4, batches.get(0).size());
+  }
+
+  @Test
+  void testConcurrentMutations() throws InterruptedException {
+    int threadNum = 4;
+    int scopeSize = 100;
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < threadNum; t++) {
+      String scope = "scope" + t;
+      threads.add(new Thread(() -> {
+        for (int idx = 0; idx < scopeSize; idx++) {
+          Task src = new Task(scope + "src" + idx);
+          Task dst = new Task(scope + "dst" + idx);
+          Link link = new Link(scope + "link" + idx);
+          tested.mutate(tx -> tx.addEdge(link, src, dst, EdgeType.DIRECTED));
+          if (idx % 2 == 0) {
+            tested.mutate(tx -> tx.removeVertex(src));
+          }
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(threadNum * scopeSize / 2, tested.getEdgeCount());
+    assertEquals(threadNum * scopeSize * 3 / 2, tested.getVertexCount());
+    tested.getEdges().forEach(link -> assertEquals(1, tested.inDegree(tested.getDest(link))));
+  }
 }
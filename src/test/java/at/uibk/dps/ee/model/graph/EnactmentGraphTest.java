@@ -3,9 +3,28 @@ package at.uibk.dps.ee.model.graph;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.Test;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.NodeType;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow.DataFlowType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import at.uibk.dps.ee.model.properties.PropertySlots;
+import at.uibk.dps.ee.model.utils.UtilsEnactmentGraph;
 import edu.uci.ics.jung.graph.util.EdgeType;
 import net.sf.opendse.model.Application;
 import net.sf.opendse.model.Communication;
@@ -160,4 +179,446 @@ public class EnactmentGraphTest {
       tested.getVertex("t3");
     });
   }
+
+  @Test
+  void testConcurrentStoreOnly() {
+    EnactmentGraph tested = new EnactmentGraph(true);
+    assertTrue(tested.isConcurrentStoreOnly());
+    assertFalse(new EnactmentGraph().isConcurrentStoreOnly());
+    Task t1 = new Task("t1");
+    Task t2 = new Communication("t2");
+    Task t3 = new Task("t3");
+    Dependency dep1 = new Dependency("dep1");
+    Dependency dep2 = new Dependency("dep2");
+    assertTrue(tested.addVertex(t1));
+    assertFalse(tested.addVertex(t1));
+    assertTrue(tested.addEdge(dep1, t1, t2, EdgeType.DIRECTED));
+    assertTrue(tested.addEdge(dep2, t2, t3, EdgeType.DIRECTED));
+    assertEquals(3, tested.getVertexCount());
+    assertEquals(2, tested.getEdgeCount());
+    assertEquals(2, tested.getEdgeCount(EdgeType.DIRECTED));
+    assertEquals(0, tested.getEdgeCount(EdgeType.UNDIRECTED));
+    assertTrue(tested.isSource(t1, dep1));
+    assertTrue(tested.isDest(t2, dep1));
+    assertFalse(tested.isSource(t2, dep1));
+    assertTrue(tested.isPredecessor(t2, t1));
+    assertTrue(tested.isSuccessor(t2, t3));
+    assertEquals(1, tested.findEdgeSet(t1, t2).size());
+    assertTrue(tested.findEdgeSet(t2, t1).isEmpty());
+    int count = 0;
+    for (Task task : tested) {
+      assertTrue(tested.containsVertex(task));
+      count++;
+    }
+    assertEquals(3, count);
+    assertTrue(tested.removeEdge(dep2));
+    assertTrue(tested.removeVertex(t1));
+    assertFalse(tested.removeVertex(t1));
+    assertEquals(2, tested.getVertexCount());
+    assertEquals(0, tested.getEdgeCount());
+    assertEquals(0, tested.getNeighborCount(t2));
+    assertFalse(tested.isNeighbor(t2, t3));
+  }
+
+  @Test
+  public void testTopologicalOrder() {
+    EnactmentGraph tested = new EnactmentGraph();
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Task t4 = new Task("t4");
+    tested.addEdge(new Dependency("d12"), t1, t2, EdgeType.DIRECTED);
+    tested.addVertex(t3);
+    tested.addVertex(t4);
+    Collection<Task> orderView = tested.getTopologicalOrder();
+    assertSame(orderView, tested.getTopologicalOrder());
+    List<Task> order = new ArrayList<>(orderView);
+    assertEquals(4, order.size());
+    assertTrue(order.indexOf(t1) < order.indexOf(t2));
+    // edges against the current order trigger a local reordering
+    tested.addEdge(new Dependency("d42"), t4, t2, EdgeType.DIRECTED);
+    tested.addEdge(new Dependency("d31"), t3, t1, EdgeType.DIRECTED);
+    assertTrue(tested.getTopologicalPosition(t3) < tested.getTopologicalPosition(t1));
+    assertTrue(tested.getTopologicalPosition(t1) < tested.getTopologicalPosition(t2));
+    assertTrue(tested.getTopologicalPosition(t4) < tested.getTopologicalPosition(t2));
+    List<Task> updated = new ArrayList<>(tested.getTopologicalOrder());
+    assertTrue(updated.indexOf(t3) < updated.indexOf(t1));
+    assertEquals(4, orderView.size());
+    // edges closing a cycle are rejected
+    Dependency cycle = new Dependency("d23");
+    assertThrows(IllegalArgumentException.class, () -> {
+      tested.addEdge(cycle, t2, t3, EdgeType.DIRECTED);
+    });
+    assertFalse(tested.containsEdge(cycle));
+    assertThrows(IllegalArgumentException.class, () -> {
+      tested.addEdge(cycle, t2, t2, EdgeType.DIRECTED);
+    });
+    assertEquals(4, orderView.size());
+    tested.removeVertex(t1);
+    assertEquals(3, tested.getTopologicalOrder().size());
+    assertThrows(IllegalArgumentException.class, () -> {
+      tested.getTopologicalPosition(t1);
+    });
+    Task t5 = new Task("t5");
+    tested.addEdge(new Dependency("d25"), t2, t5, EdgeType.DIRECTED);
+    assertEquals(t5, new ArrayList<>(tested.getTopologicalOrder()).get(3));
+    // a new source is placed in front of its destination
+    Task t6 = new Task("t6");
+    tested.addEdge(new Dependency("d63"), t6, t3, EdgeType.DIRECTED);
+    assertTrue(tested.getTopologicalPosition(t6) < tested.getTopologicalPosition(t3));
+    assertEquals(t6, orderView.iterator().next());
+  }
+
+  @Test
+  public void testTopologicalOrderConcurrentInsertion() throws InterruptedException {
+    insertConcurrently(new EnactmentGraph(true));
+    // the writes to the JUNG mirror are serialized
+    insertConcurrently(new EnactmentGraph(false));
+  }
+
+  /**
+   * Inserts chains of nodes into the given graph from multiple threads, with the
+   * topological order being maintained.
+   * 
+   * @param tested the given graph
+   * @throws InterruptedException if interrupted while waiting for the threads
+   */
+  protected void insertConcurrently(EnactmentGraph tested) throws InterruptedException {
+    int threadNum = 4;
+    int chainLength = 200;
+    Task[][] chains = new Task[threadNum][chainLength];
+    for (int thread = 0; thread < threadNum; thread++) {
+      for (int idx = 0; idx < chainLength; idx++) {
+        chains[thread][idx] = new Task("t" + thread + "_" + idx);
+        tested.addVertex(chains[thread][idx]);
+      }
+    }
+    tested.getTopologicalOrder();
+    List<Thread> threads = new ArrayList<>();
+    for (int thread = 0; thread < threadNum; thread++) {
+      Task[] chain = chains[thread];
+      // every other chain is inserted against the current order
+      boolean reverse = thread % 2 == 1;
+      threads.add(new Thread(() -> {
+        for (int idx = 0; idx < chainLength - 1; idx++) {
+          Task src = reverse ? chain[idx + 1] : chain[idx];
+          Task dst = reverse ? chain[idx] : chain[idx + 1];
+          tested.addEdge(new Dependency(src.getId() + "--" + dst.getId()), src, dst,
+              EdgeType.DIRECTED);
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(threadNum * (chainLength - 1), tested.getEdgeCount());
+    assertEquals(threadNum * chainLength, tested.getTopologicalOrder().size());
+    for (Dependency edge : tested.getEdges()) {
+      assertTrue(tested.getTopologicalPosition(tested.getSource(edge)) < tested
+          .getTopologicalPosition(tested.getDest(edge)));
+    }
+  }
+
+  @Test
+  public void testClassification() {
+    EnactmentGraph tested = new EnactmentGraph();
+    Task input = new Communication("input");
+    PropertyServiceData.makeRoot(input);
+    Task constant =
+        PropertyServiceData.createConstantNode("constant", DataType.Number, new JsonPrimitive(42));
+    Task user = PropertyServiceFunctionUser.createUserTask("user", "addition");
+    Task output = new Communication("output");
+    PropertyServiceData.makeLeaf(output);
+    tested.addEdge(new Dependency("d1"), input, user, EdgeType.DIRECTED);
+    tested.addEdge(new Dependency("d2"), constant, user, EdgeType.DIRECTED);
+    tested.addEdge(new Dependency("d3"), user, output, EdgeType.DIRECTED);
+    assertEquals(Set.of(user), tested.getNodes(UsageType.User));
+    assertEquals(Set.of(constant), tested.getNodes(NodeType.Constant));
+    assertEquals(Set.of(constant), tested.getConstantNodes());
+    assertEquals(Set.of(input, output), tested.getNodes(NodeType.Default));
+    assertEquals(Set.of(input), tested.getRootDataNodes());
+    assertEquals(Set.of(output), tested.getLeafDataNodes());
+    assertTrue(tested.getNodes(UsageType.DataFlow).isEmpty());
+    // the index follows the structural changes
+    Task multiplexer =
+        PropertyServiceFunctionDataFlow.createDataFlowFunction("mux", DataFlowType.Multiplexer);
+    Task whileStart = PropertyServiceData.createWhileStart("whileStart");
+    tested.addEdge(new Dependency("d4"), whileStart, multiplexer, EdgeType.DIRECTED);
+    assertEquals(Set.of(multiplexer), tested.getNodes(UsageType.DataFlow));
+    assertEquals(Set.of(multiplexer), tested.getNodes(DataFlowType.Multiplexer));
+    assertEquals(Set.of(whileStart), tested.getWhileStartNodes());
+    // while starts are not constant, even though they have the constant type
+    assertEquals(Set.of(constant, whileStart), tested.getNodes(NodeType.Constant));
+    assertEquals(Set.of(constant), tested.getConstantNodes());
+    tested.removeVertex(user);
+    assertTrue(tested.getNodes(UsageType.User).isEmpty());
+    // property changes made by the graph setters are picked up directly
+    Set<Task> sequentialityNodes = tested.getNodes(NodeType.Sequentiality);
+    PropertyServiceData.setNodeType(output, NodeType.Sequentiality, tested);
+    assertEquals(Set.of(input), tested.getNodes(NodeType.Default));
+    assertEquals(Set.of(output), sequentialityNodes);
+    // direct attribute changes are picked up on reclassification (once the
+    // record of the slots is dropped)
+    output.setAttribute(PropertyServiceData.Property.NodeType.name(), NodeType.Decision.name());
+    PropertySlots.invalidate(output);
+    assertTrue(tested.getNodes(NodeType.Decision).isEmpty());
+    tested.reclassify(output);
+    assertTrue(sequentialityNodes.isEmpty());
+    assertEquals(Set.of(output), tested.getNodes(NodeType.Decision));
+    assertThrows(UnsupportedOperationException.class, () -> {
+      sequentialityNodes.add(output);
+    });
+  }
+
+  @Test
+  public void testClassificationFollowsSetters() {
+    EnactmentGraph tested = new EnactmentGraph();
+    Task input = new Communication("input");
+    Task counter = new Communication("counter");
+    Task function = new Task("function");
+    tested.addEdge(new Dependency("d1"), input, function, EdgeType.DIRECTED);
+    tested.addEdge(new Dependency("d2"), counter, function, EdgeType.DIRECTED);
+    assertTrue(tested.getRootDataNodes().isEmpty());
+    assertTrue(tested.getConstantNodes().isEmpty());
+    assertTrue(tested.getNodes(UsageType.User).isEmpty());
+    // nodes which become members after their insertion are found
+    PropertyServiceData.makeRoot(input, tested);
+    PropertyServiceData.setNodeType(counter, NodeType.Constant, tested);
+    PropertyServiceFunction.setUsageType(UsageType.User, function, tested);
+    assertEquals(Set.of(input), tested.getRootDataNodes());
+    assertEquals(Set.of(counter), tested.getConstantNodes());
+    assertEquals(Set.of(function), tested.getNodes(UsageType.User));
+    assertEquals(Set.of(counter), UtilsEnactmentGraph.getConstantDataNodes(tested));
+    assertEquals(Set.of(input), UtilsEnactmentGraph.getNonConstRootNodes(tested));
+    // a node with the same ID in another graph does not affect the index
+    Task otherInput = new Communication("input");
+    PropertyServiceData.makeLeaf(otherInput, tested);
+    assertTrue(tested.getLeafDataNodes().isEmpty());
+    // the index of another graph is not affected by the changes
+    EnactmentGraph other = new EnactmentGraph();
+    Task otherFunction = new Task("function");
+    other.addVertex(otherFunction);
+    assertTrue(other.getNodes(UsageType.User).isEmpty());
+    PropertyServiceFunction.setUsageType(UsageType.User, otherFunction, tested);
+    assertTrue(other.getNodes(UsageType.User).isEmpty());
+    assertEquals(Set.of(function), tested.getNodes(UsageType.User));
+    PropertyServiceFunction.setUsageType(UsageType.DataFlow, otherFunction, other);
+    assertEquals(Set.of(otherFunction), other.getNodes(UsageType.DataFlow));
+    assertTrue(other.getNodes(DataFlowType.Multiplexer).isEmpty());
+    PropertyServiceFunctionDataFlow.setDataFlowType(otherFunction, DataFlowType.Multiplexer,
+        other);
+    assertEquals(Set.of(otherFunction), other.getNodes(DataFlowType.Multiplexer));
+  }
+
+  @Test
+  public void testSnapshotsObserveAtomicTransactions() throws InterruptedException {
+    EnactmentGraph tested = new EnactmentGraph();
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Dependency d12 = new Dependency("d12");
+    Dependency d23 = new Dependency("d23");
+    tested.addVertex(t1);
+    tested.addVertex(t2);
+    tested.addVertex(t3);
+    // the order tracking rejects the cycle, which fails the transaction
+    tested.getTopologicalOrder();
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicBoolean partialStateSeen = new AtomicBoolean();
+    Thread reader = new Thread(() -> {
+      while (running.get()) {
+        FrozenGraph<Task, Dependency> snapshot = tested.snapshot();
+        int edgeCount = snapshot.getEdgeCount();
+        if (snapshot.getVertexCount() != 3 || (edgeCount != 0 && edgeCount != 2)) {
+          partialStateSeen.set(true);
+        }
+      }
+    });
+    reader.start();
+    for (int idx = 0; idx < 500; idx++) {
+      tested.mutate(tx -> tx.addEdge(d12, t1, t2, EdgeType.DIRECTED).addEdge(d23, t2, t3,
+          EdgeType.DIRECTED));
+      try {
+        tested.mutate(tx -> tx.addEdge(new Dependency("d34"), t3, new Task("t4"),
+            EdgeType.DIRECTED).addEdge(new Dependency("d31"), t3, t1, EdgeType.DIRECTED));
+      } catch (IllegalArgumentException exc) {
+        // rolled back
+      }
+      tested.mutate(tx -> tx.removeEdge(d12).removeEdge(d23));
+    }
+    running.set(false);
+    reader.join();
+    assertFalse(partialStateSeen.get());
+    assertEquals(3, tested.getVertexCount());
+    assertEquals(0, tested.getEdgeCount());
+  }
+
+  @Test
+  public void testMutateRevertedOnFailure() {
+    EnactmentGraph tested = new EnactmentGraph();
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Task t4 = new Task("t4");
+    Dependency d12 = new Dependency("d12");
+    tested.addEdge(d12, t1, t2, EdgeType.DIRECTED);
+    tested.addEdge(new Dependency("d23"), t2, t3, EdgeType.DIRECTED);
+    assertEquals(3, tested.getTopologicalOrder().size());
+    Dependency d34 = new Dependency("d34");
+    assertThrows(IllegalArgumentException.class, () -> {
+      tested.mutate(tx -> tx.removeVertex(t1).addEdge(d34, t3, t4, EdgeType.DIRECTED)
+          .addEdge(new Dependency("d32"), t3, t2, EdgeType.DIRECTED));
+    });
+    assertTrue(tested.containsVertex(t1));
+    assertEquals(t1, tested.getSource(d12));
+    assertFalse(tested.containsEdge(d34));
+    assertFalse(tested.containsVertex(t4));
+    assertEquals(3, tested.getVertexCount());
+    assertEquals(2, tested.getEdgeCount());
+    assertTrue(tested.getTopologicalPosition(t1) < tested.getTopologicalPosition(t2));
+  }
+
+  @Test
+  public void testReadinessTracking() {
+    EnactmentGraph tested = new EnactmentGraph();
+    Task input1 = new Communication("input1");
+    Task input2 = new Communication("input2");
+    Task function = new Task("function");
+    Task output = new Communication("output");
+    Dependency in1 = PropertyServiceDependency.addDataDependency(input1, function, "k1", tested);
+    Dependency in2 = PropertyServiceDependency.addDataDependency(input2, function, "k2", tested);
+    PropertyServiceDependency.addDataDependency(function, output, "out", tested);
+    PropertyServiceDependency.annotateFinishedTransmission(in1, tested);
+    ReadinessTracker tracker = tested.getReadinessTracker();
+    assertEquals(1, tracker.getPendingInputs(function));
+    assertFalse(tracker.isReady(function));
+    assertNull(tracker.pollReadyTask());
+    assertThrows(IllegalArgumentException.class, () -> {
+      tracker.getPendingInputs(output);
+    });
+    PropertyServiceDependency.annotateFinishedTransmission(in2, tested);
+    assertTrue(tracker.isReady(function));
+    // repeated annotations do not change the count
+    PropertyServiceDependency.annotateFinishedTransmission(in2, tested);
+    assertEquals(0, tracker.getPendingInputs(function));
+    assertEquals(function, tracker.pollReadyTask());
+    assertNull(tracker.pollReadyTask());
+    // stale queue entries are skipped
+    PropertyServiceDependency.resetTransmission(in1, tested);
+    PropertyServiceDependency.annotateFinishedTransmission(in1, tested);
+    PropertyServiceDependency.resetTransmission(in2, tested);
+    assertEquals(1, tracker.getPendingInputs(function));
+    assertNull(tracker.pollReadyTask());
+    // structural changes are tracked
+    Task input3 = new Communication("input3");
+    PropertyServiceDependency.addDataDependency(input3, function, "k3", tested);
+    assertEquals(2, tracker.getPendingInputs(function));
+    tested.removeEdge(in2);
+    tested.removeVertex(input3);
+    assertTrue(tracker.isReady(function));
+    assertEquals(function, tracker.pollReadyTask());
+  }
+
+  @Test
+  public void testReadinessIgnoresCopies() {
+    EnactmentGraph tested = new EnactmentGraph();
+    EnactmentGraph other = new EnactmentGraph();
+    Task input = new Communication("input");
+    Task function = new Task("function");
+    Dependency in = PropertyServiceDependency.addDataDependency(input, function, "k", tested);
+    Dependency copy = new Dependency(in.getId());
+    other.addEdge(copy, new Communication("input"), new Task("function"), EdgeType.DIRECTED);
+    ReadinessTracker tracker = tested.getReadinessTracker();
+    PropertyServiceDependency.annotateFinishedTransmission(copy, tested);
+    assertEquals(1, tracker.getPendingInputs(function));
+    PropertyServiceDependency.annotateFinishedTransmission(in, tested);
+    assertEquals(0, tracker.getPendingInputs(function));
+  }
+
+  @Test
+  public void testReadinessRemovalOfLastInput() {
+    EnactmentGraph tested = new EnactmentGraph();
+    Task input = new Communication("input");
+    Task function = new Task("function");
+    Dependency in = PropertyServiceDependency.addDataDependency(input, function, "k", tested);
+    ReadinessTracker tracker = tested.getReadinessTracker();
+    assertEquals(1, tracker.getPendingInputs(function));
+    tested.removeEdge(in);
+    // no pending inputs left, but no inputs either
+    assertEquals(0, tracker.getPendingInputs(function));
+    assertNull(tracker.pollReadyTask());
+  }
+
+  @Test
+  public void testReachability() {
+    EnactmentGraph tested = new EnactmentGraph();
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Task t4 = new Task("t4");
+    Dependency d12 = new Dependency("d12");
+    tested.addEdge(d12, t1, t2, EdgeType.DIRECTED);
+    tested.addEdge(new Dependency("d23"), t2, t3, EdgeType.DIRECTED);
+    tested.addVertex(t4);
+    assertTrue(tested.isReachable(t1, t3));
+    assertFalse(tested.isReachable(t3, t1));
+    assertFalse(tested.isReachable(t1, t1));
+    assertEquals(Set.of(t2, t3), tested.getDescendants(t1));
+    assertEquals(Set.of(t1, t2), tested.getAncestors(t3));
+    assertTrue(tested.getDescendants(t4).isEmpty());
+    // incremental updates on additions
+    Task t5 = new Task("t5");
+    tested.addEdge(new Dependency("d45"), t4, t5, EdgeType.DIRECTED);
+    tested.addEdge(new Dependency("d51"), t5, t1, EdgeType.DIRECTED);
+    assertEquals(Set.of(t5, t1, t2, t3), tested.getDescendants(t4));
+    assertEquals(Set.of(t4, t5, t1, t2), tested.getAncestors(t3));
+    // incremental updates on removals
+    ReachabilityIndex index = tested.reachabilityIndex;
+    tested.removeEdge(d12);
+    assertSame(index, tested.reachabilityIndex);
+    assertFalse(tested.isReachable(t4, t3));
+    assertEquals(Set.of(t5, t1), tested.getDescendants(t4));
+    tested.removeVertex(t5);
+    assertTrue(tested.getDescendants(t4).isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> {
+      tested.getAncestors(t5);
+    });
+    assertSame(index, tested.reachabilityIndex);
+  }
+
+  @Test
+  public void testReachabilityEdgeRemoval() {
+    EnactmentGraph tested = new EnactmentGraph();
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Task t4 = new Task("t4");
+    Task t5 = new Task("t5");
+    // diamond t1 -> {t2, t3} -> t4, followed by t5
+    Dependency d12 = new Dependency("d12");
+    Dependency d13 = new Dependency("d13");
+    tested.addEdge(d12, t1, t2, EdgeType.DIRECTED);
+    tested.addEdge(d13, t1, t3, EdgeType.DIRECTED);
+    tested.addEdge(new Dependency("d24"), t2, t4, EdgeType.DIRECTED);
+    tested.addEdge(new Dependency("d34"), t3, t4, EdgeType.DIRECTED);
+    tested.addEdge(new Dependency("d45"), t4, t5, EdgeType.DIRECTED);
+    assertEquals(Set.of(t2, t3, t4, t5), tested.getDescendants(t1));
+    ReachabilityIndex index = tested.reachabilityIndex;
+    // the other path keeps t4 and t5 reachable
+    tested.removeEdge(d12);
+    assertSame(index, tested.reachabilityIndex);
+    assertEquals(Set.of(t3, t4, t5), tested.getDescendants(t1));
+    assertEquals(Set.of(t1, t3), tested.getAncestors(t4));
+    assertEquals(Set.of(t4, t5), tested.getDescendants(t2));
+    tested.removeEdge(d13);
+    assertTrue(tested.getDescendants(t1).isEmpty());
+    assertEquals(Set.of(t2, t3, t4), tested.getAncestors(t5));
+    // the index of a removed node is reused
+    tested.removeVertex(t1);
+    Task t6 = new Task("t6");
+    tested.addEdge(new Dependency("d56"), t5, t6, EdgeType.DIRECTED);
+    assertEquals(Set.of(t2, t3, t4, t5), tested.getAncestors(t6));
+    assertSame(index, tested.reachabilityIndex);
+  }
 }
@@ -0,0 +1,135 @@
+package at.uibk.dps.ee.model.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.Collection;
+import org.junit.jupiter.api.Test;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+class FrozenGraphTest {
+
+  @Test
+  void testStructure() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Task isolated = new Task("isolated");
+    Dependency d1 = new Dependency("d1");
+    Dependency d2 = new Dependency("d2");
+    Dependency d3 = new Dependency("d3");
+    graph.addEdge(d1, t1, t2, EdgeType.DIRECTED);
+    graph.addEdge(d2, t1, t3, EdgeType.DIRECTED);
+    graph.addEdge(d3, t2, t3, EdgeType.DIRECTED);
+    graph.addVertex(isolated);
+    FrozenGraph<Task, Dependency> tested = graph.freeze();
+    assertEquals(4, tested.getVertexCount());
+    assertEquals(3, tested.getEdgeCount());
+    assertTrue(tested.containsVertex("isolated"));
+    assertTrue(tested.containsEdge("d3"));
+    assertFalse(tested.containsEdge("d4"));
+    assertEquals(t1, tested.getSource(d2));
+    assertEquals(t3, tested.getDest(d2));
+    assertEquals(EdgeType.DIRECTED, tested.getEdgeType(d2));
+    assertEquals(2, tested.outDegree(t1));
+    assertEquals(0, tested.inDegree(t1));
+    assertEquals(2, tested.inDegree(t3));
+    assertEquals(0, tested.inDegree(isolated));
+    assertEquals(0, tested.outDegree(isolated));
+    Collection<Dependency> inEdges = tested.getInEdges(t3);
+    assertEquals(2, inEdges.size());
+    assertTrue(inEdges.contains(d2));
+    assertTrue(inEdges.contains(d3));
+    assertEquals(2, tested.getSuccessors(t1).size());
+    assertTrue(tested.getPredecessors(t3).contains(t2));
+    assertTrue(tested.areNodesConnected(t3, t2));
+    assertFalse(tested.areNodesConnected(t3, isolated));
+    assertEquals(d3, tested.findEdge(t3, t2));
+    assertThrows(IllegalArgumentException.class, () -> {
+      tested.findEdge(t1, isolated);
+    });
+    assertThrows(UnsupportedOperationException.class, () -> {
+      inEdges.remove(d2);
+    });
+  }
+
+  @Test
+  void testIndices() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Dependency d1 = new Dependency("d1");
+    graph.addEdge(d1, t1, t2, EdgeType.DIRECTED);
+    FrozenGraph<Task, Dependency> tested = graph.freeze();
+    int edgeIdx = tested.getEdgeIndex(d1);
+    int srcIdx = tested.getSourceIndex(edgeIdx);
+    int dstIdx = tested.getDestIndex(edgeIdx);
+    assertEquals(t1, tested.getVertexAt(srcIdx));
+    assertEquals(t2, tested.getVertexAt(dstIdx));
+    assertEquals(d1, tested.getEdgeAt(edgeIdx));
+    assertEquals(1, tested.outDegree(srcIdx));
+    assertEquals(edgeIdx, tested.getOutEdgeIndex(srcIdx, 0));
+    assertEquals(edgeIdx, tested.getInEdgeIndex(dstIdx, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> {
+      tested.getOutEdgeIndex(srcIdx, 1);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      tested.getVertexIndex("t3");
+    });
+  }
+
+  @Test
+  void testUnknownElementsLikeMutableGraph() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Dependency d1 = new Dependency("d1");
+    graph.addEdge(d1, t1, t2, EdgeType.DIRECTED);
+    FrozenGraph<Task, Dependency> tested = graph.freeze();
+    Task unknown = new Task("unknown");
+    Dependency unknownEdge = new Dependency("unknownEdge");
+    for (ReadableGraph<Task, Dependency> readable : Arrays.<ReadableGraph<Task, Dependency>>asList(graph, tested)) {
+      assertThrows(IllegalStateException.class, () -> readable.getVertex("unknown"));
+      assertThrows(IllegalArgumentException.class, () -> readable.getEdge("unknownEdge"));
+      assertThrows(IllegalArgumentException.class, () -> readable.getSource(unknownEdge));
+      assertNull(readable.getEdgeType(unknownEdge));
+      assertTrue(readable.getInEdges(unknown).isEmpty());
+      assertTrue(readable.getOutEdges(unknown).isEmpty());
+      assertEquals(0, readable.inDegree(unknown));
+      assertTrue(readable.getPredecessors(unknown).isEmpty());
+      assertThrows(IllegalArgumentException.class, () -> readable.areNodesConnected(t1, unknown));
+    }
+  }
+
+  @Test
+  void testUndirected() {
+    ResourceGraph graph = new ResourceGraph();
+    Resource r1 = new Resource("r1");
+    Resource r2 = new Resource("r2");
+    Link link = new Link("link");
+    graph.addEdge(link, r1, r2, EdgeType.UNDIRECTED);
+    FrozenGraph<Resource, Link> tested = graph.freeze();
+    assertEquals(EdgeType.UNDIRECTED, tested.getEdgeType(link));
+    assertEquals(1, tested.inDegree(r1));
+    assertEquals(1, tested.outDegree(r2));
+    assertEquals(link, tested.findEdge(r2, r1));
+    assertEquals(link, tested.findEdge(r1, r2));
+  }
+
+  @Test
+  void testSnapshotIsDetached() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Dependency d1 = new Dependency("d1");
+    graph.addEdge(d1, t1, t2, EdgeType.DIRECTED);
+    FrozenGraph<Task, Dependency> tested = graph.freeze();
+    graph.removeEdge(d1);
+    assertEquals(1, tested.getEdgeCount());
+    assertEquals(t2, tested.getDest(d1));
+  }
+}
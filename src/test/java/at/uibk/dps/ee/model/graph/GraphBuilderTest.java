@@ -0,0 +1,102 @@
+package at.uibk.dps.ee.model.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+class GraphBuilderTest {
+
+  @Test
+  void testEnactmentGraph() {
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Task isolated = new Task("isolated");
+    Dependency d1 = new Dependency("d1");
+    Dependency d2 = new Dependency("d2");
+    EnactmentGraph tested = GraphBuilder.enactmentGraph(4, 2)
+        .addVertices(Arrays.asList(t1, isolated))
+        .addEdge(d1, t1, t2, EdgeType.DIRECTED)
+        .addEdges(Arrays.asList(d2), dep -> t2, dep -> t3, EdgeType.DIRECTED)
+        .build();
+    assertFalse(tested.isConcurrentStoreOnly());
+    assertEquals(4, tested.getVertexCount());
+    assertEquals(2, tested.getEdgeCount());
+    assertEquals(t2, tested.getSource(d2));
+    assertEquals(t3, tested.getDest(d2));
+    assertEquals(1, tested.outDegree(t1));
+    assertEquals(1, tested.inDegree(t2));
+    assertEquals(0, tested.inDegree(isolated));
+    assertEquals(new HashSet<>(Arrays.asList(t1, isolated)),
+        new HashSet<>(tested.getSourceVertices()));
+    assertEquals(new HashSet<>(Arrays.asList(t3, isolated)),
+        new HashSet<>(tested.getSinkVertices()));
+    assertTrue(tested.isPredecessor(t3, t2));
+    // the built graph can be modified as usual
+    Dependency d3 = new Dependency("d3");
+    tested.addEdge(d3, isolated, t3, EdgeType.DIRECTED);
+    assertEquals(2, tested.inDegree(t3));
+    tested.removeVertex(t2);
+    assertEquals(1, tested.getEdgeCount());
+  }
+
+  @Test
+  void testResourceGraph() {
+    Resource r1 = new Resource("r1");
+    Resource r2 = new Resource("r2");
+    Link link = new Link("link");
+    ResourceGraph tested = GraphBuilder.resourceGraph(2, 1, true)
+        .addEdge(link, r1, r2, EdgeType.UNDIRECTED)
+        .build();
+    assertTrue(tested.isConcurrentStoreOnly());
+    assertEquals(2, tested.getVertexCount());
+    assertEquals(EdgeType.UNDIRECTED, tested.getEdgeType(link));
+    assertEquals(1, tested.inDegree(r1));
+    assertEquals(1, tested.outDegree(r1));
+    assertEquals(link, tested.findEdge(r2, r1));
+  }
+
+  @Test
+  void testBuildConcurrently() {
+    int nodeNum = 1000;
+    GraphBuilder<Task, Dependency, EnactmentGraph> builder =
+        GraphBuilder.enactmentGraph(nodeNum, nodeNum - 1, true);
+    Task[] nodes = new Task[nodeNum];
+    for (int idx = 0; idx < nodeNum; idx++) {
+      nodes[idx] = new Task("t" + idx);
+    }
+    for (int idx = 0; idx < nodeNum - 1; idx++) {
+      builder.addEdge(new Dependency("d" + idx), nodes[idx], nodes[idx + 1], EdgeType.DIRECTED);
+    }
+    // a single thread, so that the builder has to process the chunks itself
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      EnactmentGraph tested = builder.build(executor);
+      assertTrue(tested.isConcurrentStoreOnly());
+      assertEquals(nodeNum, tested.getVertexCount());
+      assertEquals(nodeNum - 1, tested.getEdgeCount());
+      assertEquals(1, tested.getSourceVertices().size());
+      assertEquals(nodes[0], tested.getSourceVertices().iterator().next());
+      assertEquals(nodes[nodeNum - 1], tested.getSinkVertices().iterator().next());
+      for (int idx = 1; idx < nodeNum; idx++) {
+        Dependency inEdge = tested.getInEdges(nodes[idx]).iterator().next();
+        assertEquals(nodes[idx - 1], tested.getSource(inEdge));
+      }
+      // mirrored graphs are filled by the calling thread
+      EnactmentGraph mirrored = GraphBuilder.enactmentGraph(2, 1)
+          .addEdge(new Dependency("d"), nodes[0], nodes[1], EdgeType.DIRECTED).build(executor);
+      assertFalse(mirrored.isConcurrentStoreOnly());
+      assertEquals(1, mirrored.getEdgeCount());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
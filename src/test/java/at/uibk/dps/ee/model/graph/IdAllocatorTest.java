@@ -0,0 +1,90 @@
+package at.uibk.dps.ee.model.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+class IdAllocatorTest {
+
+  @Test
+  void testPrefixCounters() {
+    Set<String> taken = Set.of("a'2");
+    IdAllocator tested = new IdAllocator(taken::contains);
+    assertEquals("a", tested.allocate("a"));
+    assertEquals("a'1", tested.allocate("a"));
+    // taken IDs are skipped
+    assertEquals("a'3", tested.allocate("a"));
+    assertEquals("b", tested.allocate("b"));
+    // the suffixes do not depend on the allocations with other prefixes
+    assertEquals("b'1", tested.allocate("b"));
+    assertEquals("a'4", tested.allocate("a"));
+  }
+
+  @Test
+  void testOrderIndependence() {
+    IdAllocator first = new IdAllocator(id -> false);
+    IdAllocator second = new IdAllocator(id -> false);
+    for (int idx = 0; idx < 3; idx++) {
+      first.allocate("a");
+    }
+    for (int idx = 0; idx < 3; idx++) {
+      second.allocate("b");
+      second.allocate("a");
+    }
+    assertEquals(first.allocate("a"), second.allocate("a"));
+  }
+
+  @Test
+  void testTakenPrefix() {
+    EnactmentGraph graph = new EnactmentGraph();
+    graph.addEdge(new Dependency("edge"), new Task("t1"), new Task("t2"), EdgeType.DIRECTED);
+    IdAllocator tested = graph.getEdgeIdAllocator();
+    assertEquals("edge'1", tested.allocate("edge"));
+    assertEquals("other", tested.allocate("other"));
+  }
+
+  @Test
+  void testReservation() {
+    EnactmentGraph graph = new EnactmentGraph();
+    IdAllocator tested = graph.getEdgeIdAllocator();
+    assertEquals("edge", tested.allocate("edge"));
+    // reserved until the edge is in the graph
+    assertEquals("edge'1", tested.allocate("edge"));
+    graph.addEdge(new Dependency("edge"), new Task("t1"), new Task("t2"), EdgeType.DIRECTED);
+    assertTrue(tested.reserved.isEmpty());
+    assertEquals("edge'2", tested.allocate("edge"));
+    // counters only for the prefixes allocated more than once
+    IntStream.range(0, 10000).forEach(idx -> graph.addEdge(
+        new Dependency(tested.allocate("prefix" + idx)), new Task("t1"), new Task("t2"),
+        EdgeType.DIRECTED));
+    assertTrue(tested.reserved.isEmpty());
+    assertEquals(Set.of("edge"), tested.counters.keySet());
+    tested.clear();
+    assertTrue(tested.counters.isEmpty());
+    // edge'1 was never added to the graph
+    assertEquals("edge'1", tested.allocate("edge"));
+  }
+
+  @Test
+  void testCompact() {
+    IdAllocator tested = new IdAllocator(id -> id.equals("#2"));
+    tested.setCompact(true);
+    assertTrue(tested.isCompact());
+    assertEquals("#1", tested.allocate("a--b"));
+    assertEquals("#3", tested.allocate("c--d"));
+  }
+
+  @Test
+  void testConcurrentUniqueness() {
+    IdAllocator tested = new IdAllocator(id -> false);
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+    IntStream.range(0, 10000).parallel()
+        .forEach(idx -> assertTrue(ids.add(tested.allocate("prefix" + idx % 10))));
+    assertEquals(10000, ids.size());
+  }
+}
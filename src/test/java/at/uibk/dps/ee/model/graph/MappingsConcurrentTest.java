@@ -1,6 +1,8 @@
 package at.uibk.dps.ee.model.graph;
 
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import net.sf.opendse.model.Mapping;
@@ -84,6 +86,28 @@ class MappingsConcurrentTest {
   }
 
 
+  @Test
+  void testChangeListener() {
+    List<List<MappingChange>> batches = new ArrayList<>();
+    MappingChangeListener listener = batches::add;
+    tested.addMappingChangeListener(listener);
+    tested.addMapping(AOne);
+    tested.addMapping(wrongAOne);
+    assertEquals(1, batches.size());
+    assertTrue(batches.get(0).get(0).isAdded());
+    assertEquals(AOne, batches.get(0).get(0).getMapping());
+    tested.batchChanges(() -> {
+      tested.addMapping(BOne);
+      tested.removeMapping(AOne);
+    });
+    assertEquals(2, batches.size());
+    assertEquals(2, batches.get(1).size());
+    assertFalse(batches.get(1).get(1).isAdded());
+    tested.removeMappingChangeListener(listener);
+    tested.removeMapping(BOne);
+    assertEquals(2, batches.size());
+  }
+
   @BeforeEach
   void setup() {
     resOne = new Resource("resOne");
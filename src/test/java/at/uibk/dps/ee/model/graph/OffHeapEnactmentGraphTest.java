@@ -0,0 +1,109 @@
+package at.uibk.dps.ee.model.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Collection;
+import org.junit.jupiter.api.Test;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceReproduction;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+class OffHeapEnactmentGraphTest {
+
+  @Test
+  void testStructureAndProperties() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task constant =
+        PropertyServiceData.createConstantNode("const", DataType.Number, new JsonPrimitive(3));
+    Task input = new Communication("input");
+    PropertyServiceData.makeRoot(input);
+    PropertyServiceData.setJsonKey(input, "inKey");
+    Task function = new Task("function");
+    PropertyServiceFunction.annotateNonNegligibleWorkload(function);
+    JsonObject functionInput = new JsonObject();
+    functionInput.addProperty("key", 42);
+    PropertyServiceFunction.setInput(function, functionInput);
+    Task output = new Communication("output");
+    Dependency inEdge = PropertyServiceDependency.addDataDependency(input, function, "a", graph);
+    PropertyServiceDependency.addDataDependency(constant, function, "b", graph);
+    Dependency outEdge =
+        PropertyServiceDependency.addDataDependency(function, output, "out", graph);
+    PropertyServiceDependency.annotateFinishedTransmission(inEdge);
+    Task offspring = PropertyServiceReproduction.createOffspringTask(function, "scope", "f+");
+    graph.addVertex(offspring);
+
+    OffHeapEnactmentGraph tested = new OffHeapEnactmentGraph(graph);
+    assertEquals(5, tested.getVertexCount());
+    assertEquals(3, tested.getEdgeCount());
+    assertTrue(tested.getOffHeapBytes() > 0);
+    assertTrue(tested.containsVertex("const"));
+    assertFalse(tested.containsVertex("a"));
+    assertTrue(tested.containsEdge(outEdge.getId()));
+
+    Task inputHandle = tested.getVertex("input");
+    assertEquals(input, inputHandle);
+    assertNotSame(input, inputHandle);
+    assertTrue(PropertyServiceData.isRoot(inputHandle));
+    assertEquals("inKey", PropertyServiceData.getJsonKey(inputHandle));
+    Task constHandle = tested.getVertex("const");
+    assertTrue(PropertyServiceData.isConstantNode(constHandle));
+    assertEquals(new JsonPrimitive(3), PropertyServiceData.getContent(constHandle));
+    Task functionHandle = tested.getVertex("function");
+    assertFalse(PropertyServiceFunction.hasNegligibleWorkload(functionHandle));
+    assertEquals(functionInput, PropertyServiceFunction.getInput(functionHandle));
+    Task offspringHandle = tested.getVertex("f+");
+    assertEquals(function, offspringHandle.getParent());
+    assertTrue(PropertyServiceReproduction.isReproduced(offspringHandle));
+
+    Dependency inHandle = tested.getEdge(inEdge.getId());
+    assertTrue(PropertyServiceDependency.isTransmissionDone(inHandle));
+    assertEquals("a", PropertyServiceDependency.getJsonKey(inHandle));
+    assertEquals(input, tested.getSource(inHandle));
+    assertEquals(function, tested.getDest(inHandle));
+    Collection<Dependency> inEdges = tested.getInEdges(function);
+    assertEquals(2, inEdges.size());
+    assertTrue(inEdges.contains(inEdge));
+    assertEquals(2, tested.inDegree(function));
+    assertEquals(1, tested.outDegree(function));
+    assertTrue(tested.getSuccessors(function).contains(output));
+    assertTrue(tested.areNodesConnected(output, function));
+    assertEquals(outEdge, tested.findEdge(output, function));
+    assertThrows(IllegalStateException.class, () -> tested.getVertex("missing"));
+    assertThrows(IllegalArgumentException.class, () -> tested.getEdge("missing"));
+    assertTrue(tested.getInEdges(new Task("missing")).isEmpty());
+    assertEquals(0, tested.outDegree(new Task("missing")));
+
+    // the handles do not silently drop changes
+    assertThrows(UnsupportedOperationException.class,
+        () -> PropertyServiceData.makeLeaf(inputHandle));
+    assertThrows(UnsupportedOperationException.class,
+        () -> PropertyServiceDependency.resetTransmission(inHandle));
+    assertThrows(UnsupportedOperationException.class,
+        () -> offspringHandle.getParent().setAttribute("attr", true));
+
+    EnactmentGraph restored = tested.toEnactmentGraph();
+    // the restored elements are modifiable copies
+    Task restoredInput = restored.getVertex("input");
+    PropertyServiceData.makeLeaf(restoredInput);
+    assertTrue(PropertyServiceData.isLeaf(restoredInput));
+    assertEquals(5, restored.getVertexCount());
+    assertEquals(3, restored.getEdgeCount());
+    assertEquals(function, restored.getDest(restored.getEdge(inEdge.getId())));
+    assertEquals("out", PropertyServiceDependency.getJsonKey(restored.getEdge(outEdge.getId())));
+  }
+
+  @Test
+  void testBufferSizeOverflow() {
+    assertThrows(IllegalArgumentException.class,
+        () -> OffHeapEnactmentGraph.allocate(Integer.MAX_VALUE, Integer.BYTES));
+    assertThrows(IllegalArgumentException.class,
+        () -> OffHeapEnactmentGraph.allocate(3L * Integer.MAX_VALUE, Integer.BYTES));
+    assertEquals(8, OffHeapEnactmentGraph.allocate(2, Integer.BYTES).capacity());
+  }
+}
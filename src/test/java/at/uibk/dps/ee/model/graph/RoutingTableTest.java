@@ -0,0 +1,124 @@
+package at.uibk.dps.ee.model.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import at.uibk.dps.ee.model.properties.PropertyServiceLink;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Resource;
+
+class RoutingTableTest {
+
+  @Test
+  void testRoutes() {
+    ResourceGraph graph = new ResourceGraph();
+    Resource r0 = new Resource("r0");
+    Resource r1 = new Resource("r1");
+    Resource r2 = new Resource("r2");
+    Resource r3 = new Resource("r3");
+    Resource isolated = new Resource("isolated");
+    graph.addVertex(isolated);
+    Link l01 = addLink(graph, r0, r1, 1);
+    Link l12 = addLink(graph, r1, r2, 1);
+    Link l02 = addLink(graph, r0, r2, 5);
+    addLink(graph, r2, r3, 1);
+
+    RoutingTable tested = new EnactmentSpecification(new EnactmentGraph(), graph,
+        new MappingsConcurrent(), "spec").getRoutings();
+    assertSame(tested, graph.getRoutingTable());
+    assertEquals(0, tested.getCost(r0, r0));
+    assertTrue(tested.getRoute(r0, r0).isEmpty());
+    assertEquals(3, tested.getCost(r0, r3));
+    assertEquals(3, tested.getCost(r3, r0));
+    assertEquals(l01, tested.getNextHop(r0, r3));
+    assertEquals(3, tested.getRoute(r0, r3).size());
+    assertEquals(List.of(l12, l01), tested.getRoute(r2, r0));
+    assertFalse(tested.isReachable(r0, isolated));
+    assertNull(tested.getNextHop(r0, isolated));
+    assertThrows(IllegalArgumentException.class, () -> tested.getRoute(r0, isolated));
+    assertThrows(IllegalArgumentException.class,
+        () -> tested.getCost(r0, new Resource("unknown")));
+
+    // removing a link on a cheapest route
+    graph.removeEdge(l12);
+    assertEquals(6, tested.getCost(r0, r3));
+    assertEquals(List.of(l02), tested.getRoute(r0, r2));
+    assertEquals(6, tested.getCost(r1, r2));
+
+    // adding a shortcut
+    Resource r4 = new Resource("r4");
+    Link l14 = addLink(graph, r1, r4, 1);
+    Link l43 = addLink(graph, r4, r3, 1);
+    assertEquals(3, tested.getCost(r0, r3));
+    assertEquals(List.of(l01, l14, l43), tested.getRoute(r0, r3));
+    assertEquals(3, tested.getCost(r1, r2));
+
+    // removing a resource with its links
+    graph.removeVertex(r4);
+    assertEquals(6, tested.getCost(r0, r3));
+    assertThrows(IllegalArgumentException.class, () -> tested.getCost(r0, r4));
+    assertEquals(0, tested.getCost(isolated, isolated));
+    assertFalse(tested.isReachable(isolated, r3));
+
+    // changed estimates are applied on refresh
+    PropertyServiceLink.setTransferTimeEstimate(l02, 0.5);
+    assertEquals(6, tested.getCost(r0, r3));
+    tested.refresh();
+    assertEquals(1.5, tested.getCost(r0, r3));
+  }
+
+  @Test
+  void testDirectedLinksAndGrowth() {
+    ResourceGraph graph = new ResourceGraph();
+    Resource first = new Resource("r0");
+    graph.addVertex(first);
+    RoutingTable tested = graph.getRoutingTable();
+    Resource previous = first;
+    for (int idx = 1; idx < 40; idx++) {
+      Resource next = new Resource("r" + idx);
+      graph.addEdge(new Link("l" + idx), previous, next, EdgeType.DIRECTED);
+      previous = next;
+    }
+    assertEquals(39, tested.getCost(first, previous));
+    assertFalse(tested.isReachable(previous, first));
+    assertEquals(39, tested.getRoute(first, previous).size());
+    // table built from scratch gives the same costs
+    RoutingTable rebuilt = new RoutingTable(graph.snapshot());
+    for (Resource src : graph.getVertices()) {
+      for (Resource dst : graph.getVertices()) {
+        assertEquals(rebuilt.getCost(src, dst), tested.getCost(src, dst));
+      }
+    }
+  }
+
+  @Test
+  void testQueriesDuringUpdate() throws Exception {
+    ResourceGraph graph = new ResourceGraph();
+    Resource r0 = new Resource("r0");
+    Resource r1 = new Resource("r1");
+    addLink(graph, r0, r1, 2);
+    RoutingTable tested = graph.getRoutingTable();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // the queries read the published routes while an update holds the table
+      synchronized (tested) {
+        Future<Double> cost = executor.submit(() -> tested.getCost(r0, r1));
+        assertEquals(2.0, cost.get(5, TimeUnit.SECONDS).doubleValue());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  protected static Link addLink(ResourceGraph graph, Resource src, Resource dst, double cost) {
+    Link link = new Link(src.getId() + "-" + dst.getId());
+    PropertyServiceLink.setTransferTimeEstimate(link, cost);
+    graph.addEdge(link, src, dst, EdgeType.UNDIRECTED);
+    return link;
+  }
+}
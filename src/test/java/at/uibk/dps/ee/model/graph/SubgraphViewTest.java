@@ -0,0 +1,91 @@
+package at.uibk.dps.ee.model.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+class SubgraphViewTest {
+
+  @Test
+  void testMemberSetView() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Task outside = new Task("outside");
+    Dependency d1 = new Dependency("d1");
+    Dependency d2 = new Dependency("d2");
+    Dependency d3 = new Dependency("d3");
+    graph.addEdge(d1, t1, t2, EdgeType.DIRECTED);
+    graph.addEdge(d2, t2, t3, EdgeType.DIRECTED);
+    graph.addEdge(d3, t3, outside, EdgeType.DIRECTED);
+    SubgraphView<Task, Dependency> tested =
+        new SubgraphView<>(graph, Arrays.asList(t1, t2, t3));
+    assertEquals(3, tested.getVertexCount());
+    assertEquals(2, tested.getEdgeCount());
+    assertEquals(new HashSet<>(Arrays.asList(d1, d2)), new HashSet<>(tested.getEdges()));
+    assertTrue(tested.containsVertex("t1"));
+    assertFalse(tested.containsVertex("outside"));
+    assertFalse(tested.containsEdge("d3"));
+    assertEquals(0, tested.outDegree(t3));
+    assertTrue(tested.getOutEdges(t3).isEmpty());
+    assertEquals(1, tested.inDegree(t3));
+    assertTrue(tested.getSuccessors(t3).isEmpty());
+    assertEquals(Collections.singleton(t1), tested.getPredecessors(t2));
+    assertThrows(IllegalArgumentException.class, () -> tested.getSource(d3));
+    assertTrue(tested.getInEdges(outside).isEmpty());
+    assertNull(tested.getEdgeType(d3));
+    assertThrows(IllegalArgumentException.class, () -> tested.getEdge("d3"));
+    assertThrows(IllegalStateException.class, () -> tested.getVertex("outside"));
+    // the view is live
+    graph.removeVertex(t1);
+    assertEquals(2, tested.getVertexCount());
+    assertEquals(1, tested.getEdgeCount());
+  }
+
+  @Test
+  void testPredicateView() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task a1 = new Task("a1");
+    Task a2 = new Task("a2");
+    Task b1 = new Task("b1");
+    graph.addEdge(new Dependency("d1"), a1, b1, EdgeType.DIRECTED);
+    graph.addEdge(new Dependency("d2"), b1, a2, EdgeType.DIRECTED);
+    graph.addEdge(new Dependency("d3"), a1, a2, EdgeType.DIRECTED);
+    SubgraphView<Task, Dependency> tested =
+        new SubgraphView<>(graph, task -> task.getId().startsWith("a"));
+    assertEquals(2, tested.getVertexCount());
+    assertEquals(1, tested.getEdgeCount());
+    assertEquals(graph.getEdge("d3"), tested.findEdge(a1, a2));
+    Task a3 = new Task("a3");
+    graph.addEdge(new Dependency("d4"), a2, a3, EdgeType.DIRECTED);
+    assertEquals(3, tested.getVertexCount());
+    assertEquals(2, tested.getEdgeCount());
+  }
+
+  @Test
+  void testRegion() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task in1 = new Task("in1");
+    Task in2 = new Task("in2");
+    Task in3 = new Task("in3");
+    Task out1 = new Task("out1");
+    Task in4 = new Task("in4");
+    graph.addEdge(new Dependency("d1"), in1, in2, EdgeType.DIRECTED);
+    graph.addEdge(new Dependency("d2"), in3, in2, EdgeType.DIRECTED);
+    graph.addEdge(new Dependency("d3"), in2, out1, EdgeType.DIRECTED);
+    // only reachable via a non-member
+    graph.addEdge(new Dependency("d4"), out1, in4, EdgeType.DIRECTED);
+    SubgraphView<Task, Dependency> tested = SubgraphView.ofRegion(graph,
+        Collections.singleton(in1), task -> task.getId().startsWith("in"));
+    Set<Task> expected = new HashSet<>(Arrays.asList(in1, in2, in3));
+    assertEquals(expected, new HashSet<>(tested.getVertices()));
+    assertEquals(2, tested.getEdgeCount());
+  }
+}
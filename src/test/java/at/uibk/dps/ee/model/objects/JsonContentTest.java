@@ -0,0 +1,43 @@
+package at.uibk.dps.ee.model.objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.junit.jupiter.api.Test;
+import com.google.gson.JsonObject;
+
+public class JsonContentTest {
+
+  @Test
+  public void testStringForm() {
+    JsonObject json = new JsonObject();
+    json.addProperty("key", 42);
+    JsonContent tested = new JsonContent(json);
+    assertNotSame(json, tested.getJson());
+    assertFalse(tested.isSerialized());
+    assertEquals("{\"key\":42}", tested.toString());
+    assertTrue(tested.isSerialized());
+    assertEquals(tested, new JsonContent(tested.toString()));
+    assertEquals(tested.hashCode(), new JsonContent(tested.toString()).hashCode());
+  }
+
+  @Test
+  public void testSerialization() throws Exception {
+    JsonObject json = new JsonObject();
+    json.addProperty("key", "value");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(new JsonContent(json));
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      JsonContent read = (JsonContent) in.readObject();
+      assertEquals(json, read.getJson());
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package at.uibk.dps.ee.model.persistance;
 
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
@@ -82,4 +84,28 @@ class EnactmentSpecTransformerTest {
     assertEquals(attrValue, (int) result.getAttribute(attrName));
   }
 
+  @Test
+  void testParallelTransformation() {
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      EnactmentSpecification apollo = EnactmentSpecTransformer.toApollo(odseSpec, executor);
+      assertTrue(apollo.getEnactmentGraph().containsVertex(task.getId()));
+      assertTrue(apollo.getResourceGraph().containsVertex(res.getId()));
+      assertEquals(1, apollo.getMappings().mappingStream().count());
+      assertEquals(attrValue, (int) apollo.getAttribute(attrName));
+      Specification odse = EnactmentSpecTransformer.toOdse(apolloSpec, executor);
+      assertTrue(odse.getApplication().getVertex(task.getId()) != null);
+      assertTrue(odse.getArchitecture().getVertex(res.getId()) != null);
+      assertEquals(1, odse.getMappings().getAll().size());
+      assertEquals(attrValue, (int) odse.getAttribute(attrName));
+      EnactmentSpecification concurrent =
+          EnactmentSpecTransformer.toApollo(odseSpec, true, executor);
+      assertTrue(concurrent.getEnactmentGraph().isConcurrentStoreOnly());
+      assertTrue(concurrent.getResourceGraph().isConcurrentStoreOnly());
+      assertTrue(concurrent.getEnactmentGraph().containsVertex(task.getId()));
+      assertTrue(concurrent.getResourceGraph().containsVertex(res.getId()));
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
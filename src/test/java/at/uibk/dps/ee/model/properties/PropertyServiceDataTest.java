@@ -3,7 +3,9 @@ package at.uibk.dps.ee.model.properties;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -130,6 +132,28 @@ public class PropertyServiceDataTest {
     assertEquals(json, PropertyServiceData.getContent(input));
   }
 
+  @Test
+  void testContentParsedOnce() {
+    Task input = new Communication("comm");
+    JsonArray json = new JsonArray();
+    json.add(1);
+    PropertyServiceData.setContent(input, json);
+    // the annotated content is a copy, shared by the read-only readers
+    json.add(2);
+    JsonElement read = PropertyServiceData.getContentReadOnly(input);
+    assertEquals(1, read.getAsJsonArray().size());
+    assertSame(read, PropertyServiceData.getContentReadOnly(input));
+    // modifying the returned copy does not change the node
+    JsonElement copy = PropertyServiceData.getContent(input);
+    assertNotSame(read, copy);
+    copy.getAsJsonArray().add(3);
+    assertEquals(1, PropertyServiceData.getContentReadOnly(input).getAsJsonArray().size());
+    assertEquals(1, PropertyServiceData.getContent(input).getAsJsonArray().size());
+    // content persisted as string before the content objects
+    input.setAttribute(Property.Content.name(), "[1,2]");
+    assertEquals(json, PropertyServiceData.getContent(input));
+  }
+
   @Test
   public void testGetSetAvailabilityContentString() {
     Task input = new Communication("comm");
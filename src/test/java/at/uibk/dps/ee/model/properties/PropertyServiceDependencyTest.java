@@ -109,6 +109,19 @@ public class PropertyServiceDependencyTest {
     assertFalse(PropertyServiceDependency.isTransmissionDone(dep));
   }
 
+  @Test
+  void testParallelEdgeIds() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task function = new Task("function");
+    Task data = new Communication("data");
+    for (int idx = 0; idx < 100; idx++) {
+      PropertyServiceDependency.addDataDependency(function, data, "key" + idx, graph);
+    }
+    assertEquals(100, graph.getEdgeCount());
+    assertTrue(graph.containsEdge("function--data"));
+    assertTrue(graph.containsEdge("function--data'99"));
+  }
+
   @Test
   public void testTransmissionAnnotation() {
     Task task1 = new Task("task");
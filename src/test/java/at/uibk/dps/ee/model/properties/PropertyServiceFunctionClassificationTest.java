@@ -0,0 +1,103 @@
+package at.uibk.dps.ee.model.properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow.DataFlowType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtility.UtilityType;
+import at.uibk.dps.ee.model.utils.UtilsCopy;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Task;
+
+class PropertyServiceFunctionClassificationTest {
+
+  @Test
+  void testMaskAnnotatedOnTyping() {
+    Task aggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggr", OperationType.Aggregation, "scope");
+    assertEquals(
+        PropertyServiceFunctionClassification.maskOf(UsageType.DataFlow,
+            DataFlowType.Collections, OperationType.Aggregation),
+        PropertyServiceFunctionClassification.getMask(aggregation));
+    // transient, never part of the (persisted) attributes
+    assertNull(aggregation.getAttribute("Classification"));
+    assertTrue(PropertyServiceFunctionDataFlowCollections.isAggregationNode(aggregation));
+    assertFalse(PropertyServiceFunctionDataFlowCollections.isDistributionNode(aggregation));
+    assertFalse(PropertyServiceFunctionDataFlow.isMultiplexerNode(aggregation));
+    assertFalse(PropertyServiceFunctionUtilityWhile.isWhileEndTask(aggregation));
+
+    Task whileStart = new Task("whileStart");
+    Task whileEnd =
+        PropertyServiceFunctionUtilityWhile.createWhileEndTask(whileStart, new Task("counter"));
+    assertTrue(PropertyServiceFunctionUtilityWhile.isWhileEndTask(whileEnd));
+    assertFalse(PropertyServiceFunctionDataFlowCollections.isAggregationNode(whileEnd));
+  }
+
+  @Test
+  void testRetyping() {
+    Task task = PropertyServiceFunctionDataFlow.createDataFlowFunction("task",
+        DataFlowType.Multiplexer);
+    assertTrue(PropertyServiceFunctionDataFlow.isMultiplexerNode(task));
+    PropertyServiceFunction.setUsageType(UsageType.Utility, task);
+    assertFalse(PropertyServiceFunctionDataFlow.isMultiplexerNode(task));
+    PropertyServiceFunctionUtility.setUtilityType(task, UtilityType.While);
+    assertTrue(PropertyServiceFunctionUtilityWhile.isWhileEndTask(task));
+  }
+
+  @Test
+  void testWithoutAnnotatedMask() {
+    Task task = new Task("task");
+    assertEquals(0, PropertyServiceFunctionClassification.getMask(task));
+    assertFalse(PropertyServiceFunctionDataFlow.isMultiplexerNode(task));
+    // typed via the attributes, e.g., by a spec written before the masks
+    task.setAttribute("UsageType", UsageType.DataFlow.name());
+    task.setAttribute("DataFlowType", DataFlowType.Multiplexer.name());
+    assertTrue(PropertyServiceFunctionDataFlow.isMultiplexerNode(task));
+    assertEquals(0, PropertyServiceFunctionClassification.getMask(new Communication("data")));
+    assertThrows(IllegalArgumentException.class,
+        () -> PropertyServiceFunctionClassification.maskOf(Thread.State.NEW));
+  }
+
+  @Test
+  void testDirectRetyping() {
+    Task task = PropertyServiceFunctionDataFlow.createDataFlowFunction("task",
+        DataFlowType.Multiplexer);
+    Task copy = new Task("task");
+    copy.setAttribute("UsageType", UsageType.Utility.name());
+    copy.setAttribute("UtilityType", UtilityType.While.name());
+    // copies with the same ID do not share the cached mask
+    assertTrue(PropertyServiceFunctionDataFlow.isMultiplexerNode(task));
+    assertTrue(PropertyServiceFunctionUtilityWhile.isWhileEndTask(copy));
+    task.setAttribute("UsageType", UsageType.Utility.name());
+    task.setAttribute("UtilityType", UtilityType.While.name());
+    PropertyServiceFunctionClassification.invalidate(task);
+    assertFalse(PropertyServiceFunctionDataFlow.isMultiplexerNode(task));
+    assertTrue(PropertyServiceFunctionUtilityWhile.isWhileEndTask(task));
+  }
+
+  @Test
+  void testMaskStoredOnAttach() {
+    // typed via the attributes, e.g., read from a file
+    Task task = new Task("task");
+    task.setAttribute("UsageType", UsageType.DataFlow.name());
+    task.setAttribute("DataFlowType", DataFlowType.Collections.name());
+    task.setAttribute("OperationType", OperationType.Distribution.name());
+    int expected = PropertyServiceFunctionClassification.maskOf(UsageType.DataFlow,
+        DataFlowType.Collections, OperationType.Distribution);
+    assertNull(PropertySlots.get(task));
+    assertEquals(expected, PropertyServiceFunctionClassification.getMask(task));
+    assertEquals(expected, PropertySlots.attach(task).classification);
+    Task copy = UtilsCopy.deepCopyTask(task);
+    assertNotSame(PropertySlots.get(task), PropertySlots.get(copy));
+    assertEquals(expected, PropertySlots.get(copy).classification);
+    assertTrue(PropertyServiceFunctionDataFlowCollections.isDistributionNode(copy));
+    // unknown types are rejected on classification, not when attaching
+    Task unknown = new Task("unknown");
+    unknown.setAttribute("UsageType", "unknown");
+    assertEquals(PropertySlots.unknownClassification,
+        PropertySlots.attach(unknown).classification);
+    assertThrows(IllegalArgumentException.class,
+        () -> PropertyServiceFunctionClassification.getMask(unknown));
+  }
+}
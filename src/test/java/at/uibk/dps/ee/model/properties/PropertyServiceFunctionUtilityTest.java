@@ -2,6 +2,7 @@ package at.uibk.dps.ee.model.properties;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
@@ -72,5 +73,10 @@ public class PropertyServiceFunctionUtilityTest {
     assertEquals(3, graph.getVertexCount());
     Task seq = graph.getSuccessors(dataFirst).iterator().next();
     assertEquals(UtilityType.Sequelizer, PropertyServiceFunctionUtility.getUtilityType(seq));
+    // repeated calls reuse the node
+    assertSame(seq,
+        PropertyServiceFunctionUtility.addSequelizerNode(dataFirst, dataSecond, graph));
+    assertEquals(3, graph.getVertexCount());
+    assertEquals(2, graph.getEdgeCount());
   }
 }
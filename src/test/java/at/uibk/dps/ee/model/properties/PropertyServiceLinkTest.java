@@ -23,5 +23,8 @@ public class PropertyServiceLinkTest {
     Link link = resGraph.getIncidentEdges(res1).iterator().next();
     assertEquals(expectedId, link.getId());
     assertEquals(link, resGraph.getIncidentEdges(res2).iterator().next());
+    // repeated calls do not add further links
+    PropertyServiceLink.connectResources(resGraph, res1, res2);
+    assertEquals(1, resGraph.getEdgeCount());
   }
 }
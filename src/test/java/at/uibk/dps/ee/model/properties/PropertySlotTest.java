@@ -0,0 +1,105 @@
+package at.uibk.dps.ee.model.properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.NodeType;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.Property;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency.TypeDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+class PropertySlotTest {
+
+  @Test
+  void testExportedAttributes() {
+    Task data = new Communication("data");
+    PropertyServiceData.setNodeType(data, NodeType.Constant);
+    PropertyServiceData.makeRoot(data);
+    assertNotNull(PropertySlots.get(data));
+    assertEquals(NodeType.Constant.name(), data.getAttribute(Property.NodeType.name()));
+    assertEquals(true, data.getAttribute(Property.Root.name()));
+    assertEquals(NodeType.Constant, PropertyServiceData.getNodeType(data));
+    assertTrue(PropertyServiceData.isRoot(data));
+    assertFalse(PropertyServiceData.isLeaf(data));
+
+    Task aggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggr", OperationType.Aggregation, "scope");
+    PropertyServiceFunctionDataFlowCollections.setIterationNumber(aggregation, 3);
+    assertEquals(3, aggregation.getAttribute("IterationNumber"));
+    assertEquals(3, PropertyServiceFunctionDataFlowCollections.getIterationNumber(aggregation));
+  }
+
+  @Test
+  void testReadWithoutRecord() {
+    Dependency dep = new Dependency("dep");
+    dep.setAttribute(PropertyServiceDependency.Property.Type.name(),
+        TypeDependency.Data.name());
+    dep.setAttribute(PropertyServiceDependency.Property.TransmissionDone.name(), true);
+    assertEquals(TypeDependency.Data, PropertyServiceDependency.getType(dep));
+    assertTrue(PropertyServiceDependency.isTransmissionDone(dep));
+    assertFalse(PropertyServiceDependency.isDataConsumed(dep));
+    // reads do not create records
+    assertNull(PropertySlots.get(dep));
+    assertNull(dep.getAttribute(PropertySlots.attributeName));
+  }
+
+  @Test
+  void testAttach() {
+    Task data = new Communication("data");
+    data.setAttribute(Property.NodeType.name(), NodeType.Decision.name());
+    data.setAttribute(Property.Leaf.name(), true);
+    data.setAttribute(Property.DataType.name(), "unknown");
+    PropertySlots record = PropertySlots.attach(data);
+    assertSame(record, PropertySlots.attach(data));
+    assertEquals(NodeType.Decision, PropertyServiceData.getNodeType(data));
+    assertTrue(PropertyServiceData.isLeaf(data));
+    // values which cannot be decoded are read (and rejected) as before
+    assertThrows(IllegalArgumentException.class, () -> PropertyServiceData.getDataType(data));
+  }
+
+  @Test
+  void testInheritedValues() {
+    Task parent = new Communication("parent");
+    PropertyServiceData.setNodeType(parent, NodeType.Constant);
+    Task offspring = new Communication("offspring");
+    offspring.setParent(parent);
+    PropertyServiceData.makeLeaf(offspring);
+    assertEquals(NodeType.Constant, PropertyServiceData.getNodeType(offspring));
+    PropertyServiceData.setNodeType(parent, NodeType.Decision);
+    assertEquals(NodeType.Decision, PropertyServiceData.getNodeType(offspring));
+    PropertyServiceData.setNodeType(offspring, NodeType.Sequentiality);
+    assertEquals(NodeType.Sequentiality, PropertyServiceData.getNodeType(offspring));
+    assertEquals(NodeType.Decision, PropertyServiceData.getNodeType(parent));
+  }
+
+  @Test
+  void testCopiedRecordIgnored() {
+    Task original = new Task("task");
+    PropertyServiceFunction.setUsageType(UsageType.User, original);
+    Task copy = new Task("task");
+    original.getAttributeNames()
+        .forEach(attrName -> copy.setAttribute(attrName, original.getAttribute(attrName)));
+    assertNull(PropertySlots.get(copy));
+    PropertyServiceFunction.setUsageType(UsageType.Utility, copy);
+    assertNotSame(PropertySlots.get(original), PropertySlots.get(copy));
+    assertEquals(UsageType.User, PropertyServiceFunction.getUsageType(original));
+    assertEquals(UsageType.Utility, PropertyServiceFunction.getUsageType(copy));
+  }
+
+  @Test
+  void testInvalidate() {
+    Dependency dep = new Dependency("dep");
+    PropertyServiceDependency.setExtractionDone(dep);
+    // direct changes are not seen by the record
+    dep.setAttribute(PropertyServiceDependency.Property.ExtractionDone.name(), false);
+    assertTrue(PropertyServiceDependency.isExtractionDone(dep));
+    PropertySlots.invalidate(dep);
+    assertNull(PropertySlots.get(dep));
+    assertFalse(PropertyServiceDependency.isExtractionDone(dep));
+    assertTrue(PropertySlots.isRecordAttribute(PropertySlots.attributeName));
+    assertFalse(PropertySlots.isRecordAttribute(Property.Root.name()));
+  }
+}
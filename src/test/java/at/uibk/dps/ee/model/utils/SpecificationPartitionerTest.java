@@ -0,0 +1,116 @@
+package at.uibk.dps.ee.model.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.EnactmentSpecification;
+import at.uibk.dps.ee.model.graph.MappingsConcurrent;
+import at.uibk.dps.ee.model.graph.ResourceGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceMapping;
+import at.uibk.dps.ee.model.properties.PropertyServiceMapping.EnactmentMode;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+class SpecificationPartitionerTest {
+
+  @Test
+  void testIndependentChains() {
+    EnactmentGraph eGraph = new EnactmentGraph();
+    ResourceGraph rGraph = new ResourceGraph();
+    Resource res = new Resource("res");
+    rGraph.addVertex(res);
+    MappingsConcurrent mappings = new MappingsConcurrent();
+    for (int chain = 0; chain < 2; chain++) {
+      Task data = new Communication("in" + chain);
+      for (int idx = 0; idx < 50; idx++) {
+        Task function = new Task("f" + chain + "_" + idx);
+        PropertyServiceFunction.annotateNonNegligibleWorkload(function);
+        Task out = new Communication("d" + chain + "_" + idx);
+        PropertyServiceDependency.addDataDependency(data, function, "in", eGraph);
+        PropertyServiceDependency.addDataDependency(function, out, "out", eGraph);
+        mappings.addMapping(
+            PropertyServiceMapping.createMapping(function, res, EnactmentMode.Local, "impl"));
+        data = out;
+      }
+    }
+    EnactmentSpecification spec = new EnactmentSpecification(eGraph, rGraph, mappings, "spec");
+    SpecificationPartitioner tested = new SpecificationPartitioner(2, 0.1);
+    Map<String, Integer> parts = tested.computeParts(spec);
+    assertEquals(202, parts.size());
+    assertEquals(0, getCut(eGraph, parts));
+    // both parts get one of the chains
+    for (int idx = 0; idx < 50; idx++) {
+      assertEquals(parts.get("f0_0"), parts.get("f0_" + idx));
+      assertEquals(parts.get("f1_0"), parts.get("f1_" + idx));
+    }
+    assertNotEquals(parts.get("f0_0"), parts.get("f1_0"));
+  }
+
+  @Test
+  void testPartSpecs() {
+    EnactmentGraph eGraph = new EnactmentGraph();
+    ResourceGraph rGraph = new ResourceGraph();
+    Resource res = new Resource("res");
+    rGraph.addVertex(res);
+    MappingsConcurrent mappings = new MappingsConcurrent();
+    Task data = new Communication("in");
+    int functionNum = 400;
+    for (int idx = 0; idx < functionNum; idx++) {
+      Task function = new Task("f" + idx);
+      PropertyServiceFunction.annotateNonNegligibleWorkload(function);
+      Task out = new Communication("d" + idx);
+      PropertyServiceDependency.addDataDependency(data, function, "in", eGraph);
+      PropertyServiceDependency.addDataDependency(function, out, "out", eGraph);
+      mappings.addMapping(
+          PropertyServiceMapping.createMapping(function, res, EnactmentMode.Local, "impl"));
+      data = out;
+    }
+    EnactmentSpecification spec = new EnactmentSpecification(eGraph, rGraph, mappings, "spec");
+    SpecificationPartitioner tested = new SpecificationPartitioner(4, 0.1);
+    Map<String, Integer> parts = tested.computeParts(spec);
+    // a chain cut into 4 balanced pieces needs at least 3 cut edges
+    assertTrue(getCut(eGraph, parts) <= 6);
+    List<EnactmentSpecification> partSpecs = tested.partition(spec);
+    assertEquals(4, partSpecs.size());
+    int ownFunctions = 0;
+    int boundaryNodes = 0;
+    for (EnactmentSpecification partSpec : partSpecs) {
+      EnactmentGraph partGraph = partSpec.getEnactmentGraph();
+      long functions = partGraph.getVertices().stream()
+          .filter(node -> !(node instanceof Communication)).count();
+      assertTrue(functions <= Math.ceil(functionNum / 4.0 * 1.1));
+      ownFunctions += functions;
+      for (Task node : partGraph.getVertices()) {
+        assertNotSame(eGraph.getVertex(node.getId()), node);
+        if (node instanceof Communication && PropertyServiceData.isBoundary(node)) {
+          boundaryNodes++;
+        } else if (!(node instanceof Communication)) {
+          assertEquals(1, partSpec.getMappings().getMappings(node).size());
+        }
+      }
+    }
+    assertEquals(functionNum, ownFunctions);
+    // each cut data node is a boundary node in both of the parts
+    assertTrue(boundaryNodes >= 6);
+    assertFalse(PropertyServiceData.isBoundary(eGraph.getVertex("d0")));
+  }
+
+  @Test
+  void testWrongInput() {
+    assertThrows(IllegalArgumentException.class, () -> new SpecificationPartitioner(0, 0.1));
+    assertThrows(IllegalArgumentException.class, () -> new SpecificationPartitioner(2, -1));
+  }
+
+  protected static int getCut(EnactmentGraph graph, Map<String, Integer> parts) {
+    return (int) graph.getEdges().stream()
+        .filter(edge -> !parts.get(graph.getSource(edge).getId())
+            .equals(parts.get(graph.getDest(edge).getId())))
+        .count();
+  }
+}
@@ -0,0 +1,165 @@
+package at.uibk.dps.ee.model.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.EnactmentSpecification;
+import at.uibk.dps.ee.model.graph.MappingsConcurrent;
+import at.uibk.dps.ee.model.graph.ResourceGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency.TypeDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import at.uibk.dps.ee.model.properties.PropertyServiceMapping;
+import at.uibk.dps.ee.model.properties.PropertyServiceMapping.EnactmentMode;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+class StructuralFingerprintTest {
+
+  @Test
+  void testEqualStructures() {
+    EnactmentSpecification first = createSpec(20, "res");
+    EnactmentSpecification second = createSpec(20, "res");
+    assertEquals(StructuralFingerprint.compute(first), StructuralFingerprint.compute(second));
+    assertNotEquals(StructuralFingerprint.compute(first),
+        StructuralFingerprint.compute(createSpec(21, "res")));
+    assertNotEquals(StructuralFingerprint.compute(first),
+        StructuralFingerprint.compute(createSpec(20, "other")));
+    assertEquals(StructuralFingerprint.compute(first),
+        new StructuralFingerprint(first).getFingerprint());
+  }
+
+  @Test
+  void testDependencyIdsIgnored() {
+    EnactmentSpecification allocated = createSpec(3, "res");
+    EnactmentGraph graph = new EnactmentGraph();
+    Task[] data = new Task[4];
+    data[0] = new Communication("in");
+    for (int idx = 0; idx < 3; idx++) {
+      data[idx + 1] = new Communication("d" + idx);
+    }
+    for (int idx = 2; idx >= 0; idx--) {
+      // other IDs than the allocated ones, added in the reverse order
+      Task function = new Task("f" + idx);
+      PropertyServiceFunction.annotateNonNegligibleWorkload(function);
+      graph.addEdge(createDataEdge("custom-in" + idx, "in"), data[idx], function,
+          EdgeType.DIRECTED);
+      graph.addEdge(createDataEdge("custom-out" + idx, "out"), function, data[idx + 1],
+          EdgeType.DIRECTED);
+    }
+    EnactmentSpecification custom = new EnactmentSpecification(graph,
+        allocated.getResourceGraph(), allocated.getMappings(), "spec");
+    assertEquals(StructuralFingerprint.compute(allocated), StructuralFingerprint.compute(custom));
+    PropertyServiceDependency.setJsonKey(graph.getEdge("custom-in1"), "other");
+    assertNotEquals(StructuralFingerprint.compute(allocated),
+        StructuralFingerprint.compute(custom));
+  }
+
+  @Test
+  void testRuntimeAttributesIgnored() {
+    EnactmentSpecification spec = createSpec(5, "res");
+    long before = StructuralFingerprint.compute(spec);
+    EnactmentGraph graph = spec.getEnactmentGraph();
+    PropertyServiceData.setContent(graph.getVertex("d2"), new JsonPrimitive(42));
+    graph.getInEdges(graph.getVertex("f3"))
+        .forEach(PropertyServiceDependency::annotateFinishedTransmission);
+    assertEquals(before, StructuralFingerprint.compute(spec));
+    PropertyServiceData.makeRoot(graph.getVertex("d2"));
+    assertNotEquals(before, StructuralFingerprint.compute(spec));
+  }
+
+  @Test
+  void testCollectionStateIgnored() {
+    EnactmentSpecification spec = createSpec(5, "res");
+    EnactmentGraph graph = spec.getEnactmentGraph();
+    Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    Task aggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggregation", OperationType.Aggregation, "scope");
+    graph.addVertex(distribution);
+    graph.addVertex(aggregation);
+    long before = StructuralFingerprint.compute(spec);
+    PropertyServiceFunctionDataFlowCollections.setIterationNumber(distribution, 3);
+    PropertyServiceFunctionDataFlowCollections.setFinished(aggregation, true);
+    assertEquals(before, StructuralFingerprint.compute(spec));
+  }
+
+  @Test
+  void testIncrementalUpdates() {
+    EnactmentSpecification spec = createSpec(5, "res");
+    StructuralFingerprint tested = new StructuralFingerprint(spec);
+    long initial = tested.getFingerprint();
+    EnactmentGraph graph = spec.getEnactmentGraph();
+
+    // edge and vertex changes
+    Task extra = new Task("extra");
+    Dependency edge =
+        PropertyServiceDependency.addDataDependency(graph.getVertex("d4"), extra, "in", graph);
+    assertEquals(StructuralFingerprint.compute(spec), tested.getFingerprint());
+    assertNotEquals(initial, tested.getFingerprint());
+    graph.removeEdge(edge);
+    graph.removeVertex(extra);
+    assertEquals(initial, tested.getFingerprint());
+
+    // mapping changes
+    Mapping<Task, Resource> mapping = PropertyServiceMapping.createMapping(graph.getVertex("f0"),
+        spec.getResourceGraph().getVertex("res"), EnactmentMode.Serverless, "other");
+    spec.getMappings().addMapping(mapping);
+    assertEquals(StructuralFingerprint.compute(spec), tested.getFingerprint());
+    spec.getMappings().removeMapping(mapping);
+    assertEquals(initial, tested.getFingerprint());
+
+    // attribute changes need a refresh
+    PropertyServiceData.makeLeaf(graph.getVertex("d1"));
+    assertEquals(initial, tested.getFingerprint());
+    tested.refresh();
+    assertEquals(StructuralFingerprint.compute(spec), tested.getFingerprint());
+
+    tested.detach();
+    long detached = tested.getFingerprint();
+    graph.addVertex(new Task("ignored"));
+    assertEquals(detached, tested.getFingerprint());
+  }
+
+  /**
+   * Creates a data dependency with the given ID and JSON key.
+   */
+  protected static Dependency createDataEdge(String edgeId, String jsonKey) {
+    Dependency result = new Dependency(edgeId);
+    PropertyServiceDependency.setType(result, TypeDependency.Data);
+    PropertyServiceDependency.setJsonKey(result, jsonKey);
+    return result;
+  }
+
+  /**
+   * Creates a chain of the given number of functions, all mapped to the
+   * resource with the given ID.
+   */
+  protected static EnactmentSpecification createSpec(int functionNum, String resId) {
+    EnactmentGraph eGraph = new EnactmentGraph();
+    ResourceGraph rGraph = new ResourceGraph();
+    Resource res = new Resource(resId);
+    rGraph.addVertex(res);
+    MappingsConcurrent mappings = new MappingsConcurrent();
+    Task data = new Communication("in");
+    for (int idx = 0; idx < functionNum; idx++) {
+      Task function = new Task("f" + idx);
+      PropertyServiceFunction.annotateNonNegligibleWorkload(function);
+      Task out = new Communication("d" + idx);
+      PropertyServiceDependency.addDataDependency(data, function, "in", eGraph);
+      PropertyServiceDependency.addDataDependency(function, out, "out", eGraph);
+      mappings.addMapping(
+          PropertyServiceMapping.createMapping(function, res, EnactmentMode.Local, "impl"));
+      data = out;
+    }
+    return new EnactmentSpecification(eGraph, rGraph, mappings, "spec");
+  }
+}
@@ -8,10 +8,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import com.google.gson.JsonPrimitive;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.SubgraphView;
 import at.uibk.dps.ee.model.properties.PropertyServiceData;
 import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
 import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceReproduction;
 import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Task;
 
 public class UtilsEnactmentGraphTest {
@@ -72,6 +75,28 @@ public class UtilsEnactmentGraphTest {
     assertTrue(result.contains(input3));
   }
 
+  @Test
+  void testGetReproductionScopeView() {
+    Task t0 = input.getVertex("t0");
+    Task d4 = input.getVertex("d4");
+    Dependency parent = input.findEdge(t0, d4);
+    Task t0Off = PropertyServiceReproduction.createOffspringTask(t0, "scope", "t0+");
+    Task d4Off = PropertyServiceReproduction.createOffspringTask(d4, "scope", "d4+");
+    Task otherOff = PropertyServiceReproduction.createOffspringTask(d4, "other", "d4++");
+    PropertyServiceReproduction.addDataDependencyOffspring(input1, t0Off, "bla", input, parent,
+        "scope");
+    PropertyServiceReproduction.addDataDependencyOffspring(t0Off, d4Off, "bla", input, parent,
+        "scope");
+    PropertyServiceReproduction.addDataDependencyOffspring(t0Off, otherOff, "bla", input,
+        parent, "other");
+    SubgraphView<Task, Dependency> view =
+        UtilsEnactmentGraph.getReproductionScopeView(input, d4Off);
+    assertEquals(2, view.getVertexCount());
+    assertTrue(view.containsVertex("t0+"));
+    assertTrue(view.containsVertex("d4+"));
+    assertEquals(1, view.getEdgeCount());
+  }
+
 
 
 }
@@ -0,0 +1,109 @@
+package at.uibk.dps.ee.model.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.EnactmentSpecification;
+import at.uibk.dps.ee.model.graph.MappingsConcurrent;
+import at.uibk.dps.ee.model.graph.ResourceGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.Property;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceMapping;
+import at.uibk.dps.ee.model.properties.PropertyServiceMapping.EnactmentMode;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+class UtilsMemoryFootprintTest {
+
+  @Test
+  void testEstimate() {
+    EnactmentSpecification spec = createSpec(100);
+    MemoryFootprint tested = UtilsMemoryFootprint.estimate(spec, 1.0, 3);
+    assertEquals(1.0, tested.getSampleRate());
+    assertTrue(tested.getBytesPerElementKind().get("Task") > 0);
+    assertTrue(tested.getBytesPerElementKind().get("Communication") > 0);
+    assertTrue(tested.getBytesPerElementKind().get("Dependency") > 0);
+    assertTrue(tested.getBytesPerElementKind().get("Mapping") > 0);
+    assertTrue(tested.getBytesPerElementKind().get("Resource") > 0);
+    // the large contents dominate the data nodes
+    assertTrue(tested.getBytesPerAttribute().get(Property.Content.name()) > 100 * 1000);
+    assertEquals(List.of("d99", "d98", "d97"),
+        new ArrayList<>(tested.getLargestContents().keySet()));
+    assertTrue(tested.getConcurrentMapBytes() > 0);
+    long kindSum =
+        tested.getBytesPerElementKind().values().stream().mapToLong(Long::longValue).sum();
+    assertEquals(kindSum + tested.getConcurrentMapBytes(), tested.getTotalBytes());
+
+    JsonObject json = tested.toJson();
+    assertEquals(tested.getTotalBytes(), json.get("totalBytes").getAsLong());
+    assertEquals(3, json.get("largestContents").getAsJsonArray().size());
+    assertTrue(tested.toReport().contains("d99"));
+  }
+
+  @Test
+  void testSampling() {
+    EnactmentSpecification spec = createSpec(400);
+    MemoryFootprint full = UtilsMemoryFootprint.estimate(spec);
+    MemoryFootprint sampled = UtilsMemoryFootprint.estimate(spec, 0.25, 3);
+    assertEquals(0.25, sampled.getSampleRate());
+    assertEquals(full.getConcurrentMapBytes(), sampled.getConcurrentMapBytes());
+    double ratio = (double) sampled.getTotalBytes() / full.getTotalBytes();
+    assertTrue(ratio > 0.8 && ratio < 1.2);
+    // the contents are walked completely
+    assertEquals(full.getBytesPerAttribute().get(Property.Content.name()),
+        sampled.getBytesPerAttribute().get(Property.Content.name()));
+    assertEquals(List.of("d399", "d398", "d397"),
+        new ArrayList<>(sampled.getLargestContents().keySet()));
+  }
+
+  @Test
+  void testEstimateValue() {
+    assertEquals(0, UtilsMemoryFootprint.estimateValue(true));
+    assertEquals(16, UtilsMemoryFootprint.estimateValue(1));
+    assertEquals(24, UtilsMemoryFootprint.estimateValue(1L));
+    assertEquals(24 + 24, UtilsMemoryFootprint.estimateValue("abcd"));
+    // two bytes per char outside of Latin-1
+    assertEquals(24 + 32, UtilsMemoryFootprint.estimateValue("\u4e2d".repeat(8)));
+    assertTrue(UtilsMemoryFootprint.estimateValue(new JsonPrimitive("abcd")) > 48);
+  }
+
+  @Test
+  void testWrongInput() {
+    EnactmentSpecification spec = createSpec(1);
+    assertThrows(IllegalArgumentException.class,
+        () -> UtilsMemoryFootprint.estimate(spec, 0, 3));
+    assertThrows(IllegalArgumentException.class,
+        () -> UtilsMemoryFootprint.estimate(spec, 1.5, 3));
+    assertThrows(IllegalArgumentException.class,
+        () -> UtilsMemoryFootprint.estimate(spec, 0.5, -1));
+  }
+
+  /**
+   * Creates a chain of functions whose output contents grow with their index.
+   */
+  protected static EnactmentSpecification createSpec(int functionNum) {
+    EnactmentGraph eGraph = new EnactmentGraph();
+    ResourceGraph rGraph = new ResourceGraph();
+    Resource res = new Resource("res");
+    rGraph.addVertex(res);
+    MappingsConcurrent mappings = new MappingsConcurrent();
+    Task data = new Communication("in");
+    for (int idx = 0; idx < functionNum; idx++) {
+      Task function = new Task("f" + idx);
+      Task out = new Communication("d" + idx);
+      PropertyServiceData.setContent(out, new JsonPrimitive("x".repeat(1000 + 10 * idx)));
+      PropertyServiceDependency.addDataDependency(data, function, "in", eGraph);
+      PropertyServiceDependency.addDataDependency(function, out, "out", eGraph);
+      mappings.addMapping(
+          PropertyServiceMapping.createMapping(function, res, EnactmentMode.Local, "impl"));
+      data = out;
+    }
+    return new EnactmentSpecification(eGraph, rGraph, mappings, "spec");
+  }
+}
@@ -0,0 +1,121 @@
+package at.uibk.dps.ee.model.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.EnactmentSpecification;
+import at.uibk.dps.ee.model.graph.MappingsConcurrent;
+import at.uibk.dps.ee.model.graph.ResourceGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceLink;
+import at.uibk.dps.ee.model.properties.PropertyServiceMapping;
+import at.uibk.dps.ee.model.properties.PropertyServiceMapping.EnactmentMode;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+public class UtilsSchedulingPriorityTest {
+
+  @Test
+  void testPriorities() {
+    EnactmentGraph eGraph = new EnactmentGraph();
+    Task t0 = new Task("t0");
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Communication d0 = new Communication("d0");
+    Communication d1 = new Communication("d1");
+    Communication d2 = new Communication("d2");
+    PropertyServiceDependency.addDataDependency(d0, t0, "in", eGraph);
+    PropertyServiceDependency.addDataDependency(t0, d1, "out1", eGraph);
+    PropertyServiceDependency.addDataDependency(t0, d2, "out2", eGraph);
+    PropertyServiceDependency.addDataDependency(d1, t1, "in", eGraph);
+    PropertyServiceDependency.addDataDependency(d2, t2, "in", eGraph);
+
+    ResourceGraph rGraph = new ResourceGraph();
+    Resource r0 = new Resource("r0");
+    Resource r1 = new Resource("r1");
+    Link link = new Link("link");
+    PropertyServiceLink.setTransferTimeEstimate(link, 3.0);
+    rGraph.addEdge(link, r0, r1, EdgeType.UNDIRECTED);
+
+    MappingsConcurrent mappings = new MappingsConcurrent();
+    mappings.addMapping(createMapping(t0, r0, 2.0));
+    mappings.addMapping(createMapping(t1, r1, 5.0));
+    mappings.addMapping(createMapping(t2, r0, 1.0));
+    EnactmentSpecification spec = new EnactmentSpecification(eGraph, rGraph, mappings, "spec");
+
+    SchedulingPriorities priorities = UtilsSchedulingPriority.getPriorities(spec);
+    assertEquals(10.0, priorities.getCriticalPathLength());
+    assertEquals(10.0, priorities.getUpwardRank(t0));
+    assertEquals(5.0, priorities.getUpwardRank(t1));
+    assertEquals(1.0, priorities.getUpwardRank(t2));
+    assertEquals(0.0, priorities.getSlack(t0));
+    assertEquals(0.0, priorities.getSlack(t1));
+    assertEquals(7.0, priorities.getSlack(t2));
+    assertEquals(Arrays.asList(t0, t1, t2), priorities.getTasksByPriority());
+    assertSame(priorities, UtilsSchedulingPriority.getPriorities(spec));
+
+    // a second mapping of t1 on r0 halves the mean transfer cost t0 -> t1
+    mappings.addMapping(createMapping(t1, r0, 5.0));
+    SchedulingPriorities updated = UtilsSchedulingPriority.getPriorities(spec);
+    assertNotSame(priorities, updated);
+    assertEquals(8.5, updated.getUpwardRank(t0));
+  }
+
+  @Test
+  void testTransferCostUsesRoutes() {
+    EnactmentGraph eGraph = new EnactmentGraph();
+    Task t0 = new Task("t0");
+    Task t1 = new Task("t1");
+    Communication d0 = new Communication("d0");
+    PropertyServiceDependency.addDataDependency(t0, d0, "out", eGraph);
+    PropertyServiceDependency.addDataDependency(d0, t1, "in", eGraph);
+
+    ResourceGraph rGraph = new ResourceGraph();
+    Resource r0 = new Resource("r0");
+    Resource r1 = new Resource("r1");
+    Resource r2 = new Resource("r2");
+    Resource isolated = new Resource("isolated");
+    Link link01 = new Link("link01");
+    Link link12 = new Link("link12");
+    PropertyServiceLink.setTransferTimeEstimate(link01, 2.0);
+    PropertyServiceLink.setTransferTimeEstimate(link12, 3.0);
+    rGraph.addEdge(link01, r0, r1, EdgeType.UNDIRECTED);
+    rGraph.addEdge(link12, r1, r2, EdgeType.UNDIRECTED);
+    rGraph.addVertex(isolated);
+
+    MappingsConcurrent mappings = new MappingsConcurrent();
+    mappings.addMapping(createMapping(t0, r0, 1.0));
+    mappings.addMapping(createMapping(t1, r2, 1.0));
+    EnactmentSpecification spec = new EnactmentSpecification(eGraph, rGraph, mappings, "spec");
+    // two hops without a direct link
+    assertEquals(5.0, UtilsSchedulingPriority.getTransferCost(t0, t1, spec));
+    assertEquals(7.0, UtilsSchedulingPriority.getPriorities(spec).getUpwardRank(t0));
+    // pairs without a route are left out of the mean
+    mappings.addMapping(createMapping(t1, isolated, 1.0));
+    assertEquals(5.0, UtilsSchedulingPriority.getTransferCost(t0, t1, spec));
+    MappingsConcurrent isolatedOnly = new MappingsConcurrent();
+    isolatedOnly.addMapping(createMapping(t0, r0, 1.0));
+    isolatedOnly.addMapping(createMapping(t1, isolated, 1.0));
+    EnactmentSpecification unroutable =
+        new EnactmentSpecification(eGraph, rGraph, isolatedOnly, "unroutable");
+    // without any routable pair, the transfer cost does not spread into the ranks
+    assertEquals(0.0, UtilsSchedulingPriority.getTransferCost(t0, t1, unroutable));
+    UtilsSchedulingPriority.invalidate(unroutable);
+    assertEquals(2.0, UtilsSchedulingPriority.getPriorities(unroutable).getUpwardRank(t0));
+  }
+
+  protected static Mapping<Task, Resource> createMapping(Task task, Resource res,
+      double estimate) {
+    Mapping<Task, Resource> result =
+        PropertyServiceMapping.createMapping(task, res, EnactmentMode.Local, "impl");
+    PropertyServiceMapping.setExecutionTimeEstimate(result, estimate);
+    return result;
+  }
+}